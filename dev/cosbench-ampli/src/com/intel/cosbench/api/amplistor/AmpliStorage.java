@@ -104,7 +104,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -121,7 +121,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -138,7 +138,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -155,7 +155,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -171,7 +171,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -187,7 +187,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -204,7 +204,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -221,7 +221,7 @@ public class AmpliStorage extends NoneStorage {
         } catch (InterruptedIOException ie) {
             throw new StorageInterruptedException(ie);
         } catch (AmpliException ae) {
-            throw new StorageException(ae.getMessage(), ae);
+            throw new StorageException(ae.getStatusCode(), ae.getMessage(), ae);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -27,12 +27,20 @@ public class AmpliException extends Exception {
 
     private static final long serialVersionUID = 45664980223179L;
 
+    private int statusCode; // 0 if the error is not from a server response
+
     public AmpliException(String message, Header[] httpHeaders,
             StatusLine httpStatusLine) {
         super(message + "\n" + httpHeaders + "\n" + httpStatusLine + "\n");
+        if (httpStatusLine != null)
+            statusCode = httpStatusLine.getStatusCode();
     }
 
     public AmpliException(String message) {
         super(message);
     }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
 }
@@ -17,12 +17,14 @@ limitations under the License.
 
 package com.intel.cosbench.api.auth;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class AuthBadException extends AuthException {
 
     private static final long serialVersionUID = 1L;
 
     public AuthBadException(Throwable cause) {
-        super(cause);
+        super(ErrorCategory.UNAUTHORIZED, cause == null ? null : cause.toString(), cause);
     }
 
 }
@@ -25,4 +25,11 @@ public interface AuthConstants {
     String CACHING_KEY = "caching";
     Boolean CACHING_DEFAULT = Boolean.FALSE;  
 
+    // token lifetime in seconds when the auth mechanism does not tell, 0 means never expire
+    String TTL_KEY = "ttl";
+    Long TTL_DEFAULT = 0L;
+
+    // absolute token expiry (in milliseconds) as reported in an auth context
+    String EXPIRES_KEY = "expires";
+
 }
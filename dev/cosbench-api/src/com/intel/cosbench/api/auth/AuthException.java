@@ -17,20 +17,58 @@ limitations under the License.
 
 package com.intel.cosbench.api.auth;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class AuthException extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
+    private int status; // HTTP-like status code from the back-end, 0 if none
+    private ErrorCategory category;
+
     public AuthException(String message) {
         super(message);
+        init(ErrorCategory.parseStatus(message), null);
     }
 
     public AuthException(Throwable cause) {
         super(cause);
+        init(0, null);
     }
 
     public AuthException(String message, Throwable cause) {
         super(message, cause);
+        init(ErrorCategory.parseStatus(message), null);
+    }
+
+    public AuthException(int status, String message, Throwable cause) {
+        super(message, cause);
+        init(status, null);
+    }
+
+    public AuthException(ErrorCategory category, String message, Throwable cause) {
+        super(message, cause);
+        init(0, category);
+    }
+
+    private void init(int status, ErrorCategory category) {
+        this.status = status;
+        if (category == null)
+            category = status > 0 ? ErrorCategory.of(status) : ErrorCategory
+                    .of(getCause());
+        this.category = category;
+    }
+
+    /**
+     * @return the HTTP-like status code reported by the back-end, or 0 if the
+     *         failure did not come with one
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public ErrorCategory getCategory() {
+        return category;
     }
 
 }
@@ -17,12 +17,14 @@ limitations under the License.
 
 package com.intel.cosbench.api.auth;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class AuthInterruptedException extends AuthException {
 
     private static final long serialVersionUID = 1L;
 
     public AuthInterruptedException(Throwable cause) {
-        super(cause);
+        super(ErrorCategory.INTERRUPTED, cause == null ? null : cause.toString(), cause);
     }
 
 }
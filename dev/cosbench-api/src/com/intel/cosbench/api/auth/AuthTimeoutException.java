@@ -17,12 +17,14 @@ limitations under the License.
 
 package com.intel.cosbench.api.auth;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class AuthTimeoutException extends AuthException {
 
     private static final long serialVersionUID = 1L;
 
     public AuthTimeoutException(Throwable cause) {
-        super(cause);
+        super(ErrorCategory.TIMEOUT, cause == null ? null : cause.toString(), cause);
     }
 
 }
@@ -40,6 +40,7 @@ public class NoneAuth implements AuthAPI {
     /* configurations */
     private boolean logging; // enable logging
     private boolean caching; // enable caching
+    private long ttl; // token lifetime in seconds for caching
 
     public NoneAuth() {
         /* empty */
@@ -52,10 +53,12 @@ public class NoneAuth implements AuthAPI {
         
         logging = config.getBoolean(LOGGING_KEY, LOGGING_DEFAULT);
         caching = config.getBoolean(CACHING_KEY, CACHING_DEFAULT);
+        ttl = config.getLong(TTL_KEY, TTL_DEFAULT);
         
         /* register all parameters */
         parms.put(LOGGING_KEY, logging);
         parms.put(CACHING_KEY, caching);
+        parms.put(TTL_KEY, ttl);
     }
     @Override
     public void init() {
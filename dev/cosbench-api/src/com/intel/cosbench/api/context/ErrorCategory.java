@@ -0,0 +1,95 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.api.context;
+
+import java.io.*;
+
+/**
+ * This enum classifies failures reported by storage and auth adaptors, so that
+ * the execution engine can react on them without parsing exception messages.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public enum ErrorCategory {
+
+    UNKNOWN, CLIENT_ERROR, UNAUTHORIZED, FORBIDDEN, NOT_FOUND, CONFLICT,
+    THROTTLED, SERVER_ERROR, TIMEOUT, INTERRUPTED, NETWORK;
+
+    /**
+     * Classifies an HTTP-like status code, a non-positive one means none.
+     */
+    public static ErrorCategory of(int status) {
+        if (status == 401)
+            return UNAUTHORIZED;
+        if (status == 403)
+            return FORBIDDEN;
+        if (status == 404)
+            return NOT_FOUND;
+        if (status == 409)
+            return CONFLICT;
+        if (status == 429 || status == 503)
+            return THROTTLED;
+        if (status >= 400 && status < 500)
+            return CLIENT_ERROR;
+        if (status >= 500 && status < 600)
+            return SERVER_ERROR;
+        return UNKNOWN;
+    }
+
+    /**
+     * Classifies a failure without status code by its cause.
+     */
+    public static ErrorCategory of(Throwable cause) {
+        for (int depth = 0; cause != null && depth < 8; depth++) {
+            if (cause instanceof InterruptedException
+                    || cause.getClass() == InterruptedIOException.class)
+                return INTERRUPTED;
+            if (cause instanceof InterruptedIOException) // socket timeouts
+                return TIMEOUT;
+            if (cause instanceof IOException)
+                return NETWORK;
+            cause = cause.getCause();
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Extracts the status code from a message starting with an HTTP status
+     * line, e.g. "HTTP/1.1 404 Not Found", which is how some adaptors have been
+     * reporting errors.
+     * 
+     * @return the status code, or 0 if there is none
+     */
+    public static int parseStatus(String message) {
+        if (message == null || !message.startsWith("HTTP/"))
+            return 0;
+        int pos = message.indexOf(' ');
+        if (pos < 0 || message.length() < pos + 4)
+            return 0;
+        int status = 0;
+        for (int i = pos + 1; i < pos + 4; i++) {
+            char c = message.charAt(i);
+            if (c < '0' || c > '9')
+                return 0;
+            status = status * 10 + (c - '0');
+        }
+        return status;
+    }
+
+}
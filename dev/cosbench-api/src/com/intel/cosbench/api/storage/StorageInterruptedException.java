@@ -17,12 +17,14 @@ limitations under the License.
 
 package com.intel.cosbench.api.storage;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class StorageInterruptedException extends StorageException {
 
     private static final long serialVersionUID = 1L;
 
     public StorageInterruptedException(Throwable cause) {
-        super(cause);
+        super(ErrorCategory.INTERRUPTED, cause == null ? null : cause.toString(), cause);
     }
 
 }
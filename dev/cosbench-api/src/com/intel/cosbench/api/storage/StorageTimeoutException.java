@@ -17,12 +17,14 @@ limitations under the License.
 
 package com.intel.cosbench.api.storage;
 
+import com.intel.cosbench.api.context.ErrorCategory;
+
 public class StorageTimeoutException extends StorageException {
 
     private static final long serialVersionUID = 1L;
 
     public StorageTimeoutException(Throwable cause) {
-        super(cause);
+        super(ErrorCategory.TIMEOUT, cause == null ? null : cause.toString(), cause);
     }
 
 }
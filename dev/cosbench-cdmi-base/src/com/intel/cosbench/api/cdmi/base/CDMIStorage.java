@@ -97,7 +97,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -115,7 +115,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -133,7 +133,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -150,7 +150,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -167,7 +167,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
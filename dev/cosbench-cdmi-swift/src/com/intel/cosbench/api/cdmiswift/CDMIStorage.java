@@ -95,7 +95,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiSwiftClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -113,7 +113,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiSwiftClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -131,7 +131,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiSwiftClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -148,7 +148,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiSwiftClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -165,7 +165,7 @@ public class CDMIStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (CdmiSwiftClientException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
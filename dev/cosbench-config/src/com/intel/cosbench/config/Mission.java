@@ -47,6 +47,8 @@ public class Mission implements Iterable<Operation> {
     private long totalBytes = 0;
     private int totalWorkers;
     private String config = "";
+    private String workload; /* id of the workload, only to label metrics */
+    private String stage; /* id of the stage, only to label metrics */
     private Auth auth = DEFAULT_AUTH;
     private Storage storage = DEFAULT_STORAGE;
     private List<Operation> operations;
@@ -194,6 +196,23 @@ public class Mission implements Iterable<Operation> {
         this.config = config;
     }
     
+    public String getWorkload() {
+        return workload;
+    }
+
+    public void setWorkload(String workload) {
+        /* missions submitted by hand belong to no workload */
+        this.workload = workload;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
     public Auth getAuth() {
         return auth;
     }
@@ -0,0 +1,165 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.config;
+
+import java.util.*;
+
+import com.intel.cosbench.config.common.KVConfigParser;
+
+/**
+ * The settings of a "search" work, which is run again and again with more
+ * workers until the storage saturates. They are given in the work config:
+ * 	search.maxWorkers - upper bound of workers, default 64 times the workers
+ * 	search.growth - factor workers are multiplied by at first, default 2
+ * 	search.plateau - throughput gain in percent below which more workers do
+ * 		not pay off, default 10
+ * 	search.percentile, search.latency - the latency SLA, the given percentile
+ * 		of response times must stay within so many milliseconds, none by default
+ * 	search.precision - bisection stops once the interval is within this
+ * 		percent of workers, default 10
+ * The acceptable failure ratio of the work is part of the SLA.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class Search {
+
+    public static final String TYPE = "search";
+
+    private int maxWorkers;
+    private double growth = 2;
+    private double plateau = 10;
+    private double percentile = 99;
+    private long latency = 0;
+    private double precision = 10;
+
+    public Search() {
+        /* empty */
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public void setMaxWorkers(int maxWorkers) {
+        if (maxWorkers <= 0)
+            throw new ConfigException("illegal search max workers: " + maxWorkers);
+        this.maxWorkers = maxWorkers;
+    }
+
+    public double getGrowth() {
+        return growth;
+    }
+
+    public void setGrowth(double growth) {
+        if (growth <= 1)
+            throw new ConfigException("search growth should be above 1: " + growth);
+        this.growth = growth;
+    }
+
+    public double getPlateau() {
+        return plateau;
+    }
+
+    public void setPlateau(double plateau) {
+        if (plateau < 0 || plateau >= 100)
+            throw new ConfigException("search plateau should be at 0 to 100 range");
+        this.plateau = plateau;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        if (percentile <= 0 || percentile > 100)
+            throw new ConfigException("search percentile should be at 0 to 100 range");
+        this.percentile = percentile;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        if (latency < 0)
+            throw new ConfigException("illegal search latency: " + latency);
+        this.latency = latency;
+    }
+
+    public double getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(double precision) {
+        if (precision <= 0)
+            throw new ConfigException("illegal search precision: " + precision);
+        this.precision = precision;
+    }
+
+    public static Search parse(Work work) {
+        Config config = KVConfigParser.parse(work.getConfig());
+        Search search = new Search();
+        search.setMaxWorkers(config.getInt("search.maxWorkers",
+                work.getWorkers() * 64));
+        search.setGrowth(config.getDouble("search.growth", search.growth));
+        search.setPlateau(config.getDouble("search.plateau", search.plateau));
+        search.setPercentile(config.getDouble("search.percentile",
+                search.percentile));
+        search.setLatency(config.getLong("search.latency", search.latency));
+        search.setPrecision(config.getDouble("search.precision",
+                search.precision));
+        if (search.maxWorkers < work.getWorkers())
+            throw new ConfigException("search max workers below workers");
+        return search;
+    }
+
+    public static boolean isSearch(Stage stage) {
+        for (Work work : stage)
+            if (TYPE.equals(work.getType()))
+                return true;
+        return false;
+    }
+
+    public static List<Work> getSearchWorks(Stage stage) {
+        List<Work> works = new ArrayList<Work>();
+        for (Work work : stage)
+            if (TYPE.equals(work.getType()))
+                works.add(work);
+        return works;
+    }
+
+    /**
+     * Creates the stage for one step of the search, search works run with the
+     * given number of workers and other works as they are.
+     */
+    public static Stage createStep(Stage stage, int workers) {
+        Stage step = new Stage(stage.getName() + "-w" + workers);
+        step.setAuth(stage.getAuth());
+        step.setStorage(stage.getStorage());
+        List<Work> works = new ArrayList<Work>();
+        for (Work work : stage)
+            works.add(TYPE.equals(work.getType()) ? work.toSearchStep(workers)
+                    : work);
+        step.setWorks(works);
+        /* set after the works, which have inherited it already */
+        step.setConfig(stage.getConfig());
+        return step;
+    }
+
+}
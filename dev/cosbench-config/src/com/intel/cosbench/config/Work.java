@@ -343,6 +343,36 @@ public class Work implements Iterable<Operation> {
 		setOperations(Collections.singletonList(op));
 	} 
 	
+	private void toSearchWork() {
+		setDefaultAfr(200000);
+		if (runtime == 0)
+			throw new ConfigException("search work must have a runtime");
+		Search.parse(this); // fail early on bad search settings
+	}
+
+	/**
+	 * Creates a copy of this work to be run as one step of a search. Failures
+	 * are judged by the search, so the copy accepts any failure ratio.
+	 */
+	public Work toSearchStep(int workers) {
+		Work step = new Work(name, "normal");
+		step.workers = workers;
+		step.interval = interval;
+		step.division = division;
+		step.runtime = runtime;
+		step.rampup = rampup;
+		step.rampdown = rampdown;
+		step.afr = 1000000;
+		step.totalOps = totalOps;
+		step.totalBytes = totalBytes;
+		step.driver = driver;
+		step.config = config;
+		step.auth = auth;
+		step.storage = storage;
+		step.operations = operations;
+		return step;
+	}
+
 	private void setDefaultAfr(int def) {
 		if (afr < 0)
 			setAfr(def);
@@ -359,6 +389,8 @@ public class Work implements Iterable<Operation> {
             toDisposeWork();
 		else if (type.equals("delay"))
 			toDelayWork(); 
+		else if (type.equals(Search.TYPE))
+			toSearchWork();
 		else 
 			setDefaultAfr(200000);
         setName(getName());
@@ -0,0 +1,69 @@
+<!DOCTYPE html PUBLIC "-//W3C//DTD HTML 4.01 Transitional//EN" "http://www.w3.org/TR/html4/loose.dtd">
+<html>
+<head>
+  <meta http-equiv="Content-Type" content="text/html; charset=UTF-8">
+  <link rel="stylesheet" type="text/css" href="resources/cosbench.css" />
+  <title>Run Comparison</title>
+</head>
+<body>
+<#include "header.ftl">
+<div id="main">
+<div class="top"><br /></div>
+<div class="content">
+  <p>
+    <a href="index.html">index</a> ->
+    <span>compare</span>
+  </p>
+  <h2>Run Comparison</h2>
+  <p>
+    <span class="grid">
+      <span class="label"><strong>Base</strong>:</span>
+      <a href="workload.html?id=${comparison.baseId}">${comparison.baseId}</a>
+    </span>
+    <span class="grid">
+      <span class="label"><strong>Compared</strong>:</span>
+      <#list comparison.workloadIds as id ><a href="workload.html?id=${id}">${id}</a><#if id_has_next>, </#if></#list>
+    </span>
+    <span class="grid">
+      <span class="label"><strong>Threshold</strong>:</span>
+      ${(comparison.threshold * 100)?string("0.#")}%
+    </span>
+  </p>
+  <#if regressions?size == 0 >
+    <p class="warn">No regression found.</p>
+  <#else>
+    <p class="warn">${regressions?size} regression(s) found.</p>
+  </#if>
+  <table class="info-table">
+    <tr>
+      <th>Workload</th>
+      <th>Stage</th>
+      <th>Op-Name</th>
+      <th>Metric</th>
+      <th>Base</th>
+      <th>Value</th>
+      <th>Change</th>
+      <th>P-Value</th>
+      <th>Verdict</th>
+    </tr>
+    <#list comparison.entries as entry >
+      <tr>
+        <td>${entry.workloadId}</td>
+        <td>${entry.stage}</td>
+        <td>${entry.op}</td>
+        <td>${entry.metric}</td>
+        <td>${entry.base?string("0.##")}</td>
+        <td><#if entry.verdict == "missing" >N/A<#else>${entry.value?string("0.##")}</#if></td>
+        <td><#if entry.changed >${(entry.change * 100)?string("0.##")}%<#else>N/A</#if></td>
+        <td><#if entry.tested >${entry.PValue?string("0.####")}<#else>N/A</#if></td>
+        <td><#if entry.regression ><strong>${entry.verdict}</strong><#else>${entry.verdict}</#if></td>
+      </tr>
+    </#list>
+  </table>
+  <p class="warn">A metric regresses when it is worse than the threshold and, if it could be tested, the difference is significant at the 5% level.</p>
+</div> <#-- end of content -->
+<div class="bottom"><br /></div>
+</div> <#-- end of main -->
+<#include "footer.ftl">
+</body>
+</html>
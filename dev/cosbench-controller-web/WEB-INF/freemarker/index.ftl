@@ -72,6 +72,22 @@
 		document.getElementById('resubmitIds').value = ids;
 		document.getElementById('resubmitForm').submit();
 	}
+	function compareWorkloads() {
+		var hids = findChecked('HistoryWorkload');
+		var aids = findChecked('ArchivedWorkload');
+		var ids = '';
+		if(hids.length > 0)
+			ids = hids + '_';
+		ids += aids;
+		var a = ids.split('_');
+		if (a.length < 2 || a[1].length == 0) {
+			alert("Please check the base workload and at least one more.");
+			return;
+		}
+		document.getElementById('compareBase').value = a[0];
+		document.getElementById('compareIds').value = a.slice(1).join(',');
+		document.getElementById('compareForm').submit();
+	}
   </script>
   <title>COSBench Controller</title> 
 </head>
@@ -243,6 +259,12 @@
   		<input type="hidden" name="resubmit" value="yes">
   		<input type="button" onclick="resubmitWorkloads();" value="resubmit">
   	</form>
+
+    <form id="compareForm" method="GET" action="compare.html">
+  		<input id="compareBase" type="hidden" name="base" value="">
+  		<input id="compareIds" type="hidden" name="ids" value="">
+  		<input type="button" onclick="compareWorkloads();" value="compare">
+  	</form>
   	
   </div>
 </div> <#-- end of content -->
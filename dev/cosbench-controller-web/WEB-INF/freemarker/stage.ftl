@@ -85,6 +85,147 @@
     <#include "metrics.ftl">
     <p class="warn">The snapshot was taken at ${snapshot.timestamp?time} with version ${snapshot.version}.</p>
   </#if>
+  <#if isStopped || isRunning >
+    <#assign steady = sInfo.steadyState >
+    <#if (steady.batchCount > 0) >
+      <h3>Steady State</h3>
+      <table class="info-table">
+        <tr>
+          <th>Warm-up</th>
+          <th>Steady From</th>
+          <th>Batches</th>
+          <th>Throughput</th>
+          <th>Avg-ResTime</th>
+          <th>Stable</th>
+        </tr>
+        <tr>
+          <td>${steady.warmupCount} of ${steady.snapshotCount} intervals</td>
+          <td><#if steady.steadyFrom?? >${steady.steadyFrom?time}<#else>N/A</#if></td>
+          <td>${steady.batchCount} x ${steady.batchSize}</td>
+          <td>${steady.throughput?string("0.##")} &plusmn; ${steady.throughputCI?string("0.##")} op/s</td>
+          <td>${steady.avgResTime?string("0.##")} &plusmn; ${steady.avgResTimeCI?string("0.##")} ms</td>
+          <td>${steady.stable?string("yes", "no")}</td>
+        </tr>
+      </table>
+      <p class="warn">Intervals are 95% confidence intervals from batch means, stable once both are within &plusmn;${(steady.target * 100)?string("0.#")}% of the mean.</p>
+      <#if isStopped && !steady.stable >
+        <p class="warn">Results of this stage may be unstable: ${steady.note}.</p>
+      </#if>
+    </#if>
+  </#if>
+  <#assign breakdown = sInfo.breakdown >
+  <#if (breakdown?size > 0) >
+    <#assign skews = sInfo.skews >
+    <h3>Driver Breakdown</h3>
+    <table class="info-table">
+      <tr>
+        <th class="id">Work</th>
+        <th>Op-Type</th>
+        <th>Drivers</th>
+        <th>Throughput (min / avg / max)</th>
+        <th>Std-Dev</th>
+        <th>Spread</th>
+        <th>Slowest</th>
+        <th>P99-ResTime (min / avg / max)</th>
+        <th>Std-Dev</th>
+        <th>Spread</th>
+        <th>Worst</th>
+      </tr>
+      <#list skews as skew >
+        <tr>
+          <td>${skew.work}</td>
+          <td>${skew.opName}<#if skew.opName != skew.sampleType>-${skew.sampleType}</#if></td>
+          <td>${skew.driverCount}</td>
+          <#assign unit><#if skew.perWorker>op/s per worker<#else>op/s</#if></#assign>
+          <td>${skew.minThroughput?string("0.##")} / ${skew.avgThroughput?string("0.##")} / ${skew.maxThroughput?string("0.##")} ${unit}</td>
+          <td>${skew.stdThroughput?string("0.##")} ${unit}</td>
+          <td>${skew.throughputSpread?string("0.##%")}</td>
+          <td>${skew.slowestDriver!"N/A"}</td>
+          <#if (skew.avgP99 >= 0) >
+            <td>${skew.minP99} / ${skew.avgP99?string("0.##")} / ${skew.maxP99} ms</td>
+            <td>${skew.stdP99?string("0.##")} ms</td>
+            <td>${skew.p99Spread?string("0.##%")}</td>
+            <td>${skew.worstDriver!"N/A"}</td>
+          <#else>
+            <td>N/A</td>
+            <td>N/A</td>
+            <td>N/A</td>
+            <td>N/A</td>
+          </#if>
+        </tr>
+      </#list>
+    </table>
+    <#list skews as skew >
+      <#if skew.imbalanced >
+        <p class="warn">The drivers of ${skew.work} did not share the ${skew.opName} load evenly, their throughputs<#if skew.perWorker> per worker</#if> are ${skew.throughputSpread?string("0.##%")} apart<#if (skew.avgP99 >= 0) > and their p99s ${skew.p99Spread?string("0.##%")}</#if>, relative to the mean.</p>
+      </#if>
+    </#list>
+    <table class="info-table">
+      <tr>
+        <th class="id">Driver</th>
+        <th>Work</th>
+        <th>Worker</th>
+        <th>Op-Type</th>
+        <th>Op-Count</th>
+        <th>Avg-ResTime</th>
+        <th>P99-ResTime</th>
+        <th>Throughput</th>
+        <th>Bandwidth</th>
+        <th>Succ-Ratio</th>
+      </tr>
+      <#list breakdown as entry >
+        <#if entry.worker == 0 || showDetails >
+          <#list entry.report as mInfo >
+            <#assign p99 = mInfo.calcP99() >
+            <tr>
+              <td>${entry.driver}</td>
+              <td>${entry.work}</td>
+              <td><#if entry.worker == 0>all<#else>${entry.worker}</#if></td>
+              <td>${mInfo.opName}<#if mInfo.opName != mInfo.sampleType>-${mInfo.sampleType}</#if></td>
+              <td>${mInfo.sampleCount}</td>
+              <td><#if (mInfo.avgResTime > 0) >${mInfo.avgResTime?string("0.##")} ms<#else>N/A</#if></td>
+              <td><#if (p99 >= 0) >${p99} ms<#else>N/A</#if></td>
+              <td>${mInfo.throughput?string("0.##")} op/s</td>
+              <td>${(mInfo.bandwidth / 1000000)?string("0.##")} MB/S</td>
+              <td><#if (mInfo.ratio > 0) >${mInfo.ratio?string("0.##%")}<#else>N/A</#if></td>
+            </tr>
+          </#list>
+        </#if>
+      </#list>
+    </table>
+    <p class="warn">Workers are listed with more info if their work sets worker_breakdown=true, all rows are in the archived ${sInfo.id}-drivers.csv.</p>
+  </#if>
+  <#assign slowRequests = sInfo.slowRequests >
+  <#if (slowRequests?size > 0) >
+    <h3>Slowest Requests</h3>
+    <table class="info-table">
+      <tr>
+        <th>Res-Time</th>
+        <th>Xfer-Time</th>
+        <th>Op-Name</th>
+        <th>Container</th>
+        <th>Object</th>
+        <th>Size</th>
+        <th>Driver</th>
+        <th>Worker</th>
+        <th>Endpoint</th>
+      </tr>
+      <#list slowRequests as req >
+        <tr>
+          <td>${req.time} ms</td>
+          <td>${req.xferTime} ms</td>
+          <td>${req.opName!req.opType}</td>
+          <td>${req.conName!"N/A"}</td>
+          <td>${req.objName!"N/A"}</td>
+          <td>${req.bytes}</td>
+          <td>${req.driver!"N/A"}</td>
+          <td>${req.worker}</td>
+          <td>${req.endpoint!"N/A"}</td>
+        </tr>
+      </#list>
+    </table>
+    <p class="warn">The slowest requests of each interval are in the archived ${sInfo.id}-slowest.csv.</p>
+  </#if>
   <h3>Missions to Driver</h3>
   <#if (sInfo.taskCount > 0) >
     <table class="info-table">
@@ -121,6 +262,14 @@
       </#list>
     </table>
     <p class="warn">There are ${sInfo.taskCount} driver tasks involved.</p>
+    <#list sInfo.taskInfos as tInfo >
+      <#if tInfo.resourceUsage?? >
+        <#assign limits = tInfo.resourceUsage.checkLimits() >
+        <#if (limits?size > 0) >
+          <p class="warn">Driver ${tInfo.schedule.driver.name} may be saturated (<#list limits as limit>${limit}<#if limit_has_next>, </#if></#list>), its results may understate the storage.</p>
+        </#if>
+      </#if>
+    </#list>
   <#else>
     <p class="warn">As the stage has not been run yet, no task information is available right now.</p>
   </#if>
@@ -10,6 +10,9 @@
       <th colspan="${size}">Throughput</th>
       <th colspan="${size}">Bandwidth</th>
       <th colspan="${size}">Succ-Ratio</th>
+      <#list ["P50", "P95", "P99", "P99.9"] as pName >
+        <th colspan="${size}">${pName}-ResTime</th>
+      </#list>
     </tr>
     <tr>
       <#assign allMetrics = ssInfo.report.allMetrics >
@@ -31,6 +34,11 @@
       <#list allMetrics as mInfo >
         <td>${mInfo.opName}</td>
       </#list>
+      <#list 1..5 as i >
+        <#list allMetrics as mInfo >
+          <td>${mInfo.opName}</td>
+        </#list>
+      </#list>
     </tr>
     <#break>
   </#list>
@@ -145,6 +153,22 @@
           </#if>
         </td>
       </#list>
+      <#list [0.5, 0.95, 0.99, 0.999] as pValue >
+        <#list allMetrics as mInfo >
+          <td>
+            <#if mInfo.resHistogram?? >
+              <#assign rt = mInfo.resHistogram.calcPercentile(pValue) >
+            <#else>
+              <#assign rt = -1 >
+            </#if>
+            <#if (rt < 0) >
+              N/A
+            <#else>
+              ${rt} ms
+            </#if>
+          </td>
+        </#list>
+      </#list>
     </tr>
   </#list>
 </table>
\ No newline at end of file
@@ -41,9 +41,21 @@
     </span>
   </p>
   <h3>Timeline Status</h3>
-  <#assign allSnapshots = sInfo.snapshots >
+  <p>
+    <span class="label"><strong>Resolution</strong>:</span>
+    <#list resolutions as res >
+      <#if res == resolution >
+        <strong>${res}x</strong>
+      <#else>
+        <a href="timeline.html?wid=${wInfo.id}&sid=${sInfo.id}&res=${res}">${res}x</a>
+      </#if>
+    </#list>
+    <#if (sInfo.interval > 0) >(${resolution * sInfo.interval} s per row)</#if>
+  </p>
+  <#assign allSnapshots = snapshots >
   <#include "timeline-metrics.ftl">
-  <p><a href="timeline.csv?wid=${wInfo.id}&sid=${sInfo.id}">export CSV file</a></p>
+  <p><a href="timeline.csv?wid=${wInfo.id}&sid=${sInfo.id}&res=${resolution}">export CSV file</a>
+    (<a href="timeline.csv?wid=${wInfo.id}&sid=${sInfo.id}&res=${resolution}&format=long">one row per operation</a>)</p>
   <p><a href="stage.html?wid=${wInfo.id}&sid=${sInfo.id}">go back to stage</a></p>
 </div> <#-- end of content -->
 <div class="bottom"><br /></div>
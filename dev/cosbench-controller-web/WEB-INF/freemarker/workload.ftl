@@ -239,6 +239,9 @@
     <#else>
       <a class="label" href="download-log.do?id=${info.id}">download-log</a>
       <a class="label" href="download-config.do?id=${info.id}">download-config</a>
+      <#if hasTraces >
+        <a class="label" href="download-trace.do?id=${info.id}">download-trace</a>
+      </#if>
     </#if>
   </p>  
   <p><a href="index.html">go back to index</a></p>
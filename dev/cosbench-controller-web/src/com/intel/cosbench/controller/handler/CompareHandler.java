@@ -0,0 +1,85 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.handler;
+
+import java.io.*;
+
+import javax.servlet.http.*;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.bench.Comparison;
+import com.intel.cosbench.exporter.Exporters;
+import com.intel.cosbench.service.ControllerService;
+import com.intel.cosbench.web.*;
+
+/**
+ * Compares workload runs with a base run and answers with the comparison in
+ * CSV format, each row ending with its verdict, so that builds can be gated
+ * on rows marked as regression.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class CompareHandler extends AbstractClientHandler {
+
+    private ControllerService controller;
+
+    public void setController(ControllerService controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    protected String process(HttpServletRequest req, HttpServletResponse res)
+            throws Exception {
+        Comparison comparison = compareWorkloads(controller, req);
+        StringWriter writer = new StringWriter();
+        Exporters.newComparisonExporter(comparison).export(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Compares the runs named by the <code>base</code>, <code>ids</code> and
+     * optional <code>threshold</code> parameters, as shared with the compare
+     * page.
+     */
+    public static Comparison compareWorkloads(ControllerService controller,
+            HttpServletRequest req) throws IOException {
+        String base = req.getParameter("base");
+        String[] ids = StringUtils.split(req.getParameter("ids"), ',');
+        if (StringUtils.isEmpty(base) || ids == null || ids.length == 0)
+            throw new BadRequestException();
+        double threshold = getThreshold(req.getParameter("threshold"));
+        Comparison comparison = controller.compareWorkloads(base,
+                StringUtils.stripAll(ids), threshold);
+        if (comparison == null)
+            throw new NotFoundException();
+        return comparison;
+    }
+
+    private static double getThreshold(String threshold) {
+        if (StringUtils.isEmpty(threshold))
+            return Comparison.DEFAULT_THRESHOLD;
+        try {
+            return Double.parseDouble(threshold);
+        } catch (NumberFormatException nfe) {
+            throw new BadRequestException();
+        }
+    }
+
+}
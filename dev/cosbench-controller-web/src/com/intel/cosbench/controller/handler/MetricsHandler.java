@@ -0,0 +1,96 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.controller.handler;
+
+import java.io.StringWriter;
+
+import javax.servlet.http.*;
+
+import com.intel.cosbench.bench.Snapshot;
+import com.intel.cosbench.exporter.PrometheusExporter;
+import com.intel.cosbench.model.*;
+import com.intel.cosbench.service.ControllerService;
+
+/**
+ * The scrape endpoint for Prometheus, it publishes the counters each driver
+ * last reported for the running stages, the state of drivers and of the
+ * connection pool to them, together with JVM statistics.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class MetricsHandler extends AbstractClientHandler {
+
+    private ControllerService controller;
+
+    public void setController(ControllerService controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    protected String process(HttpServletRequest req, HttpServletResponse res)
+            throws Exception {
+        PrometheusExporter exporter = new PrometheusExporter();
+        WorkloadInfo[] workloads = controller.getActiveWorkloads();
+        for (WorkloadInfo workload : workloads)
+            for (StageInfo stage : workload.getStageInfos())
+                if (StageState.isRunning(stage.getState()))
+                    addStage(exporter, workload.getId(), stage);
+        exporter.addGauge("active_workloads", "Workloads not finished yet.",
+                null, workloads.length);
+        addController(exporter, controller.getControllerInfo());
+        exporter.addJvm();
+        res.setContentType(PrometheusExporter.CONTENT_TYPE);
+        StringWriter writer = new StringWriter();
+        exporter.write(writer);
+        return writer.toString();
+    }
+
+    private static void addStage(PrometheusExporter exporter,
+            String workload, StageInfo stage) {
+        for (TaskInfo task : stage.getTaskInfos()) {
+            ScheduleInfo schedule = task.getSchedule();
+            String labels = PrometheusExporter.labels(null, "workload",
+                    workload, "stage", stage.getId(), "work", schedule
+                            .getWork().getName(), "driver", schedule
+                            .getDriver().getName());
+            Snapshot snapshot = task.getCumulativeSnapshot();
+            if (snapshot != null) // older drivers only report windows
+                exporter.addSnapshot(labels, snapshot);
+            exporter.addErrors(labels, task.getErrors());
+        }
+    }
+
+    private static void addController(PrometheusExporter exporter,
+            ControllerInfo info) {
+        for (DriverInfo driver : info.getDriverInfos())
+            exporter.addGauge("driver_up", "Drivers answering the controller.",
+                    PrometheusExporter.labels(null, "driver", driver.getName()),
+                    driver.getAliveState() ? 1 : 0);
+        int pooled = info.getPooledConnections();
+        if (pooled < 0)
+            return;
+        exporter.addGauge("pool_connections",
+                "Connections to drivers held open.", null, pooled);
+        exporter.addGauge("pool_max_connections",
+                "Most connections to drivers allowed.", null,
+                info.getMaxConnections());
+    }
+
+}
@@ -0,0 +1,48 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.web;
+
+import javax.servlet.http.*;
+
+import org.springframework.web.servlet.ModelAndView;
+
+import com.intel.cosbench.bench.Comparison;
+import com.intel.cosbench.controller.handler.CompareHandler;
+import com.intel.cosbench.service.ControllerService;
+import com.intel.cosbench.web.AbstractController;
+
+public class ComparePageController extends AbstractController {
+
+    private ControllerService controller;
+
+    public void setController(ControllerService controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    protected ModelAndView process(HttpServletRequest req,
+            HttpServletResponse res) throws Exception {
+        Comparison comparison = CompareHandler.compareWorkloads(controller,
+                req);
+        ModelAndView result = new ModelAndView("compare");
+        result.addObject("comparison", comparison);
+        result.addObject("regressions", comparison.getRegressions());
+        return result;
+    }
+
+}
@@ -0,0 +1,81 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.web;
+
+import java.io.*;
+import java.util.Map;
+import java.util.zip.*;
+
+import javax.servlet.http.*;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.web.servlet.*;
+
+import com.intel.cosbench.model.WorkloadInfo;
+import com.intel.cosbench.web.NotFoundException;
+
+/**
+ * This class sends the archived per-operation traces of a workload as one zip
+ * file. The traces are gzip compressed already, so they are stored as they
+ * are.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class DownloadTraceController extends WorkloadPageController {
+
+    private static final View TRACE = new TraceView();
+
+    private static class TraceView implements View {
+
+        @Override
+        public String getContentType() {
+            return "application/zip";
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest req,
+                HttpServletResponse res) throws Exception {
+            File[] files = (File[]) model.get("traces");
+            res.setHeader("Content-Disposition",
+                    "attachment; filename=\"workload-trace.zip\"");
+            ZipOutputStream zip = new ZipOutputStream(res.getOutputStream());
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            for (File file : files) {
+                zip.putNextEntry(new ZipEntry(file.getName()));
+                FileInputStream input = new FileInputStream(file);
+                try {
+                    IOUtils.copyLarge(input, zip);
+                } finally {
+                    IOUtils.closeQuietly(input);
+                }
+                zip.closeEntry();
+            }
+            zip.finish();
+        }
+
+    }
+
+    protected ModelAndView process(WorkloadInfo info) {
+        File[] files = controller.getTraceFiles(info);
+        if (files.length == 0)
+            throw new NotFoundException();
+        return new ModelAndView(TRACE, "traces", files);
+    }
+
+}
@@ -42,11 +42,26 @@ public class TimelineCSVController extends StagePageController {
                 HttpServletResponse res) throws Exception {
             res.setContentType("text/csv");
             StageInfo sInfo = (StageInfo) model.get("sInfo");
-            StageExporter exporter = Exporters.newStageExporter(sInfo);
+            Integer resolution = (Integer) model.get("resolution");
+            StageExporter exporter = Exporters.newStageExporter(sInfo,
+                    resolution != null ? resolution : 1,
+                    (String) model.get("format"));
             exporter.export(res.getWriter());
         }
     }
 
+    @Override
+    protected ModelAndView process(HttpServletRequest req,
+            HttpServletResponse res) {
+        ModelAndView result = super.process(req, res);
+        /* full resolution unless asked for */
+        result.addObject("resolution", TimelinePageController.getResolution(
+                req, 1));
+        /* one row per interval and operation if "long" */
+        result.addObject("format", req.getParameter("format"));
+        return result;
+    }
+
     @Override
     protected ModelAndView process(WorkloadInfo wInfo, StageInfo sInfo) {
         return new ModelAndView(CSV, "sInfo", sInfo);
@@ -17,12 +17,62 @@ limitations under the License.
 
 package com.intel.cosbench.controller.web;
 
+import java.util.*;
+
+import javax.servlet.http.*;
+
+import org.apache.commons.lang.StringUtils;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.intel.cosbench.bench.*;
 import com.intel.cosbench.model.*;
+import com.intel.cosbench.utils.ListRegistry;
+import com.intel.cosbench.web.BadRequestException;
+
+import freemarker.template.SimpleCollection;
 
 public class TimelinePageController extends StagePageController {
 
+    /* rows shown before a long timeline gets downsampled by default */
+    private static final int MAX_ROWS = 720;
+
+    @Override
+    protected ModelAndView process(HttpServletRequest req,
+            HttpServletResponse res) {
+        ModelAndView result = super.process(req, res);
+        StageInfo sInfo = (StageInfo) result.getModel().get("sInfo");
+        int resolution = getResolution(req, SnapshotDownsampler
+                .pickResolution(sInfo.getSnapshotCount(), MAX_ROWS));
+        result.addObject("resolution", resolution);
+        result.addObject("resolutions", SnapshotDownsampler.RESOLUTIONS);
+        if (resolution > 1)
+            result.addObject("snapshots", sInfo.getSnapshots(resolution));
+        else
+            result.addObject("snapshots", stream(sInfo.getSnapshotRegistry()));
+        return result;
+    }
+
+    /*
+     * Lets the page list snapshots as often as it needs without reading all
+     * of them into memory, spilled ones are read in batches on each pass.
+     */
+    private static SimpleCollection stream(
+            final ListRegistry<Snapshot> registry) {
+        return new SimpleCollection(new AbstractCollection<Snapshot>() {
+
+            @Override
+            public Iterator<Snapshot> iterator() {
+                return registry.iterator();
+            }
+
+            @Override
+            public int size() {
+                return registry.getSize();
+            }
+
+        });
+    }
+
     protected ModelAndView process(WorkloadInfo wInfo, StageInfo sInfo) {
         ModelAndView result = new ModelAndView("timeline");
         result.addObject("wInfo", wInfo);
@@ -30,4 +80,21 @@ public class TimelinePageController extends StagePageController {
         return result;
     }
 
+    /**
+     * @return the number of snapshots to merge into one row, as asked by the
+     *         "res" parameter
+     */
+    static int getResolution(HttpServletRequest req, int defaultValue) {
+        String res = req.getParameter("res");
+        if (StringUtils.isEmpty(res))
+            return defaultValue;
+        try {
+            int resolution = Integer.parseInt(res);
+            if (resolution > 0)
+                return resolution;
+        } catch (NumberFormatException e) {
+        }
+        throw new BadRequestException();
+    }
+
 }
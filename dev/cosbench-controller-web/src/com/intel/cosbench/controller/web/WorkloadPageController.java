@@ -69,6 +69,8 @@ public class WorkloadPageController extends AbstractController {
         result.addObject("isRunning", isRunning(info.getState()));
         result.addObject("isStageRunning",
                 stage == null ? false : StageState.isRunning(stage.getState()));
+        result.addObject("hasTraces", isStopped(info.getState())
+                && controller.getTraceFiles(info).length > 0);
         return result;
     }
 
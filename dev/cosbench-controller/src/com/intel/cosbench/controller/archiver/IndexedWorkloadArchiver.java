@@ -0,0 +1,108 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.controller.archiver;
+
+import java.io.*;
+
+import com.intel.cosbench.controller.model.SnapshotRegistry;
+import com.intel.cosbench.exporter.*;
+import com.intel.cosbench.log.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class archives workloads the same way as
+ * {@link SimpleWorkloadArchiver}, and in addition keeps an index of the run
+ * history and a binary copy of stage snapshots, so that archived runs can be
+ * loaded on demand.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class IndexedWorkloadArchiver extends SimpleWorkloadArchiver {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshots";
+
+    private RunIndex index;
+
+    public IndexedWorkloadArchiver(final String archive) {
+        this(archive, Exporters.WIDE);
+    }
+
+    public IndexedWorkloadArchiver(final String archive, final String format) {
+        super(archive, format);
+        index = new RunIndex(getArchiveDir());
+    }
+
+    @Override
+    protected void doArchive(WorkloadInfo info, File runDir)
+            throws IOException {
+        super.doArchive(info, runDir);
+        for (StageInfo sInfo : info.getStageInfos())
+            exportSnapshots(sInfo, runDir);
+    }
+
+    @Override
+    protected synchronized void exportWorkloadRun(WorkloadInfo info)
+            throws IOException {
+        File file = index.getHistory();
+        RunExporter exporter = Exporters.newRunExporter(info);
+        if (!file.exists() || file.length() == 0) {
+            Writer writer = new BufferedWriter(new FileWriter(file));
+            try {
+                exporter.init(writer);
+            } finally {
+                writer.close();
+            }
+        }
+        index.load(); // brings a stale index up to date
+        long offset = file.length();
+        Writer writer = new BufferedWriter(new FileWriter(file, true));
+        try {
+            exporter.export(writer);
+        } finally {
+            writer.close();
+        }
+        index.append(offset);
+        String id = info.getId();
+        String path = file.getAbsolutePath();
+        String msg = "run item for workload {} has been added to {}";
+        LOGGER.debug(msg, id, path);
+    }
+
+    private void exportSnapshots(StageInfo info, File parent)
+            throws IOException {
+        File file = new File(parent, getSnapshotFileName(info));
+        SnapshotRegistry.save(info.getSnapshotRegistry(), file);
+        String id = info.getId();
+        String path = file.getAbsolutePath();
+        String msg = "snapshots of stage {} has been saved to {}";
+        LOGGER.debug(msg, id, path);
+    }
+
+    /**
+     * @return the name of the binary copy of stage snapshots within its run
+     *         directory, as shared with the loader
+     */
+    public static String getSnapshotFileName(StageInfo info) {
+        return getStageFileName(info) + SNAPSHOT_SUFFIX;
+    }
+
+}
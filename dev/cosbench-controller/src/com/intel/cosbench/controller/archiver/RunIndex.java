@@ -0,0 +1,179 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.controller.archiver;
+
+import java.io.*;
+import java.util.Arrays;
+
+import com.intel.cosbench.log.*;
+
+/**
+ * This class maintains an index next to the run history, holding the file
+ * offset of every run record, so that the most recent runs can be read
+ * without parsing the whole history. A missing or stale index, e.g. after
+ * runs have been archived by an older controller, is rebuilt from the run
+ * history.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class RunIndex {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    public static final String HISTORY_FILE = "run-history.csv";
+    public static final String INDEX_FILE = "run-history.idx";
+
+    private File history;
+    private File index;
+
+    public RunIndex(File archiveDir) {
+        this.history = new File(archiveDir, HISTORY_FILE);
+        this.index = new File(archiveDir, INDEX_FILE);
+    }
+
+    public File getHistory() {
+        return history;
+    }
+
+    /**
+     * @return offsets of all run records, in the order they were archived
+     */
+    public synchronized long[] load() throws IOException {
+        long[] offsets = readIndex();
+        if (offsets != null && isValid(offsets))
+            return offsets;
+        offsets = scanHistory();
+        writeIndex(offsets);
+        LOGGER.info("run index has been rebuilt with {} runs", offsets.length);
+        return offsets;
+    }
+
+    public synchronized void append(long offset) throws IOException {
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(
+                index, true));
+        try {
+            out.writeLong(offset);
+        } finally {
+            out.close();
+        }
+    }
+
+    private long[] readIndex() throws IOException {
+        if (!index.exists() || index.length() % 8 != 0)
+            return null;
+        long[] offsets = new long[(int) (index.length() / 8)];
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(index)));
+        try {
+            for (int i = 0; i < offsets.length; i++)
+                offsets[i] = in.readLong();
+        } finally {
+            in.close();
+        }
+        return offsets;
+    }
+
+    private void writeIndex(long[] offsets) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(index)));
+        try {
+            for (long offset : offsets)
+                out.writeLong(offset);
+        } finally {
+            out.close();
+        }
+    }
+
+    /*
+     * The index is up to date if its last record is the last line of the
+     * history.
+     */
+    private boolean isValid(long[] offsets) throws IOException {
+        if (!history.exists())
+            return offsets.length == 0;
+        if (offsets.length == 0)
+            return countLines(0) <= 1; // a header at most
+        long last = offsets[offsets.length - 1];
+        if (last <= 0 || last >= history.length())
+            return false;
+        return countLines(last) == 1 && isLineStart(last);
+    }
+
+    private int countLines(long from) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(history, "r");
+        try {
+            file.seek(from);
+            int lines = 0;
+            String line;
+            while ((line = file.readLine()) != null)
+                if (line.length() > 0)
+                    lines++;
+            return lines;
+        } finally {
+            file.close();
+        }
+    }
+
+    private boolean isLineStart(long offset) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(history, "r");
+        try {
+            file.seek(offset - 1);
+            return file.read() == '\n';
+        } finally {
+            file.close();
+        }
+    }
+
+    private long[] scanHistory() throws IOException {
+        if (!history.exists())
+            return new long[0];
+        long[] offsets = new long[1024];
+        int count = 0;
+        InputStream in = new BufferedInputStream(new FileInputStream(history));
+        try {
+            long pos = 0;
+            long start = 0;
+            boolean header = true;
+            int b;
+            while ((b = in.read()) != -1) {
+                pos++;
+                if (b != '\n')
+                    continue;
+                if (!header && pos - start > 1) // skip empty lines
+                    offsets = append(offsets, count++, start);
+                header = false;
+                start = pos;
+            }
+            if (!header && pos > start) // no line break at the end
+                offsets = append(offsets, count++, start);
+        } finally {
+            in.close();
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private static long[] append(long[] offsets, int count, long offset) {
+        if (count == offsets.length)
+            offsets = Arrays.copyOf(offsets, count * 2);
+        offsets[count] = offset;
+        return offsets;
+    }
+
+}
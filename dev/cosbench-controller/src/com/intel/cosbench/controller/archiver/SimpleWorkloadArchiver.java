@@ -22,6 +22,8 @@ package com.intel.cosbench.controller.archiver;
 import java.io.*;
 import java.util.Scanner;
 
+import org.apache.commons.io.FileUtils;
+
 import com.intel.cosbench.config.*;
 import com.intel.cosbench.config.castor.CastorConfigTools;
 import com.intel.cosbench.exporter.*;
@@ -40,6 +42,7 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
     private static final Logger LOGGER = LogFactory.getSystemLogger();
     
     private File ARCHIVE_DIR = new File("archive");
+    private String format = Exporters.WIDE; /* of time series and histograms */
 
 //    private static final File ROOT_DIR = new File("archive");
 
@@ -55,7 +58,12 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
     }
     
     public SimpleWorkloadArchiver(final String archive) {
+    	this(archive, Exporters.WIDE);
+    }
+
+    public SimpleWorkloadArchiver(final String archive, final String format) {
     	ARCHIVE_DIR = new File(archive);
+    	this.format = format;
     	
         if (!ARCHIVE_DIR.exists())
         	ARCHIVE_DIR.mkdirs();
@@ -63,8 +71,16 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
         LOGGER.info("using {} for storing workload archives", path);
     }
 
+    protected File getArchiveDir() {
+        return ARCHIVE_DIR;
+    }
+
+    /*
+     * Only files shared by all workloads are written under lock, so that
+     * workloads can be archived in parallel.
+     */
 	@Override
-    public synchronized void archive(WorkloadInfo info) {
+    public void archive(WorkloadInfo info) {
         File runDir = new File(ARCHIVE_DIR, getRunDirName(info));
         try {
             doArchive(info, runDir);
@@ -81,26 +97,32 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
         LOGGER.info("workload {} has been successfully archived", id);
     }
 
-    private void doArchive(WorkloadInfo info, File runDir) throws IOException {
+    protected void doArchive(WorkloadInfo info, File runDir) throws IOException {
         exportWorkloadRun(info);
         runDir.mkdir();
         exportWorkload(info, runDir);
         exportLatency(info, runDir);
         for (StageInfo sInfo : info.getStageInfos())
             exportStage(sInfo, runDir);
+        for (StageInfo sInfo : info.getStageInfos())
+            exportSlowRequests(sInfo, runDir);
+        for (StageInfo sInfo : info.getStageInfos())
+            exportBreakdown(sInfo, runDir);
         exportConfig(info.getWorkload(), runDir);
         exportLog(info, runDir);
+        exportTraces(info, runDir);
         exportScriptsLog(info, runDir);
         exportPerformanceMatrix(info);
     }
 
-    private static String getRunDirName(WorkloadInfo info) {
+    protected static String getRunDirName(WorkloadInfo info) {
         String name = info.getId();
         name += '-' + info.getWorkload().getName();
         return name;
     }
 
-    private void exportWorkloadRun(WorkloadInfo info) throws IOException {
+    protected synchronized void exportWorkloadRun(WorkloadInfo info)
+            throws IOException {
         File file = new File(ARCHIVE_DIR, "run-history.csv");
         boolean ready = file.exists() && file.length() > 0;
         Writer writer = new BufferedWriter(new FileWriter(file, true));
@@ -144,7 +166,7 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
             throws IOException {
         File file = new File(parent, getLatencyFileName(info) + ".csv");
         Writer writer = new BufferedWriter(new FileWriter(file));
-        LatencyExporter exporter = Exporters.newLatencyExporter(info);
+        LatencyExporter exporter = Exporters.newLatencyExporter(info, format);
         try {
             exporter.export(writer);
         } finally {
@@ -166,7 +188,7 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
     private void exportStage(StageInfo info, File parent) throws IOException {
         File file = new File(parent, getStageFileName(info) + ".csv");
         Writer writer = new BufferedWriter(new FileWriter(file));
-        StageExporter exporter = Exporters.newStageExporter(info);
+        StageExporter exporter = Exporters.newStageExporter(info, 1, format);
         try {
             exporter.export(writer);
         } finally {
@@ -178,10 +200,50 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
         LOGGER.debug(msg, id, path);
     }
 
-    private static String getStageFileName(StageInfo info) {
+    /**
+     * @return the base name of the files of a stage within its run
+     *         directory, as shared with the loaders
+     */
+    public static String getStageFileName(StageInfo info) {
         return info.getId();
     }
 
+    private void exportSlowRequests(StageInfo info, File parent)
+            throws IOException {
+        if (info.getSlowRequests().isEmpty())
+            return; // not tracked
+        File file = new File(parent, info.getId() + "-slowest.csv");
+        Writer writer = new BufferedWriter(new FileWriter(file));
+        StageExporter exporter = Exporters.newSlowRequestExporter(info);
+        try {
+            exporter.export(writer);
+        } finally {
+            writer.close();
+        }
+        String id = info.getId();
+        String path = file.getAbsolutePath();
+        String msg = "slowest requests of stage {} has been exported to {}";
+        LOGGER.debug(msg, id, path);
+    }
+
+    private void exportBreakdown(StageInfo info, File parent)
+            throws IOException {
+        if (info.getBreakdown().isEmpty())
+            return; // not completed
+        File file = new File(parent, info.getId() + "-drivers.csv");
+        Writer writer = new BufferedWriter(new FileWriter(file));
+        StageExporter exporter = Exporters.newBreakdownExporter(info);
+        try {
+            exporter.export(writer);
+        } finally {
+            writer.close();
+        }
+        String id = info.getId();
+        String path = file.getAbsolutePath();
+        String msg = "driver breakdown of stage {} has been exported to {}";
+        LOGGER.debug(msg, id, path);
+    }
+
     private void exportConfig(Workload workload, File parent)
             throws IOException {
         File file = new File(parent, "workload-config.xml");
@@ -220,6 +282,41 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
     }
     
 
+    /*
+     * Traces are copied as they were spooled, one gzip compressed file per
+     * traced mission.
+     */
+    private void exportTraces(WorkloadInfo info, File parent)
+            throws IOException {
+        File dir = new File(parent, "trace");
+        for (StageInfo sInfo : info.getStageInfos())
+            for (TaskInfo tInfo : sInfo.getTaskInfos()) {
+                File trace = tInfo.getTraceFile();
+                if (trace == null || !trace.exists())
+                    continue;
+                dir.mkdir();
+                File file = new File(dir, getTraceFileName(sInfo, tInfo));
+                FileUtils.copyFile(trace, file);
+                String path = file.getAbsolutePath();
+                LOGGER.debug("trace of mission {} has been exported to {}",
+                        tInfo.getMissionId(), path);
+            }
+    }
+
+    private static String getTraceFileName(StageInfo sInfo, TaskInfo tInfo) {
+        String name = sInfo.getId();
+        name += "-" + tInfo.getSchedule().getDriver().getName();
+        name += "-" + tInfo.getMissionId();
+        return name + ".csv.gz";
+    }
+
+    @Override
+    public File[] getTraceFiles(WorkloadInfo info) {
+        File runDir = new File(ARCHIVE_DIR, getRunDirName(info));
+        File[] files = new File(runDir, "trace").listFiles();
+        return files != null ? files : new File[0];
+    }
+
     private void exportScriptsLog(WorkloadInfo info, File parent) throws IOException {
         File file = new File(parent, "scripts.log");
         Writer writer = new BufferedWriter(new FileWriter(file));
@@ -241,7 +338,8 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
         return new File(runDir, "workload.log");
     }
 
-    private void exportPerformanceMatrix(WorkloadInfo info) throws IOException {
+    private synchronized void exportPerformanceMatrix(WorkloadInfo info)
+            throws IOException {
         File file = new File(ARCHIVE_DIR, "workloads.csv");
         boolean ready = file.exists() && file.length() > 0;
         Writer writer = new BufferedWriter(new FileWriter(file, true));
@@ -259,7 +357,7 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
         LOGGER.debug(msg, id, path);
     }
  
-    private void updateCount(WorkloadInfo info) throws IOException {
+    private synchronized void updateCount(WorkloadInfo info) throws IOException {
         int count = 0;
         File file = new File(ARCHIVE_DIR, ".meta");
         String workloadId = null;
@@ -269,6 +367,8 @@ public class SimpleWorkloadArchiver implements WorkloadArchiver {
 		} catch (Exception e) {
 			LOGGER.error("cannot parse workloadId", e);
 		}
+        if (count < retrieveCount())
+            return; // a later workload has been archived already
         
         Writer writer = new BufferedWriter(new FileWriter(file));
         try {
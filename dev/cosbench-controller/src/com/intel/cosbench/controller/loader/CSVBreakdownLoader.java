@@ -0,0 +1,117 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.loader;
+
+import java.io.*;
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class loads the final metrics of each driver, and of each worker if
+ * they were kept, back into an archived stage. Only the 99th percentile is
+ * archived per driver, and of the resources only those which are not ratios
+ * of two readings. Worker counts are only known for stages archived since
+ * they were kept.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class CSVBreakdownLoader implements BreakdownLoader {
+
+	static final String HEADER_PREFIX = "Driver,Work,Worker,";
+
+	private BufferedReader reader;
+	private StageInfo stageContext;
+
+	public CSVBreakdownLoader(BufferedReader reader, StageInfo stageContext) {
+		this.reader = reader;
+		this.stageContext = stageContext;
+	}
+
+	@Override
+	public void load() throws IOException {
+		String header = reader.readLine();
+		if (header == null || !header.startsWith(HEADER_PREFIX))
+			return;
+		List<Breakdown> breakdown = new ArrayList<Breakdown>();
+		Breakdown entry = null;
+		String line = null;
+		while ((line = reader.readLine()) != null) {
+			String[] columns = line.split(",");
+			int worker = Integer.parseInt(columns[2]);
+			if (entry == null || worker != entry.getWorker()
+					|| !columns[0].equals(entry.getDriver())
+					|| !columns[1].equals(entry.getWork())) {
+				breakdown.add(entry = newBreakdown(columns, worker));
+				entry.setReport(new ArrayList<Metrics>());
+			}
+			entry.getReport().add(loadMetrics(columns));
+		}
+		stageContext.setBreakdown(breakdown);
+	}
+
+	private static Breakdown newBreakdown(String[] columns, int worker) {
+		Breakdown entry = new Breakdown();
+		entry.setDriver(columns[0]);
+		entry.setWork(columns[1]);
+		entry.setWorker(worker);
+		if (worker != 0 || columns.length < 19)
+			return entry;
+		ResourceUsage usage = new ResourceUsage();
+		usage.setCpuLoad(parseRatio(columns[14]));
+		usage.setGcRatio(parseRatio(columns[15]));
+		usage.setNicLoad(parseRatio(columns[18]));
+		entry.setUsage(usage);
+		return entry;
+	}
+
+	private static Metrics loadMetrics(String[] columns) {
+		Metrics metrics = Metrics.newMetrics(Metrics.getMetricsType(
+				columns[3], columns[4], columns[5], columns[6]));
+		metrics.setSampleCount(Integer.parseInt(columns[7]));
+		metrics.setByteCount(Long.parseLong(columns[8]));
+		metrics.setAvgResTime(columns[9].equalsIgnoreCase("N/A") ? 0D
+				: Double.valueOf(columns[9]));
+		if (!columns[10].equalsIgnoreCase("N/A")) {
+			Histogram latency = new Histogram();
+			long[] l_99 = new long[2];
+			l_99[1] = Long.parseLong(columns[10]);
+			latency.set_99(l_99);
+			metrics.setLatency(latency);
+		}
+		metrics.setThroughput(Double.valueOf(columns[11]));
+		metrics.setBandwidth(Double.valueOf(columns[12]));
+		double ratio = parseRatio(columns[13]);
+		metrics.setRatio(ratio > 0 ? ratio : 0D);
+		metrics.setTotalSampleCount(ratio > 0 ? (int) Math.min(
+				metrics.getSampleCount() / ratio, Integer.MAX_VALUE) : 0);
+		if (columns.length > 19) // missing in older archives
+			metrics.setWorkerCount(Integer.parseInt(columns[19]));
+		return metrics;
+	}
+
+	/* -1 for unknown, as resource usage takes it */
+	private static double parseRatio(String column) {
+		if (column.equalsIgnoreCase("N/A") || !column.endsWith("%"))
+			return -1D;
+		return Double.valueOf(column.substring(0, column.length() - 1)) / 100.0;
+	}
+
+}
@@ -0,0 +1,95 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.loader;
+
+import java.io.*;
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class loads response time histograms exported one row per non-empty
+ * bucket back into the metrics of archived stages. Histograms exported with
+ * one row per bucket are left alone, as their percentiles are loaded from
+ * the workload file already.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class CSVLatencyLoader implements LatencyLoader {
+
+	static final String HEADER_PREFIX = "Stage,Work,Op-Index,";
+
+	private BufferedReader reader;
+	private WorkloadInfo workloadContext;
+
+	private Map<Metrics, int[]> histograms = new LinkedHashMap<Metrics, int[]>();
+
+	public CSVLatencyLoader(BufferedReader reader, WorkloadInfo workloadContext) {
+		this.reader = reader;
+		this.workloadContext = workloadContext;
+	}
+
+	@Override
+	public void load() throws IOException {
+		String header = reader.readLine();
+		if (header == null || !header.startsWith(HEADER_PREFIX))
+			return;
+		String line = null;
+		while ((line = reader.readLine()) != null) {
+			String[] columns = line.split(",");
+			Metrics metrics = getMetrics(columns[0], columns[2], columns[3],
+					columns[4]);
+			if (metrics == null)
+				continue; // stage not completed
+			int[] data = histograms.get(metrics);
+			if (data == null)
+				histograms.put(metrics, data = new int[1 + Counter.UL]);
+			int index = (int) (Long.parseLong(columns[5]) / Counter.RES_INT);
+			data[Math.min(index, Counter.UL)] = Integer.parseInt(columns[7]);
+		}
+		for (Map.Entry<Metrics, int[]> entry : histograms.entrySet()) {
+			Histogram latency = new Histogram();
+			latency.setHistoData(entry.getValue());
+			latency.recalcPercentiles();
+			entry.getKey().setLatency(latency);
+		}
+	}
+
+	private Metrics getMetrics(String stageId, String index, String opName,
+			String sizeClass) {
+		StageInfo stage = workloadContext.getStageInfo(stageId);
+		if (stage == null)
+			return null;
+		Metrics[] all = stage.getReport().getAllMetrics();
+		int idx = Integer.parseInt(index) - 1;
+		if (idx < 0 || idx >= all.length
+				|| !opName.equals(all[idx].getOpName()))
+			return null;
+		if (sizeClass.equals("N/A"))
+			return all[idx];
+		if (all[idx].getSizeClasses() == null)
+			return null;
+		for (Metrics metrics : all[idx].getSizeClasses())
+			if (sizeClass.equals(metrics.getSizeClass()))
+				return metrics;
+		return null;
+	}
+
+}
@@ -0,0 +1,126 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.loader;
+
+import static com.intel.cosbench.controller.loader.Formats.TIME;
+import static com.intel.cosbench.controller.loader.Formats.getDoubleValue;
+import static com.intel.cosbench.controller.loader.Formats.getIntValue;
+import static com.intel.cosbench.controller.loader.Formats.getLongValue;
+import static com.intel.cosbench.controller.loader.Formats.setRatio;
+
+import java.io.*;
+import java.text.ParseException;
+import java.util.*;
+
+import com.intel.cosbench.bench.Metrics;
+import com.intel.cosbench.bench.Report;
+import com.intel.cosbench.bench.Snapshot;
+import com.intel.cosbench.model.WorkloadInfo;
+
+/**
+ * This class loads stage snapshots exported one row per interval and
+ * operation, columns are looked up by name in the header.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class CSVLongSnapshotLoader extends AbstractSnapshotLoader {
+
+	static final String HEADER_PREFIX = "Interval,Timestamp,Op-Name,";
+
+	private Map<String, Integer> columns = new HashMap<String, Integer>();
+
+	public CSVLongSnapshotLoader(BufferedReader reader,
+			WorkloadInfo workloadContext, String stageId) throws IOException {
+		super.init(reader, workloadContext, stageId);
+	}
+
+	@Override
+	protected void readHeader() throws IOException {
+		String header = this.reader.readLine();
+		if (header == null)
+			return;
+		String[] names = header.split(",");
+		for (int i = 0; i < names.length; i++)
+			columns.put(names[i], i);
+	}
+
+	@Override
+	protected void readSnapshot() throws IOException {
+		String line = null;
+		String interval = null;
+		Snapshot snapshot = null;
+		while ((line = this.reader.readLine()) != null) {
+			String[] row = line.split(",");
+			if (!row[0].equals(interval)) {
+				if (snapshot != null)
+					stageContext.getSnapshotRegistry().addItem(snapshot);
+				interval = row[0];
+				snapshot = newSnapshot(row);
+			}
+			snapshot.getReport().addMetrics(loadMetrics(row));
+		}
+		if (snapshot != null)
+			stageContext.getSnapshotRegistry().addItem(snapshot);
+	}
+
+	private Snapshot newSnapshot(String[] row) {
+		Date timestamp = null;
+		try {
+			timestamp = TIME.parse(get(row, "Timestamp"));
+		} catch (ParseException e) {
+			e.printStackTrace();
+		}
+		Snapshot snapshot = new Snapshot(new Report(), timestamp);
+		snapshot.setMinVersion(getIntValue(get(row, "Min-Version")));
+		snapshot.setVersion(getIntValue(get(row, "Version")));
+		snapshot.setMaxVersion(getIntValue(get(row, "Max-Version")));
+		return snapshot;
+	}
+
+	private Metrics loadMetrics(String[] row) {
+		Metrics metric = new Metrics();
+		String name = get(row, "Op-Name");
+		metric.setName(name);
+		int n = name.lastIndexOf("-");
+		if (n > 0) {
+			metric.setOpName(name.substring(0, n));
+			metric.setSampleType(name.substring(n + 1));
+		} else {
+			metric.setOpName(name);
+			metric.setSampleType(name);
+		}
+		metric.setOpType(get(row, "Op-Type"));
+		metric.setSampleCount(getIntValue(get(row, "Op-Count")));
+		metric.setByteCount(getLongValue(get(row, "Byte-Count")));
+		double rt = getDoubleValue(get(row, "Avg-ResTime"));
+		metric.setAvgResTime(rt);
+		double pt = getDoubleValue(get(row, "Avg-ProcTime"));
+		metric.setAvgXferTime(rt - pt);
+		metric.setThroughput(getDoubleValue(get(row, "Throughput")));
+		metric.setBandwidth(getDoubleValue(get(row, "Bandwidth")));
+		setRatio(get(row, "Succ-Ratio"), metric);
+		return metric;
+	}
+
+	private String get(String[] row, String column) {
+		Integer index = columns.get(column);
+		return index != null && index < row.length ? row[index] : "N/A";
+	}
+
+}
@@ -35,14 +35,22 @@ import com.intel.cosbench.model.WorkloadState;
 class CSVRunLoader extends AbstractRunLoader {
 
 	private List<WorkloadInfo> workloads = new ArrayList<WorkloadInfo>();
+	private boolean header = true;
 	
     public CSVRunLoader(BufferedReader reader) throws IOException {
         super.init(reader);
     }
+
+    public CSVRunLoader(BufferedReader reader, boolean header)
+            throws IOException {
+        this.header = header;
+        super.init(reader);
+    }
     
 	@Override
 	protected void readHeader() throws IOException {
-		this.reader.readLine();		
+		if (header)
+			this.reader.readLine();
 	}
 
 	@Override
@@ -21,6 +21,7 @@ import static com.intel.cosbench.controller.loader.Formats.TIME;
 import static com.intel.cosbench.controller.loader.Formats.getDoubleValue;
 import static com.intel.cosbench.controller.loader.Formats.getIntValue;
 import static com.intel.cosbench.controller.loader.Formats.getLongValue;
+import static com.intel.cosbench.controller.loader.Formats.setRatio;
 
 import java.io.*;
 import java.text.ParseException;
@@ -115,17 +116,4 @@ class CSVSnapshotLoader extends AbstractSnapshotLoader {
 		}
 		return metrics;
 	}
-	
-	private void setRatio(String column, Metrics metrics) {
-		if (!column.equalsIgnoreCase("N/A")) {
-			metrics.setRatio(Double.valueOf(column.substring(0,
-					column.length() - 1)) / 100.0);
-			metrics.setTotalSampleCount(metrics.getSampleCount()
-					/ metrics.getRatio() > Integer.MAX_VALUE ? Integer.MAX_VALUE
-					: (int) (metrics.getSampleCount() / metrics.getRatio()));
-		} else {
-			metrics.setRatio(0D);
-			metrics.setTotalSampleCount(0);
-		}
-	}
 }	
@@ -18,14 +18,17 @@ limitations under the License.
 package com.intel.cosbench.controller.loader;
 
 import static com.intel.cosbench.controller.loader.Formats.DATETIME;
+import static com.intel.cosbench.controller.loader.Formats.setRatio;
 
 import java.io.*;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
 
 import com.intel.cosbench.bench.Histogram;
 import com.intel.cosbench.bench.Metrics;
 import com.intel.cosbench.bench.Report;
+import com.intel.cosbench.model.StageInfo;
 import com.intel.cosbench.model.StageState;
 import com.intel.cosbench.model.WorkloadInfo;
 
@@ -47,18 +50,27 @@ class CSVWorkloadFileLoader extends AbstractWorkloadFileLoader {
 		String lastStageName = null;
 		String stageId = null;
 		boolean sameStage = false;
+		Metrics last = null; /* owner of the object-size class rows next */
 		int index = 1;
 		while ((workloadRecordLine = this.reader.readLine()) != null) {
 			String[] columns = workloadRecordLine.split(",");
+			if (isSearchStep(columns[0], lastStageName))
+				continue; // not part of the workload config
 			sameStage = true;
 			if (lastStageName == null
 					|| !lastStageName.equalsIgnoreCase(columns[0])) {
 				lastStageName = columns[0];
-				stageId = "s" + index++;
+				stageId = getStageId(index++);
 				sameStage = false;
 			}
 			if (columns[16].equalsIgnoreCase("completed")) {
 				Metrics metrics = loadMetrics(columns);
+				if (metrics.getSizeClass() != null) {
+					if (last != null)
+						addSizeClass(last, metrics);
+					continue;
+				}
+				last = metrics;
 				if (!sameStage) {
 					Report report = new Report();
 					workloadContext.getStageInfo(stageId).setReport(report);
@@ -90,16 +102,40 @@ class CSVWorkloadFileLoader extends AbstractWorkloadFileLoader {
 		}
 	}
 
+	/* steps of a search stage follow it, named like "s2-knee-w16" */
+	/* the stages created from the workload config, in the same order */
+	private String getStageId(int index) {
+		StageInfo[] stages = workloadContext.getStageInfos();
+		return index <= stages.length ? stages[index - 1].getId() : "s" + index;
+	}
+
+	private static boolean isSearchStep(String name, String last) {
+		return last != null && !name.equalsIgnoreCase(last)
+				&& name.startsWith(last + "-w");
+	}
+
+	private static void addSizeClass(Metrics metrics, Metrics sizeClass) {
+		if (metrics.getSizeClasses() == null)
+			metrics.setSizeClasses(new ArrayList<Metrics>());
+		metrics.getSizeClasses().add(sizeClass);
+	}
+
 	private Metrics loadMetrics(String[] columns) {
 		Metrics metrics = new Metrics();
-		int n = columns[1].lastIndexOf("-");
+		String name = columns[1];
+		int at = name.indexOf("@"); /* "write@64KB~1MB" for a size class */
+		if (at > 0) {
+			metrics.setSizeClass(name.substring(at + 1));
+			name = name.substring(0, at);
+		}
+		int n = name.lastIndexOf("-");
 		metrics.setName(columns[1]);
 		if (n > 0) {
-			metrics.setOpName(columns[1].substring(0, n));
-			metrics.setSampleType(columns[1].substring(n + 1));
+			metrics.setOpName(name.substring(0, n));
+			metrics.setSampleType(name.substring(n + 1));
 		} else {
-			metrics.setOpName(columns[1]);
-			metrics.setSampleType(columns[1]);
+			metrics.setOpName(name);
+			metrics.setSampleType(name);
 		}
 		metrics.setOpType(columns[2]);
 		metrics.setSampleCount(Integer.valueOf(columns[3]));
@@ -115,19 +151,6 @@ class CSVWorkloadFileLoader extends AbstractWorkloadFileLoader {
 		return metrics;
 	}
 
-	private void setRatio(String column, Metrics metrics) {
-		if (!column.equalsIgnoreCase("N/A")) {
-			metrics.setRatio(Double.valueOf(column.substring(0,
-					column.length() - 1)) / 100.0);
-			metrics.setTotalSampleCount(metrics.getSampleCount()
-					/ metrics.getRatio() > Integer.MAX_VALUE ? Integer.MAX_VALUE
-					: (int) (metrics.getSampleCount() / metrics.getRatio()));
-		} else {
-			metrics.setRatio(0D);
-			metrics.setTotalSampleCount(0);
-		}
-	}
-
 	private Histogram loadHistogram(String[] columns) {
 		Histogram histogram = new Histogram();
 		long[] l_60 = new long[2];
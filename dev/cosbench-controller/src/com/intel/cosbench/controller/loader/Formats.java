@@ -19,6 +19,8 @@ package com.intel.cosbench.controller.loader;
 
 import java.text.*;
 
+import com.intel.cosbench.bench.Metrics;
+
 /**
  * This class defines necessary data/number formats.
  * 
@@ -50,4 +52,21 @@ class Formats {
 		return column.equalsIgnoreCase("N/A") ? 0L : Long.valueOf(column);
 	}
 
+	/**
+	 * Sets the success ratio from a percentage column, along with the total
+	 * sample count it implies.
+	 */
+	public static void setRatio(String column, Metrics metrics) {
+		if (!column.equalsIgnoreCase("N/A")) {
+			metrics.setRatio(Double.valueOf(column.substring(0,
+					column.length() - 1)) / 100.0);
+			metrics.setTotalSampleCount(metrics.getSampleCount()
+					/ metrics.getRatio() > Integer.MAX_VALUE ? Integer.MAX_VALUE
+					: (int) (metrics.getSampleCount() / metrics.getRatio()));
+		} else {
+			metrics.setRatio(0D);
+			metrics.setTotalSampleCount(0);
+		}
+	}
+
 }
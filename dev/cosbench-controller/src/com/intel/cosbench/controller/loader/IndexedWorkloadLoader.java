@@ -0,0 +1,123 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.controller.loader;
+
+import java.io.*;
+import java.util.*;
+
+import com.intel.cosbench.controller.archiver.*;
+import com.intel.cosbench.controller.model.StageContext;
+import com.intel.cosbench.log.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class loads workloads archived by {@link IndexedWorkloadArchiver}.
+ * Only the most recent runs are read from the run history, through its
+ * index, and snapshots of a stage are read from their binary copy when they
+ * are asked for. Runs archived without such a copy fall back to the CSV
+ * files.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class IndexedWorkloadLoader extends SimpleWorkloadLoader {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    private RunIndex index;
+    private int limit; /* most recent runs to load */
+
+    public IndexedWorkloadLoader(final String archive, int limit) {
+        super(archive);
+        this.index = new RunIndex(getArchiveDir());
+        this.limit = limit;
+    }
+
+    @Override
+    public List<WorkloadInfo> loadWorkloadRun() throws IOException {
+        File file = index.getHistory();
+        if (!file.exists())
+            return null;
+        long[] offsets = index.load();
+        if (offsets.length == 0)
+            return new ArrayList<WorkloadInfo>();
+        int from = Math.max(offsets.length - limit, 0);
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        List<WorkloadInfo> workloads;
+        try {
+            raf.seek(offsets[from]);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(raf.getFD())));
+            workloads = Loaders.newRecordLoader(reader).load();
+        } finally {
+            raf.close();
+        }
+        LOGGER.debug("{} of {} archived runs have been loaded",
+                workloads.size(), offsets.length);
+        return workloads;
+    }
+
+    /*
+     * Looks for the run record from the most recent one backwards, reading
+     * one line at a time.
+     */
+    @Override
+    public WorkloadInfo loadWorkloadRun(String id) throws IOException {
+        File file = index.getHistory();
+        if (!file.exists())
+            return null;
+        long[] offsets = index.load();
+        String prefix = id + ",";
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            for (int i = offsets.length - 1; i >= 0; i--) {
+                raf.seek(offsets[i]);
+                String line = raf.readLine();
+                if (line == null || !line.startsWith(prefix))
+                    continue;
+                raf.seek(offsets[i]); // read again in the platform charset
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(new FileInputStream(raf.getFD())));
+                line = reader.readLine();
+                List<WorkloadInfo> workloads = Loaders.newRecordLoader(
+                        new BufferedReader(new StringReader(line))).load();
+                return workloads.isEmpty() ? null : workloads.get(0);
+            }
+        } finally {
+            raf.close();
+        }
+        return null;
+    }
+
+    @Override
+    public void loadStagePageInfo(WorkloadInfo workloadContext, String stageId)
+            throws IOException {
+        StageInfo stage = workloadContext.getStageInfo(stageId);
+        File runDir = new File(getArchiveDir(), getRunDirName(workloadContext));
+        File file = new File(runDir,
+                IndexedWorkloadArchiver.getSnapshotFileName(stage));
+        if (!file.exists()) {
+            super.loadStagePageInfo(workloadContext, stageId);
+            return;
+        }
+        ((StageContext) stage).loadSnapshots(file);
+        loadBreakdownFile(runDir, stage);
+    }
+
+}
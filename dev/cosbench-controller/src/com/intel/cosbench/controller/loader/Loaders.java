@@ -20,6 +20,7 @@ package com.intel.cosbench.controller.loader;
 import java.io.BufferedReader;
 import java.io.IOException;
 
+import com.intel.cosbench.model.StageInfo;
 import com.intel.cosbench.model.WorkloadInfo;
 
 /**
@@ -35,6 +36,16 @@ public class Loaders {
 		AbstractRunLoader loader = new CSVRunLoader(reader);
 		return loader;
 	}
+
+	/**
+	 * Creates a run loader for records read from the middle of the run
+	 * history, i.e. with no header line in front.
+	 */
+	public static RunLoader newRecordLoader(BufferedReader reader)
+			throws IOException {
+		AbstractRunLoader loader = new CSVRunLoader(reader, false);
+		return loader;
+	}
     
 	public static WorkloadFileLoader newWorkloadLoader(BufferedReader reader,
 			WorkloadInfo workloadContext) throws IOException {
@@ -45,9 +56,37 @@ public class Loaders {
 
 	public static SnapshotLoader newSnapshotLoader(BufferedReader reader,
 			WorkloadInfo workload, String stageId) throws IOException {
-		AbstractSnapshotLoader loader = new CSVSnapshotLoader(reader, workload,
-				stageId);
+		AbstractSnapshotLoader loader;
+		if (startsWith(reader, CSVLongSnapshotLoader.HEADER_PREFIX))
+			loader = new CSVLongSnapshotLoader(reader, workload, stageId);
+		else
+			loader = new CSVSnapshotLoader(reader, workload, stageId);
 		return loader;
 	}
 
+	public static LatencyLoader newLatencyLoader(BufferedReader reader,
+			WorkloadInfo workload) {
+		return new CSVLatencyLoader(reader, workload);
+	}
+
+	public static BreakdownLoader newBreakdownLoader(BufferedReader reader,
+			StageInfo stage) {
+		return new CSVBreakdownLoader(reader, stage);
+	}
+
+	/*
+	 * Only the prefix is read ahead, so headers of any length can be reset.
+	 */
+	private static boolean startsWith(BufferedReader reader, String prefix)
+			throws IOException {
+		char[] chars = new char[prefix.length()];
+		reader.mark(chars.length);
+		int len = 0;
+		for (int n; len < chars.length
+				&& (n = reader.read(chars, len, chars.length - len)) >= 0;)
+			len += n;
+		reader.reset();
+		return prefix.equals(new String(chars, 0, len));
+	}
+
 }
@@ -8,6 +8,7 @@ import com.intel.cosbench.config.Stage;
 import com.intel.cosbench.config.WorkloadResolver;
 import com.intel.cosbench.config.XmlConfig;
 import com.intel.cosbench.config.castor.CastorConfigTools;
+import com.intel.cosbench.controller.archiver.SimpleWorkloadArchiver;
 import com.intel.cosbench.controller.model.StageContext;
 import com.intel.cosbench.controller.model.StageRegistry;
 import com.intel.cosbench.controller.model.WorkloadContext;
@@ -43,7 +44,11 @@ public class SimpleWorkloadLoader implements WorkloadLoader {
         LOGGER.info("loading workload archives from {}", path);
     }
 
-	private static String getRunDirName(WorkloadInfo info) {
+	protected static File getArchiveDir() {
+		return ARCHIVE_DIR;
+	}
+
+	protected static String getRunDirName(WorkloadInfo info) {
 		String name = info.getId();
 		name += '-' + info.getWorkload().getName();
 		return name;
@@ -63,11 +68,22 @@ public class SimpleWorkloadLoader implements WorkloadLoader {
 		return workloads;
 	}
 
+	@Override
+	public WorkloadInfo loadWorkloadRun(String id) throws IOException {
+		List<WorkloadInfo> workloads = loadWorkloadRun();
+		if (workloads != null)
+			for (WorkloadInfo workload : workloads)
+				if (workload.getId().equals(id))
+					return workload;
+		return null;
+	}
+
 	@Override
 	public void loadWorkloadPageInfo(WorkloadInfo workloadContext)
 			throws IOException {
 		loadWorkloadConfig(workloadContext);
 		loadWorkloadFile(workloadContext);
+		loadLatencyFile(workloadContext);
 	}
 
 	private void loadWorkloadConfig(WorkloadInfo workloadContext)
@@ -97,7 +113,7 @@ public class SimpleWorkloadLoader implements WorkloadLoader {
 		StageRegistry registry = new StageRegistry();
 		int index = 1;
 		for (Stage stage : workloadContext.getWorkload().getWorkflow()) {
-			String id = "s" + index++;
+			String id = "s" + index++ + "-" + stage.getName(); // as when run
 			registry.addStage(createStageContext(id, stage));
 		}
 		((WorkloadContext) workloadContext).setStageRegistry(registry);
@@ -130,25 +146,52 @@ public class SimpleWorkloadLoader implements WorkloadLoader {
 		loader.load();
 	}
 
-	private static String getStageFileName(StageInfo info) {
-		String name = info.getId();
-		name += "-" + info.getStage().getName();
-		return name;
+	/*
+	 * Only histograms kept as non-empty buckets are loaded, the others take
+	 * one line per bucket.
+	 */
+	private void loadLatencyFile(WorkloadInfo workloadContext)
+			throws IOException {
+		File file = new File(
+				new File(ARCHIVE_DIR, getRunDirName(workloadContext)),
+				getWorkloadFileName(workloadContext) + "-rt-histogram.csv");
+		if (!file.exists())
+			return;
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			Loaders.newLatencyLoader(reader, workloadContext).load();
+		} finally {
+			reader.close();
+		}
 	}
 
 	@Override
 	public void loadStagePageInfo(WorkloadInfo workloadContext, String stageId)
 			throws IOException {
-		File file = new File(
-				new File(ARCHIVE_DIR, getRunDirName(workloadContext)),
-				getStageFileName(workloadContext.getStageInfo(stageId))
-						+ ".csv");
+		File runDir = new File(ARCHIVE_DIR, getRunDirName(workloadContext));
+		File file = new File(runDir,
+				SimpleWorkloadArchiver.getStageFileName(workloadContext
+						.getStageInfo(stageId)) + ".csv");
 		if (!file.exists())
 			return;
 		BufferedReader reader = new BufferedReader(new FileReader(file));
 		SnapshotLoader loader = Loaders.newSnapshotLoader(reader,
 				workloadContext, stageId);
 		loader.load();
+		loadBreakdownFile(runDir, workloadContext.getStageInfo(stageId));
+	}
+
+	protected void loadBreakdownFile(File runDir, StageInfo stageContext)
+			throws IOException {
+		File file = new File(runDir, stageContext.getId() + "-drivers.csv");
+		if (!file.exists())
+			return; // archived before drivers were kept apart
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			Loaders.newBreakdownLoader(reader, stageContext).load();
+		} finally {
+			reader.close();
+		}
 	}
 
 }
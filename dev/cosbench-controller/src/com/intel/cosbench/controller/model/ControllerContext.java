@@ -17,6 +17,12 @@ limitations under the License.
 
 package com.intel.cosbench.controller.model;
 
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.HttpClient;
+
+import com.intel.cosbench.client.http.HttpClientUtil;
 import com.intel.cosbench.model.*;
 
 /**
@@ -30,9 +36,19 @@ public class ControllerContext implements ControllerInfo {
     private String name;
     private String url;
     private String archive_dir;
+    private String archiveFormat; /* layout of archived time series */
     private int concurrency;
+    private int taskThreads;
+    private long driverLogTail;
+    private String driverLogLevel;
     private DriverRegistry driverRegistry;
 
+    /* Shared by the tasks of all stages */
+    private transient ScheduledExecutorService taskExecutor;
+    private transient HttpClient httpClient;
+    /* shared threads held by streaming queries of running stages */
+    private transient AtomicInteger streamingThreads = new AtomicInteger();
+
     public ControllerContext() {
         /* empty */
     }
@@ -71,6 +87,74 @@ public class ControllerContext implements ControllerInfo {
         this.concurrency = concurrency;
     }
 
+    public int getTaskThreads() {
+        return taskThreads;
+    }
+
+    public void setTaskThreads(int taskThreads) {
+        this.taskThreads = taskThreads;
+    }
+
+    public long getDriverLogTail() {
+        return driverLogTail;
+    }
+
+    public void setDriverLogTail(long driverLogTail) {
+        this.driverLogTail = driverLogTail;
+    }
+
+    public String getArchiveFormat() {
+        return archiveFormat;
+    }
+
+    public void setArchiveFormat(String archiveFormat) {
+        this.archiveFormat = archiveFormat;
+    }
+
+    public String getDriverLogLevel() {
+        return driverLogLevel;
+    }
+
+    public void setDriverLogLevel(String driverLogLevel) {
+        this.driverLogLevel = driverLogLevel;
+    }
+
+    public ScheduledExecutorService getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public void setTaskExecutor(ScheduledExecutorService taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /*
+     * Streaming queries hold one shared thread per task for a whole stage,
+     * all running stages together may take no more than half of the threads
+     * so that snapshots, launchers and closers always find one.
+     */
+    public boolean reserveStreamingThreads(int num) {
+        int limit = taskThreads / 2;
+        while (true) {
+            int used = streamingThreads.get();
+            if (used + num > limit)
+                return false;
+            if (streamingThreads.compareAndSet(used, used + num))
+                return true;
+        }
+    }
+
+    public void releaseStreamingThreads(int num) {
+        streamingThreads.addAndGet(-num);
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
     public DriverRegistry getDriverRegistry() {
         return driverRegistry;
     }
@@ -89,4 +173,14 @@ public class ControllerContext implements ControllerInfo {
         return driverRegistry.getAllDrivers();
     }
 
+    @Override
+    public int getPooledConnections() {
+        return HttpClientUtil.getPooledConnections(httpClient);
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return HttpClientUtil.getMaxConnections(httpClient);
+    }
+
 }
@@ -34,6 +34,12 @@ public class DriverContext implements DriverInfo, MapRegistry.Item {
     private String name;
     private String url;
     private boolean aliveState;
+
+    /* Capacity as last reported by the driver, cores are 0 if unknown */
+    private volatile int cores;
+    private volatile long heapMemory;
+    private volatile long bandwidth; /* Mbit/s */
+    private volatile double load = -1;
     // pIDMap<scriptName, pid>
 	private Map<String, String> pidMap = new HashMap<String, String>();
 	// logMap<'wId'+'sId', ScriptLog>
@@ -71,6 +77,38 @@ public class DriverContext implements DriverInfo, MapRegistry.Item {
     	return aliveState;
     }
 
+    public int getCores() {
+        return cores;
+    }
+
+    public void setCores(int cores) {
+        this.cores = cores;
+    }
+
+    public long getHeapMemory() {
+        return heapMemory;
+    }
+
+    public void setHeapMemory(long heapMemory) {
+        this.heapMemory = heapMemory;
+    }
+
+    public long getBandwidth() {
+        return bandwidth;
+    }
+
+    public void setBandwidth(long bandwidth) {
+        this.bandwidth = bandwidth;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public void setLoad(double load) {
+        this.load = load;
+    }
+
 	public String getPidMapValue(String scriptName) {
 		String pid = pidMap.remove(scriptName);		
 		return (pid == null) ? "0" : pid;
@@ -15,19 +15,294 @@ See the License for the specific language governing permissions and
 limitations under the License. 
 */ 
 
+
 package com.intel.cosbench.controller.model;
 
-import com.intel.cosbench.bench.Snapshot;
+import java.io.*;
+import java.util.*;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.log.*;
+import com.intel.cosbench.protocol.BinaryCodec;
 import com.intel.cosbench.utils.ListRegistry;
 
+/**
+ * This class holds the snapshots of one stage. Only the most recent ones are
+ * kept in memory, older ones are appended to a spill file and read back when
+ * needed, so that long runs do not grow the heap without limit. The same
+ * file format is used to archive snapshots, which can be loaded back lazily.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
 public class SnapshotRegistry extends ListRegistry<Snapshot> {
 
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    private static final int WINDOW_DEFAULT = 3600;
+
+    private static final String WINDOW_KEY = "cosbench.controller.snapshot_window";
+
+    private static final String SPILL_DIR_KEY = "cosbench.controller.spill_dir";
+
+    private static final int READ_BATCH = 256;
+
+    private int window = getWindow(); /* snapshots kept in memory, 0 for all */
+
+    private File spillFile; /* a file holding older snapshots */
+    private long[] offsets = new long[64]; /* file offset of each snapshot */
+    private int spilled; /* snapshots in the spill file */
+    private boolean archived; /* the file belongs to an archive */
+    private List<Snapshot> cached = Collections.emptyList(); /* last batch read */
+    private int cachedFrom;
+
+    public SnapshotRegistry() {
+        /* empty */
+    }
+
+    private static int getWindow() {
+        int window = WINDOW_DEFAULT;
+        String config = System.getProperty(WINDOW_KEY);
+        if (!StringUtils.isEmpty(config))
+            try {
+                window = Integer.parseInt(config);
+            } catch (NumberFormatException e) {
+            }
+        return Math.max(window, 0);
+    }
+
     public void addSnapshot(Snapshot snapshot) {
         addItem(snapshot);
     }
 
+    /**
+     * Reads all snapshots into memory, only meant for short stages, the
+     * iterator reads spilled ones in batches instead.
+     */
     public Snapshot[] getAllSnapshot() {
-        return getAllItems().toArray(new Snapshot[getSize()]);
+        List<Snapshot> snapshots = getAllItems();
+        return snapshots.toArray(new Snapshot[snapshots.size()]);
+    }
+
+    /**
+     * @return snapshots where every given number of consecutive ones are
+     *         merged into one
+     */
+    public Snapshot[] getSnapshots(int resolution) {
+        if (resolution <= 1)
+            return getAllSnapshot();
+        return SnapshotDownsampler.downsample(this, resolution);
+    }
+
+    @Override
+    public synchronized void addItem(Snapshot snapshot) {
+        super.addItem(snapshot);
+        if (window > 0 && super.getSize() > window)
+            spill(Math.max(window / 2, 1));
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return spilled + super.getSize();
+    }
+
+    @Override
+    public synchronized Snapshot getItem(int index) {
+        if (index >= spilled)
+            return super.getItem(index - spilled);
+        if (index < cachedFrom || index >= cachedFrom + cached.size()) {
+            cached = readSpilled(index, Math.min(index + READ_BATCH, spilled));
+            cachedFrom = index;
+        }
+        return cached.get(index - cachedFrom);
+    }
+
+    @Override
+    public synchronized List<Snapshot> getAllItems() {
+        List<Snapshot> result = new ArrayList<Snapshot>(getSize());
+        if (spilled > 0)
+            result.addAll(readSpilled(0, spilled));
+        result.addAll(super.getAllItems());
+        return result;
+    }
+
+    /**
+     * Iterates over a view taken at the time of the call, spilled snapshots
+     * are read in batches.
+     */
+    @Override
+    public synchronized Iterator<Snapshot> iterator() {
+        final int onDisk = spilled;
+        final List<Snapshot> inMemory = new ArrayList<Snapshot>(
+                super.getAllItems());
+        return new Iterator<Snapshot>() {
+
+            private int next;
+            private List<Snapshot> batch = Collections.emptyList();
+            private int batchStart;
+
+            @Override
+            public boolean hasNext() {
+                return next < onDisk + inMemory.size();
+            }
+
+            @Override
+            public Snapshot next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                int idx = next++;
+                if (idx >= onDisk)
+                    return inMemory.get(idx - onDisk);
+                if (idx >= batchStart + batch.size()) {
+                    batchStart = idx;
+                    synchronized (SnapshotRegistry.this) {
+                        batch = readSpilled(idx,
+                                Math.min(idx + READ_BATCH, onDisk));
+                    }
+                }
+                return batch.get(idx - batchStart);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+        };
+    }
+
+    /**
+     * Deletes the spill file, snapshots kept there are gone afterwards. An
+     * archived file is only released.
+     */
+    public synchronized void dispose() {
+        cached = Collections.emptyList();
+        if (spillFile != null && !archived && !spillFile.delete())
+            LOGGER.warn("cannot delete snapshot file {}", spillFile);
+        spillFile = null;
+        spilled = 0;
+    }
+
+    /**
+     * Serves snapshots from an archived file, they are only read when asked
+     * for. Nothing is done if snapshots are present already.
+     */
+    public synchronized void load(File file) throws IOException {
+        if (getSize() > 0)
+            return;
+        long[] found = new long[64];
+        int count = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)));
+        try {
+            long pos = 0;
+            long length = file.length();
+            while (pos + 4 <= length) {
+                int size = in.readInt();
+                if (pos + 4 + size > length)
+                    break; // truncated
+                if (count == found.length)
+                    found = Arrays.copyOf(found, count * 2);
+                found[count++] = pos;
+                skipFully(in, size);
+                pos += 4 + size;
+            }
+        } finally {
+            in.close();
+        }
+        spillFile = file;
+        offsets = found;
+        spilled = count;
+        archived = true;
+        window = 0; // never write into an archive
+    }
+
+    private static void skipFully(DataInputStream in, int size)
+            throws IOException {
+        while (size > 0) {
+            int skipped = in.skipBytes(size);
+            if (skipped <= 0)
+                throw new EOFException();
+            size -= skipped;
+        }
+    }
+
+    /**
+     * Writes snapshots into a file which can be loaded back later.
+     */
+    public static void save(Iterable<Snapshot> snapshots, File file)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)));
+        try {
+            for (Snapshot snapshot : snapshots) {
+                byte[] data = BinaryCodec.encode(snapshot);
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void spill(int count) {
+        List<Snapshot> inMemory = super.getAllItems();
+        try {
+            if (spillFile == null)
+                spillFile = createSpillFile();
+            RandomAccessFile file = new RandomAccessFile(spillFile, "rw");
+            try {
+                file.seek(file.length());
+                if (spilled + count > offsets.length)
+                    offsets = Arrays.copyOf(offsets,
+                            Math.max(offsets.length * 2, spilled + count));
+                for (int i = 0; i < count; i++) {
+                    byte[] data = BinaryCodec.encode(inMemory.get(i));
+                    offsets[spilled + i] = file.getFilePointer();
+                    file.writeInt(data.length);
+                    file.write(data);
+                }
+            } finally {
+                file.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("cannot spill snapshots, keeping all in memory", e);
+            window = 0;
+            return;
+        }
+        inMemory.subList(0, count).clear();
+        spilled += count; // only counted once all are written
+    }
+
+    private static File createSpillFile() throws IOException {
+        String dir = System.getProperty(SPILL_DIR_KEY);
+        File file = File.createTempFile("snapshots-", ".bin",
+                StringUtils.isEmpty(dir) ? null : new File(dir));
+        file.deleteOnExit();
+        return file;
+    }
+
+    private List<Snapshot> readSpilled(int from, int to) {
+        List<Snapshot> result = new ArrayList<Snapshot>(to - from);
+        try {
+            RandomAccessFile file = new RandomAccessFile(spillFile, "r");
+            try {
+                file.seek(offsets[from]);
+                for (int i = from; i < to; i++) {
+                    byte[] data = new byte[file.readInt()];
+                    file.readFully(data);
+                    result.add(BinaryCodec.decodeSnapshot(data));
+                }
+            } finally {
+                file.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read snapshot file "
+                    + spillFile, e);
+        }
+        return result;
     }
 
 }
@@ -17,10 +17,12 @@ limitations under the License.
 
 package com.intel.cosbench.controller.model;
 
+import java.io.*;
 import java.util.*;
 
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.config.*;
+import com.intel.cosbench.config.common.KVConfigParser;
 import com.intel.cosbench.model.*;
 import com.intel.cosbench.utils.ListRegistry;
 
@@ -41,9 +43,17 @@ public class StageContext implements StageInfo {
     private transient ScheduleRegistry scheduleRegistry;
     private TaskRegistry taskRegistry;
     private SnapshotRegistry snapshotRegistry = new SnapshotRegistry();
+    /* Slowest requests of the whole stage, null until there are some */
+    private transient volatile SlowRequestTracker slowest;
+    /* Fed with each snapshot, null for stages loaded from archives */
+    private transient SteadyStateDetector steadyDetector;
+    private transient boolean earlyStop; /* set along with the detector */
+    private transient double steadyTarget; /* 0 until parsed */
+    private volatile SteadyState steadyState = null; // once stopped
 
     /* Report will be available after the stage is completed */
     private volatile Report report = null; // will be merged from task reports
+    private volatile List<Breakdown> breakdown = null; // collected from tasks
 
     private transient List<StageListener> listeners = new ArrayList<StageListener>();
 
@@ -85,6 +95,10 @@ public class StageContext implements StageInfo {
     private void fireStageStopped() {
         if (report == null)
             report = mergeReport();
+        if (breakdown == null)
+            breakdown = collectBreakdown();
+        pollSlowRequests(); // those after the last interval
+        steadyState = getSteadyState();
         for (StageListener listener : listeners)
             listener.stageStopped(this);
     }
@@ -98,6 +112,15 @@ public class StageContext implements StageInfo {
         return merger.merge();
     }
 
+    private List<Breakdown> collectBreakdown() {
+        List<Breakdown> breakdown = new ArrayList<Breakdown>();
+        if (taskRegistry != null)
+            for (TaskContext task : taskRegistry)
+                if (task.getBreakdown() != null)
+                    breakdown.addAll(task.getBreakdown());
+        return breakdown;
+    }
+
     @Override
     public StateInfo[] getStateHistory() {
         return stateHistory.getAllStates();
@@ -190,18 +213,137 @@ public class StageContext implements StageInfo {
         this.report = report;
     }
 
+    @Override
+    public List<Breakdown> getBreakdown() {
+        List<Breakdown> breakdown = this.breakdown;
+        return breakdown != null ? breakdown : new ArrayList<Breakdown>();
+    }
+
+    @Override
+    public void setBreakdown(List<Breakdown> breakdown) {
+        this.breakdown = breakdown;
+    }
+
+    @Override
+    public List<Skew> getSkews() {
+        return Skew.analyze(getBreakdown());
+    }
+
     @Override
     public Snapshot[] getSnapshots() {
         return snapshotRegistry.getAllSnapshot();
     }
 
+    @Override
+    public Snapshot[] getSnapshots(int resolution) {
+        return snapshotRegistry.getSnapshots(resolution);
+    }
+
     @Override
     public int getSnapshotCount() {
         return snapshotRegistry.getSize();
     }
 
     public void makeSnapshot() {
-        snapshotRegistry.addSnapshot(getSnapshot());
+        Snapshot snapshot = getSnapshot();
+        snapshot.setSlowRequests(pollSlowRequests());
+        snapshotRegistry.addSnapshot(snapshot);
+        if (steadyDetector == null) {
+            earlyStop = isEarlyStop();
+            steadyDetector = new SteadyStateDetector(getSteadyTarget());
+        }
+        steadyDetector.add(snapshot);
+    }
+
+    @Override
+    public SteadyState getSteadyState() {
+        if (steadyState != null)
+            return steadyState;
+        SteadyStateDetector detector = steadyDetector;
+        if (detector != null)
+            return detector.analyze();
+        return SteadyStateDetector.analyze(snapshotRegistry, getSteadyTarget());
+    }
+
+    /**
+     * @return true if all works asked to end the stage once it is stable, and
+     *         it is
+     */
+    public boolean isSteadyEnough() {
+        SteadyStateDetector detector = steadyDetector;
+        if (detector == null || !earlyStop
+                || !StageState.RUNNING.equals(state))
+            return false;
+        return detector.analyze().isStable();
+    }
+
+    private boolean isEarlyStop() {
+        for (Work work : stage)
+            if (!KVConfigParser.parse(work.getConfig()).getBoolean(
+                    "early_stop", false))
+                return false;
+        return true;
+    }
+
+    /*
+     * The tightest confidence interval any work asks for, parsed once. The
+     * "ci_target" is the half-width relative to the mean as a fraction, e.g.
+     * 0.05 for +/- 5%, not a percentage.
+     */
+    private double getSteadyTarget() {
+        if (steadyTarget > 0)
+            return steadyTarget;
+        double target = 0D;
+        if (stage != null)
+            for (Work work : stage) {
+                double t = KVConfigParser.parse(work.getConfig()).getDouble(
+                        "ci_target", 0D);
+                if (t > 0 && (target == 0 || t < target))
+                    target = t;
+            }
+        return steadyTarget = target > 0 ? target
+                : SteadyStateDetector.DEFAULT_TARGET;
+    }
+
+    /*
+     * Merges the slowest requests each task received since the previous
+     * interval, keeping as many as the works asked for.
+     */
+    private List<SlowRequest> pollSlowRequests() {
+        if (taskRegistry == null)
+            return null;
+        SlowRequestTracker interval = null;
+        for (TaskContext task : taskRegistry) {
+            List<SlowRequest> requests = task.pollSlowRequests();
+            if (requests.isEmpty())
+                continue;
+            if (interval == null)
+                interval = new SlowRequestTracker(getSlowRequestSize());
+            interval.offerAll(requests);
+        }
+        if (interval == null)
+            return null;
+        List<SlowRequest> requests = interval.getAll();
+        if (slowest == null)
+            slowest = new SlowRequestTracker(interval.getSize());
+        slowest.offerAll(requests);
+        return requests;
+    }
+
+    private int getSlowRequestSize() {
+        int size = 0;
+        for (Work work : stage)
+            size = Math.max(size, KVConfigParser.parse(work.getConfig())
+                    .getInt("slowest", SlowRequestTracker.DEFAULT_SIZE));
+        return Math.max(size, 1);
+    }
+
+    @Override
+    public List<SlowRequest> getSlowRequests() {
+        SlowRequestTracker tracker = slowest;
+        if (tracker == null)
+            return Collections.emptyList();
+        return tracker.getAll();
     }
 
     public void addListener(StageListener listener) {
@@ -217,6 +359,20 @@ public class StageContext implements StageInfo {
         listeners = null;
     }
 
+    /**
+     * Serves snapshots of an archived stage from the given file.
+     */
+    public void loadSnapshots(File file) throws IOException {
+        snapshotRegistry.load(file);
+    }
+
+    /**
+     * Releases snapshots spilled to disk, once the stage is dropped.
+     */
+    public void disposeSnapshots() {
+        snapshotRegistry.dispose();
+    }
+
 	@Override
 	public ListRegistry<Snapshot> getSnapshotRegistry() {
 		return snapshotRegistry;
@@ -17,14 +17,30 @@ limitations under the License.
 
 package com.intel.cosbench.controller.model;
 
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import com.intel.cosbench.utils.ListRegistry;
 
 public class StageRegistry extends ListRegistry<StageContext> {
 
+    public StageRegistry() {
+        /* stages may be added while pages list them */
+        super(new CopyOnWriteArrayList<StageContext>());
+    }
+
     public void addStage(StageContext stage) {
         addItem(stage);
     }
 
+    /**
+     * Inserts a stage right after another one, such as the steps of a search
+     * stage.
+     */
+    public void insertStage(StageContext after, StageContext stage) {
+        int index = getAllItems().indexOf(after);
+        getAllItems().add(index + 1, stage);
+    }
+
     public StageContext getStage(int index) {
         return getItem(index);
     }
@@ -17,7 +17,8 @@ limitations under the License.
 
 package com.intel.cosbench.controller.model;
 
-import java.util.HashMap;
+import java.io.File;
+import java.util.*;
 
 import org.apache.http.client.HttpClient;
 import org.codehaus.jackson.map.ObjectMapper;
@@ -33,19 +34,48 @@ public class TaskContext implements TaskInfo {
 
     private transient HttpClient httpClient;
     private transient ObjectMapper mapper;
+    /* The binary encoding version agreed with the driver, 0 for JSON */
+    private transient int protocolVersion;
+    /* Driver clock minus controller clock, estimated when booting */
+    private transient long clockOffset;
+    /* Round trip time of the boot request, -1 if not measured */
+    private transient long roundTrip = -1;
+    /* Controller time at which workers should start, 0 for immediately */
+    private transient long startAt;
 
     private String missionId;
+    /* Ids of the workload and stage the mission is labeled with */
+    private transient String workloadId;
+    private transient String stageId;
     /* The interval that is chosen by the driver */
     private int interval;
     /* Each task starts with an empty snapshot */
     private transient volatile Snapshot snapshot = new Snapshot();
+    /* Cuts the cumulative snapshots from the driver into windows */
+    private transient SnapshotWindow snapshotWindow = new SnapshotWindow();
+    /* Peak resources of the driver seen so far, null if unknown */
+    private transient volatile ResourceUsage resourceUsage;
+    /* Slowest requests received since the stage last cut an interval */
+    private transient List<SlowRequest> slowRequests = new ArrayList<SlowRequest>();
     /* Each task starts with an empty report */
     private transient volatile Report report = new Report();
+    /* Final metrics of the driver and of its workers, empty until closed */
+    private transient volatile List<Breakdown> breakdown = new ArrayList<Breakdown>();
     /* Each task starts with an empty log */
     private volatile transient String log = "[N/A]";
+    /* Driver log spooled to disk, null if it came with the close response */
+    private volatile transient File logFile;
+    /* Bytes at the end of the driver log to fetch, 0 for all of it */
+    private transient long logTail;
+    /* Least severe driver log entries to fetch, null for all of them */
+    private transient String logLevel;
+    /* Per-operation trace spooled to disk, gzip compressed, null if none */
+    private volatile transient File traceFile;
  
     /* Each task starts with an empty error statistics log*/
     private volatile transient HashMap<String, Integer> errorStatistics = new HashMap<String, Integer>();
+    /* Errors per kind with sampled targets, as of the latest snapshot */
+    private volatile transient List<ErrorEntry> errors = new ArrayList<ErrorEntry>();
     
 
     public TaskContext() {
@@ -92,6 +122,38 @@ public class TaskContext implements TaskInfo {
         this.mapper = mapper;
     }
 
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public void setProtocolVersion(int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
+
+    public long getClockOffset() {
+        return clockOffset;
+    }
+
+    public void setClockOffset(long clockOffset) {
+        this.clockOffset = clockOffset;
+    }
+
+    public long getRoundTrip() {
+        return roundTrip;
+    }
+
+    public void setRoundTrip(long roundTrip) {
+        this.roundTrip = roundTrip;
+    }
+
+    public long getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(long startAt) {
+        this.startAt = startAt;
+    }
+
     @Override
     public String getMissionId() {
         return missionId;
@@ -117,6 +179,57 @@ public class TaskContext implements TaskInfo {
         this.snapshot = snapshot;
     }
 
+    public SnapshotWindow getSnapshotWindow() {
+        return snapshotWindow;
+    }
+
+    @Override
+    public ResourceUsage getResourceUsage() {
+        return resourceUsage;
+    }
+
+    /**
+     * Keeps the peaks of the current and the given usage.
+     */
+    public synchronized void addResourceUsage(ResourceUsage usage) {
+        resourceUsage = ResourceUsage.max(resourceUsage, usage);
+    }
+
+    public synchronized void addSlowRequests(List<SlowRequest> requests) {
+        if (requests != null)
+            slowRequests.addAll(requests);
+    }
+
+    /**
+     * @return the slowest requests received since the previous call
+     */
+    public synchronized List<SlowRequest> pollSlowRequests() {
+        List<SlowRequest> requests = slowRequests;
+        slowRequests = new ArrayList<SlowRequest>();
+        return requests;
+    }
+
+    @Override
+    public Snapshot getCumulativeSnapshot() {
+        return snapshotWindow.getLast();
+    }
+
+    public String getWorkloadId() {
+        return workloadId;
+    }
+
+    public void setWorkloadId(String workloadId) {
+        this.workloadId = workloadId;
+    }
+
+    public String getStageId() {
+        return stageId;
+    }
+
+    public void setStageId(String stageId) {
+        this.stageId = stageId;
+    }
+
     public Report getReport() {
         return report;
     }
@@ -125,6 +238,14 @@ public class TaskContext implements TaskInfo {
         this.report = report;
     }
 
+    public List<Breakdown> getBreakdown() {
+        return breakdown;
+    }
+
+    public void setBreakdown(List<Breakdown> breakdown) {
+        this.breakdown = breakdown;
+    }
+
     public String getLog() {
         return this.log;
     }
@@ -132,6 +253,59 @@ public class TaskContext implements TaskInfo {
     public void setLog(String log) {
         this.log = log;
     }
+
+    public File getLogFile() {
+        return logFile;
+    }
+
+    public void setLogFile(File logFile) {
+        this.logFile = logFile;
+    }
+
+    public long getLogTail() {
+        return logTail;
+    }
+
+    public void setLogTail(long logTail) {
+        this.logTail = logTail;
+    }
+
+    public String getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(String logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    /**
+     * Deletes the spooled driver log, once the workload is dropped.
+     */
+    public void disposeLog() {
+        File file = logFile;
+        logFile = null;
+        if (file != null)
+            file.delete();
+    }
+
+    @Override
+    public File getTraceFile() {
+        return traceFile;
+    }
+
+    public void setTraceFile(File traceFile) {
+        this.traceFile = traceFile;
+    }
+
+    /**
+     * Deletes the spooled trace, once the workload is dropped.
+     */
+    public void disposeTrace() {
+        File file = traceFile;
+        traceFile = null;
+        if (file != null)
+            file.delete();
+    }
    
 
     public HashMap<String, Integer> getErrorStatistics() {
@@ -142,14 +316,24 @@ public class TaskContext implements TaskInfo {
 		this.errorStatistics = errorStatistics;
 	}
 
+	public List<ErrorEntry> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<ErrorEntry> errors) {
+		this.errors = errors;
+	}
+
 	@Override
     public void disposeRuntime() {
     	if(TaskState.isStopped(state)) {
 	        httpClient = null;
 	        mapper = null;
 	        report = null;
+	        breakdown = null;
 	        log = null;
 	        snapshot = new Snapshot();
+	        snapshotWindow = new SnapshotWindow();
     	}
     }
 
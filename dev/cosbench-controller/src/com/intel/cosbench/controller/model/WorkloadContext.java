@@ -303,12 +303,27 @@ public class WorkloadContext implements WorkloadInfo {
     		}
     	}
     }
+    /*
+     * Errors are logged per kind, or only per code for drivers which do not
+     * report their kinds.
+     */
     public void logErrorStatistics(Logger logger){
-    	for (Map.Entry<String, ErrorSummary> driverEntry : errorStatistics.entrySet()){
-    		for (Map.Entry<String, Integer> codeEntry : driverEntry.getValue().getErrorCodeAndNum().entrySet()){
-    			logger.error(driverEntry.getKey() + " : " + codeEntry.getKey() + " occured " + codeEntry.getValue() );
+    	for (StageContext stageContext : stageRegistry)
+    		for (TaskContext taskContext : stageContext.getTaskRegistry()) {
+    			String driverUrl = taskContext.getSchedule().getDriver().getUrl();
+    			if (taskContext.getErrors().isEmpty()) {
+    				if (taskContext.getErrorStatistics() == null)
+    					continue;
+    				for (Map.Entry<String, Integer> codeEntry : taskContext.getErrorStatistics().entrySet())
+    					logger.error(driverUrl + " : " + codeEntry.getKey() + " occured " + codeEntry.getValue());
+    				continue;
+    			}
+    			for (ErrorEntry entry : taskContext.getErrors())
+    				logger.error(driverUrl + " : "
+    						+ entry.getCode() + " occured " + entry.getCount() + " times on "
+    						+ entry.getOpType() + " (" + entry.getType() + "), e.g. "
+    						+ entry.getTargets());
     		}
-    	}
     }
 
 	@Override
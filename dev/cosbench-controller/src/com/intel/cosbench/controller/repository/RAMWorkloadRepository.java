@@ -76,6 +76,8 @@ public class RAMWorkloadRepository implements WorkloadRepository,
     public synchronized void saveWorkload(WorkloadContext workload) {
         workload.addListener(this);
         WorkloadContext[] removed = workloads.add(workload);
+        for (WorkloadContext old : removed)
+            disposeFiles(old);
         LOGGER.debug("workload {} has been saved in RAM", workload.getId());
         LOGGER.debug("{} workloads have been removed from RAM", removed.length);
     }
@@ -83,8 +85,22 @@ public class RAMWorkloadRepository implements WorkloadRepository,
     @Override
     public synchronized void removeWorkload(WorkloadContext workload) {
     	workloads.remove(workload);
+    	disposeFiles(workload);
     } 
 
+    private static void disposeFiles(WorkloadContext workload) {
+        if (workload.getStageRegistry() == null)
+            return;
+        for (StageContext stage : workload.getStageRegistry()) {
+            stage.disposeSnapshots();
+            if (stage.getTaskRegistry() != null)
+                for (TaskContext task : stage.getTaskRegistry()) {
+                    task.disposeLog();
+                    task.disposeTrace();
+                }
+        }
+    }
+
     @Override
     public synchronized WorkloadContext getWorkload(String id) {
         return workloads.fetch(id);
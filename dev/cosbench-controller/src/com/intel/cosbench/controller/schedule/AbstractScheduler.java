@@ -19,6 +19,8 @@ package com.intel.cosbench.controller.schedule;
 
 import java.util.*;
 
+import org.apache.commons.lang.StringUtils;
+
 import com.intel.cosbench.config.*;
 import com.intel.cosbench.controller.model.*;
 
@@ -34,6 +36,8 @@ abstract class AbstractScheduler implements WorkScheduler {
 
     protected Map<String, DriverContext> drivers = new LinkedHashMap<String, DriverContext>();
 
+    protected ScheduleRegistry schedules = new ScheduleRegistry();
+
     public AbstractScheduler() {
         /* empty */
     }
@@ -45,6 +49,35 @@ abstract class AbstractScheduler implements WorkScheduler {
             drivers.put(driver.getName(), driver);
     }
 
+    /**
+     * Schedules works pinned to a driver, such drivers are not used for other
+     * works any more.
+     */
+    protected void honorUserSchedules() {
+        Set<String> toRemove = new HashSet<String>();
+        List<Work> unscheduled = new ArrayList<Work>();
+        for (Work work : works) {
+            DriverContext driver = fetchDriver(work.getDriver());
+            if (driver == null) {
+                unscheduled.add(work);
+                continue;
+            }
+            toRemove.add(driver.getName());
+            schedules.addSchedule(createSchedule(work, driver));
+        }
+        for (String driver : toRemove)
+            drivers.remove(driver);
+        works = unscheduled;
+    }
+
+    private DriverContext fetchDriver(String name) {
+        if (StringUtils.isEmpty(name))
+            return null;
+        if (StringUtils.equals(name, "none"))
+            return null;
+        return drivers.get(name);
+    }
+
     protected static SchedulePlan createSchedule(Work work,
             DriverContext driver, int offset, int workers) {
         SchedulePlan plan = new SchedulePlan();
@@ -17,10 +17,6 @@ limitations under the License.
 
 package com.intel.cosbench.controller.schedule;
 
-import java.util.*;
-
-import org.apache.commons.lang.StringUtils;
-
 import com.intel.cosbench.config.Work;
 import com.intel.cosbench.controller.model.*;
 
@@ -36,8 +32,6 @@ class BalancedScheduler extends AbstractScheduler {
     private int allocIdx;
     private int[] allocMap;
 
-    private ScheduleRegistry schedules = new ScheduleRegistry();
-
     public BalancedScheduler() {
         /* empty */
     }
@@ -49,23 +43,6 @@ class BalancedScheduler extends AbstractScheduler {
         return schedules;
     }
 
-    private void honorUserSchedules() {
-        Set<String> toRemove = new HashSet<String>();
-        List<Work> unscheduled = new ArrayList<Work>();
-        for (Work work : works) {
-            DriverContext driver = fetchDriver(work.getDriver());
-            if (driver == null) {
-                unscheduled.add(work);
-                continue;
-            }
-            toRemove.add(driver.getName());
-            schedules.addSchedule(createSchedule(work, driver));
-        }
-        for (String driver : toRemove)
-            drivers.remove(driver);
-        works = unscheduled;
-    }
-
     private void scheduleRestWorks() {
         if (works.size() == 0)
             return;
@@ -102,12 +79,4 @@ class BalancedScheduler extends AbstractScheduler {
         }
     }
 
-    private DriverContext fetchDriver(String name) {
-        if (StringUtils.isEmpty(name))
-            return null;
-        if (StringUtils.equals(name, "none"))
-            return null;
-        return drivers.get(name);
-    }
-
 }
@@ -0,0 +1,206 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.controller.schedule;
+
+import java.util.*;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.config.Work;
+import com.intel.cosbench.controller.model.*;
+
+/**
+ * This class encapsulates one capacity aware scheduler, which distributes
+ * workers in proportion to driver weights. Weights are either given
+ * explicitly in stage config ("weights=driver1:1,driver2:4") or derived from
+ * the capacity advertised by each driver, where the scarcest resource decides.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class CapacityScheduler extends AbstractScheduler {
+
+    private String weightConfig;
+
+    private int allocIdx;
+    private double[] weights;
+    private int[] allocMap;
+
+    public CapacityScheduler() {
+        /* empty */
+    }
+
+    public void setWeightConfig(String weightConfig) {
+        this.weightConfig = weightConfig;
+    }
+
+    @Override
+    public ScheduleRegistry schedule() {
+        honorUserSchedules();
+        scheduleRestWorks();
+        return schedules;
+    }
+
+    private void scheduleRestWorks() {
+        if (works.size() == 0)
+            return;
+        if (drivers.size() == 0)
+            throw new ScheduleException("no free driver available");
+        weights = StringUtils.isEmpty(weightConfig) ? capacityWeights()
+                : configuredWeights();
+        allocIdx = 0;
+        allocMap = new int[drivers.size()];
+        for (Work work : works)
+            doSchedule(work);
+    }
+
+    private double[] configuredWeights() {
+        Map<String, Double> given = new HashMap<String, Double>();
+        for (String entry : StringUtils.split(weightConfig, ',')) {
+            String[] kv = StringUtils.split(entry, ':');
+            if (kv.length != 2)
+                throw new ScheduleException("illegal driver weight: " + entry);
+            try {
+                given.put(kv[0].trim(), Double.valueOf(kv[1].trim()));
+            } catch (NumberFormatException nfe) {
+                throw new ScheduleException("illegal driver weight: " + entry);
+            }
+        }
+        double[] result = new double[drivers.size()];
+        double total = 0;
+        int idx = 0;
+        for (DriverContext driver : drivers.values()) {
+            Double weight = given.get(driver.getName());
+            result[idx] = weight == null ? 0 : Math.max(0, weight);
+            total += result[idx++];
+        }
+        if (total <= 0)
+            throw new ScheduleException("no free driver has a positive weight");
+        return result;
+    }
+
+    private double[] capacityWeights() {
+        int num = drivers.size();
+        double[] cpu = new double[num];
+        double[] mem = new double[num];
+        double[] net = new double[num];
+        boolean memKnown = true;
+        boolean netKnown = true;
+        int idx = 0;
+        for (DriverContext driver : drivers.values()) {
+            cpu[idx] = freeCores(driver);
+            mem[idx] = driver.getHeapMemory();
+            net[idx] = driver.getBandwidth();
+            if (cpu[idx] > 0) {
+                memKnown &= mem[idx] > 0;
+                netKnown &= net[idx] > 0;
+            }
+            idx++;
+        }
+        normalize(cpu);
+        if (memKnown)
+            normalize(mem);
+        if (netKnown)
+            normalize(net);
+
+        double[] result = new double[num];
+        double known = 0;
+        int count = 0;
+        for (int i = 0; i < num; i++) {
+            if (cpu[i] <= 0)
+                continue; // capacity unknown
+            double share = cpu[i];
+            if (memKnown)
+                share = Math.min(share, mem[i]);
+            if (netKnown)
+                share = Math.min(share, net[i]);
+            result[i] = share;
+            known += share;
+            count++;
+        }
+        double average = count > 0 ? known / count : 1;
+        for (int i = 0; i < num; i++)
+            if (cpu[i] <= 0)
+                result[i] = average;
+        return result;
+    }
+
+    private static double freeCores(DriverContext driver) {
+        int cores = driver.getCores();
+        if (cores <= 0)
+            return 0;
+        double load = driver.getLoad();
+        if (load < 0)
+            return cores;
+        return cores * Math.max(0.1, 1 - load / cores);
+    }
+
+    private static void normalize(double[] values) {
+        double total = 0;
+        for (double value : values)
+            total += Math.max(0, value);
+        if (total <= 0)
+            return;
+        for (int i = 0; i < values.length; i++)
+            values[i] = Math.max(0, values[i]) / total;
+    }
+
+    private void doSchedule(Work work) {
+        int driverNum = allocMap.length;
+        int total = work.getWorkers();
+        double sum = 0;
+        for (double weight : weights)
+            sum += weight;
+
+        int given = 0;
+        double[] remains = new double[driverNum];
+        for (int i = 0; i < driverNum; i++) {
+            double exact = total * weights[i] / sum;
+            allocMap[i] = (int) exact;
+            remains[i] = exact - allocMap[i];
+            given += allocMap[i];
+        }
+        /* largest remainder first, ties go round-robin across works */
+        for (; given < total; given++) {
+            int best = -1;
+            for (int j = 0; j < driverNum; j++) {
+                int i = (allocIdx + j) % driverNum;
+                if (weights[i] <= 0)
+                    continue;
+                if (best < 0 || remains[i] > remains[best])
+                    best = i;
+            }
+            allocMap[best]++;
+            remains[best] = -1;
+            allocIdx = (best + 1) % driverNum;
+        }
+
+        int idx = 0;
+        int offset = 0;
+        int workers = 0;
+        for (DriverContext driver : drivers.values()) {
+            if ((workers = allocMap[idx++]) == 0)
+                continue;
+            schedules
+                    .addSchedule(createSchedule(work, driver, offset, workers));
+            offset += workers;
+        }
+    }
+
+}
@@ -17,11 +17,45 @@ limitations under the License.
 
 package com.intel.cosbench.controller.schedule;
 
-import com.intel.cosbench.config.Stage;
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.config.*;
+import com.intel.cosbench.config.common.KVConfigParser;
 import com.intel.cosbench.controller.model.DriverRegistry;
 
 public class Schedulers {
 
+    public static final String SCHEDULER_KEY = "scheduler";
+    public static final String CAPACITY_SCHEDULER = "capacity";
+    public static final String WEIGHTS_KEY = "weights";
+
+    /**
+     * Picks the scheduler named in stage config, "scheduler=capacity" for a
+     * capacity weighted one, the balanced one otherwise.
+     */
+    public static WorkScheduler getScheduler(Stage stage,
+            DriverRegistry registry) {
+        if (!isCapacityAware(stage))
+            return defaultScheduler(stage, registry);
+        Config config = KVConfigParser.parse(stage.getConfig());
+        CapacityScheduler scheduler = new CapacityScheduler();
+        scheduler.setWeightConfig(config.get(WEIGHTS_KEY, null));
+        scheduler.init(stage, registry);
+        return scheduler;
+    }
+
+    /**
+     * Tells whether drivers should report their capacity before the given
+     * stage is scheduled.
+     */
+    public static boolean isCapacityAware(Stage stage) {
+        if (StringUtils.isEmpty(stage.getConfig()))
+            return false;
+        Config config = KVConfigParser.parse(stage.getConfig());
+        return StringUtils.equals(config.get(SCHEDULER_KEY, null),
+                CAPACITY_SCHEDULER);
+    }
+
     public static WorkScheduler defaultScheduler(Stage stage,
             DriverRegistry registry) {
         AbstractScheduler scheduler = new BalancedScheduler();
@@ -26,8 +26,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 
+import com.intel.cosbench.bench.Comparison;
+import com.intel.cosbench.client.http.HttpClientUtil;
 import com.intel.cosbench.config.XmlConfig;
 import com.intel.cosbench.controller.archiver.*;
+import com.intel.cosbench.controller.loader.IndexedWorkloadLoader;
 import com.intel.cosbench.controller.loader.SimpleWorkloadLoader;
 import com.intel.cosbench.controller.model.*;
 import com.intel.cosbench.controller.repository.*;
@@ -46,6 +49,11 @@ class COSBControllerService implements ControllerService, WorkloadListener {
 
     private static final Logger LOGGER = LogFactory.getSystemLogger();
 
+    private static final int TASK_TIMEOUT = 300 * 1000;
+
+    /* connections to one driver per concurrent workload */
+    private static final int CONNECTIONS_PER_DRIVER = 4;
+
     private AtomicInteger count; /* workload id generator */
     
     private AtomicInteger order;
@@ -80,8 +88,9 @@ class COSBControllerService implements ControllerService, WorkloadListener {
 		
 		// initialize workload archiver and loader
 		String archive_dir = context.getArchive_dir();
-		archiver = new SimpleWorkloadArchiver(archive_dir);
-	    loader = new SimpleWorkloadLoader(archive_dir);
+		archiver = new IndexedWorkloadArchiver(archive_dir,
+				context.getArchiveFormat());
+	    loader = new IndexedWorkloadLoader(archive_dir, memRepo.getMaxCapacity());
 				
         count = new AtomicInteger(archiver.getTotalWorkloads());
         order = new AtomicInteger(0);
@@ -92,9 +101,23 @@ class COSBControllerService implements ControllerService, WorkloadListener {
 				TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(
 						memRepo.getMaxCapacity(),
 						new OrderFutureComparator()));
+		initTaskResources(concurrency);
 
     }
 	
+	/*
+	 * All stages share one pool of threads to talk to drivers and one pool of
+	 * connections, so that the number of threads does not grow with drivers.
+	 */
+	private void initTaskResources(int concurrency) {
+		int threads = Math.max(context.getTaskThreads(), 2);
+		context.setTaskExecutor(Executors.newScheduledThreadPool(threads));
+		int perDriver = CONNECTIONS_PER_DRIVER * Math.max(concurrency, 1);
+		int drivers = Math.max(context.getDriverCount(), 1);
+		context.setHttpClient(HttpClientUtil.createPooledHttpClient(
+				TASK_TIMEOUT, perDriver, perDriver * drivers));
+	}
+
 	public void loadArchivedWorkload() throws IOException {
 		List<WorkloadInfo> workloadContexts = loader.loadWorkloadRun();
 		if (workloadContexts == null)
@@ -362,6 +385,35 @@ class COSBControllerService implements ControllerService, WorkloadListener {
 		return memRepo.getArchivedWorkloads();
 	}
 
+    @Override
+    public Comparison compareWorkloads(String baseId, String[] ids,
+            double threshold) throws IOException {
+        WorkloadInfo base = getComparedWorkload(baseId);
+        if (base == null)
+            return null;
+        WorkloadInfo[] others = new WorkloadInfo[ids.length];
+        for (int i = 0; i < ids.length; i++)
+            if ((others[i] = getComparedWorkload(ids[i])) == null)
+                return null;
+        return new RunComparator(threshold).compare(base, others);
+    }
+
+    /*
+     * Archived runs are loaded on their own for each comparison, so that
+     * neither the other archived runs nor their snapshots are kept around.
+     */
+    private WorkloadInfo getComparedWorkload(String id) throws IOException {
+        WorkloadInfo info = memRepo.getWorkload(id);
+        if (info != null && !info.getArchived())
+            return info;
+        if ((info = loader.loadWorkloadRun(id)) == null)
+            return null;
+        loader.loadWorkloadPageInfo(info);
+        for (StageInfo stage : info.getStageInfos())
+            loader.loadStagePageInfo(info, stage.getId());
+        return info;
+    }
+
     @Override
     public void workloadStarted(WorkloadContext workload) {
         /* empty */
@@ -386,4 +438,9 @@ class COSBControllerService implements ControllerService, WorkloadListener {
         return archiver.getWorkloadConfig(info);
     }
 
+    @Override
+    public File[] getTraceFiles(WorkloadInfo info) {
+        return archiver.getTraceFiles(info);
+    }
+
 }
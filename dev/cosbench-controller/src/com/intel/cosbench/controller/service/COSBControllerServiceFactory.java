@@ -21,8 +21,11 @@ import static org.apache.commons.lang.SystemUtils.IS_OS_WINDOWS;
 
 import java.io.File;
 
+import com.intel.cosbench.config.ConfigException;
 import com.intel.cosbench.config.castor.CastorConfigTools;
 import com.intel.cosbench.controller.model.*;
+import com.intel.cosbench.exporter.Exporters;
+import com.intel.cosbench.log.LogLevel;
 import com.intel.cosbench.service.*;
 
 public class COSBControllerServiceFactory extends AbstractServiceFactory
@@ -74,7 +77,11 @@ public class COSBControllerServiceFactory extends AbstractServiceFactory
         context.setName(loadControllerName());
         context.setUrl(loadControllerUrl());
         context.setArchive_dir(loadArchiveDir());
+        context.setArchiveFormat(loadArchiveFormat());
         context.setConcurrency(loadConcurrency());
+        context.setTaskThreads(loadTaskThreads());
+        context.setDriverLogTail(loadDriverLogTail());
+        context.setDriverLogLevel(loadDriverLogLevel());
         context.setDriverRegistry(getDriverRegistry());
         return context;
     }
@@ -91,6 +98,14 @@ public class COSBControllerServiceFactory extends AbstractServiceFactory
     	return config.get("controller.archive_dir", "archive");
     }
     
+    private String loadArchiveFormat() {
+        String format = config.get("controller.archive_format",
+                Exporters.WIDE);
+        if (!Exporters.isLong(format) && !Exporters.WIDE.equalsIgnoreCase(format))
+            throw new ConfigException("unrecognized archive format: " + format);
+        return format;
+    }
+
     private String loadControllerName() {
         return config.get("controller.name", "N/A");
     }
@@ -103,6 +118,19 @@ public class COSBControllerServiceFactory extends AbstractServiceFactory
         return config.getInt("controller.concurrency", 1);
     }
 
+    private int loadTaskThreads() {
+        return config.getInt("controller.task_threads", 16);
+    }
+
+    private long loadDriverLogTail() {
+        return config.getLong("controller.driver_log_tail", 0L);
+    }
+
+    private String loadDriverLogLevel() {
+        String level = config.get("controller.driver_log_level", "");
+        return level.length() > 0 ? LogLevel.parseLevel(level).name() : null;
+    }
+
     private DriverRegistry getDriverRegistry() {
         DriverRegistry registry = new DriverRegistry();
         int drivers = config.getInt("controller.drivers");
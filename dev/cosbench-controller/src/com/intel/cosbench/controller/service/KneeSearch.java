@@ -0,0 +1,217 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.service;
+
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.config.*;
+import com.intel.cosbench.controller.model.StageContext;
+import com.intel.cosbench.log.*;
+import com.intel.cosbench.model.StageState;
+
+/**
+ * This class decides the worker counts a search stage is run with. Workers
+ * grow geometrically while throughput keeps rising and the SLA holds. Then
+ * the interval where the SLA breaks, or where throughput first comes within
+ * the plateau of the last step, is bisected.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class KneeSearch {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    static class Point {
+
+        int workers;
+        double throughput;
+        long latency; /* response time at the SLA percentile, -1 if unknown */
+        double failureRatio;
+        boolean met; /* whether the SLA holds */
+        Report report;
+
+    }
+
+    private Search search;
+    private int afr;
+    private List<String> opIds = new ArrayList<String>();
+
+    private List<Point> curve = new ArrayList<Point>();
+    private Point lo; /* last step known to be below the knee */
+    private Point hi; /* first step known to be at or past the knee */
+    private boolean bisecting;
+    private boolean slaBound; /* hi broke the SLA rather than plateaued */
+    private double target; /* throughput taken as the plateau */
+    private int next;
+
+    public KneeSearch(Stage stage) {
+        List<Work> works = Search.getSearchWorks(stage);
+        Work work = works.get(0);
+        search = Search.parse(work);
+        afr = work.getAfr();
+        for (Work w : works)
+            opIds.addAll(w.getOperationIDs());
+        next = work.getWorkers();
+    }
+
+    /**
+     * @return the workers for the next step, or 0 if the search is over
+     */
+    public int next() {
+        return next;
+    }
+
+    public void record(StageContext step) {
+        Point point = evaluate(next, step);
+        curve.add(point);
+        LOGGER.info("search step with {} workers: throughput {} op/s, "
+                + "p{} latency {} ms, failure ratio {}", new Object[] {
+                point.workers, point.throughput, search.getPercentile(),
+                point.latency, point.failureRatio });
+        if (bisecting)
+            bisect(point);
+        else
+            grow(point);
+    }
+
+    private void grow(Point point) {
+        if (point.met && (lo == null || gain(lo, point) >= search.getPlateau())) {
+            lo = point;
+            if (point.workers >= search.getMaxWorkers()) {
+                LOGGER.info("search reached {} workers without saturating",
+                        point.workers);
+                next = 0;
+                return;
+            }
+            next = (int) Math.min(
+                    Math.max(point.workers * search.getGrowth(),
+                            point.workers + 1), search.getMaxWorkers());
+            return;
+        }
+        bisecting = true;
+        slaBound = !point.met;
+        if (slaBound) {
+            hi = point;
+            next = lo != null ? getMiddle() : 0;
+            return;
+        }
+        /* the plateau may have been reached by an earlier step already */
+        target = point.throughput * (1 - search.getPlateau() / 100);
+        lo = null;
+        for (Point p : curve) {
+            if (p.met && p.throughput >= target) {
+                hi = p;
+                break;
+            }
+            lo = p;
+        }
+        next = lo != null ? getMiddle() : 0;
+    }
+
+    private void bisect(Point point) {
+        boolean below;
+        if (slaBound)
+            below = point.met;
+        else
+            below = point.met && point.throughput < target;
+        if (below)
+            lo = point;
+        else
+            hi = point;
+        next = getMiddle();
+    }
+
+    private int getMiddle() {
+        int span = hi.workers - lo.workers;
+        if (span <= Math.max(1, lo.workers * search.getPrecision() / 100))
+            return 0; // close enough
+        return lo.workers + span / 2;
+    }
+
+    private static double gain(Point from, Point to) {
+        if (from.throughput <= 0)
+            return to.throughput > 0 ? Double.MAX_VALUE : 0;
+        return (to.throughput / from.throughput - 1) * 100;
+    }
+
+    private Point evaluate(int workers, StageContext step) {
+        Point point = new Point();
+        point.workers = workers;
+        point.report = step.getReport();
+        long total = 0, succ = 0;
+        double maxResTime = 0;
+        SparseHistogram histogram = null;
+        for (Metrics metrics : point.report.getAllMetrics()) {
+            if (!opIds.contains(metrics.getOpId()))
+                continue;
+            point.throughput += metrics.getThroughput();
+            total += Math.max(metrics.getTotalSampleCount(), 0);
+            succ += Math.max(metrics.getSampleCount(), 0);
+            maxResTime = Math.max(maxResTime, metrics.getAvgResTime());
+            SparseHistogram h = metrics.getResHistogram();
+            if (h == null)
+                continue;
+            if (histogram == null)
+                histogram = h.clone();
+            else
+                histogram.merge(h);
+        }
+        point.failureRatio = total > 0 ? (double) (total - succ) / total : 0;
+        if (histogram != null)
+            point.latency = histogram.calcPercentile(search.getPercentile() / 100);
+        else
+            point.latency = (long) Math.ceil(maxResTime); // no histograms
+        point.met = !step.getState().equals(StageState.FAILED)
+                && total - succ <= total * afr / 1000000
+                && (search.getLatency() <= 0 || point.latency <= search.getLatency());
+        return point;
+    }
+
+    /**
+     * @return the step at the knee, the most workers that keep the SLA if it
+     *         bounded the search, otherwise the fewest workers reaching the
+     *         plateau; null if not even the first step kept the SLA
+     */
+    public Point getKnee() {
+        if (hi == null || slaBound)
+            return lo;
+        return hi.met ? hi : lo;
+    }
+
+    public List<Point> getCurve() {
+        return curve;
+    }
+
+    public void logResult(String id) {
+        Point knee = getKnee();
+        if (knee == null) {
+            LOGGER.warn("search stage {} broke the SLA with the fewest workers", id);
+            return;
+        }
+        double max = 0;
+        for (Point point : curve)
+            if (point.met)
+                max = Math.max(max, point.throughput);
+        LOGGER.info("search stage {} found the knee at {} workers with "
+                + "throughput {} op/s, max sustainable throughput {} op/s",
+                new Object[] { id, knee.workers, knee.throughput, max });
+    }
+
+}
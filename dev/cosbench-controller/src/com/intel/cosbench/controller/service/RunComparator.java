@@ -0,0 +1,422 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.service;
+
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class compares workload runs with a base run. Stages are aligned by
+ * name and operations by their labels, both in the order they show up. A
+ * metric regresses when it is worse than the threshold and, if it could be
+ * tested, the difference is significant: interval series are tested with
+ * Welch's t-test on batch means after the warm-up, response time
+ * percentiles with a two-sample Kolmogorov-Smirnov test on the histograms
+ * and success ratios with a two-proportion z-test.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class RunComparator {
+
+    static final String THROUGHPUT = "Throughput";
+    static final String BANDWIDTH = "Bandwidth";
+    static final String AVG_RES_TIME = "Avg-ResTime";
+    static final String RES_TIME_95 = "95%-ResTime";
+    static final String RES_TIME_99 = "99%-ResTime";
+    static final String SUCC_RATIO = "Succ-Ratio";
+
+    private double threshold;
+
+    public RunComparator(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public Comparison compare(WorkloadInfo base, WorkloadInfo[] others) {
+        Comparison comparison = new Comparison();
+        comparison.setBaseId(base.getId());
+        comparison.setThreshold(threshold);
+        Map<String, StageInfo> bases = getStages(base);
+        for (WorkloadInfo other : others) {
+            comparison.getWorkloadIds().add(other.getId());
+            Map<String, StageInfo> stages = getStages(other);
+            for (Map.Entry<String, StageInfo> entry : bases.entrySet())
+                compareStage(comparison, other.getId(), entry.getKey(),
+                        entry.getValue(), stages.get(entry.getKey()));
+        }
+        return comparison;
+    }
+
+    private void compareStage(Comparison comparison, String id, String name,
+            StageInfo base, StageInfo stage) {
+        Map<String, Metrics> bases = getMetrics(base.getReport());
+        Map<String, Metrics> others = stage == null ? null
+                : getMetrics(stage.getReport());
+        Map<String, Series> bSeries = getSeries(base, bases.keySet());
+        Map<String, Series> oSeries = getSeries(stage, bases.keySet());
+        for (Map.Entry<String, Metrics> entry : bases.entrySet()) {
+            String op = entry.getKey();
+            Metrics metrics = others == null ? null : others.get(op);
+            if (metrics == null) {
+                ComparisonEntry missing = new ComparisonEntry(id, name, op,
+                        THROUGHPUT);
+                missing.setBase(entry.getValue().getThroughput());
+                missing.setVerdict(ComparisonEntry.MISSING);
+                comparison.addEntry(missing);
+                continue;
+            }
+            compareOp(comparison, id, name, op, entry.getValue(), metrics,
+                    bSeries.get(op), oSeries.get(op));
+        }
+    }
+
+    private void compareOp(Comparison comparison, String id, String stage,
+            String op, Metrics base, Metrics metrics, Series bSeries,
+            Series oSeries) {
+        double[][] bMeans = bSeries.getBatchMeans();
+        double[][] oMeans = oSeries.getBatchMeans();
+        comparison.addEntry(newEntry(id, stage, op, THROUGHPUT,
+                base.getThroughput(), metrics.getThroughput(), true,
+                welch(bMeans[0], oMeans[0])));
+        comparison.addEntry(newEntry(id, stage, op, BANDWIDTH,
+                base.getBandwidth(), metrics.getBandwidth(), true,
+                welch(bMeans[1], oMeans[1])));
+        comparison.addEntry(newEntry(id, stage, op, AVG_RES_TIME,
+                base.getAvgResTime(), metrics.getAvgResTime(), false,
+                welch(bMeans[2], oMeans[2])));
+        SparseHistogram bHisto = getHistogram(base, bSeries);
+        SparseHistogram oHisto = getHistogram(metrics, oSeries);
+        double ks = ks(bHisto, oHisto);
+        comparison.addEntry(newEntry(id, stage, op, RES_TIME_95,
+                getPercentile(base, bHisto, 0.95),
+                getPercentile(metrics, oHisto, 0.95), false, ks));
+        comparison.addEntry(newEntry(id, stage, op, RES_TIME_99,
+                getPercentile(base, bHisto, 0.99),
+                getPercentile(metrics, oHisto, 0.99), false, ks));
+        comparison.addEntry(newEntry(id, stage, op, SUCC_RATIO,
+                base.getRatio(), metrics.getRatio(), true,
+                proportions(base, metrics)));
+    }
+
+    private ComparisonEntry newEntry(String id, String stage, String op,
+            String metric, double base, double value, boolean higherBetter,
+            double pValue) {
+        ComparisonEntry entry = new ComparisonEntry(id, stage, op, metric);
+        entry.setBase(base);
+        entry.setValue(value);
+        entry.setPValue(pValue);
+        if (base < 0 || value < 0) // unknown percentiles
+            return entry;
+        if (base > 0)
+            entry.setChange((value - base) / base);
+        else if (value > 0)
+            entry.setChange(Double.POSITIVE_INFINITY);
+        else
+            entry.setChange(0D);
+        double worse = higherBetter ? -entry.getChange() : entry.getChange();
+        if (worse > threshold
+                && (!entry.isTested() || pValue < Comparison.ALPHA))
+            entry.setVerdict(ComparisonEntry.REGRESSION);
+        return entry;
+    }
+
+    /*
+     * Stages keyed by name, with the occurrence appended to repeated names.
+     */
+    private static Map<String, StageInfo> getStages(WorkloadInfo workload) {
+        Map<String, StageInfo> stages = new LinkedHashMap<String, StageInfo>();
+        for (StageInfo stage : workload.getStageInfos()) {
+            if (stage.getReport().getAllMetrics().length == 0)
+                continue;
+            String name = stage.getStage() != null ? stage.getStage()
+                    .getName() : stage.getId();
+            stages.put(getKey(stages.keySet(), name), stage);
+        }
+        return stages;
+    }
+
+    /*
+     * Metrics keyed by their labels, as shown on the pages, with the
+     * occurrence appended to repeated labels.
+     */
+    private static Map<String, Metrics> getMetrics(Report report) {
+        Map<String, Metrics> result = new LinkedHashMap<String, Metrics>();
+        if (report == null)
+            return result;
+        for (Metrics metrics : report) {
+            String name = metrics.getOpName();
+            if (!name.equals(metrics.getSampleType()))
+                name += "-" + metrics.getSampleType();
+            result.put(getKey(result.keySet(), name), metrics);
+        }
+        return result;
+    }
+
+    private static String getKey(Set<String> keys, String name) {
+        String key = name;
+        for (int i = 2; keys.contains(key); i++)
+            key = name + "#" + i;
+        return key;
+    }
+
+    /*
+     * Interval series of the given operations after the warm-up, collected
+     * in one pass over the snapshots, which are read from the registry so
+     * that spilled or archived ones never sit in memory all at once.
+     */
+    private static Map<String, Series> getSeries(StageInfo stage,
+            Set<String> ops) {
+        Map<String, Series> result = new HashMap<String, Series>();
+        for (String op : ops)
+            result.put(op, new Series());
+        if (stage == null)
+            return result;
+        int warmup = stage.getSteadyState().getWarmupCount();
+        int index = 0;
+        for (Snapshot snapshot : stage.getSnapshotRegistry()) {
+            if (index++ < warmup)
+                continue;
+            Map<String, Metrics> labels = getMetrics(snapshot.getReport());
+            for (Map.Entry<String, Series> entry : result.entrySet()) {
+                Metrics metrics = labels.get(entry.getKey());
+                if (metrics != null)
+                    entry.getValue().add(metrics);
+            }
+        }
+        return result;
+    }
+
+    private static SparseHistogram getHistogram(Metrics metrics,
+            Series series) {
+        if (metrics.getResHistogram() != null)
+            return metrics.getResHistogram();
+        return series.histogram;
+    }
+
+    private static double getPercentile(Metrics metrics,
+            SparseHistogram histogram, double percentile) {
+        Histogram latency = metrics.getLatency();
+        long[] resTime = null;
+        if (latency != null)
+            resTime = percentile < 0.99 ? latency.get_95() : latency.get_99();
+        if (resTime != null)
+            return resTime[1];
+        if (histogram != null)
+            return histogram.calcPercentile(percentile);
+        return -1D;
+    }
+
+    /*
+     * Throughput, bandwidth and response time of one operation per interval,
+     * along with its merged response time histogram.
+     */
+    private static class Series {
+
+        private List<double[]> intervals = new ArrayList<double[]>();
+        private SparseHistogram histogram;
+
+        public void add(Metrics metrics) {
+            intervals.add(new double[] { metrics.getThroughput(),
+                    metrics.getBandwidth(), metrics.getAvgResTime(),
+                    metrics.getSampleCount() });
+            if (metrics.getResHistogram() == null)
+                return;
+            if (histogram == null)
+                histogram = new SparseHistogram();
+            histogram.merge(metrics.getResHistogram());
+        }
+
+        /*
+         * Batch means of throughput, bandwidth and response time, weighted by
+         * samples for the latter.
+         */
+        public double[][] getBatchMeans() {
+            int size = intervals.size();
+            double[][] columns = new double[4][size];
+            for (int i = 0; i < size; i++)
+                for (int j = 0; j < 4; j++)
+                    columns[j][i] = intervals.get(i)[j];
+            int batches = Math.min(SteadyStateDetector.MAX_BATCHES, size);
+            return new double[][] {
+                    SteadyStateDetector.batchMeans(columns[0], null, batches),
+                    SteadyStateDetector.batchMeans(columns[1], null, batches),
+                    SteadyStateDetector.batchMeans(columns[2], columns[3],
+                            batches) };
+        }
+
+    }
+
+    /*
+     * Welch's unequal variances t-test, NaN if either side has less than two
+     * batches.
+     */
+    static double welch(double[] x, double[] y) {
+        if (x.length < 2 || y.length < 2)
+            return Double.NaN;
+        double mx = mean(x), my = mean(y);
+        double vx = variance(x, mx) / x.length;
+        double vy = variance(y, my) / y.length;
+        if (vx + vy == 0D)
+            return mx == my ? 1D : 0D;
+        double t = (mx - my) / Math.sqrt(vx + vy);
+        double df = (vx + vy) * (vx + vy)
+                / (vx * vx / (x.length - 1) + vy * vy / (y.length - 1));
+        return incompleteBeta(df / (df + t * t), df / 2, 0.5D);
+    }
+
+    /*
+     * Two-sample Kolmogorov-Smirnov test over the histogram buckets, NaN if
+     * either histogram is missing or empty. Samples are taken as independent.
+     */
+    static double ks(SparseHistogram x, SparseHistogram y) {
+        if (x == null || y == null)
+            return Double.NaN;
+        long nx = x.calcTotalCount(), ny = y.calcTotalCount();
+        if (nx == 0 || ny == 0)
+            return Double.NaN;
+        int[] bx = x.getBuckets(), by = y.getBuckets();
+        long[] cx = x.getCounts(), cy = y.getCounts();
+        long sx = 0, sy = 0;
+        double d = 0D;
+        int i = 0, j = 0;
+        while (i < bx.length || j < by.length) {
+            int bucket = Math.min(i < bx.length ? bx[i] : Integer.MAX_VALUE,
+                    j < by.length ? by[j] : Integer.MAX_VALUE);
+            if (i < bx.length && bx[i] == bucket)
+                sx += cx[i++];
+            if (j < by.length && by[j] == bucket)
+                sy += cy[j++];
+            d = Math.max(d, Math.abs((double) sx / nx - (double) sy / ny));
+        }
+        double ne = Math.sqrt((double) nx * ny / (nx + ny));
+        double lambda = (ne + 0.12D + 0.11D / ne) * d;
+        double sum = 0D;
+        for (int k = 1; k <= 100; k++) {
+            double term = Math.exp(-2D * k * k * lambda * lambda);
+            sum += (k % 2 == 1 ? term : -term);
+            if (term < 1e-10D)
+                return Math.max(0D, Math.min(1D, 2D * sum));
+        }
+        return 1D; // not converging as the distributions are that close
+    }
+
+    /*
+     * Two-proportion z-test on the success ratios, NaN if nothing was issued.
+     */
+    static double proportions(Metrics x, Metrics y) {
+        double nx = x.getTotalSampleCount(), ny = y.getTotalSampleCount();
+        if (nx <= 0 || ny <= 0)
+            return Double.NaN;
+        double px = x.getSampleCount() / nx, py = y.getSampleCount() / ny;
+        double p = (x.getSampleCount() + y.getSampleCount()) / (nx + ny);
+        double se = Math.sqrt(p * (1D - p) * (1D / nx + 1D / ny));
+        if (se == 0D)
+            return px == py ? 1D : 0D;
+        return erfc(Math.abs(px - py) / se / Math.sqrt(2D));
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0D;
+        for (double value : values)
+            sum += value;
+        return sum / values.length;
+    }
+
+    private static double variance(double[] values, double mean) {
+        double sum = 0D;
+        for (double value : values)
+            sum += (value - mean) * (value - mean);
+        return sum / (values.length - 1);
+    }
+
+    /*
+     * Complementary error function, with fractional error below 1.2e-7.
+     */
+    private static double erfc(double x) {
+        double t = 1D / (1D + 0.5D * Math.abs(x));
+        double r = t * Math.exp(-x * x - 1.26551223D + t * (1.00002368D
+                + t * (0.37409196D + t * (0.09678418D + t * (-0.18628806D
+                + t * (0.27886807D + t * (-1.13520398D + t * (1.48851587D
+                + t * (-0.82215223D + t * 0.17087277D)))))))));
+        return x >= 0D ? r : 2D - r;
+    }
+
+    /*
+     * Regularized incomplete beta function I_x(a, b), by its continued
+     * fraction.
+     */
+    static double incompleteBeta(double x, double a, double b) {
+        if (x <= 0D)
+            return 0D;
+        if (x >= 1D)
+            return 1D;
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+                + a * Math.log(x) + b * Math.log(1D - x));
+        if (x < (a + 1D) / (a + b + 2D))
+            return front * betaFraction(x, a, b) / a;
+        return 1D - front * betaFraction(1D - x, b, a) / b;
+    }
+
+    private static double betaFraction(double x, double a, double b) {
+        final double tiny = 1e-30D;
+        double c = 1D, d = 1D - (a + b) * x / (a + 1D);
+        if (Math.abs(d) < tiny)
+            d = tiny;
+        d = 1D / d;
+        double h = d;
+        for (int m = 1; m <= 200; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1D) * (a + m2));
+            d = 1D + aa * d;
+            d = Math.abs(d) < tiny ? 1D / tiny : 1D / d;
+            c = 1D + aa / c;
+            if (Math.abs(c) < tiny)
+                c = tiny;
+            h *= d * c;
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1D));
+            d = 1D + aa * d;
+            d = Math.abs(d) < tiny ? 1D / tiny : 1D / d;
+            c = 1D + aa / c;
+            if (Math.abs(c) < tiny)
+                c = tiny;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1D) < 1e-10D)
+                break;
+        }
+        return h;
+    }
+
+    /*
+     * Natural logarithm of the gamma function, Lanczos approximation.
+     */
+    private static double logGamma(double x) {
+        final double[] coef = { 76.18009172947146D, -86.50532032941677D,
+                24.01409824083091D, -1.231739572450155D,
+                0.1208650973866179e-2D, -0.5395239384953e-5D };
+        double y = x, tmp = x + 5.5D;
+        tmp -= (x + 0.5D) * Math.log(tmp);
+        double ser = 1.000000000190015D;
+        for (double c : coef)
+            ser += c / ++y;
+        return -tmp + Math.log(2.5066282746310005D * ser / x);
+    }
+
+}
@@ -23,6 +23,7 @@ import java.util.*;
 import java.util.concurrent.*;
 
 import com.intel.cosbench.bench.Metrics;
+import com.intel.cosbench.bench.SteadyState;
 import com.intel.cosbench.config.Stage;
 import com.intel.cosbench.config.Work;
 import com.intel.cosbench.controller.model.*;
@@ -42,10 +43,21 @@ class StageRunner implements StageCallable {
 
     private static final Logger LOGGER = LogFactory.getSystemLogger();
 
+    /* delay of the first snapshot after all tasks have been launched */
+    private static final long SNAPSHOT_DELAY = 2500;
+
+    /* time a driver takes to accept a launch, and extra slack on top */
+    private static final long LAUNCH_COST = 200;
+    private static final long LAUNCH_MARGIN = 500;
+
     private StageContext stageContext;
     private ControllerContext controllerContext;
+    private String workloadId; /* only to label missions */
 
-    private ExecutorService executor;
+    /* shared with other stages, never shut down here */
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> snapshotter;
+    private volatile boolean finishing; /* ended early once stable */
 
     public StageRunner() {
         /* empty */
@@ -63,9 +75,12 @@ class StageRunner implements StageCallable {
         this.controllerContext = controllerContext;
     }
 
+    public void setWorkloadId(String workloadId) {
+        this.workloadId = workloadId;
+    }
+
     public void dispose() {
-        if (executor != null)
-            executor.shutdown();
+        stopSnapshots();
         executor = null;
     }
 
@@ -79,16 +94,45 @@ class StageRunner implements StageCallable {
         WorkScheduler scheduler = null;
         Stage stage = stageContext.getStage();
         DriverRegistry registry = controllerContext.getDriverRegistry();
-        scheduler = Schedulers.defaultScheduler(stage, registry);
+        if (Schedulers.isCapacityAware(stage))
+            probeDrivers(registry);
+        scheduler = Schedulers.getScheduler(stage, registry);
         stageContext.setScheduleRegistry(scheduler.schedule());
     }
 
+    /*
+     * Pings drivers whose capacity is still unknown, a failed probe only
+     * leaves the driver with an average weight.
+     */
+    private void probeDrivers(DriverRegistry registry) {
+        List<DriverContext> unknown = new ArrayList<DriverContext>();
+        for (DriverContext driver : registry)
+            if (driver.getCores() <= 0)
+                unknown.add(driver);
+        if (unknown.isEmpty())
+            return;
+        List<Tasklet> probers = Tasklets.newProbers(unknown,
+                controllerContext.getHttpClient());
+        try {
+            controllerContext.getTaskExecutor().invokeAll(probers);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt(); // checked once the stage runs
+        }
+        LOGGER.debug("probed capacity of {} drivers", unknown.size());
+    }
+
     private void createTasks() {
         TaskRegistry registry = new TaskRegistry();
         int index = 1;
         for (SchedulePlan plan : stageContext.getScheduleRegistry()) {
             String id = "t" + index++;
-            registry.addTask(createTaskContext(id, plan));
+            TaskContext context = createTaskContext(id, plan);
+            context.setHttpClient(controllerContext.getHttpClient());
+            context.setLogTail(controllerContext.getDriverLogTail());
+            context.setLogLevel(controllerContext.getDriverLogLevel());
+            context.setWorkloadId(workloadId);
+            context.setStageId(stageContext.getId());
+            registry.addTask(context);
         }
         stageContext.setTaskRegistry(registry);
     }
@@ -102,8 +146,7 @@ class StageRunner implements StageCallable {
     }
 
     private void createExecutor() {
-        int taskCount = stageContext.getTaskCount();
-        executor = Executors.newFixedThreadPool(taskCount);
+        executor = controllerContext.getTaskExecutor();
     }
 
     @Override
@@ -117,6 +160,8 @@ class StageRunner implements StageCallable {
         } catch (Exception e) {
             LOGGER.error("unexpected exception", e);
             terminateStage();
+        } finally {
+            stopSnapshots();
         }
         return this;
     }
@@ -151,8 +196,25 @@ class StageRunner implements StageCallable {
 			stageContext.setState(FAILED);
 			return;
 		}
+        logSteadyState();
         stageContext.setState(COMPLETED);
     }
+
+    private void logSteadyState() {
+        String id = stageContext.getId();
+        SteadyState steady = stageContext.getSteadyState();
+        if (steady.getBatchCount() == 0)
+            return; // too short to tell
+        LOGGER.info("stage {} is steady after {} of {} intervals, "
+                + "throughput {} +/- {} op/s, response time {} +/- {} ms",
+                new Object[] { id, steady.getWarmupCount(),
+                        steady.getSnapshotCount(), steady.getThroughput(),
+                        steady.getThroughputCI(), steady.getAvgResTime(),
+                        steady.getAvgResTimeCI() });
+        if (!steady.isStable())
+            LOGGER.warn("results of stage {} may be unstable: {}", id,
+                    steady.getNote());
+    }
     
     private boolean reachAFRGoal() {
     	String id = stageContext.getId();
@@ -214,15 +276,73 @@ class StageRunner implements StageCallable {
         String id = stageContext.getId();
         stageContext.setState(LAUNCHING);
         TaskRegistry tasks = stageContext.getTaskRegistry();
+        long startAt = scheduleStart(tasks);
         List<Tasklet> tasklets = Tasklets.newLaunchers(tasks);
         executeTasklets(tasklets);
         updateStageInfo();
-        synchronized (stageContext) {
-            stageContext.notify(); // sent a signal to the stage checker
-        }
+        startSnapshots(Math.max(startAt - System.currentTimeMillis(), 0));
         LOGGER.info("successfully launched all tasks in stage {}", id);
     }
 
+    /*
+     * Picks one instant for all drivers to start their workers, late enough
+     * for every launch request to arrive given the number of rounds needed
+     * to send them and the slowest round trip seen when booting.
+     */
+    private long scheduleStart(TaskRegistry tasks) {
+        int num = tasks.getSize();
+        long roundTrip = 0;
+        for (TaskContext task : tasks)
+            roundTrip = Math.max(roundTrip, task.getRoundTrip());
+        int threads = Math.max(controllerContext.getTaskThreads(), 1);
+        int rounds = (num + threads - 1) / threads;
+        long startAt = System.currentTimeMillis() + LAUNCH_MARGIN + rounds
+                * (LAUNCH_COST + roundTrip);
+        for (TaskContext task : tasks)
+            task.setStartAt(startAt);
+        LOGGER.debug("tasks in stage {} will start at {}",
+                stageContext.getId(), startAt);
+        return startAt;
+    }
+
+    private void startSnapshots(long delay) {
+        final String id = stageContext.getId();
+        long interval = Math.max(stageContext.getInterval(), 1) * 1000L;
+        Runnable snapshot = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    stageContext.makeSnapshot();
+                    LOGGER.debug("made a snapshot for stage {}", id);
+                    if (!finishing && stageContext.isSteadyEnough())
+                        finishTasks();
+                } catch (Exception e) {
+                    LOGGER.error("unexpected exception", e);
+                }
+            }
+        };
+        snapshotter = executor.scheduleAtFixedRate(snapshot, delay
+                + SNAPSHOT_DELAY + interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Asks all drivers to end the runtime without waiting for them, as this
+     * runs on a shared thread, queries then see the tasks finish as usual.
+     */
+    private void finishTasks() {
+        finishing = true;
+        LOGGER.info("stage {} is stable, ending it early", stageContext.getId());
+        TaskRegistry tasks = stageContext.getTaskRegistry();
+        for (Tasklet tasklet : Tasklets.newFinishers(tasks))
+            executor.submit(tasklet);
+    }
+
+    private void stopSnapshots() {
+        if (snapshotter != null)
+            snapshotter.cancel(false);
+        snapshotter = null;
+    }
+
     private void updateStageInfo() {
         int interval = Integer.MAX_VALUE;
         for (TaskContext taskContext : stageContext.getTaskRegistry()) {
@@ -233,14 +353,72 @@ class StageRunner implements StageCallable {
         stageContext.setState(RUNNING); // update state after setting interval
     }
 
+    /*
+     * Streaming holds one thread per task, so it is only used while the
+     * streaming tasks of all running stages take no more than half of the
+     * shared threads, otherwise each task is polled periodically.
+     */
     private void queryTasks() {
         String id = stageContext.getId();
         TaskRegistry tasks = stageContext.getTaskRegistry();
-        List<Tasklet> tasklets = Tasklets.newQueriers(tasks);
-        executeTasklets(tasklets);
+        int num = tasks.getSize();
+        if (controllerContext.reserveStreamingThreads(num)) {
+            try {
+                executeTasklets(Tasklets.newQueriers(tasks));
+            } finally {
+                controllerContext.releaseStreamingThreads(num);
+            }
+        } else {
+            pollTasks(tasks);
+        }
         LOGGER.info("successfully queried all tasks in stage {}", id);
     }
 
+    private void pollTasks(TaskRegistry tasks) {
+        long interval = Math.max(stageContext.getInterval(), 1);
+        final CountDownLatch latch = new CountDownLatch(tasks.getSize());
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (final TaskContext task : tasks) {
+            final Tasklet querier = Tasklets.newPollingQuerier(task);
+            Runnable poll = new Runnable() {
+                private boolean done; /* runs never overlap */
+
+                @Override
+                public void run() {
+                    if (done)
+                        return;
+                    try {
+                        querier.call();
+                    } catch (Exception e) {
+                        LOGGER.error("unexpected exception", e);
+                    }
+                    if (isQueryDone(task.getState())) {
+                        done = true;
+                        latch.countDown();
+                    }
+                }
+            };
+            futures.add(executor.scheduleWithFixedDelay(poll, interval,
+                    interval, TimeUnit.SECONDS));
+        }
+        LOGGER.debug("begin to poll tasks, {} in total", tasks.getSize());
+        try {
+            latch.await();
+        } catch (InterruptedException ie) {
+            throw new CancelledException(); // stage cancelled
+        } finally {
+            for (Future<?> future : futures)
+                future.cancel(false);
+        }
+        checkTasks();
+    }
+
+    private static boolean isQueryDone(TaskState state) {
+        return state.equals(TaskState.FINISHED)
+                || state.equals(TaskState.ERROR)
+                || state.equals(TaskState.INTERRUPTED);
+    }
+
     private void closeTasks() {
         String id = stageContext.getId();
         stageContext.setState(CLOSING);
@@ -257,35 +435,22 @@ class StageRunner implements StageCallable {
         List<Tasklet> tasklets = Tasklets.newAborters(tasks);
         executeTasklets(tasklets); // terminators never fail
         stageContext.setState(TERMINATED);
-        synchronized (stageContext) {
-            stageContext.notify(); // sent a signal to the stage checker
-        }
         LOGGER.info("stage {} has been terminated", id);
     }
 
     private void cancelStage() {
         String id = stageContext.getId();
         LOGGER.info("begin to cancel stage {}", id);
-        executor.shutdownNow();
-        if (Thread.interrupted())
-            LOGGER.warn("get cancelled when canceling stage");
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException ie) {
-            LOGGER.warn("get cancelled when canceling stage");
-        }
-        if (!executor.isTerminated())
-            LOGGER.warn("fail to cancel current tasklets for stage {}", id);
         /*
-         * Consider the stage cancelled even if its tasks have not.
+         * Current tasklets have been cancelled along with the stage, consider
+         * the stage cancelled even if they have not stopped yet.
          */
-        int taskCount = stageContext.getTaskCount();
-        executor = Executors.newFixedThreadPool(taskCount);
+        if (Thread.interrupted())
+            LOGGER.warn("get cancelled when canceling stage");
         TaskRegistry tasks = stageContext.getTaskRegistry();
         List<Tasklet> tasklets = Tasklets.newAborters(tasks);
         executeTasklets(tasklets); // terminators never fail
         stageContext.setState(CANCELLED);
-        executor.shutdownNow();
         LOGGER.info("stage {} has been cancelled", id);
     }
 
@@ -298,6 +463,10 @@ class StageRunner implements StageCallable {
             throw new CancelledException(); // stage cancelled
         }
         LOGGER.debug("all {} tasklets have finished execution", num);
+        checkTasks();
+    }
+
+    private void checkTasks() {
         List<String> errIds = new ArrayList<String>();
         for (TaskContext task : stageContext.getTaskRegistry())
             if (task.getState().equals(TaskState.ERROR)
@@ -23,6 +23,7 @@ import static java.util.concurrent.TimeUnit.*;
 import java.util.*;
 import java.util.concurrent.*;
 
+import com.intel.cosbench.bench.Report;
 import com.intel.cosbench.config.*;
 import com.intel.cosbench.config.castor.CastorConfigTools;
 import com.intel.cosbench.controller.model.*;
@@ -111,7 +112,7 @@ class WorkloadProcessor {
     }
 
     private void createExecutor() {
-        executor = Executors.newFixedThreadPool(2);
+        executor = Executors.newSingleThreadExecutor();
         StageRegistry registry = workloadContext.getStageRegistry();
         queue = new LinkedList<StageContext>(registry.getAllItems());
     }
@@ -200,7 +201,10 @@ class WorkloadProcessor {
         if (stageName.equals("delay") && closuredelay > 0) {
 			executeDelay(stageContext, closuredelay);
 		} else {
-			executeStage(stageContext);
+			if (Search.isSearch(stageContext.getStage()))
+				executeSearch(stageContext);
+			else
+				executeStage(stageContext);
 
 			long elapsedTime = System.currentTimeMillis() - startStamp;
 
@@ -224,8 +228,7 @@ class WorkloadProcessor {
 
     private void executeStage(StageContext stageContext) {
         StageRunner runner = createStageRunner(stageContext);
-        StageChecker checker = createStageChecker(stageContext);
-        StageCallable[] callables = new StageCallable[] { runner, checker };
+        StageCallable[] callables = new StageCallable[] { runner };
         String wsId = workloadContext.getId()+stageContext.getId();
         String trigger = stageContext.getStage().getTrigger();
         executeTrigger(trigger, true, wsId);
@@ -244,20 +247,59 @@ class WorkloadProcessor {
         throw new WorkloadException(); // mark termination
     }
 
+    /*
+     * A search stage runs as a series of steps with different workers, each a
+     * stage of its own listed after the search stage, so that the whole curve
+     * shows up in pages and exports. The search stage ends with the report of
+     * the step at the knee.
+     */
+    private void executeSearch(StageContext stageContext) {
+        String id = stageContext.getId();
+        Stage stage = stageContext.getStage();
+        KneeSearch search = new KneeSearch(stage);
+        String wsId = workloadContext.getId() + id;
+        String trigger = stage.getTrigger();
+        StageRegistry registry = workloadContext.getStageRegistry();
+        StageContext last = stageContext;
+        stageContext.setState(StageState.RUNNING);
+        executeTrigger(trigger, true, wsId);
+        try {
+            int workers;
+            while ((workers = search.next()) > 0) {
+                StageContext step = createStageContext(id + "-w" + workers,
+                        Search.createStep(stage, workers));
+                registry.insertStage(last, step);
+                last = step;
+                workloadContext.setCurrentStage(step);
+                executeStage(step);
+                search.record(step);
+            }
+        } catch (CancelledException ce) {
+            stageContext.setState(StageState.CANCELLED);
+            throw ce;
+        } catch (RuntimeException re) {
+            stageContext.setState(StageState.TERMINATED);
+            throw re;
+        } finally {
+            workloadContext.setCurrentStage(stageContext);
+            executeTrigger(trigger, false, wsId);
+        }
+        search.logResult(id);
+        KneeSearch.Point knee = search.getKnee();
+        stageContext.setReport(knee != null ? knee.report : new Report());
+        stageContext.setState(knee != null ? StageState.COMPLETED
+                : StageState.FAILED);
+    }
+
     private StageRunner createStageRunner(StageContext stageContext) {
         StageRunner runner = new StageRunner();
         runner.setStageContext(stageContext);
         runner.setControllerContext(controllerContext);
+        runner.setWorkloadId(workloadContext.getId());
         runner.init();
         return runner;
     }
 
-    private StageChecker createStageChecker(StageContext stageContext) {
-        StageChecker checker = new StageChecker();
-        checker.setStageContext(stageContext);
-        return checker;
-    }
-
     private void terminateWorkload() {
         String id = workloadContext.getId();
         LOGGER.info("begin to terminate workload {}", id);
@@ -50,11 +50,9 @@ class Aborter extends AbstractCommandTasklet<AbortResponse> {
         try {
             String id = context.getMissionId();
             try {
-                issueCommand("abort", id);
+                issueCommand("abort", id + " nolog"); // log fetched separately
             } catch (Exception e) {
                 LOGGER.error("fail to abort driver", e);
-            } finally {
-                closeHttpClient();
             }
         } catch (Exception e) {
             LOGGER.error("unexpected exception", e);
@@ -67,7 +65,10 @@ class Aborter extends AbstractCommandTasklet<AbortResponse> {
         for (Metrics metrics : response.getReport())
             report.addMetrics(metrics);
         context.setReport(report);
-        context.setLog(response.getDriverLog());
+        if (response.getDriverLog() != null)
+            context.setLog(response.getDriverLog()); // older drivers
+        else
+            fetchLog();
     }
 
 }
@@ -17,11 +17,17 @@ limitations under the License.
 
 package com.intel.cosbench.controller.tasklet;
 
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
 import org.codehaus.jackson.map.*;
 import org.codehaus.jackson.map.DeserializationConfig.Feature;
 
+import com.intel.cosbench.config.common.KVConfigParser;
 import com.intel.cosbench.controller.model.TaskContext;
-import com.intel.cosbench.protocol.Response;
+import com.intel.cosbench.protocol.*;
+import com.intel.cosbench.service.CancelledException;
 
 /**
  * The base class encapsulates commands through HTTP request.
@@ -68,9 +74,12 @@ abstract class AbstractCommandTasklet<T extends Response> extends
 
     protected void issueCommand(String command, String content) {
         T response = null;
-        String body = issueHttpRequest(command, content);
+        int version = context.getProtocolVersion();
+        String accept = version > 0 && BinaryCodec.supports(clazz) ? BinaryCodec
+                .getAcceptType(version) : "application/json";
+        HttpBody body = issueHttpRequest(command, content, accept);
         try {
-            response = context.getMapper().readValue(body, clazz);
+            response = parseResponse(body);
         } catch (Exception e) {
             LOGGER.error("cannot parse response body", e);
             throw new TaskletException(); // mark termination
@@ -83,4 +92,132 @@ abstract class AbstractCommandTasklet<T extends Response> extends
         handleResponse(response); // specific response handling
     }
 
+    private T parseResponse(HttpBody body) throws IOException {
+        if (BinaryCodec.isBinary(body.getContentType()))
+            return BinaryCodec.decode(body.getData(), clazz);
+        /* JSON unless asked for, older drivers also ignore the header */
+        return context.getMapper().readValue(
+                new ByteArrayInputStream(body.getData()), clazz);
+    }
+
+    /**
+     * Issues a command to which the driver keeps answering, one response per
+     * line, until it closes the stream.
+     * 
+     * @return false if no stream could be opened or it broke, so that the
+     *         caller may fall back to plain commands
+     */
+    protected boolean issueStreamCommand(String command, String content) {
+        InputStream stream = openHttpStream(command, content);
+        if (stream == null)
+            return false;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    stream, "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (Thread.interrupted())
+                    throw new CancelledException(); // task cancelled
+                if (line.length() == 0)
+                    continue;
+                T response = context.getMapper().readValue(line, clazz);
+                if (!response.isSucc()) {
+                    String msg = "driver report error: HTTP {} - {}";
+                    LOGGER.error(msg, response.getCode(), response.getError());
+                    throw new TaskletException(); // mark termination
+                }
+                handleResponse(response);
+            }
+            return true;
+        } catch (InterruptedIOException ie) {
+            throw new CancelledException(); // task cancelled
+        } catch (IOException e) {
+            LOGGER.warn("snapshot stream from driver broke", e);
+            return false;
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                /* ignore */
+            }
+        }
+    }
+
+    /**
+     * Spools the mission log from the driver to a temporary file, so that it
+     * travels compressed and never sits in memory as a whole. The log is
+     * left as it is if the driver does not support the log command.
+     */
+    protected void fetchLog() {
+        String content = context.getMissionId();
+        if (context.getLogTail() > 0)
+            content += " tail=" + context.getLogTail();
+        if (context.getLogLevel() != null)
+            content += " level=" + context.getLogLevel();
+        InputStream stream = openHttpStream("log", content);
+        if (stream == null)
+            return;
+        File file = spool(stream, true, ".log", "log");
+        if (file == null)
+            return;
+        context.setLogFile(file);
+        LOGGER.debug("driver log has been spooled to {}", file.getPath());
+    }
+
+    /**
+     * Spools the per-operation trace from the driver to a temporary file, as
+     * compressed as it travels, if the work asked for one.
+     */
+    protected void fetchTrace() {
+        String config = context.getSchedule().getWork().getConfig();
+        if (!KVConfigParser.parse(config).getBoolean("trace", false))
+            return;
+        InputStream stream = openHttpStream("trace", context.getMissionId());
+        if (stream == null) {
+            LOGGER.warn("no trace is available for mission {}",
+                    context.getMissionId());
+            return;
+        }
+        File file = spool(stream, false, ".csv.gz", "trace");
+        if (file == null)
+            return;
+        context.setTraceFile(file);
+        LOGGER.debug("trace has been spooled to {}", file.getPath());
+    }
+
+    /*
+     * Copies a driver stream to a temporary file, decompressing it first if
+     * asked, the stream is closed either way.
+     * 
+     * @return the file, or null if the stream could not be read
+     */
+    private File spool(InputStream stream, boolean gunzip, String suffix,
+            String what) {
+        File file = null;
+        try {
+            file = File.createTempFile("cosbench-" + context.getId() + "-",
+                    suffix);
+            file.deleteOnExit();
+            OutputStream out = new FileOutputStream(file);
+            try {
+                IOUtils.copy(gunzip ? new GZIPInputStream(stream) : stream,
+                        out);
+            } finally {
+                out.close();
+            }
+            return file;
+        } catch (InterruptedIOException ie) {
+            if (file != null)
+                file.delete();
+            throw new CancelledException(); // task cancelled
+        } catch (IOException e) {
+            LOGGER.warn("fail to fetch " + what + " from driver", e);
+            if (file != null)
+                file.delete();
+            return null;
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+
 }
@@ -28,50 +28,76 @@ import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.util.EntityUtils;
 
-import com.intel.cosbench.client.http.HttpClientUtil;
 import com.intel.cosbench.controller.model.TaskContext;
+import com.intel.cosbench.protocol.BinaryCodec;
 import com.intel.cosbench.service.*;
 
 abstract class AbstractHttpTasklet extends AbstractTasklet {
 
-    private static final int TIMEOUT = 300 * 1000;
-
     public AbstractHttpTasklet(TaskContext context) {
         super(context);
     }
 
-    protected void initHttpClient() {
-        HttpClient client = HttpClientUtil.createHttpClient(TIMEOUT);
-        context.setHttpClient(client);
+    /**
+     * Issues a command asking for the response in the given content type, the
+     * driver may still answer with JSON.
+     * 
+     * @return the raw response body along with its content type
+     */
+    protected HttpBody issueHttpRequest(String command, String content,
+            String accept) {
+        String url = getDriver().getUrl() + "/i/" + command + ".command";
+        HttpClient client = context.getHttpClient();
+        HttpPost request = prepareRequest(content, url);
+        request.setHeader("Accept", accept);
+        HttpBody body = null;
+        try {
+            HttpResponse response = client.execute(request);
+            body = fetchResponseData(response);
+        } catch (Exception e) {
+            handleRequestException(e);
+        }
+        return body; // HTTP response body retrieved
     }
 
-    protected synchronized void closeHttpClient() {
-        HttpClient client = context.getHttpClient();
-        HttpClientUtil.disposeHttpClient(client);
-//        context.setHttpClient(null);
+    private static void handleRequestException(Exception e) {
+        if (e instanceof InterruptedIOException
+                && !(e instanceof SocketTimeoutException)
+                && !(e instanceof ConnectTimeoutException))
+            throw new CancelledException(); // task cancelled
+        LOGGER.error("fail to POST driver", e);
+        throw new TaskletException(); // mark termination
     }
 
-    protected String issueHttpRequest(String command, String content) {
+    /**
+     * Issues a command whose response body is streamed by the driver.
+     * 
+     * @return the response body to read from, closing it drops the connection,
+     *         or null if the driver does not serve this command
+     */
+    protected InputStream openHttpStream(String command, String content) {
         String url = getDriver().getUrl() + "/i/" + command + ".command";
         HttpClient client = context.getHttpClient();
-        HttpPost request = prepareRequest(content, url);
-        String body = null;
+        final HttpPost request = prepareRequest(content, url);
         try {
             HttpResponse response = client.execute(request);
-            body = fetchResponseBody(response);
-        } catch (SocketTimeoutException ste) {
-            LOGGER.error("fail to POST driver", ste);
-            throw new TaskletException(); // mark termination
-        } catch (ConnectTimeoutException cte) {
-            LOGGER.error("fail to POST driver", cte);
-            throw new TaskletException(); // mark termination
+            HttpEntity entity = response.getEntity();
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK)
+                return new FilterInputStream(entity.getContent()) {
+                    @Override
+                    public void close() {
+                        request.abort(); // no need to drain the stream
+                    }
+                };
+            LOGGER.debug("[ << ] - {} [stream-refused]", response.getStatusLine());
+            EntityUtils.consume(entity);
+            return null;
         } catch (InterruptedIOException ie) {
             throw new CancelledException(); // task cancelled
         } catch (Exception e) {
-            LOGGER.error("fail to POST driver", e);
-            throw new TaskletException(); // mark termination
+            LOGGER.warn("fail to open stream from driver", e);
+            return null;
         }
-        return body; // HTTP response body retrieved
     }
 
     private static HttpPost prepareRequest(String content, String url) {
@@ -92,21 +118,48 @@ abstract class AbstractHttpTasklet extends AbstractTasklet {
         return POST; // HTTP request prepared
     }
 
-    private static String fetchResponseBody(HttpResponse response)
+    private static HttpBody fetchResponseData(HttpResponse response)
             throws IOException {
-        String body = null;
+        byte[] data = null;
         HttpEntity entity = response.getEntity();
         StatusLine status = response.getStatusLine();
+        Header type = entity.getContentType();
         try {
-            body = EntityUtils.toString(entity);
+            data = EntityUtils.toByteArray(entity);
         } finally {
             EntityUtils.consume(entity);
         }
-        if (body.length() < 2048)
-            LOGGER.debug("[ << ] - {} {}", status, body);
+        String contentType = type != null ? type.getValue() : null;
+        if (BinaryCodec.isBinary(contentType))
+            LOGGER.debug("[ << ] - {} [binary-{}-bytes]", status, data.length);
+        else if (data.length < 2048)
+            LOGGER.debug("[ << ] - {} {}", status, new String(data, "UTF-8"));
         else
             LOGGER.debug("[ << ] - {} [body-omitted]", status);
-        return body; // the response body
+        return new HttpBody(data, contentType);
+    }
+
+    /**
+     * A raw response body along with its content type.
+     */
+    protected static class HttpBody {
+
+        private byte[] data;
+        private String contentType;
+
+        HttpBody(byte[] data, String contentType) {
+            this.data = data;
+            this.contentType = contentType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
     }
 
 }
@@ -21,9 +21,9 @@ import static com.intel.cosbench.model.TaskState.BOOTED;
 
 import org.apache.commons.lang.StringUtils;
 
-import com.intel.cosbench.controller.model.TaskContext;
+import com.intel.cosbench.controller.model.*;
 import com.intel.cosbench.model.DriverInfo;
-import com.intel.cosbench.protocol.PingResponse;
+import com.intel.cosbench.protocol.*;
 
 /**
  * The class encapsulates how to handle boot request/response, internally, it
@@ -34,18 +34,25 @@ import com.intel.cosbench.protocol.PingResponse;
  */
 class Bootor extends AbstractCommandTasklet<PingResponse> {
 
+    private long sent; /* controller time the last ping was sent */
+
     public Bootor(TaskContext context) {
         super(context, PingResponse.class);
     }
 
     @Override
     public void execute() {
-        initHttpClient();
         initObjectMapper();
         issueCommand("ping");
         context.setState(BOOTED);
     }
 
+    @Override
+    protected void issueCommand(String command, String content) {
+        sent = System.currentTimeMillis();
+        super.issueCommand(command, content);
+    }
+
     @Override
     protected void handleResponse(PingResponse response) {
     	long driverTime = 0;
@@ -55,11 +62,40 @@ class Bootor extends AbstractCommandTasklet<PingResponse> {
 		} catch (NumberFormatException e) {
 			LOGGER.debug("time stamp of driver {} can not be formated", driver.getName());
 		}
-        timeDrift = System.currentTimeMillis() - driverTime;
+        long received = System.currentTimeMillis();
+        timeDrift = received - driverTime;
+        if (driverTime > 0)
+            updateClock(received);
     	if (!StringUtils.equals(response.getName(), driver.getName())){
     		String msg = "expetect driver name {} dose not match the real name {}";
     		LOGGER.debug(msg, driver.getName(), response.getName());
     	}
+    	int version = Math.min(response.getProtocolVersion(), BinaryCodec.VERSION);
+    	context.setProtocolVersion(version); // 0 if the driver only speaks JSON
+    	updateCapacity(context.getSchedule().getDriver(), response);
+    }
+
+    /*
+     * The driver stamps its response half way through the round trip, only
+     * the last ping counts as earlier ones may have stepped the driver clock.
+     */
+    private void updateClock(long received) {
+        long driverTime = received - timeDrift;
+        long roundTrip = received - sent;
+        context.setRoundTrip(roundTrip);
+        context.setClockOffset(driverTime - (sent + roundTrip / 2));
+        LOGGER.debug("clock offset of driver {} is {} mSec, round trip {} mSec",
+                new Object[] { getDriver().getName(), context.getClockOffset(),
+                        roundTrip });
+    }
+
+    private static void updateCapacity(DriverContext driver, PingResponse response) {
+    	if (response.getCores() <= 0)
+    		return; // not reported by older drivers
+    	driver.setHeapMemory(response.getHeapMemory());
+    	driver.setBandwidth(response.getBandwidth());
+    	driver.setLoad(response.getLoad());
+    	driver.setCores(response.getCores());
     }
 
 }
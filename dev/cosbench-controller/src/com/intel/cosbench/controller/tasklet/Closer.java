@@ -17,6 +17,9 @@ limitations under the License.
 
 package com.intel.cosbench.controller.tasklet;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.controller.model.TaskContext;
 import com.intel.cosbench.protocol.CloseResponse;
@@ -24,7 +27,8 @@ import com.intel.cosbench.protocol.CloseResponse;
 /**
  * The class encapsulates how to handle close request/response, internally, it
  * issues command to close the workload on driver, and get report and log from
- * driver.
+ * driver. The log is fetched with a command of its own, see
+ * {@link #fetchLog()}.
  * 
  * @author ywang19, qzheng7
  * 
@@ -38,12 +42,7 @@ class Closer extends AbstractCommandTasklet<CloseResponse> {
     @Override
     protected void execute() {
         String id = context.getMissionId();
-        issueCommand("close", id);
-        try {
-            closeHttpClient();
-        } catch (Exception e) {
-            LOGGER.error("unexpected exception", e);
-        }
+        issueCommand("close", id + " nolog"); // log fetched separately
     }
 
     @Override
@@ -52,9 +51,33 @@ class Closer extends AbstractCommandTasklet<CloseResponse> {
         for (Metrics metrics : response.getReport())
             report.addMetrics(metrics);
         context.setReport(report);
-        context.setLog(response.getDriverLog());
+        if (response.getDriverLog() != null)
+            context.setLog(response.getDriverLog()); // older drivers
+        else
+            fetchLog();
+        fetchTrace();
         context.setState(response.getState());
         context.setErrorStatistics(response.getErrorStatistics());
+        if (response.getErrors() != null)
+            context.setErrors(response.getErrors());
+        context.addResourceUsage(response.getUsage()); // peaks between queries
+        context.setBreakdown(getBreakdown(response));
+    }
+
+    /* the driver as a whole first, then each of its workers if any */
+    private List<Breakdown> getBreakdown(CloseResponse response) {
+        List<Breakdown> breakdown = new ArrayList<Breakdown>();
+        Breakdown total = new Breakdown(0, context.getReport());
+        total.setUsage(context.getResourceUsage());
+        breakdown.add(total);
+        if (response.getWorkers() != null)
+            breakdown.addAll(response.getWorkers());
+        String work = context.getSchedule().getWork().getName();
+        for (Breakdown entry : breakdown) {
+            entry.setDriver(getDriver().getName());
+            entry.setWork(work);
+        }
+        return breakdown;
     }
 
 }
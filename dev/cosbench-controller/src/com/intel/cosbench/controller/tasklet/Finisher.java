@@ -0,0 +1,52 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.tasklet;
+
+import com.intel.cosbench.controller.model.TaskContext;
+import com.intel.cosbench.protocol.Response;
+
+/**
+ * The class encapsulates how to ask a driver to end its runtime early, the
+ * task keeps being queried and closed as usual. Older drivers know no such
+ * command and simply run on.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class Finisher extends AbstractCommandTasklet<Response> {
+
+    public Finisher(TaskContext context) {
+        super(context, Response.class);
+    }
+
+    @Override
+    protected void execute() {
+        try {
+            issueCommand("finish", context.getMissionId());
+        } catch (Exception e) {
+            LOGGER.warn("fail to finish mission {} early",
+                    context.getMissionId());
+        }
+    }
+
+    @Override
+    protected void handleResponse(Response response) {
+        /* empty */
+    }
+
+}
@@ -38,6 +38,9 @@ class Launcher extends AbstractCommandTasklet<LaunchResponse> {
     @Override
     protected void execute() {
         String id = context.getMissionId();
+        long startAt = context.getStartAt();
+        if (startAt > 0) // in driver time, ignored by older drivers
+            id += " " + (startAt + context.getClockOffset());
         issueCommand("launch", id);
         context.setState(LAUNCHED);
     }
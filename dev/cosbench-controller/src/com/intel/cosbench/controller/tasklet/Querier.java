@@ -35,23 +35,41 @@ import com.intel.cosbench.service.CancelledException;
  */
 class Querier extends AbstractCommandTasklet<QueryResponse> {
 
-    public Querier(TaskContext context) {
+    /* keep a thread until the task finishes, or query once per execution */
+    private boolean streaming;
+    /* drivers report counters from worker startup, windows are cut here */
+    private static final String CUMULATIVE = " cumulative";
+
+    public Querier(TaskContext context, boolean streaming) {
         super(context, QueryResponse.class);
+        this.streaming = streaming;
     }
 
     @Override
     protected void execute() {
         String id = context.getMissionId();
+        if (!streaming) {
+            query(id); // the stage runner schedules the next query
+            return;
+        }
+        if (issueStreamCommand("stream", id + CUMULATIVE)
+                && context.getState().equals(FINISHED))
+            return; // all snapshots pushed by the driver
+        LOGGER.debug("fall back to polling driver {}", getDriver().getName());
         do {
             sleep();
-            try{
-            	issueCommand("query", id);
-            }catch(Exception tle) {
-            	LOGGER.warn("some unexpected exception occurs when ping drivers, but it's ignorable.", tle);
-            }
+            query(id);
         } while (!context.getState().equals(FINISHED));
     }
 
+    private void query(String id) {
+        try{
+        	issueCommand("query", id + CUMULATIVE);
+        }catch(Exception tle) {
+        	LOGGER.warn("some unexpected exception occurs when ping drivers, but it's ignorable.", tle);
+        }
+    }
+
     private void sleep() {
         long seconds = context.getInterval();
         try {
@@ -71,14 +89,36 @@ class Querier extends AbstractCommandTasklet<QueryResponse> {
         if (!response.isRunning())
             context.setState(FINISHED); // stop querying
         Date time = response.getTime();
+        if (time != null) // normalized to controller time
+            time = new Date(time.getTime() - context.getClockOffset());
+        SnapshotWindow window = context.getSnapshotWindow();
         Report report = new Report();
+        if (response.isDelta()) {
+            /* older drivers ignore the cumulative flag and send windows */
+            Snapshot last = response.isCumulative() ? window.getLast()
+                    : context.getSnapshot();
+            if (last != null)
+                for (Metrics metrics : last.getReport())
+                    report.addMetrics(metrics); // unchanged since last one
+        }
         for (Metrics metrics : response.getReport())
             report.addMetrics(metrics);
         Snapshot snapshot = new Snapshot(report, time);
         snapshot.setVersion(response.getVersion());
         snapshot.setMinVersion(response.getMinVersion());
         snapshot.setMaxVersion(response.getMaxVersion());
+        snapshot.setUsage(response.getUsage());
+        context.addResourceUsage(response.getUsage());
+        if (response.getSlowRequests() != null) {
+            for (SlowRequest request : response.getSlowRequests())
+                request.setDriver(getDriver().getName());
+            context.addSlowRequests(response.getSlowRequests());
+        }
+        if (response.isCumulative())
+            snapshot = window.next(snapshot);
         context.setSnapshot(snapshot);
+        if (response.getErrors() != null)
+            context.setErrors(response.getErrors());
     }
 
 }
@@ -61,6 +61,8 @@ class Submitter extends AbstractCommandTasklet<SubmitResponse> {
         mission.setTotalBytes(work.getTotalBytes());
         mission.setTotalWorkers(work.getWorkers());
         mission.setConfig(work.getConfig());
+        mission.setWorkload(context.getWorkloadId());
+        mission.setStage(context.getStageId());
         mission.setAuth(work.getAuth());
         mission.setStorage(work.getStorage());
         mission.setOperations(work.getOperations());
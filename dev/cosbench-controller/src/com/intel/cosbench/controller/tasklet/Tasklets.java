@@ -19,10 +19,33 @@ package com.intel.cosbench.controller.tasklet;
 
 import java.util.*;
 
+import org.apache.http.client.HttpClient;
+
 import com.intel.cosbench.controller.model.*;
+import com.intel.cosbench.model.TaskState;
 
 public class Tasklets {
 
+    /**
+     * Creates one ping tasklet per driver, not bound to any work, so that
+     * drivers can report their capacity before works get scheduled.
+     */
+    public static List<Tasklet> newProbers(Iterable<DriverContext> drivers,
+            HttpClient httpClient) {
+        List<Tasklet> result = new ArrayList<Tasklet>();
+        for (DriverContext driver : drivers) {
+            SchedulePlan plan = new SchedulePlan();
+            plan.setDriver(driver);
+            TaskContext task = new TaskContext();
+            task.setId("probe-" + driver.getName());
+            task.setSchedule(plan);
+            task.setState(TaskState.CREATED);
+            task.setHttpClient(httpClient);
+            result.add(new Bootor(task));
+        }
+        return result;
+    }
+
     public static List<Tasklet> newBooters(TaskRegistry tasks) {
         List<Tasklet> result = new ArrayList<Tasklet>();
         for (TaskContext task : tasks) {
@@ -58,11 +81,19 @@ public class Tasklets {
     public static List<Tasklet> newQueriers(TaskRegistry tasks) {
         List<Tasklet> result = new ArrayList<Tasklet>();
         for (TaskContext task : tasks) {
-            result.add(new Querier(task));
+            result.add(new Querier(task, true));
         }
         return result;
     }
 
+    /**
+     * Creates a querier which only queries its task once per execution, it is
+     * meant to be executed periodically.
+     */
+    public static Tasklet newPollingQuerier(TaskContext task) {
+        return new Querier(task, false);
+    }
+
     public static List<Tasklet> newClosers(TaskRegistry tasks) {
         List<Tasklet> result = new ArrayList<Tasklet>();
         for (TaskContext task : tasks) {
@@ -71,6 +102,14 @@ public class Tasklets {
         return result;
     }
 
+    public static List<Tasklet> newFinishers(TaskRegistry tasks) {
+        List<Tasklet> result = new ArrayList<Tasklet>();
+        for (TaskContext task : tasks) {
+            result.add(new Finisher(task));
+        }
+        return result;
+    }
+
     public static List<Tasklet> newAborters(TaskRegistry tasks) {
         List<Tasklet> result = new ArrayList<Tasklet>();
         for (TaskContext task : tasks) {
@@ -0,0 +1,132 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.loader;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.config.*;
+import com.intel.cosbench.config.castor.CastorConfigTools;
+import com.intel.cosbench.controller.archiver.IndexedWorkloadArchiver;
+import com.intel.cosbench.controller.model.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * Archives a workload with {@link IndexedWorkloadArchiver} and loads it back,
+ * checking that stage snapshots come from their binary copy.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class TestIndexedWorkloadLoader {
+
+    private static final String CONFIG = "<workload name=\"round-trip\">"
+            + "<storage type=\"mock\" /><workflow>"
+            + "<workstage name=\"init\">"
+            + "<work type=\"init\" workers=\"1\" config=\"containers=r(1,2)\" />"
+            + "</workstage></workflow></workload>";
+
+    private File archive;
+
+    @Before
+    public void setUp() throws IOException {
+        archive = File.createTempFile("archive", "");
+        archive.delete();
+        archive.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(archive);
+    }
+
+    @Test
+    public final void testSnapshotsRoundTrip() throws IOException {
+        WorkloadContext workload = newWorkload("w1", 30);
+        new IndexedWorkloadArchiver(archive.getPath()).archive(workload);
+        File runDir = new File(archive, "w1-round-trip");
+        File snapshots = new File(runDir, "s1-init.snapshots");
+        assertTrue(snapshots.exists());
+        assertTrue(new File(runDir, "s1-init.csv").delete()); // no fallback
+
+        IndexedWorkloadLoader loader = new IndexedWorkloadLoader(
+                archive.getPath(), 10);
+        WorkloadInfo loaded = loader.loadWorkloadRun("w1");
+        assertNotNull(loaded);
+        loader.loadWorkloadPageInfo(loaded);
+        StageInfo stage = loaded.getStageInfo("s1-init");
+        assertNotNull(stage);
+        loader.loadStagePageInfo(loaded, stage.getId());
+
+        assertEquals(30, stage.getSnapshotCount());
+        int index = 0;
+        for (Snapshot snapshot : stage.getSnapshotRegistry()) {
+            Metrics metrics = snapshot.getReport().getAllMetrics()[0];
+            assertEquals(index * 5000L, snapshot.getTimestamp().getTime());
+            assertEquals(10D + index, metrics.getThroughput(), 1e-9);
+            index++;
+        }
+        assertEquals(30, index);
+        ((StageContext) stage).disposeSnapshots();
+    }
+
+    private static WorkloadContext newWorkload(String id, int intervals) {
+        Workload config = CastorConfigTools.getWorkloadResolver().toWorkload(
+                new XmlConfig(new ByteArrayInputStream(CONFIG.getBytes())));
+        WorkloadContext workload = new WorkloadContext();
+        workload.setId(id);
+        workload.setWorkload(config);
+        workload.setSubmitDate(new Date(0L));
+        workload.setDriverRegistry(new DriverRegistry());
+        StageRegistry registry = new StageRegistry();
+        int index = 1;
+        for (Stage stage : config.getWorkflow()) {
+            StageContext context = new StageContext();
+            context.setId("s" + index++ + "-" + stage.getName());
+            context.setStage(stage);
+            Snapshot last = null;
+            for (int i = 0; i < intervals; i++)
+                context.getSnapshotRegistry().addItem(last = newSnapshot(i));
+            context.setReport(last.getReport());
+            context.setState(StageState.COMPLETED);
+            registry.addStage(context);
+        }
+        workload.setStageRegistry(registry);
+        workload.setState(WorkloadState.FINISHED);
+        return workload;
+    }
+
+    private static Snapshot newSnapshot(int index) {
+        Metrics metrics = Metrics.newMetrics("op1-init");
+        metrics.setOpType("init");
+        metrics.setSampleType("init");
+        metrics.setOpName("init");
+        metrics.setSampleCount(10 + index);
+        metrics.setThroughput(10D + index);
+        Report report = new Report();
+        report.addMetrics(metrics);
+        return new Snapshot(report, new Date(index * 5000L));
+    }
+
+}
@@ -0,0 +1,114 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.controller.service;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.intel.cosbench.bench.*;
+
+/**
+ * Checks the p-values of the significance tests behind run comparisons
+ * against published reference values.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class TestRunComparator {
+
+    private static final double DELTA = 1e-5;
+
+    @Test
+    public final void testIncompleteBeta() {
+        assertEquals(0D, RunComparator.incompleteBeta(0D, 2D, 3D), DELTA);
+        assertEquals(1D, RunComparator.incompleteBeta(1D, 2D, 3D), DELTA);
+        assertEquals(0.3D, RunComparator.incompleteBeta(0.3D, 1D, 1D), DELTA);
+        assertEquals(Math.pow(0.7D, 2.5D),
+                RunComparator.incompleteBeta(0.7D, 2.5D, 1D), DELTA);
+        assertEquals(0.5D, RunComparator.incompleteBeta(0.5D, 4.5D, 4.5D),
+                DELTA);
+        // binomial tail: P(X >= 2), X ~ B(4, 0.3)
+        assertEquals(0.3483D, RunComparator.incompleteBeta(0.3D, 2D, 3D),
+                DELTA);
+        assertEquals(1D - 0.3483D,
+                RunComparator.incompleteBeta(0.7D, 3D, 2D), DELTA);
+    }
+
+    @Test
+    public final void testWelch() {
+        // R: t.test(extra ~ group, data = sleep), t = -1.8608, df = 17.776
+        double[] x = { 0.7, -1.6, -0.2, -1.2, -0.1, 3.4, 3.7, 0.8, 0.0, 2.0 };
+        double[] y = { 1.9, 0.8, 1.1, 0.1, -0.1, 4.4, 5.5, 1.6, 4.6, 3.4 };
+        assertEquals(0.07939D, RunComparator.welch(x, y), 1e-5);
+        assertEquals(0.07939D, RunComparator.welch(y, x), 1e-5);
+        // two degrees of freedom, p = 1 - t / sqrt(2 + t^2) with t = sqrt(2)
+        assertEquals(1D - Math.sqrt(0.5D), RunComparator.welch(new double[] {
+                0D, 2D }, new double[] { 2D, 4D }), DELTA);
+        assertEquals(1D, RunComparator.welch(x, x), DELTA);
+    }
+
+    @Test
+    public final void testWelchDegenerate() {
+        assertTrue(Double.isNaN(RunComparator.welch(new double[] { 1D },
+                new double[] { 1D, 2D })));
+        assertEquals(1D, RunComparator.welch(new double[] { 3D, 3D },
+                new double[] { 3D, 3D }), DELTA);
+        assertEquals(0D, RunComparator.welch(new double[] { 3D, 3D },
+                new double[] { 4D, 4D }), DELTA);
+    }
+
+    @Test
+    public final void testKs() {
+        SparseHistogram x = newHistogram(100L, 100L);
+        // D = 0.1 and n = 200 on both sides, lambda = 1.0131
+        assertEquals(0.25622D, RunComparator.ks(x, newHistogram(80L, 120L)),
+                DELTA);
+        assertEquals(1D, RunComparator.ks(x, newHistogram(100L, 100L)),
+                DELTA);
+        assertEquals(0D, RunComparator.ks(x, newHistogram(0L, 200L)), DELTA);
+        assertTrue(Double.isNaN(RunComparator.ks(x, null)));
+        assertTrue(Double.isNaN(RunComparator.ks(x, newHistogram(0L, 0L))));
+    }
+
+    @Test
+    public final void testProportions() {
+        // R: prop.test(c(90, 80), c(100, 100), correct = FALSE)
+        assertEquals(0.04767D, RunComparator.proportions(
+                newMetrics(90, 100), newMetrics(80, 100)), DELTA);
+        assertEquals(1D, RunComparator.proportions(newMetrics(100, 100),
+                newMetrics(100, 100)), DELTA);
+        assertTrue(Double.isNaN(RunComparator.proportions(newMetrics(0, 0),
+                newMetrics(80, 100))));
+    }
+
+    private static SparseHistogram newHistogram(long first, long second) {
+        SparseHistogram histogram = new SparseHistogram();
+        histogram.setBuckets(new int[] { 1, 2 });
+        histogram.setCounts(new long[] { first, second });
+        return histogram;
+    }
+
+    private static Metrics newMetrics(int succeeded, int total) {
+        Metrics metrics = new Metrics();
+        metrics.setSampleCount(succeeded);
+        metrics.setTotalSampleCount(total);
+        return metrics;
+    }
+
+}
@@ -38,10 +38,14 @@ public class Aggregator {
 
     private long byteCount = 0L; /* total bytes transferred */
     private int workerCount = 0; /* total workers involved */
+    private long rtSum = 0L; /* -1 once any child does not know it */
+    private long xtSum = 0L;
 
     /* children metrics */
     private boolean containsLatency = false;
     private List<Metrics> children = new ArrayList<Metrics>();
+    /* object-size classes, merged the same way by class */
+    private Map<String, Aggregator> sizeClasses;
 
     public Aggregator(String type) {
         this.type = type;
@@ -52,8 +56,28 @@ public class Aggregator {
         totalSampleCount += metrics.getTotalSampleCount();
         byteCount += metrics.getByteCount();
         workerCount += metrics.getWorkerCount();
+        rtSum = addSum(rtSum, metrics.getRtSum());
+        xtSum = addSum(xtSum, metrics.getXtSum());
         children.add(metrics);
         containsLatency = containsLatency || metrics.getLatency() != null;
+        if (metrics.getSizeClasses() != null)
+            addSizeClasses(metrics.getSizeClasses());
+    }
+
+    private static long addSum(long sum, long value) {
+        return sum < 0 || value < 0 ? -1L : sum + value;
+    }
+
+    private void addSizeClasses(List<Metrics> classes) {
+        if (sizeClasses == null)
+            sizeClasses = new LinkedHashMap<String, Aggregator>();
+        for (Metrics metrics : classes) {
+            Aggregator aggregator = sizeClasses.get(metrics.getName());
+            if (aggregator == null)
+                sizeClasses.put(metrics.getName(),
+                        aggregator = new Aggregator(metrics.getName()));
+            aggregator.addMetrics(metrics);
+        }
     }
 
     public Metrics aggregate() {
@@ -66,12 +90,25 @@ public class Aggregator {
         metrics.setBandwidth(getBandwidth());
         metrics.setAvgResTime(getAvgResTime());
         metrics.setAvgXferTime(getAvgXferTime());
+        metrics.setRtSum(children.isEmpty() ? -1L : rtSum);
+        metrics.setXtSum(children.isEmpty() ? -1L : xtSum);
         metrics.setLatency(getLatency());
+        metrics.setResHistogram(getResHistogram());
 		metrics.setRatio(metrics.getTotalSampleCount() > 0 ? (double) metrics
 				.getSampleCount() / metrics.getTotalSampleCount() : 0D);
+        metrics.setSizeClasses(getSizeClasses());
         return metrics;
     }
 
+    private List<Metrics> getSizeClasses() {
+        if (sizeClasses == null)
+            return null;
+        List<Metrics> classes = new ArrayList<Metrics>();
+        for (Aggregator aggregator : sizeClasses.values())
+            classes.add(aggregator.aggregate());
+        return classes;
+    }
+
     private double getThroughput() {
         double sum = 0D;
         for (Metrics metrics : children)
@@ -113,6 +150,18 @@ public class Aggregator {
         return histogram;
     }
 
+    private SparseHistogram getResHistogram() {
+        SparseHistogram histogram = null;
+        for (Metrics metrics : children) {
+            if (metrics.getResHistogram() == null)
+                continue;
+            if (histogram == null)
+                histogram = new SparseHistogram();
+            histogram.merge(metrics.getResHistogram());
+        }
+        return histogram;
+    }
+
     private int[] getLatencyHistoData() {
         int size = 1 + (int) (RES_MAX / RES_INT);
         int[] data = new int[size];
@@ -0,0 +1,88 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class keeps the final metrics of one driver, or of one worker of a
+ * driver, before they are merged into the report of the stage, so that
+ * imbalanced load generation can be told apart from a slow system.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class Breakdown {
+
+    private String driver; /* filled in by the controller */
+    private String work; /* filled in by the controller */
+    private int worker; /* 0 for the whole driver */
+    private List<Metrics> report; /* metrics per operation */
+    private ResourceUsage usage; /* peak driver resources, null if unknown */
+
+    public Breakdown() {
+        /* empty */
+    }
+
+    public Breakdown(int worker, Report report) {
+        this.worker = worker;
+        this.report = Arrays.asList(report.getAllMetrics());
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public void setDriver(String driver) {
+        this.driver = driver;
+    }
+
+    public String getWork() {
+        return work;
+    }
+
+    public void setWork(String work) {
+        this.work = work;
+    }
+
+    public int getWorker() {
+        return worker;
+    }
+
+    public void setWorker(int worker) {
+        this.worker = worker;
+    }
+
+    public List<Metrics> getReport() {
+        return report;
+    }
+
+    public void setReport(List<Metrics> report) {
+        this.report = report;
+    }
+
+    public ResourceUsage getUsage() {
+        return usage;
+    }
+
+    public void setUsage(ResourceUsage usage) {
+        this.usage = usage;
+    }
+
+}
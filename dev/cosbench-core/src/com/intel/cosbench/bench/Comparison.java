@@ -0,0 +1,93 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * The class represents the comparison of one or more runs with a base run,
+ * stage by stage and operation by operation.
+ * 
+ * @author ywang19, qzheng7
+ * @see com.intel.cosbench.bench.ComparisonEntry
+ *
+ */
+public class Comparison {
+
+    public static final double DEFAULT_THRESHOLD = 0.05; // 5% worse
+
+    /* significance level of the statistical tests */
+    public static final double ALPHA = 0.05;
+
+    private String baseId;
+    private List<String> workloadIds = new ArrayList<String>();
+    private double threshold = DEFAULT_THRESHOLD;
+    private List<ComparisonEntry> entries = new ArrayList<ComparisonEntry>();
+
+    public Comparison() {
+        /* empty */
+    }
+
+    public String getBaseId() {
+        return baseId;
+    }
+
+    public void setBaseId(String baseId) {
+        this.baseId = baseId;
+    }
+
+    public List<String> getWorkloadIds() {
+        return workloadIds;
+    }
+
+    public void setWorkloadIds(List<String> workloadIds) {
+        this.workloadIds = workloadIds;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public List<ComparisonEntry> getEntries() {
+        return entries;
+    }
+
+    public void addEntry(ComparisonEntry entry) {
+        entries.add(entry);
+    }
+
+    public List<ComparisonEntry> getRegressions() {
+        List<ComparisonEntry> result = new ArrayList<ComparisonEntry>();
+        for (ComparisonEntry entry : entries)
+            if (entry.isRegression())
+                result.add(entry);
+        return result;
+    }
+
+    public boolean hasRegression() {
+        for (ComparisonEntry entry : entries)
+            if (entry.isRegression())
+                return true;
+        return false;
+    }
+
+}
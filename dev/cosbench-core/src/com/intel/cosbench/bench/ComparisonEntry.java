@@ -0,0 +1,140 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+/**
+ * The class represents one metric of one operation compared between a base
+ * run and another run.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class ComparisonEntry {
+
+    public static final String OK = "ok";
+    public static final String REGRESSION = "regression";
+    public static final String MISSING = "missing";
+
+    private String workloadId; /* the run compared with the base */
+    private String stage; /* stage name */
+    private String op; /* operation name as in workload reports */
+    private String metric;
+
+    private double base; /* value of the base run */
+    private double value; /* value of the other run */
+    private double change = Double.NaN; /* relative to the base, if any */
+    private double pValue = Double.NaN; /* NaN if it could not be tested */
+    private String verdict = OK;
+
+    public ComparisonEntry() {
+        /* empty */
+    }
+
+    public ComparisonEntry(String workloadId, String stage, String op,
+            String metric) {
+        this.workloadId = workloadId;
+        this.stage = stage;
+        this.op = op;
+        this.metric = metric;
+    }
+
+    public String getWorkloadId() {
+        return workloadId;
+    }
+
+    public void setWorkloadId(String workloadId) {
+        this.workloadId = workloadId;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public double getBase() {
+        return base;
+    }
+
+    public void setBase(double base) {
+        this.base = base;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    public double getChange() {
+        return change;
+    }
+
+    public void setChange(double change) {
+        this.change = change;
+    }
+
+    public double getPValue() {
+        return pValue;
+    }
+
+    public void setPValue(double pValue) {
+        this.pValue = pValue;
+    }
+
+    public boolean isTested() {
+        return !Double.isNaN(pValue);
+    }
+
+    public boolean isChanged() {
+        return !Double.isNaN(change);
+    }
+
+    public String getVerdict() {
+        return verdict;
+    }
+
+    public void setVerdict(String verdict) {
+        this.verdict = verdict;
+    }
+
+    public boolean isRegression() {
+        return REGRESSION.equals(verdict);
+    }
+
+}
@@ -0,0 +1,126 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The class counts performance data of one worker since it started. Counters
+ * only grow, they are written by the worker thread alone and may be read at
+ * any time by other threads without locking, so that rates for any window
+ * can be derived from the deltas between two reads.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class CumulativeMark {
+
+    private static final int OP_COUNT = 0;
+    private static final int SAMPLE_COUNT = 1;
+    private static final int TOTAL_OP_COUNT = 2;
+    private static final int TOTAL_SAMPLE_COUNT = 3;
+    private static final int RT_SUM = 4;
+    private static final int XT_SUM = 5;
+    private static final int BYTE_COUNT = 6;
+
+    private String name; /* mark id */
+
+    private AtomicLongArray counters = new AtomicLongArray(7);
+    /* response time histogram, replaced by a larger copy as needed */
+    private volatile AtomicLongArray resCounts = new AtomicLongArray(0);
+
+    public CumulativeMark(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /* only called by the writing thread, readers see each store in order */
+    private void add(int index, long delta) {
+        counters.lazySet(index, counters.get(index) + delta);
+    }
+
+    public void addSample(Sample sample) {
+        if (sample.isSucc()) {
+            add(SAMPLE_COUNT, 1);
+            add(RT_SUM, sample.getTime());
+            add(XT_SUM, sample.getXferTime());
+            add(BYTE_COUNT, sample.getBytes());
+            recordResTime(sample.getTime());
+        }
+        add(TOTAL_SAMPLE_COUNT, 1);
+    }
+
+    public void addOperation(Result result) {
+        if (result.isSucc())
+            add(OP_COUNT, 1);
+        add(TOTAL_OP_COUNT, 1);
+    }
+
+    private void recordResTime(long time) {
+        int index = SparseHistogram.getIndex(time);
+        AtomicLongArray data = resCounts;
+        if (index >= data.length()) {
+            AtomicLongArray grown = new AtomicLongArray(Math.max(index + 1,
+                    SparseHistogram.LINEAR));
+            for (int i = 0; i < data.length(); i++)
+                grown.set(i, data.get(i));
+            resCounts = data = grown; // readers move on to the copy
+        }
+        data.lazySet(index, data.get(index) + 1);
+    }
+
+    public int getTotalOpCount() {
+        return (int) counters.get(TOTAL_OP_COUNT);
+    }
+
+    public long getByteCount() {
+        return counters.get(BYTE_COUNT);
+    }
+
+    /**
+     * Adds the counters read at this moment to a mark, e.g. to sum them up
+     * across workers.
+     */
+    public void addTo(Mark mark) {
+        mark.setOpCount(mark.getOpCount() + (int) counters.get(OP_COUNT));
+        mark.setSampleCount(mark.getSampleCount()
+                + (int) counters.get(SAMPLE_COUNT));
+        mark.setTotalOpCount(mark.getTotalOpCount()
+                + (int) counters.get(TOTAL_OP_COUNT));
+        mark.setTotalSampleCount(mark.getTotalSampleCount()
+                + (int) counters.get(TOTAL_SAMPLE_COUNT));
+        mark.setRtSum(mark.getRtSum() + counters.get(RT_SUM));
+        mark.setXtSum(mark.getXtSum() + counters.get(XT_SUM));
+        mark.setByteCount(mark.getByteCount() + counters.get(BYTE_COUNT));
+        AtomicLongArray data = resCounts;
+        if (data.length() == 0)
+            return;
+        long[] sum = mark.getResCounts();
+        if (sum == null || sum.length < data.length())
+            sum = sum != null ? Arrays.copyOf(sum, data.length())
+                    : new long[data.length()];
+        for (int i = 0; i < data.length(); i++)
+            sum[i] += data.get(i);
+        mark.setResCounts(sum);
+    }
+
+}
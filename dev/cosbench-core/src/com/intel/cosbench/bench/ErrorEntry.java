@@ -0,0 +1,146 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * The class represents one kind of error, identified by operation type, error
+ * code and exception type, with its count and a bounded, uniform sample of the
+ * targets it failed on.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class ErrorEntry {
+
+    private String opType; /* operation type */
+    private String code; /* status code, or "N/A" */
+    private String type; /* exception type */
+    private String message; /* message of the first occurrence */
+
+    private long count; /* number of occurrences */
+    private List<String> targets; /* reservoir sample of failed targets */
+
+    public ErrorEntry() {
+        targets = new ArrayList<String>();
+    }
+
+    public ErrorEntry(String opType, String code, String type, String message) {
+        this();
+        this.opType = opType;
+        this.code = code;
+        this.type = type;
+        this.message = message;
+    }
+
+    public static String keyOf(String opType, String code, String type) {
+        return opType + " " + code + " " + type;
+    }
+
+    /**
+     * Counts one more occurrence, the sample is maintained with reservoir
+     * sampling so that each failed target has the same chance to be kept.
+     */
+    public synchronized void record(String target, Random random, int size) {
+        count++;
+        if (targets.size() < size) {
+            targets.add(target);
+            return;
+        }
+        long slot = (long) (random.nextDouble() * count);
+        if (slot < size)
+            targets.set((int) slot, target);
+    }
+
+    /**
+     * Folds another entry of the same kind into this one, the merged sample
+     * draws from both sides in proportion to their counts.
+     */
+    public synchronized void merge(ErrorEntry other, Random random, int size) {
+        ErrorEntry copy = other.copy();
+        List<String> mine = new ArrayList<String>(targets);
+        List<String> theirs = copy.targets;
+        targets.clear();
+        while (targets.size() < size && !(mine.isEmpty() && theirs.isEmpty())) {
+            boolean fromMine = theirs.isEmpty() || !mine.isEmpty()
+                    && random.nextDouble() * (count + copy.count) < count;
+            List<String> from = fromMine ? mine : theirs;
+            targets.add(from.remove(random.nextInt(from.size())));
+        }
+        count += copy.count;
+        if (message == null)
+            message = copy.message;
+    }
+
+    public synchronized ErrorEntry copy() {
+        ErrorEntry entry = new ErrorEntry(opType, code, type, message);
+        entry.count = count;
+        entry.targets.addAll(targets);
+        return entry;
+    }
+
+    public String getOpType() {
+        return opType;
+    }
+
+    public void setOpType(String opType) {
+        this.opType = opType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized void setCount(long count) {
+        this.count = count;
+    }
+
+    public synchronized List<String> getTargets() {
+        return new ArrayList<String>(targets);
+    }
+
+    public synchronized void setTargets(List<String> targets) {
+        this.targets = new ArrayList<String>(targets);
+    }
+
+}
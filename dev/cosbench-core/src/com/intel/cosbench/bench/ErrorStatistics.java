@@ -16,113 +16,115 @@ limitations under the License.
 */ 
 package com.intel.cosbench.bench;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
-
-import javax.lang.model.element.Element;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.intel.cosbench.log.Logger;
 
+/**
+ * This class aggregates errors of one worker, or, once merged, of a whole
+ * mission. Errors are counted per operation type, error code and exception
+ * type, and for each kind only a bounded sample of failed targets and the
+ * first exception are kept, so that recording an error costs the same no
+ * matter how many have occurred before.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
 public class ErrorStatistics {
-	private HashMap<String, Exception> stackTraceAndException;
-	private HashMap<String, String> stackTraceAndTargets;
-	
-	//summary the result 
-	private HashMap<String, String> stackTraceAndMessage;
-	private HashMap<String, String> stackTraceAndErrorCode;
-	private HashMap<String, String> stackTraceAndNum;
-	private HashMap<String, String> stackTraceAndEntireTrace;
-	private HashMap<String, Integer> errorCodeAndNum;
-	
-	
-	public ErrorStatistics(){
-		stackTraceAndException = new HashMap<String, Exception>();
-		stackTraceAndTargets = new HashMap<String, String>(); 
-		stackTraceAndMessage = new HashMap<String, String>();
-		stackTraceAndErrorCode = new HashMap<String, String>();
-		stackTraceAndEntireTrace = new HashMap<String, String>();
-		stackTraceAndNum = new HashMap<String, String>();
-		errorCodeAndNum = new HashMap<String, Integer>();
-	}
 
+	public static final String NO_CODE = "N/A";
 
-	public HashMap<String, Exception> getStackTraceAndException() {
-		return stackTraceAndException;
-	}
-
-	public HashMap<String, String> getStackTraceAndTargets() {
-		return stackTraceAndTargets;
-	}
-	
-	
-	public HashMap<String, String> getStackTraceAndMessage() {
-		return stackTraceAndMessage;
-	}
+	/* failed targets sampled for each kind of error */
+	public static final int SAMPLE_SIZE = 10;
 
+	private Map<String, ErrorEntry> entries;
+	/* the first exception of each kind, only used for logging */
+	private Map<String, Exception> exceptions;
+	/* for sampling targets, apart from the random stream of the worker */
+	private Random random = new Random();
 
-	public HashMap<String, String> getStackTraceAndErrorCode() {
-		return stackTraceAndErrorCode;
+	public ErrorStatistics(){
+		entries = new ConcurrentHashMap<String, ErrorEntry>();
+		exceptions = new ConcurrentHashMap<String, Exception>();
 	}
 
+	/**
+	 * Records one failure, it is meant to be called by the worker owning this
+	 * instance, while snapshots may merge it from other threads.
+	 * 
+	 * @return true if it is the first error of its kind
+	 */
+	public boolean record(String opType, String code, Exception e,
+			String target) {
+		String type = getType(e);
+		String key = ErrorEntry.keyOf(opType, code, type);
+		ErrorEntry entry = entries.get(key);
+		boolean first = entry == null;
+		if (first) {
+			entry = new ErrorEntry(opType, code, type, e.getMessage());
+			exceptions.put(key, e);
+			entries.put(key, entry);
+		}
+		entry.record(target, random, SAMPLE_SIZE);
+		return first;
+	}
 
-	public HashMap<String, String> getStackTraceAndEntireTrace() {
-		return stackTraceAndEntireTrace;
+	private static String getType(Exception e) {
+		String type = e.getClass().getSimpleName();
+		Throwable cause = e.getCause();
+		return cause == null ? type : type + "/" + cause.getClass().getSimpleName();
 	}
-	
 
+	public void merge(ErrorStatistics other) {
+		for (Map.Entry<String, ErrorEntry> entry : other.entries.entrySet()) {
+			String key = entry.getKey();
+			ErrorEntry mine = entries.get(key);
+			if (mine == null) {
+				entries.put(key, entry.getValue().copy());
+				Exception e = other.exceptions.get(key);
+				if (e != null)
+					exceptions.put(key, e);
+			} else {
+				mine.merge(entry.getValue(), random, SAMPLE_SIZE);
+			}
+		}
+	}
 
-	public HashMap<String, String> getStackTraceAndNum() {
-		return stackTraceAndNum;
+	/**
+	 * @return a copy of the error entries, most frequent first
+	 */
+	public List<ErrorEntry> getEntries() {
+		List<ErrorEntry> list = new ArrayList<ErrorEntry>();
+		for (ErrorEntry entry : entries.values())
+			list.add(entry.copy());
+		Collections.sort(list, new Comparator<ErrorEntry>() {
+			@Override
+			public int compare(ErrorEntry e1, ErrorEntry e2) {
+				return e1.getCount() == e2.getCount() ? 0
+						: (e1.getCount() > e2.getCount() ? -1 : 1);
+			}
+		});
+		return list;
 	}
-	
+
 	public HashMap<String, Integer> getErrorCodeAndNum() {
+		HashMap<String, Integer> errorCodeAndNum = new HashMap<String, Integer>();
+		for (ErrorEntry entry : entries.values()) {
+			Integer num = errorCodeAndNum.get(entry.getCode());
+			long sum = (num == null ? 0 : num) + entry.getCount();
+			errorCodeAndNum.put(entry.getCode(), (int) Math.min(sum, Integer.MAX_VALUE));
+		}
 		return errorCodeAndNum;
 	}
 
-
 	public void summaryToMission(Logger logger){
-		Exception e = null;
-		String message = null;
-		String code = null;
-		Integer codeNumber;
-		String trace = "";
-		for(Map.Entry<String, String> entry : stackTraceAndTargets.entrySet()){
-			e = stackTraceAndException.get(entry.getKey());
-			if (e != null)
-				message = e.getMessage();
-			stackTraceAndMessage.put(entry.getKey(), message);
-			if (message != null)
-				code = message.substring(9, 12);
-			if(!isInteger(code))
-				code = "N/A";
-			stackTraceAndErrorCode.put(entry.getKey(), code);
-			codeNumber = getCodeNumber(entry.getValue());
-			stackTraceAndNum.put(entry.getKey(), String.valueOf(codeNumber));
-			if(errorCodeAndNum.containsKey(code)){
-				Integer num = errorCodeAndNum.get(code);
-				errorCodeAndNum.put(code, num + codeNumber);
-			}
-			else{
-				errorCodeAndNum.put(code, codeNumber);
-			}
-			for(StackTraceElement ele: stackTraceAndException.get(entry.getKey()).getStackTrace())
-				trace += ele.toString()+"\n";
-			stackTraceAndEntireTrace.put(entry.getKey(), trace);
-			logger.error("error code: " + code + " occurred " +codeNumber + " times, fail to operate: " + entry.getValue(), stackTraceAndException.get(entry.getKey()));			
+		for (ErrorEntry entry : getEntries()) {
+			String key = ErrorEntry.keyOf(entry.getOpType(), entry.getCode(), entry.getType());
+			logger.error("error code: " + entry.getCode() + " occurred " + entry.getCount()
+					+ " times on " + entry.getOpType() + " (" + entry.getType()
+					+ "), sample of failed targets: " + entry.getTargets(), exceptions.get(key));
 		}
 	}
-	
-	public Integer getCodeNumber(String targets){
-		if (targets == null)
-			return null;
-		int codeNumber = targets.split(",").length;
-		return codeNumber;
-	}
-	 	  
-	  public static boolean isInteger(String str) {    
-	    Pattern pattern = Pattern.compile("^[-\\+]?[\\d]*$");    
-	    return pattern.matcher(str).matches();    
-	  }  
 
 }
@@ -17,6 +17,8 @@ limitations under the License.
 
 package com.intel.cosbench.bench;
 
+import java.util.Arrays;
+
 import com.intel.cosbench.utils.MapRegistry.Item;
 
 
@@ -43,6 +45,11 @@ public class Mark implements Cloneable, Item {
     private long rtSum; /* total response time */
     private long xtSum; /* total transfer time */
     private long byteCount; /* total bytes transferred */
+    private long[] resCounts; /* response time histogram, grown as needed */
+
+    private String sizeClass; /* object-size class, null for the whole type */
+    private SizeClasses classes; /* null unless broken down by object size */
+    private Mark[] classMarks; /* one mark per object-size class */
 
     public Mark() {
         /* empty */
@@ -145,6 +152,42 @@ public class Mark implements Cloneable, Item {
         this.byteCount = byteCount;
     }
 
+    public long[] getResCounts() {
+        return resCounts;
+    }
+
+    public void setResCounts(long[] resCounts) {
+        this.resCounts = resCounts;
+    }
+
+    public String getSizeClass() {
+        return sizeClass;
+    }
+
+    public void setSizeClass(String sizeClass) {
+        this.sizeClass = sizeClass;
+    }
+
+    public Mark[] getClassMarks() {
+        return classMarks;
+    }
+
+    /**
+     * Breaks the samples of this mark down by object size as well, samples
+     * that failed or moved no data have no size and only count here.
+     */
+    public void setSizeClasses(SizeClasses classes) {
+        this.classes = classes;
+        if (classes == null) {
+            classMarks = null;
+            return;
+        }
+        classMarks = new Mark[classes.size()];
+        for (int i = 0; i < classMarks.length; i++)
+            classMarks[i] = newMark(SizeClasses.getClassType(name,
+                    classes.getLabel(i)));
+    }
+
     public void clear() {
         opCount = 0;
         sampleCount = 0;
@@ -153,6 +196,11 @@ public class Mark implements Cloneable, Item {
         rtSum = 0;
         xtSum = 0;
         byteCount = 0;
+        if (resCounts != null)
+            Arrays.fill(resCounts, 0L);
+        if (classMarks != null)
+            for (Mark mark : classMarks)
+                mark.clear();
     }
 
     public void addSample(Sample sample) {
@@ -162,6 +210,9 @@ public class Mark implements Cloneable, Item {
             rtSum += sample.getTime();
             xtSum += sample.getXferTime();
             byteCount += sample.getBytes();
+            resCounts = SparseHistogram.record(resCounts, sample.getTime());
+            if (classMarks != null && sample.getBytes() > 0)
+                classMarks[classes.indexOf(sample.getBytes())].addSample(sample);
         }
         
         totalSampleCount += 1;
@@ -179,9 +230,11 @@ public class Mark implements Cloneable, Item {
 	}
 
     public static Mark newMark(String type) {
-        String[] types = type.split("\\.");
+        int at = type.indexOf('@');
+        String[] types = (at < 0 ? type : type.substring(0, at)).split("\\.");
         Mark mark = new Mark();
         mark.setName(type);
+        mark.setSizeClass(at < 0 ? null : type.substring(at + 1));
         mark.setOpId(types[0]);
         mark.setOpType(types[1]);
         mark.setSampleType(types[2]);
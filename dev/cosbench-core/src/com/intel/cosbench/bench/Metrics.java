@@ -17,6 +17,8 @@ limitations under the License.
 
 package com.intel.cosbench.bench;
 
+import java.util.*;
+
 import com.intel.cosbench.utils.MapRegistry.Item;
 
 
@@ -51,12 +53,21 @@ public class Metrics implements Item, Cloneable {
     private double throughput; /* operation throughput */
     private double bandwidth; /* network bandwidth */
 
+    /* response and transfer times summed over the samples, -1 if unknown */
+    private long rtSum = -1L;
+    private long xtSum = -1L;
+
     /* Latency Details */
     private Histogram latency; /* detailed latency metrics */
+    private SparseHistogram resHistogram; /* response time histogram */
     
     /* success ratio */
     private double ratio;
 
+    /* Object-Size Classes */
+    private String sizeClass; /* null for the whole type */
+    private List<Metrics> sizeClasses; /* null unless broken down by size */
+
     public Metrics() {
         /* empty */
     }
@@ -166,6 +177,22 @@ public class Metrics implements Item, Cloneable {
         this.bandwidth = bandwidth;
     }
 
+    public long getRtSum() {
+        return rtSum;
+    }
+
+    public void setRtSum(long rtSum) {
+        this.rtSum = rtSum;
+    }
+
+    public long getXtSum() {
+        return xtSum;
+    }
+
+    public void setXtSum(long xtSum) {
+        this.xtSum = xtSum;
+    }
+
     public Histogram getLatency() {
         return latency;
     }
@@ -173,6 +200,29 @@ public class Metrics implements Item, Cloneable {
     public void setLatency(Histogram latency) {
         this.latency = latency;
     }
+
+    public SparseHistogram getResHistogram() {
+        return resHistogram;
+    }
+
+    public void setResHistogram(SparseHistogram resHistogram) {
+        this.resHistogram = resHistogram;
+    }
+
+    /**
+     * @return the 99th percentile response time, taken from the response
+     *         time histogram if there is one, or -1 if it is unknown
+     */
+    public long calcP99() {
+        if (resHistogram != null && resHistogram.getCounts() != null) {
+            long p99 = resHistogram.calcPercentile(0.99);
+            if (p99 >= 0)
+                return p99;
+        }
+        if (latency != null && latency.get_99() != null)
+            return latency.get_99()[1];
+        return -1L;
+    }
     
     public void setRatio(double ratio) {
     	this.ratio = ratio;
@@ -182,6 +232,22 @@ public class Metrics implements Item, Cloneable {
     	return ratio;
     }
 
+    public String getSizeClass() {
+        return sizeClass;
+    }
+
+    public void setSizeClass(String sizeClass) {
+        this.sizeClass = sizeClass;
+    }
+
+    public List<Metrics> getSizeClasses() {
+        return sizeClasses;
+    }
+
+    public void setSizeClasses(List<Metrics> sizeClasses) {
+        this.sizeClasses = sizeClasses;
+    }
+
     @Override
     public Metrics clone() {
         try {
@@ -197,9 +263,11 @@ public class Metrics implements Item, Cloneable {
     }
 
     public static Metrics newMetrics(String type) {
-        String[] types = type.split("\\.");
+        int at = type.indexOf('@');
+        String[] types = (at < 0 ? type : type.substring(0, at)).split("\\.");
         Metrics metrics = new Metrics();
         metrics.setName(type);
+        metrics.setSizeClass(at < 0 ? null : type.substring(at + 1));
         metrics.setOpId(types.length > 0? types[0] : "na");
         metrics.setOpType(types.length > 1? types[1] : "na");
         metrics.setSampleType(types.length > 2? types[2] : "na");
@@ -207,6 +275,45 @@ public class Metrics implements Item, Cloneable {
         return metrics;
     }
 
+    /**
+     * Derives the metrics of a window from two cumulative metrics of the same
+     * kind, taken at the start and at the end of the window.
+     */
+    public static Metrics delta(Metrics from, Metrics to, long window) {
+        Metrics metrics = to.clone();
+        int sps = to.getSampleCount() - from.getSampleCount();
+        int tsps = to.getTotalSampleCount() - from.getTotalSampleCount();
+        long bytes = to.getByteCount() - from.getByteCount();
+        /* exact sums when both ends carry them, else rebuilt from averages */
+        boolean summed = from.getRtSum() >= 0 && to.getRtSum() >= 0
+                && from.getXtSum() >= 0 && to.getXtSum() >= 0;
+        double rtSum, xtSum;
+        if (summed) {
+            rtSum = to.getRtSum() - from.getRtSum();
+            xtSum = to.getXtSum() - from.getXtSum();
+        } else {
+            rtSum = to.getAvgResTime() * to.getSampleCount()
+                    - from.getAvgResTime() * from.getSampleCount();
+            xtSum = to.getAvgXferTime() * to.getSampleCount()
+                    - from.getAvgXferTime() * from.getSampleCount();
+        }
+        metrics.setRtSum(summed ? Math.max((long) rtSum, 0L) : -1L);
+        metrics.setXtSum(summed ? Math.max((long) xtSum, 0L) : -1L);
+        metrics.setSampleCount(sps);
+        metrics.setTotalSampleCount(tsps);
+        metrics.setRatio(tsps > 0 ? (double) sps / tsps : 0D);
+        metrics.setByteCount(bytes);
+        metrics.setAvgResTime(sps > 0 ? Math.max(rtSum, 0) / sps : 0);
+        metrics.setAvgXferTime(sps > 0 ? Math.max(xtSum, 0) / sps : 0);
+        metrics.setThroughput(sps > 0 && window > 0 ? ((double) sps) / window
+                * 1000 : 0);
+        metrics.setBandwidth(bytes > 0 && window > 0 ? ((double) bytes)
+                / window * 1000 : 0);
+        SparseHistogram h1 = from.getResHistogram(), h2 = to.getResHistogram();
+        metrics.setResHistogram(h1 != null && h2 != null ? h2.subtract(h1) : h2);
+        return metrics;
+    }
+
     public static Metrics convert(Mark mark, long window) {
         int sps = mark.getSampleCount();
         int tsps = mark.getTotalSampleCount();
@@ -215,6 +322,8 @@ public class Metrics implements Item, Cloneable {
         long bytes = mark.getByteCount();
 		String type = getMetricsType(mark.getOpId(), mark.getOpType(),
 				mark.getSampleType(), mark.getOpName());
+        if (mark.getSizeClass() != null)
+            type = SizeClasses.getClassType(type, mark.getSizeClass());
         Metrics metrics = newMetrics(type);
         metrics.setSampleCount(sps);
         metrics.setTotalSampleCount(tsps);
@@ -224,9 +333,23 @@ public class Metrics implements Item, Cloneable {
         metrics.setWorkerCount(1);
         metrics.setAvgResTime(rtSum > 0 ? ((double) rtSum) / sps : 0);
         metrics.setAvgXferTime(xtSum > 0 ? ((double) xtSum) / sps : 0);
+        metrics.setRtSum(rtSum);
+        metrics.setXtSum(xtSum);
         metrics.setThroughput(sps > 0 ? ((double) sps) / window * 1000 : 0);
         metrics.setBandwidth(bytes > 0 ? ((double) bytes) / window * 1000 : 0);
+        metrics.setResHistogram(SparseHistogram.convert(mark.getResCounts()));
+        metrics.setSizeClasses(convert(mark.getClassMarks(), window));
         return metrics;
     }
 
+    private static List<Metrics> convert(Mark[] classMarks, long window) {
+        if (classMarks == null)
+            return null;
+        List<Metrics> classes = new ArrayList<Metrics>();
+        for (Mark mark : classMarks)
+            if (mark.getTotalSampleCount() > 0) // sizes never drawn
+                classes.add(convert(mark, window));
+        return classes.isEmpty() ? null : classes;
+    }
+
 }
@@ -0,0 +1,196 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * This class represents how busy a driver host was, so that results can be
+ * told apart from a saturated driver. Values which could not be measured are
+ * negative.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class ResourceUsage {
+
+    /* beyond these, the driver rather than the storage may be the bottleneck */
+    public static final double CPU_LIMIT = 0.85;
+    public static final double GC_LIMIT = 0.1;
+    public static final double HEAP_LIMIT = 0.9;
+    public static final double RUNNABLE_LIMIT = 1.5; /* threads per core */
+    public static final double NIC_LIMIT = 0.85;
+
+    private double cpuLoad = -1; /* process CPU time per core and wall time */
+    private double gcRatio = -1; /* share of wall time spent in GC */
+    private long allocRate = -1; /* bytes allocated per second */
+    private long heapUsed = -1; /* bytes */
+    private long heapMax = -1; /* bytes */
+    private int runnable = -1; /* threads in the host run queue */
+    private int cores = -1; /* processors available to the JVM */
+    private long netRxRate = -1; /* bytes received per second */
+    private long netTxRate = -1; /* bytes sent per second */
+    private double nicLoad = -1; /* utilization of the busiest interface */
+
+    public ResourceUsage() {
+        /* empty */
+    }
+
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public void setCpuLoad(double cpuLoad) {
+        this.cpuLoad = cpuLoad;
+    }
+
+    public double getGcRatio() {
+        return gcRatio;
+    }
+
+    public void setGcRatio(double gcRatio) {
+        this.gcRatio = gcRatio;
+    }
+
+    public long getAllocRate() {
+        return allocRate;
+    }
+
+    public void setAllocRate(long allocRate) {
+        this.allocRate = allocRate;
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public void setHeapUsed(long heapUsed) {
+        this.heapUsed = heapUsed;
+    }
+
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    public void setHeapMax(long heapMax) {
+        this.heapMax = heapMax;
+    }
+
+    public int getRunnable() {
+        return runnable;
+    }
+
+    public void setRunnable(int runnable) {
+        this.runnable = runnable;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public void setCores(int cores) {
+        this.cores = cores;
+    }
+
+    public long getNetRxRate() {
+        return netRxRate;
+    }
+
+    public void setNetRxRate(long netRxRate) {
+        this.netRxRate = netRxRate;
+    }
+
+    public long getNetTxRate() {
+        return netTxRate;
+    }
+
+    public void setNetTxRate(long netTxRate) {
+        this.netTxRate = netTxRate;
+    }
+
+    public double getNicLoad() {
+        return nicLoad;
+    }
+
+    public void setNicLoad(double nicLoad) {
+        this.nicLoad = nicLoad;
+    }
+
+    /**
+     * @return the share of the maximum heap in use, or -1 if unknown
+     */
+    public double calcHeapLoad() {
+        return heapUsed >= 0 && heapMax > 0 ? (double) heapUsed / heapMax : -1;
+    }
+
+    /**
+     * @return the run queue length per core, or -1 if unknown
+     */
+    public double calcRunnableLoad() {
+        return runnable >= 0 && cores > 0 ? (double) runnable / cores : -1;
+    }
+
+    /**
+     * @return the resources exceeding their limits, empty if none does
+     */
+    public List<String> checkLimits() {
+        List<String> warnings = new ArrayList<String>();
+        if (cpuLoad > CPU_LIMIT)
+            warnings.add("cpu");
+        if (gcRatio > GC_LIMIT)
+            warnings.add("gc");
+        if (calcHeapLoad() > HEAP_LIMIT)
+            warnings.add("heap");
+        if (calcRunnableLoad() > RUNNABLE_LIMIT)
+            warnings.add("runnable");
+        if (nicLoad > NIC_LIMIT)
+            warnings.add("nic");
+        return warnings;
+    }
+
+    /**
+     * Keeps the higher of each value, e.g. to find the worst driver or the
+     * peak over a mission.
+     * 
+     * @return the merged usage, either argument may be null
+     */
+    public static ResourceUsage max(ResourceUsage u1, ResourceUsage u2) {
+        if (u1 == null)
+            return u2;
+        if (u2 == null)
+            return u1;
+        ResourceUsage usage = new ResourceUsage();
+        usage.cpuLoad = Math.max(u1.cpuLoad, u2.cpuLoad);
+        usage.gcRatio = Math.max(u1.gcRatio, u2.gcRatio);
+        usage.allocRate = Math.max(u1.allocRate, u2.allocRate);
+        /* heap and run queue are compared relative to their capacity */
+        ResourceUsage heap = u1.calcHeapLoad() >= u2.calcHeapLoad() ? u1 : u2;
+        usage.heapUsed = heap.heapUsed;
+        usage.heapMax = heap.heapMax;
+        ResourceUsage run = u1.calcRunnableLoad() >= u2.calcRunnableLoad() ? u1
+                : u2;
+        usage.runnable = run.runnable;
+        usage.cores = run.cores;
+        usage.netRxRate = Math.max(u1.netRxRate, u2.netRxRate);
+        usage.netTxRate = Math.max(u1.netTxRate, u2.netTxRate);
+        usage.nicLoad = Math.max(u1.nicLoad, u2.nicLoad);
+        return usage;
+    }
+
+}
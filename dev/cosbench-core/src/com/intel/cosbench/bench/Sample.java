@@ -39,6 +39,9 @@ public class Sample {
     private long xferTime; /* transfer time */
     private long bytes; /* bytes transferred */
 
+    private String conName; /* container operated on, for traces only */
+    private String objName; /* object operated on, for traces only */
+
 	public Sample(Date timestamp, String opId, String opType,
 			String sampleType, String opName, boolean succ) {
 		this(timestamp, opId, opType, sampleType, opName, succ, 0L, 0L, 0L);
@@ -122,4 +125,17 @@ public class Sample {
         this.bytes = bytes;
     }
 
+    public String getConName() {
+        return conName;
+    }
+
+    public String getObjName() {
+        return objName;
+    }
+
+    public void setPath(String conName, String objName) {
+        this.conName = conName;
+        this.objName = objName;
+    }
+
 }
@@ -0,0 +1,114 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.config.ConfigException;
+
+/**
+ * The class splits object sizes into classes at configured boundaries, e.g.
+ * "64KB,1MB" gives the classes "0~64KB", "64KB~1MB" and "1MB~+INF", each
+ * class includes its lower boundary. Units follow those of object sizes.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SizeClasses {
+
+    private long[] bounds; /* lower boundaries of all but the first class */
+    private String[] labels;
+
+    private SizeClasses(long[] bounds, String[] labels) {
+        this.bounds = bounds;
+        this.labels = labels;
+    }
+
+    /**
+     * @return the size classes, or null if no boundary is given
+     */
+    public static SizeClasses parse(String value) {
+        if (StringUtils.isBlank(value))
+            return null;
+        String[] tokens = StringUtils.split(value, ",");
+        long[] bounds = new long[tokens.length];
+        String[] names = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            names[i] = tokens[i].trim().toUpperCase();
+            bounds[i] = parseSize(names[i]);
+            if (bounds[i] <= 0 || (i > 0 && bounds[i] <= bounds[i - 1]))
+                throw new ConfigException("size classes must be ascending: "
+                        + value);
+        }
+        String[] labels = new String[tokens.length + 1];
+        for (int i = 0; i <= tokens.length; i++)
+            labels[i] = (i == 0 ? "0" : names[i - 1]) + "~"
+                    + (i == tokens.length ? "+INF" : names[i]);
+        return new SizeClasses(bounds, labels);
+    }
+
+    private static long parseSize(String size) {
+        long base;
+        if (size.endsWith("GB"))
+            base = 1000 * 1000 * 1000;
+        else if (size.endsWith("MB"))
+            base = 1000 * 1000;
+        else if (size.endsWith("KB"))
+            base = 1000;
+        else if (size.endsWith("B"))
+            base = 1;
+        else
+            throw new ConfigException("unrecognized size unit: " + size);
+        String num = StringUtils.stripEnd(size, "KMGB").trim();
+        try {
+            return Long.parseLong(num) * base;
+        } catch (NumberFormatException e) {
+            throw new ConfigException("illegal size: " + size, e);
+        }
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public String getLabel(int idx) {
+        return labels[idx];
+    }
+
+    public int indexOf(long bytes) {
+        int idx = 0;
+        while (idx < bounds.length && bytes >= bounds[idx])
+            idx++;
+        return idx;
+    }
+
+    public int indexOf(String label) {
+        for (int i = 0; i < labels.length; i++)
+            if (labels[i].equals(label))
+                return i;
+        return -1;
+    }
+
+    /**
+     * @return the mark or metrics type of one size class of the given type
+     */
+    public static String getClassType(String type, String label) {
+        return type + "@" + label;
+    }
+
+}
@@ -0,0 +1,308 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * The class represents how evenly the drivers of one work shared the load of
+ * one operation, as the spread of their throughputs and 99th percentile
+ * response times. Throughputs are taken per worker when all drivers know how
+ * many workers they ran, as drivers may be given unequal shares on purpose.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class Skew {
+
+    /* beyond this, drivers did not generate the same load */
+    public static final double SPREAD_LIMIT = 0.25;
+
+    private String work;
+    private String name; /* metrics id */
+    private String opType;
+    private String sampleType;
+    private String opName;
+    private int driverCount;
+    private boolean perWorker; /* throughputs are per worker */
+
+    private double minThroughput;
+    private double maxThroughput;
+    private double avgThroughput;
+    private double stdThroughput;
+    private String slowestDriver; /* the one with the lowest throughput */
+
+    /* all -1 if no driver knows its percentiles */
+    private long minP99 = -1L;
+    private long maxP99 = -1L;
+    private double avgP99 = -1D;
+    private double stdP99 = -1D;
+    private String worstDriver; /* the one with the highest p99 */
+
+    public Skew() {
+        /* empty */
+    }
+
+    public String getWork() {
+        return work;
+    }
+
+    public void setWork(String work) {
+        this.work = work;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOpType() {
+        return opType;
+    }
+
+    public void setOpType(String opType) {
+        this.opType = opType;
+    }
+
+    public String getSampleType() {
+        return sampleType;
+    }
+
+    public void setSampleType(String sampleType) {
+        this.sampleType = sampleType;
+    }
+
+    public String getOpName() {
+        return opName;
+    }
+
+    public void setOpName(String opName) {
+        this.opName = opName;
+    }
+
+    public int getDriverCount() {
+        return driverCount;
+    }
+
+    public void setDriverCount(int driverCount) {
+        this.driverCount = driverCount;
+    }
+
+    public boolean isPerWorker() {
+        return perWorker;
+    }
+
+    public void setPerWorker(boolean perWorker) {
+        this.perWorker = perWorker;
+    }
+
+    public double getMinThroughput() {
+        return minThroughput;
+    }
+
+    public void setMinThroughput(double minThroughput) {
+        this.minThroughput = minThroughput;
+    }
+
+    public double getMaxThroughput() {
+        return maxThroughput;
+    }
+
+    public void setMaxThroughput(double maxThroughput) {
+        this.maxThroughput = maxThroughput;
+    }
+
+    public double getAvgThroughput() {
+        return avgThroughput;
+    }
+
+    public void setAvgThroughput(double avgThroughput) {
+        this.avgThroughput = avgThroughput;
+    }
+
+    public double getStdThroughput() {
+        return stdThroughput;
+    }
+
+    public void setStdThroughput(double stdThroughput) {
+        this.stdThroughput = stdThroughput;
+    }
+
+    public String getSlowestDriver() {
+        return slowestDriver;
+    }
+
+    public void setSlowestDriver(String slowestDriver) {
+        this.slowestDriver = slowestDriver;
+    }
+
+    public long getMinP99() {
+        return minP99;
+    }
+
+    public void setMinP99(long minP99) {
+        this.minP99 = minP99;
+    }
+
+    public long getMaxP99() {
+        return maxP99;
+    }
+
+    public void setMaxP99(long maxP99) {
+        this.maxP99 = maxP99;
+    }
+
+    public double getAvgP99() {
+        return avgP99;
+    }
+
+    public void setAvgP99(double avgP99) {
+        this.avgP99 = avgP99;
+    }
+
+    public double getStdP99() {
+        return stdP99;
+    }
+
+    public void setStdP99(double stdP99) {
+        this.stdP99 = stdP99;
+    }
+
+    public String getWorstDriver() {
+        return worstDriver;
+    }
+
+    public void setWorstDriver(String worstDriver) {
+        this.worstDriver = worstDriver;
+    }
+
+    /**
+     * @return the gap between the fastest and the slowest driver relative to
+     *         the mean throughput, 0 if there is no throughput at all
+     */
+    public double getThroughputSpread() {
+        return avgThroughput > 0 ? (maxThroughput - minThroughput)
+                / avgThroughput : 0D;
+    }
+
+    /**
+     * @return the gap between the highest and the lowest p99 relative to the
+     *         mean p99, -1 if no driver knows its percentiles
+     */
+    public double getP99Spread() {
+        if (avgP99 < 0)
+            return -1D;
+        return avgP99 > 0 ? (maxP99 - minP99) / avgP99 : 0D;
+    }
+
+    /**
+     * @return true if the throughputs or the p99s of the drivers are too far
+     *         apart
+     */
+    public boolean isImbalanced() {
+        return getThroughputSpread() > SPREAD_LIMIT
+                || getP99Spread() > SPREAD_LIMIT;
+    }
+
+    /**
+     * Works out the skew of each operation of each work across the drivers
+     * running it, breakdowns of single workers are left out.
+     * 
+     * @return the skews in the order the operations first show up
+     */
+    public static List<Skew> analyze(List<Breakdown> breakdown) {
+        Map<String, List<Breakdown>> drivers = new LinkedHashMap<String, List<Breakdown>>();
+        Map<String, List<Metrics>> metrics = new LinkedHashMap<String, List<Metrics>>();
+        if (breakdown != null)
+            for (Breakdown entry : breakdown) {
+                if (entry.getWorker() != 0 || entry.getReport() == null)
+                    continue;
+                for (Metrics m : entry.getReport()) {
+                    String key = entry.getWork() + '/' + m.getName();
+                    if (!metrics.containsKey(key)) {
+                        drivers.put(key, new ArrayList<Breakdown>());
+                        metrics.put(key, new ArrayList<Metrics>());
+                    }
+                    drivers.get(key).add(entry);
+                    metrics.get(key).add(m);
+                }
+            }
+        List<Skew> skews = new ArrayList<Skew>();
+        for (String key : metrics.keySet())
+            skews.add(newSkew(drivers.get(key), metrics.get(key)));
+        return skews;
+    }
+
+    private static Skew newSkew(List<Breakdown> drivers, List<Metrics> metrics) {
+        Metrics first = metrics.get(0);
+        Skew skew = new Skew();
+        skew.setWork(drivers.get(0).getWork());
+        skew.setName(first.getName());
+        skew.setOpType(first.getOpType());
+        skew.setSampleType(first.getSampleType());
+        skew.setOpName(first.getOpName());
+        skew.setDriverCount(metrics.size());
+        int n = metrics.size(), known = 0;
+        skew.perWorker = true;
+        for (Metrics m : metrics)
+            skew.perWorker &= m.getWorkerCount() > 0;
+        double sum = 0D, sq = 0D, p99Sum = 0D, p99Sq = 0D;
+        for (int i = 0; i < n; i++) {
+            double tp = metrics.get(i).getThroughput();
+            if (skew.perWorker)
+                tp /= metrics.get(i).getWorkerCount();
+            sum += tp;
+            sq += tp * tp;
+            if (i == 0 || tp < skew.minThroughput) {
+                skew.minThroughput = tp;
+                skew.slowestDriver = drivers.get(i).getDriver();
+            }
+            if (i == 0 || tp > skew.maxThroughput)
+                skew.maxThroughput = tp;
+            long p99 = metrics.get(i).calcP99();
+            if (p99 < 0)
+                continue;
+            p99Sum += p99;
+            p99Sq += (double) p99 * p99;
+            if (known == 0 || p99 < skew.minP99)
+                skew.minP99 = p99;
+            if (known == 0 || p99 > skew.maxP99) {
+                skew.maxP99 = p99;
+                skew.worstDriver = drivers.get(i).getDriver();
+            }
+            known++;
+        }
+        skew.avgThroughput = sum / n;
+        skew.stdThroughput = stddev(sum, sq, n);
+        if (known > 0) {
+            skew.avgP99 = p99Sum / known;
+            skew.stdP99 = stddev(p99Sum, p99Sq, known);
+        }
+        return skew;
+    }
+
+    /* of the whole population, the drivers are all there is */
+    private static double stddev(double sum, double sq, int n) {
+        double mean = sum / n;
+        return Math.sqrt(Math.max(0D, sq / n - mean * mean));
+    }
+
+}
@@ -0,0 +1,166 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Comparator;
+
+/**
+ * The class keeps the full context of one request which was among the slowest
+ * of its interval, so that slow keys and endpoints can be told apart.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SlowRequest {
+
+    /* slowest first */
+    public static final Comparator<SlowRequest> SLOWEST_FIRST = new Comparator<SlowRequest>() {
+        @Override
+        public int compare(SlowRequest r1, SlowRequest r2) {
+            return r1.time < r2.time ? 1 : (r1.time > r2.time ? -1 : 0);
+        }
+    };
+
+    private long timestamp; /* completion time */
+    private String driver; /* filled in by the controller */
+    private int worker;
+    private String endpoint; /* storage endpoint of the worker, if known */
+    private String opType;
+    private String opName;
+    private String conName;
+    private String objName;
+    private long bytes;
+    private boolean succ;
+    private long time; /* response time */
+    private long xferTime; /* transfer time */
+
+    public SlowRequest() {
+        /* empty */
+    }
+
+    public SlowRequest(Sample sample, int worker, String endpoint) {
+        this.timestamp = sample.getTimestamp().getTime();
+        this.worker = worker;
+        this.endpoint = endpoint;
+        this.opType = sample.getOpType();
+        this.opName = sample.getOpName();
+        this.conName = sample.getConName();
+        this.objName = sample.getObjName();
+        this.bytes = sample.getBytes();
+        this.succ = sample.isSucc();
+        this.time = sample.getTime();
+        this.xferTime = sample.getXferTime();
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public void setDriver(String driver) {
+        this.driver = driver;
+    }
+
+    public int getWorker() {
+        return worker;
+    }
+
+    public void setWorker(int worker) {
+        this.worker = worker;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getOpType() {
+        return opType;
+    }
+
+    public void setOpType(String opType) {
+        this.opType = opType;
+    }
+
+    public String getOpName() {
+        return opName;
+    }
+
+    public void setOpName(String opName) {
+        this.opName = opName;
+    }
+
+    public String getConName() {
+        return conName;
+    }
+
+    public void setConName(String conName) {
+        this.conName = conName;
+    }
+
+    public String getObjName() {
+        return objName;
+    }
+
+    public void setObjName(String objName) {
+        this.objName = objName;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public boolean isSucc() {
+        return succ;
+    }
+
+    public void setSucc(boolean succ) {
+        this.succ = succ;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    public long getXferTime() {
+        return xferTime;
+    }
+
+    public void setXferTime(long xferTime) {
+        this.xferTime = xferTime;
+    }
+
+}
@@ -0,0 +1,132 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * The class keeps the N slowest requests seen since it was last polled, in a
+ * min-heap on response time. Requests not slower than the fastest one kept
+ * are turned away by a volatile read alone, without locking or allocation,
+ * which is the common case once the heap is full.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SlowRequestTracker {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    private SlowRequest[] heap;
+    private int count = 0;
+    /* response time to beat, -1 until the heap is full */
+    private volatile long threshold = -1L;
+
+    public SlowRequestTracker(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("illegal size: " + size);
+        heap = new SlowRequest[size];
+    }
+
+    public int getSize() {
+        return heap.length;
+    }
+
+    /**
+     * Called by the worker for each sample, failed ones carry no response
+     * time and are never kept.
+     */
+    public void offer(Sample sample, int worker, String endpoint) {
+        if (sample.getTime() <= threshold || !sample.isSucc())
+            return; // fast path
+        offer(new SlowRequest(sample, worker, endpoint));
+    }
+
+    public synchronized void offer(SlowRequest request) {
+        long time = request.getTime();
+        if (count < heap.length) {
+            heap[count] = request;
+            siftUp(count++);
+        } else if (time > heap[0].getTime()) {
+            heap[0] = request;
+            siftDown(0);
+        } else {
+            return;
+        }
+        if (count == heap.length)
+            threshold = heap[0].getTime();
+    }
+
+    public void offerAll(Collection<SlowRequest> requests) {
+        if (requests != null)
+            for (SlowRequest request : requests)
+                offer(request);
+    }
+
+    /**
+     * @return the requests kept, slowest first, without clearing them
+     */
+    public synchronized List<SlowRequest> getAll() {
+        List<SlowRequest> requests = new ArrayList<SlowRequest>(count);
+        for (int i = 0; i < count; i++)
+            requests.add(heap[i]);
+        Collections.sort(requests, SlowRequest.SLOWEST_FIRST);
+        return requests;
+    }
+
+    /**
+     * @return the requests kept, slowest first, and starts over
+     */
+    public synchronized List<SlowRequest> poll() {
+        List<SlowRequest> requests = getAll();
+        Arrays.fill(heap, null);
+        count = 0;
+        threshold = -1L;
+        return requests;
+    }
+
+    private void siftUp(int idx) {
+        SlowRequest request = heap[idx];
+        while (idx > 0) {
+            int parent = (idx - 1) >>> 1;
+            if (heap[parent].getTime() <= request.getTime())
+                break;
+            heap[idx] = heap[parent];
+            idx = parent;
+        }
+        heap[idx] = request;
+    }
+
+    private void siftDown(int idx) {
+        SlowRequest request = heap[idx];
+        int half = count >>> 1;
+        while (idx < half) {
+            int child = 2 * idx + 1;
+            int right = child + 1;
+            if (right < count
+                    && heap[right].getTime() < heap[child].getTime())
+                child = right;
+            if (request.getTime() <= heap[child].getTime())
+                break;
+            heap[idx] = heap[child];
+            idx = child;
+        }
+        heap[idx] = request;
+    }
+
+}
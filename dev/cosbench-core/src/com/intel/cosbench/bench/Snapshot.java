@@ -18,6 +18,7 @@ limitations under the License.
 package com.intel.cosbench.bench;
 
 import java.util.Date;
+import java.util.List;
 
 
 /**
@@ -35,6 +36,10 @@ public class Snapshot {
     private int minVersion; /* maximum snapshot version */
     private int maxVersion; /* minimum snapshot version */
 
+    private ResourceUsage usage; /* of the busiest driver, null if unknown */
+    /* slowest requests of the interval, slowest first, null if not tracked */
+    private List<SlowRequest> slowRequests;
+
     public Snapshot() {
         this(new Report());
     }
@@ -80,4 +85,20 @@ public class Snapshot {
         this.maxVersion = maxVersion;
     }
 
+    public ResourceUsage getUsage() {
+        return usage;
+    }
+
+    public void setUsage(ResourceUsage usage) {
+        this.usage = usage;
+    }
+
+    public List<SlowRequest> getSlowRequests() {
+        return slowRequests;
+    }
+
+    public void setSlowRequests(List<SlowRequest> slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
 }
@@ -0,0 +1,109 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * This class encapsulates operations needed to merge consecutive snapshots
+ * into coarser ones, e.g. ten 1 second snapshots into one 10 second snapshot.
+ * Counts add up while rates and worker counts are averaged over the merged
+ * intervals.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class SnapshotDownsampler {
+
+    /* supported resolutions, in number of snapshots merged into one */
+    public static final int[] RESOLUTIONS = { 1, 10, 60 };
+
+    private int factor;
+    private int count;
+    private Snapshot last;
+    private ResourceUsage usage; /* peaks over the merged intervals */
+    private Map<String, Aggregator> aggregators = new LinkedHashMap<String, Aggregator>();
+
+    private List<Snapshot> result = new ArrayList<Snapshot>();
+
+    public SnapshotDownsampler(int factor) {
+        this.factor = Math.max(factor, 1);
+    }
+
+    public void add(Snapshot snapshot) {
+        for (Metrics metrics : snapshot.getReport()) {
+            String type = metrics.getName();
+            Aggregator aggregator = aggregators.get(type);
+            if (aggregator == null)
+                aggregators.put(type, aggregator = new Aggregator(type));
+            aggregator.addMetrics(metrics);
+        }
+        last = snapshot;
+        usage = ResourceUsage.max(usage, snapshot.getUsage());
+        if (++count >= factor)
+            flush();
+    }
+
+    public Snapshot[] downsample() {
+        flush(); // a partial one at the end
+        return result.toArray(new Snapshot[result.size()]);
+    }
+
+    private void flush() {
+        if (count == 0)
+            return;
+        Report report = new Report();
+        for (Aggregator aggregator : aggregators.values()) {
+            Metrics metrics = aggregator.aggregate();
+            metrics.setThroughput(metrics.getThroughput() / count);
+            metrics.setBandwidth(metrics.getBandwidth() / count);
+            metrics.setWorkerCount(metrics.getWorkerCount() / count);
+            report.addMetrics(metrics);
+        }
+        Snapshot snapshot = new Snapshot(report, last.getTimestamp());
+        snapshot.setVersion(last.getVersion());
+        snapshot.setMinVersion(last.getMinVersion());
+        snapshot.setMaxVersion(last.getMaxVersion());
+        snapshot.setUsage(usage);
+        result.add(snapshot);
+        aggregators.clear();
+        usage = null;
+        count = 0;
+    }
+
+    public static Snapshot[] downsample(Iterable<Snapshot> snapshots,
+            int factor) {
+        SnapshotDownsampler sampler = new SnapshotDownsampler(factor);
+        for (Snapshot snapshot : snapshots)
+            sampler.add(snapshot);
+        return sampler.downsample();
+    }
+
+    /**
+     * @return the finest supported resolution keeping the given number of
+     *         snapshots within the given number of points
+     */
+    public static int pickResolution(int count, int maxPoints) {
+        for (int resolution : RESOLUTIONS)
+            if (count <= (long) maxPoints * resolution)
+                return resolution;
+        return RESOLUTIONS[RESOLUTIONS.length - 1];
+    }
+
+}
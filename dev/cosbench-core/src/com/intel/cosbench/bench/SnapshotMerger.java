@@ -32,6 +32,7 @@ public class SnapshotMerger {
     private int maxVersion = Integer.MIN_VALUE;
 
     private ReportMerger merger = new ReportMerger();
+    private ResourceUsage usage; /* highest of each driver resource */
 
     public SnapshotMerger() {
         /* empty */
@@ -46,6 +47,7 @@ public class SnapshotMerger {
         count++;
         versionSum += version;
         merger.add(snapshot.getReport());
+        usage = ResourceUsage.max(usage, snapshot.getUsage());
     }
 
     public Snapshot merge() {
@@ -54,6 +56,7 @@ public class SnapshotMerger {
         snapshot.setVersion(getMidVersion());
         snapshot.setMinVersion(minVersion);
         snapshot.setMaxVersion(maxVersion);
+        snapshot.setUsage(usage);
         return snapshot;
     }
 
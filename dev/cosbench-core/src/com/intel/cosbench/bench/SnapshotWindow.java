@@ -0,0 +1,76 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Date;
+
+/**
+ * This class turns cumulative snapshots, whose counters keep growing since
+ * the workers started, into snapshots of the window since the previous one.
+ * Rates and response time percentiles are derived from counter deltas, so
+ * they are right however the windows are cut.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class SnapshotWindow {
+
+    private Snapshot last; /* cumulative snapshot the next window starts at */
+
+    public SnapshotWindow() {
+        /* empty */
+    }
+
+    /**
+     * @return the cumulative snapshot the current window started at, or null
+     *         if there is none yet
+     */
+    public synchronized Snapshot getLast() {
+        return last;
+    }
+
+    /**
+     * @return the snapshot of the window ending at the given cumulative one
+     */
+    public synchronized Snapshot next(Snapshot cumulative) {
+        Snapshot window = delta(last, cumulative);
+        last = cumulative;
+        return window;
+    }
+
+    public static Snapshot delta(Snapshot from, Snapshot to) {
+        if (from == null)
+            return to; // the first window starts with the workers
+        Date t1 = from.getTimestamp(), t2 = to.getTimestamp();
+        long window = t1 != null && t2 != null ? t2.getTime() - t1.getTime()
+                : 0L;
+        Report report = new Report();
+        for (Metrics metrics : to.getReport()) {
+            Metrics prev = from.getReport().getMetrics(metrics.getName());
+            report.addMetrics(prev != null ? Metrics.delta(prev, metrics,
+                    window) : metrics);
+        }
+        Snapshot snapshot = new Snapshot(report, t2);
+        snapshot.setVersion(to.getVersion());
+        snapshot.setMinVersion(to.getMinVersion());
+        snapshot.setMaxVersion(to.getMaxVersion());
+        snapshot.setUsage(to.getUsage());
+        return snapshot;
+    }
+
+}
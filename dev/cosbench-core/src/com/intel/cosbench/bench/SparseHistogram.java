@@ -0,0 +1,217 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Arrays;
+
+/**
+ * This class encapsulates a compact response time histogram, only non-empty
+ * buckets are kept so that it can be shipped with every snapshot and merged
+ * across workers and drivers. Buckets are 1 millisecond wide below 64
+ * milliseconds, beyond that each power of two is split into 32 buckets, which
+ * keeps every value within about 3% of the real one.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SparseHistogram implements Cloneable {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS; /* buckets per power of two */
+    static final int LINEAR = SUB_COUNT << 1; /* 1 ms wide buckets */
+
+    private int[] buckets = new int[0]; /* non-empty bucket indexes, ascending */
+    private long[] counts = new long[0]; /* number of samples per bucket */
+
+    public SparseHistogram() {
+        /* empty */
+    }
+
+    public int[] getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(int[] buckets) {
+        this.buckets = buckets;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(long[] counts) {
+        this.counts = counts;
+    }
+
+    public long calcTotalCount() {
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        return total;
+    }
+
+    /**
+     * The method calculates the given percentile.
+     * 
+     * @param percentile
+     *            the percentile, in the range of (0, 1]
+     * @return the highest response time of the bucket holding the percentile,
+     *         or -1 if the histogram is empty
+     */
+    public long calcPercentile(double percentile) {
+        long total = calcTotalCount();
+        if (total == 0)
+            return -1L;
+        long threshold = (long) Math.ceil(total * percentile);
+        long curr = 0;
+        for (int i = 0; i < buckets.length; i++)
+            if ((curr += counts[i]) >= threshold)
+                return getHighestValue(buckets[i]);
+        return getHighestValue(buckets[buckets.length - 1]);
+    }
+
+    /**
+     * The method merges another histogram into this one.
+     * 
+     * @param other
+     *            the histogram to be merged
+     */
+    public void merge(SparseHistogram other) {
+        int[] b1 = buckets, b2 = other.buckets;
+        long[] c1 = counts, c2 = other.counts;
+        int[] mb = new int[b1.length + b2.length];
+        long[] mc = new long[mb.length];
+        int i = 0, j = 0, k = 0;
+        while (i < b1.length || j < b2.length) {
+            if (j >= b2.length || (i < b1.length && b1[i] < b2[j])) {
+                mb[k] = b1[i];
+                mc[k++] = c1[i++];
+            } else if (i >= b1.length || b2[j] < b1[i]) {
+                mb[k] = b2[j];
+                mc[k++] = c2[j++];
+            } else {
+                mb[k] = b1[i];
+                mc[k++] = c1[i++] + c2[j++];
+            }
+        }
+        buckets = Arrays.copyOf(mb, k);
+        counts = Arrays.copyOf(mc, k);
+    }
+
+    /**
+     * The method computes what has been counted since an earlier state of the
+     * same cumulative histogram.
+     * 
+     * @param earlier
+     *            the earlier state, whose buckets are all kept in this one
+     * @return the histogram of the difference
+     */
+    public SparseHistogram subtract(SparseHistogram earlier) {
+        int[] b2 = earlier.buckets;
+        long[] c2 = earlier.counts;
+        int[] db = new int[buckets.length];
+        long[] dc = new long[buckets.length];
+        int j = 0, k = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            while (j < b2.length && b2[j] < buckets[i])
+                j++;
+            long count = counts[i];
+            if (j < b2.length && b2[j] == buckets[i])
+                count -= c2[j];
+            if (count <= 0)
+                continue;
+            db[k] = buckets[i];
+            dc[k++] = count;
+        }
+        SparseHistogram histogram = new SparseHistogram();
+        histogram.buckets = Arrays.copyOf(db, k);
+        histogram.counts = Arrays.copyOf(dc, k);
+        return histogram;
+    }
+
+    @Override
+    public SparseHistogram clone() {
+        try {
+            SparseHistogram histogram = (SparseHistogram) super.clone();
+            histogram.buckets = buckets.clone();
+            histogram.counts = counts.clone();
+            return histogram;
+        } catch (CloneNotSupportedException e) {
+        }
+        return this;
+    }
+
+    /**
+     * @return the index of the bucket a response time falls into
+     */
+    public static int getIndex(long time) {
+        if (time < LINEAR)
+            return time < 0 ? 0 : (int) time;
+        int shift = 63 - Long.numberOfLeadingZeros(time) - SUB_BITS;
+        return LINEAR + (shift - 1) * SUB_COUNT + (int) (time >>> shift)
+                - SUB_COUNT;
+    }
+
+    /**
+     * @return the highest response time counted into the given bucket
+     */
+    public static long getHighestValue(int index) {
+        if (index < LINEAR)
+            return index;
+        int shift = (index - LINEAR) / SUB_COUNT + 1;
+        long sub = (index - LINEAR) % SUB_COUNT + SUB_COUNT;
+        long next = (sub + 1) << shift;
+        return next > 0 ? next - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * The method counts a response time into a dense histogram, which is grown
+     * as needed.
+     * 
+     * @return the histogram holding the new sample
+     */
+    public static long[] record(long[] data, long time) {
+        int index = getIndex(time);
+        if (data == null || index >= data.length)
+            data = Arrays.copyOf(data != null ? data : new long[0],
+                    Math.max(index + 1, LINEAR));
+        data[index]++;
+        return data;
+    }
+
+    public static SparseHistogram convert(long[] data) {
+        if (data == null)
+            return null;
+        int size = 0;
+        for (long count : data)
+            if (count > 0)
+                size++;
+        SparseHistogram histogram = new SparseHistogram();
+        int[] buckets = new int[size];
+        long[] counts = new long[size];
+        for (int i = 0, k = 0; i < data.length; i++)
+            if (data[i] > 0) {
+                buckets[k] = i;
+                counts[k++] = data[i];
+            }
+        histogram.setBuckets(buckets);
+        histogram.setCounts(counts);
+        return histogram;
+    }
+
+}
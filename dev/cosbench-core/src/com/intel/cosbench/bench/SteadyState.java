@@ -0,0 +1,163 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.Date;
+
+/**
+ * The class represents the steady-state analysis of a series of snapshots:
+ * how long the warm-up lasted and how precise the means of the steady part
+ * are, given as the half-widths of their 95% confidence intervals.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SteadyState {
+
+    private int snapshotCount; /* number of snapshots analyzed */
+    private int warmupCount; /* number of snapshots taken as warm-up */
+    private Date steadyFrom; /* timestamp of the first steady snapshot */
+
+    private int batchCount; /* number of batches of the steady part */
+    private int batchSize; /* number of snapshots per batch */
+
+    private double throughput; /* mean throughput */
+    private double throughputCI; /* half-width of its confidence interval */
+    private double avgResTime; /* mean response time */
+    private double avgResTimeCI; /* half-width of its confidence interval */
+
+    private double target; /* relative half-width to call the run stable */
+    private boolean stable;
+    private String note; /* why the run is not stable, null if it is */
+
+    public SteadyState() {
+        /* empty */
+    }
+
+    public int getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    public void setSnapshotCount(int snapshotCount) {
+        this.snapshotCount = snapshotCount;
+    }
+
+    public int getWarmupCount() {
+        return warmupCount;
+    }
+
+    public void setWarmupCount(int warmupCount) {
+        this.warmupCount = warmupCount;
+    }
+
+    public Date getSteadyFrom() {
+        return steadyFrom;
+    }
+
+    public void setSteadyFrom(Date steadyFrom) {
+        this.steadyFrom = steadyFrom;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(int batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput) {
+        this.throughput = throughput;
+    }
+
+    public double getThroughputCI() {
+        return throughputCI;
+    }
+
+    public void setThroughputCI(double throughputCI) {
+        this.throughputCI = throughputCI;
+    }
+
+    public double getAvgResTime() {
+        return avgResTime;
+    }
+
+    public void setAvgResTime(double avgResTime) {
+        this.avgResTime = avgResTime;
+    }
+
+    public double getAvgResTimeCI() {
+        return avgResTimeCI;
+    }
+
+    public void setAvgResTimeCI(double avgResTimeCI) {
+        this.avgResTimeCI = avgResTimeCI;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public void setTarget(double target) {
+        this.target = target;
+    }
+
+    public boolean isStable() {
+        return stable;
+    }
+
+    public void setStable(boolean stable) {
+        this.stable = stable;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    /**
+     * @return the half-width of the throughput interval relative to its mean
+     */
+    public double getThroughputError() {
+        return throughput > 0 ? throughputCI / throughput : 0D;
+    }
+
+    /**
+     * @return the half-width of the response time interval relative to its
+     *         mean
+     */
+    public double getAvgResTimeError() {
+        return avgResTime > 0 ? avgResTimeCI / avgResTime : 0D;
+    }
+
+}
@@ -0,0 +1,218 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import java.util.*;
+
+/**
+ * This class finds the steady part of a series of interval snapshots and how
+ * precise its means are. The warm-up is cut off with MSER-5, which truncates
+ * where the standard error of the remaining mean is the smallest, then the
+ * steady part is split into batches whose means give the confidence
+ * intervals, as consecutive intervals are far from independent.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+public class SteadyStateDetector {
+
+    /* half-width of the confidence intervals relative to the means */
+    public static final double DEFAULT_TARGET = 0.05; // +/- 5%, a fraction
+
+    private static final int MSER_BATCH = 5;
+    private static final int MIN_BATCHES = 5;
+    public static final int MAX_BATCHES = 20;
+
+    /* two-sided 95% quantiles of Student's t, by degrees of freedom */
+    private static final double[] T_95 = { 12.706, 4.303, 3.182, 2.776,
+            2.571, 2.447, 2.365, 2.306, 2.262, 2.228, 2.201, 2.179, 2.160,
+            2.145, 2.131, 2.120, 2.110, 2.101, 2.093 };
+
+    private double target;
+
+    private List<Date> timestamps = new ArrayList<Date>();
+    private List<Double> throughputs = new ArrayList<Double>();
+    private List<Double> resTimes = new ArrayList<Double>();
+    private List<Integer> samples = new ArrayList<Integer>();
+
+    public SteadyStateDetector(double target) {
+        this.target = target;
+    }
+
+    public synchronized void add(Snapshot snapshot) {
+        double throughput = 0D, rtSum = 0D;
+        int count = 0;
+        for (Metrics metrics : snapshot.getReport()) {
+            throughput += metrics.getThroughput();
+            rtSum += metrics.getAvgResTime() * metrics.getSampleCount();
+            count += metrics.getSampleCount();
+        }
+        timestamps.add(snapshot.getTimestamp());
+        throughputs.add(throughput);
+        resTimes.add(count > 0 ? rtSum / count : 0D);
+        samples.add(count);
+    }
+
+    public synchronized int getSize() {
+        return throughputs.size();
+    }
+
+    public static SteadyState analyze(Iterable<Snapshot> snapshots,
+            double target) {
+        SteadyStateDetector detector = new SteadyStateDetector(target);
+        for (Snapshot snapshot : snapshots)
+            detector.add(snapshot);
+        return detector.analyze();
+    }
+
+    public synchronized SteadyState analyze() {
+        SteadyState result = new SteadyState();
+        int size = throughputs.size();
+        result.setSnapshotCount(size);
+        result.setTarget(target);
+        int group = getGroup();
+        int warmup = getTruncation(group);
+        result.setWarmupCount(warmup);
+        if (warmup < size)
+            result.setSteadyFrom(timestamps.get(warmup));
+        int batches = Math.min(MAX_BATCHES, size - warmup);
+        if (batches < MIN_BATCHES) {
+            result.setNote("too few steady intervals");
+            return result;
+        }
+        result.setBatchCount(batches);
+        result.setBatchSize((size - warmup) / batches);
+        double[] tps = batchMeans(toArray(throughputs, warmup), null, batches);
+        double[] rts = batchMeans(toArray(resTimes, warmup), toArray(samples,
+                warmup), batches);
+        result.setThroughput(mean(tps));
+        result.setThroughputCI(halfWidth(tps));
+        result.setAvgResTime(mean(rts));
+        result.setAvgResTimeCI(halfWidth(rts));
+        if (warmup > 0 && warmup == size / group / 2 * group)
+            result.setNote("no steady state reached"); // still drifting
+        else if (result.getThroughputError() > target)
+            result.setNote("throughput varies too much");
+        else if (result.getAvgResTimeError() > target)
+            result.setNote("response time varies too much");
+        else
+            result.setStable(true);
+        return result;
+    }
+
+    /*
+     * MSER-5: averages the throughput over groups of five intervals and
+     * truncates the groups that minimize the marginal standard error of the
+     * remaining mean, searching the first half only. Short series are not
+     * grouped. Sums over the remaining groups are kept from the end, so each
+     * truncation point costs constant time.
+     */
+    private int getGroup() {
+        return throughputs.size() >= MSER_BATCH * 4 ? MSER_BATCH : 1;
+    }
+
+    private int getTruncation(int group) {
+        int n = throughputs.size() / group;
+        if (n < 2)
+            return 0;
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i * group; j < (i + 1) * group; j++)
+                z[i] += throughputs.get(j);
+            z[i] /= group;
+        }
+        double center = mean(z); // keeps the squares small
+        double total = 0D;
+        for (double value : z)
+            total += (value - center) * (value - center);
+        double noise = total * 1e-10; // rounding left over from flat tails
+        double sum = 0D, squares = 0D;
+        int best = 0;
+        double min = Double.MAX_VALUE;
+        for (int d = n - 1; d >= 0; d--) {
+            double x = z[d] - center;
+            sum += x;
+            squares += x * x;
+            if (d > n / 2)
+                continue;
+            int m = n - d;
+            double sse = squares - sum * sum / m;
+            if (sse < noise)
+                sse = 0D;
+            double mser = sse / ((double) m * m);
+            if (mser <= min) { // the earliest one on ties
+                min = mser;
+                best = d;
+            }
+        }
+        return best * group;
+    }
+
+    /**
+     * Splits the values into batches of equal size, dropping the oldest ones
+     * left over, and averages each batch, as consecutive intervals are far
+     * from independent.
+     * 
+     * @param weights
+     *            weights of the values, e.g. sample counts for response
+     *            times, or null for plain means
+     * @return the mean of each batch, 0 for batches without weight
+     */
+    public static double[] batchMeans(double[] values, double[] weights,
+            int batches) {
+        double[] means = new double[batches];
+        if (batches == 0)
+            return means;
+        int size = values.length / batches;
+        int from = values.length - batches * size; // the latest intervals
+        for (int i = 0; i < batches; i++) {
+            double sum = 0D, weight = 0D;
+            for (int j = from + i * size; j < from + (i + 1) * size; j++) {
+                double w = weights != null ? weights[j] : 1D;
+                sum += values[j] * w;
+                weight += w;
+            }
+            means[i] = weight > 0 ? sum / weight : 0D;
+        }
+        return means;
+    }
+
+    private static double[] toArray(List<? extends Number> values, int from) {
+        double[] result = new double[values.size() - from];
+        for (int i = 0; i < result.length; i++)
+            result[i] = values.get(from + i).doubleValue();
+        return result;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0D;
+        for (double value : values)
+            sum += value;
+        return sum / values.length;
+    }
+
+    private static double halfWidth(double[] values) {
+        int n = values.length;
+        double mean = mean(values), sse = 0D;
+        for (double value : values)
+            sse += (value - mean) * (value - mean);
+        double t = n - 1 <= T_95.length ? T_95[n - 2] : 1.96;
+        return t * Math.sqrt(sse / (n - 1) / n);
+    }
+
+}
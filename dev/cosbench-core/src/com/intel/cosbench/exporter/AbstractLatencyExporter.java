@@ -18,6 +18,7 @@ limitations under the License.
 package com.intel.cosbench.exporter;
 
 import java.io.*;
+import java.util.List;
 
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.model.WorkloadInfo;
@@ -32,6 +33,9 @@ abstract class AbstractLatencyExporter implements LatencyExporter {
 
     protected int[] accs;
     protected int[] sums;
+    /* the same per object-size class of each metrics */
+    protected int[][] classAccs;
+    protected int[][] classSums;
 
     protected WorkloadInfo workload;
 
@@ -53,20 +57,33 @@ abstract class AbstractLatencyExporter implements LatencyExporter {
         int metricsNum = report.getSize();
         sums = new int[metricsNum];
         accs = new int[metricsNum];
+        classSums = new int[metricsNum][];
+        classAccs = new int[metricsNum][];
         for (Metrics metrics : workload.getReport()) {
-            int sum = 0;
-            if(metrics.getLatency() == null)
-            	continue;
-            int[] data = metrics.getLatency().getHistoData();
-            for (int idx = 0; idx < size; idx++)
-                sum += data[idx];
-            sums[metricsIdx++] = sum;
+            int mid = metricsIdx++;
+            List<Metrics> classes = metrics.getSizeClasses();
+            if (classes != null) {
+                classSums[mid] = new int[classes.size()];
+                classAccs[mid] = new int[classes.size()];
+                for (int i = 0; i < classes.size(); i++)
+                    classSums[mid][i] = getSum(classes.get(i).getLatency());
+            }
+            sums[mid] = getSum(metrics.getLatency());
         }
         for (int idx = 0; idx < size; idx++)
             writeHistogram(writer, idx);
         writer.flush();
     }
 
+    private static int getSum(Histogram latency) {
+        if (latency == null)
+            return 0;
+        int sum = 0;
+        for (int count : latency.getHistoData())
+            sum += count;
+        return sum;
+    }
+
     protected abstract void writeHeader(Writer writer) throws IOException;
 
     protected abstract void writeHistogram(Writer writer, int idx)
@@ -18,6 +18,7 @@ limitations under the License.
 package com.intel.cosbench.exporter;
 
 import java.io.*;
+import java.util.*;
 
 import com.intel.cosbench.bench.Snapshot;
 import com.intel.cosbench.model.StageInfo;
@@ -31,9 +32,11 @@ import com.intel.cosbench.model.StageInfo;
 abstract class AbstractStageExporter implements StageExporter {
 
     protected StageInfo stage;
+    protected int resolution = 1; /* snapshots merged into one row */
 
     protected int numOpTypes;
-    protected Snapshot[] snapshots;
+    protected Snapshot first; /* the first row, to name the columns */
+    protected Iterable<Snapshot> snapshots;
 
     public AbstractStageExporter() {
         /* empty */
@@ -43,13 +46,20 @@ abstract class AbstractStageExporter implements StageExporter {
         this.stage = stage;
     }
 
+    public void setResolution(int resolution) {
+        this.resolution = resolution;
+    }
+
     @Override
     public void export(Writer writer) throws IOException {
-        if ((snapshots = stage.getSnapshots()) == null)
-            return;
-        if (snapshots.length == 0)
+        /* spilled snapshots are read in batches unless merged */
+        snapshots = resolution > 1 ? Arrays.asList(stage
+                .getSnapshots(resolution)) : stage.getSnapshotRegistry();
+        Iterator<Snapshot> iterator = snapshots.iterator();
+        if (!iterator.hasNext())
             return;
-        if ((numOpTypes = snapshots[0].getReport().getSize()) == 0)
+        first = iterator.next();
+        if ((numOpTypes = first.getReport().getSize()) == 0)
             return;
         writeReport(writer);
     }
@@ -46,8 +46,12 @@ abstract class AbstractWorkloadExporter implements WorkloadExporter {
         writeHeader(writer);
         writer.flush();
         for (StageInfo stage : workload.getStageInfos()) {
-        	for (Metrics metrics : stage.getReport())
+        	for (Metrics metrics : stage.getReport()) {
                 writeMetrics(writer, metrics, stage);
+                if (metrics.getSizeClasses() != null)
+                    for (Metrics sizeClass : metrics.getSizeClasses())
+                        writeMetrics(writer, sizeClass, stage);
+        	}
 			if (stage.getReport().getSize() == 0)
 				writeMetrics(writer, stage);
         }
@@ -0,0 +1,104 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.exporter;
+
+import static com.intel.cosbench.exporter.CSVStageExporter.USAGE_NAMES;
+import static com.intel.cosbench.exporter.CSVStageExporter.appendUsage;
+import static com.intel.cosbench.exporter.Formats.*;
+
+import java.io.*;
+import java.util.List;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.StageInfo;
+
+/**
+ * This class is to export the final metrics of each driver of a stage into
+ * CSV format, each driver followed by its workers if they were kept. Worker
+ * rows have no resource usage, as it is only known per driver.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+class CSVBreakdownExporter implements StageExporter {
+
+    static final String HEADER = "Driver,Work,Worker,Op-Id,Op-Type,"
+            + "Sample-Type,Op-Name,Op-Count,Byte-Count,Avg-ResTime,"
+            + "P99-ResTime,Throughput,Bandwidth,Succ-Ratio";
+
+    private StageInfo stage;
+
+    public CSVBreakdownExporter() {
+        /* empty */
+    }
+
+    public void setStage(StageInfo stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void export(Writer writer) throws IOException {
+        StringBuilder header = new StringBuilder(HEADER);
+        for (String name : USAGE_NAMES)
+            header.append(',').append(name);
+        header.append(",Workers"); // last, as added later
+        writer.write(header.append('\n').toString());
+        for (Breakdown entry : stage.getBreakdown()) {
+            List<Metrics> report = entry.getReport();
+            if (report == null)
+                continue;
+            for (Metrics metrics : report)
+                writeMetrics(writer, entry, metrics);
+        }
+        writer.flush();
+    }
+
+    private static void writeMetrics(Writer writer, Breakdown entry,
+            Metrics metrics) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(entry.getDriver()).append(',');
+        buffer.append(entry.getWork()).append(',');
+        buffer.append(entry.getWorker()).append(',');
+        buffer.append(metrics.getOpId()).append(',');
+        buffer.append(metrics.getOpType()).append(',');
+        buffer.append(metrics.getSampleType()).append(',');
+        buffer.append(metrics.getOpName()).append(',');
+        buffer.append(metrics.getSampleCount()).append(',');
+        buffer.append(metrics.getByteCount()).append(',');
+        double r = metrics.getAvgResTime();
+        buffer.append(r > 0 ? NUM.format(r) : "N/A").append(',');
+        long p99 = metrics.calcP99();
+        buffer.append(p99 >= 0 ? String.valueOf(p99) : "N/A").append(',');
+        buffer.append(NUM.format(metrics.getThroughput())).append(',');
+        buffer.append(NUM.format(metrics.getBandwidth())).append(',');
+        double t = metrics.getRatio();
+        buffer.append(t > 0 ? RATIO.format(t) : "N/A");
+        ResourceUsage usage = entry.getUsage();
+        if (usage == null)
+            usage = new ResourceUsage(); // all unknown
+        appendUsage(buffer, RATIO, usage.getCpuLoad());
+        appendUsage(buffer, RATIO, usage.getGcRatio());
+        appendUsage(buffer, RATIO, usage.calcHeapLoad());
+        appendUsage(buffer, NUM, usage.calcRunnableLoad());
+        appendUsage(buffer, RATIO, usage.getNicLoad());
+        buffer.append(',').append(metrics.getWorkerCount());
+        buffer.append('\n');
+        writer.write(buffer.toString());
+    }
+
+}
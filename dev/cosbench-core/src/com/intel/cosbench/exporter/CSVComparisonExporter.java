@@ -0,0 +1,89 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.exporter;
+
+import static com.intel.cosbench.exporter.Formats.*;
+
+import java.io.*;
+
+import com.intel.cosbench.bench.*;
+
+/**
+ * This class is to export a comparison of workload runs into CSV format, one
+ * row per stage, operation and metric, with the verdict as the last column.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+class CSVComparisonExporter implements ComparisonExporter {
+
+    private static final String HEADER = "Base,Workload,Stage,Op-Name,"
+            + "Metric,Base-Value,Value,Change,P-Value,Verdict";
+
+    private Comparison comparison;
+
+    public CSVComparisonExporter() {
+        /* empty */
+    }
+
+    public void setComparison(Comparison comparison) {
+        this.comparison = comparison;
+    }
+
+    @Override
+    public void export(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (ComparisonEntry entry : comparison.getEntries())
+            writeEntry(writer, entry);
+        writer.flush();
+    }
+
+    private void writeEntry(Writer writer, ComparisonEntry entry)
+            throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        appendName(buffer, comparison.getBaseId()).append(',');
+        appendName(buffer, entry.getWorkloadId()).append(',');
+        appendName(buffer, entry.getStage()).append(',');
+        appendName(buffer, entry.getOp()).append(',');
+        buffer.append(entry.getMetric()).append(',');
+        buffer.append(NUM.format(entry.getBase())).append(',');
+        buffer.append(NUM.format(entry.getValue())).append(',');
+        if (entry.isChanged())
+            buffer.append(RATIO.format(entry.getChange()));
+        else
+            buffer.append("N/A");
+        buffer.append(',');
+        if (entry.isTested())
+            buffer.append(String.format("%.4f", entry.getPValue()));
+        else
+            buffer.append("N/A");
+        buffer.append(',');
+        buffer.append(entry.getVerdict()).append('\n');
+        writer.write(buffer.toString());
+    }
+
+    private static StringBuilder appendName(StringBuilder buffer, String name) {
+        if (name == null)
+            return buffer.append("N/A");
+        if (name.indexOf(',') < 0 && name.indexOf('"') < 0)
+            return buffer.append(name);
+        return buffer.append('"').append(name.replace("\"", "\"\"")).append('"');
+    }
+
+}
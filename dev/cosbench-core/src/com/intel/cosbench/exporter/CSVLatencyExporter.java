@@ -20,6 +20,7 @@ package com.intel.cosbench.exporter;
 import static com.intel.cosbench.exporter.Formats.RATIO;
 
 import java.io.*;
+import java.util.List;
 
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.config.Work;
@@ -50,21 +51,32 @@ class CSVLatencyExporter extends AbstractLatencyExporter {
         	String opt = metrics.getOpName();
         	String spt = metrics.getSampleType();
         	if (spt.equals(opt)){ /*just append normal stage*/
-        		String workName = null;
-        		int workIdx = 1;
-        		for (Work work : stage.getStage().getWorks()){
-        			if (work.getOperationIDs().contains(metrics.getOpId())) {
-						workName = "w" + workIdx + "-" + work.getName();
-						break;
-					}
-        			workIdx++;
-        		}
+        		String workName = getWorkName(stage, metrics);
         		buffer.append(stage.getId() + "-" + workName + "-" + opt);
         		buffer.append(',').append("(%)").append(',');
+        		if (metrics.getSizeClasses() == null)
+        			continue;
+        		for (Metrics sizeClass : metrics.getSizeClasses()) {
+        			if (sizeClass.getLatency() == null)
+        				continue;
+        			buffer.append(stage.getId() + "-" + workName + "-" + opt
+        					+ "@" + sizeClass.getSizeClass());
+        			buffer.append(',').append("(%)").append(',');
+        		}
 	        }
         }
     }
 
+    static String getWorkName(StageInfo stage, Metrics metrics) {
+        int workIdx = 1;
+        for (Work work : stage.getStage().getWorks()) {
+            if (work.getOperationIDs().contains(metrics.getOpId()))
+                return "w" + workIdx + "-" + work.getName();
+            workIdx++;
+        }
+        return null;
+    }
+
     @Override
     protected void writeHistogram(Writer writer, int idx) throws IOException {
         StringBuilder buffer = new StringBuilder();
@@ -88,6 +100,19 @@ class CSVLatencyExporter extends AbstractLatencyExporter {
         		double per = sums[metricsIdx] != 0 ?
         				accs[metricsIdx] / ((double) sums[metricsIdx]) : 0;
         		buffer.append(RATIO.format(per)).append(',');
+        		List<Metrics> classes = metrics.getSizeClasses();
+        		if (classes == null)
+        			continue;
+        		for (int i = 0; i < classes.size(); i++) {
+        			if (classes.get(i).getLatency() == null)
+        				continue;
+        			count = classes.get(i).getLatency().getHistoData()[idx];
+        			buffer.append(count).append(',');
+        			classAccs[metricsIdx][i] += count;
+        			per = classSums[metricsIdx][i] != 0 ? classAccs[metricsIdx][i]
+        					/ ((double) classSums[metricsIdx][i]) : 0;
+        			buffer.append(RATIO.format(per)).append(',');
+        		}
         	}
         }
         buffer.setCharAt(buffer.length() - 1, '\n');
@@ -0,0 +1,101 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.exporter;
+
+import static com.intel.cosbench.exporter.Formats.RATIO;
+
+import java.io.*;
+import java.util.List;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.*;
+
+/**
+ * This class is to export response time histogram data into CSV format, one
+ * row per non-empty bucket of each operation, instead of one row per bucket
+ * with a column per operation.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+class CSVLongLatencyExporter implements LatencyExporter {
+
+    public static final String HEADER = "Stage,Work,Op-Index,Op-Name,"
+            + "Size-Class,ResTime-From,ResTime-To,Count,Accumulated";
+
+    private WorkloadInfo workload;
+
+    public CSVLongLatencyExporter() {
+        /* empty */
+    }
+
+    public void setWorkload(WorkloadInfo workload) {
+        this.workload = workload;
+    }
+
+    @Override
+    public void export(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (StageInfo stage : workload.getStageInfos()) {
+            int index = 0;
+            for (Metrics metrics : stage.getReport()) {
+                index++;
+                if (!metrics.getOpName().equals(metrics.getSampleType()))
+                    continue; /* skip for special work */
+                String prefix = stage.getId() + ","
+                        + CSVLatencyExporter.getWorkName(stage, metrics) + ","
+                        + index + "," + metrics.getOpName() + ",";
+                writeHistogram(writer, prefix + "N/A,", metrics.getLatency());
+                List<Metrics> classes = metrics.getSizeClasses();
+                if (classes == null)
+                    continue;
+                for (Metrics sizeClass : classes)
+                    writeHistogram(writer, prefix + sizeClass.getSizeClass()
+                            + ",", sizeClass.getLatency());
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeHistogram(Writer writer, String prefix,
+            Histogram latency) throws IOException {
+        if (latency == null || latency.getHistoData() == null)
+            return;
+        int[] data = latency.getHistoData();
+        long sum = 0, acc = 0;
+        for (int count : data)
+            sum += count;
+        for (int idx = 0; idx < data.length; idx++) {
+            if (data[idx] == 0)
+                continue;
+            acc += data[idx];
+            long[] resTime = Counter.getResTime(idx);
+            StringBuilder buffer = new StringBuilder(prefix);
+            buffer.append(resTime[0]).append(',');
+            if (resTime[1] < Long.MAX_VALUE)
+                buffer.append(resTime[1]);
+            else
+                buffer.append("+INF");
+            buffer.append(',').append(data[idx]).append(',');
+            buffer.append(RATIO.format((double) acc / sum)).append('\n');
+            writer.write(buffer.toString());
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.exporter;
+
+import static com.intel.cosbench.exporter.CSVStageExporter.*;
+import static com.intel.cosbench.exporter.Formats.*;
+
+import java.io.*;
+
+import com.intel.cosbench.bench.*;
+
+/**
+ * This class is to export stage information into CSV format, one row per
+ * interval and operation, so that columns stay the same however many
+ * operations a stage has.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+class CSVLongStageExporter extends AbstractStageExporter {
+
+    public static final String HEADER = "Interval,Timestamp,Op-Name,Op-Type,"
+            + "Op-Count,Byte-Count,Avg-ResTime,Avg-ProcTime,Throughput,"
+            + "Bandwidth,Succ-Ratio,Min-Version,Version,Max-Version";
+
+    private int interval;
+
+    public CSVLongStageExporter() {
+        /* empty */
+    }
+
+    @Override
+    protected void writeHeader(Writer writer) throws IOException {
+        StringBuilder buffer = new StringBuilder(HEADER);
+        for (String name : PERCENTILE_NAMES)
+            buffer.append(',').append(name);
+        for (String name : USAGE_NAMES)
+            buffer.append(',').append(name);
+        buffer.append('\n');
+        writer.write(buffer.toString());
+        interval = 0;
+    }
+
+    @Override
+    protected void writeMetrics(Writer writer, Snapshot snapshot)
+            throws IOException {
+        interval++;
+        for (Metrics metrics : snapshot.getReport())
+            writeMetrics(writer, snapshot, metrics);
+    }
+
+    private void writeMetrics(Writer writer, Snapshot snapshot,
+            Metrics metrics) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(interval).append(',');
+        buffer.append(TIME.format(snapshot.getTimestamp())).append(',');
+        buffer.append(getMetricsName(metrics)).append(',');
+        buffer.append(metrics.getOpType()).append(',');
+        buffer.append(metrics.getSampleCount()).append(',');
+        buffer.append(metrics.getByteCount()).append(',');
+        double r = metrics.getAvgResTime();
+        buffer.append(r > 0 ? NUM.format(r) : "N/A").append(',');
+        double pt = r - metrics.getAvgXferTime();
+        buffer.append(pt > 0 ? NUM.format(pt) : "N/A").append(',');
+        buffer.append(NUM.format(metrics.getThroughput())).append(',');
+        buffer.append(NUM.format(metrics.getBandwidth())).append(',');
+        double t = metrics.getRatio();
+        buffer.append(t > 0 ? RATIO.format(t) : "N/A").append(',');
+        buffer.append(snapshot.getMinVersion()).append(',');
+        buffer.append(snapshot.getVersion()).append(',');
+        buffer.append(snapshot.getMaxVersion());
+        SparseHistogram histogram = metrics.getResHistogram();
+        for (double percentile : PERCENTILES) {
+            long p = histogram != null ? histogram.calcPercentile(percentile)
+                    : -1L;
+            buffer.append(',').append(p >= 0 ? String.valueOf(p) : "N/A");
+        }
+        ResourceUsage usage = snapshot.getUsage();
+        if (usage == null)
+            usage = new ResourceUsage(); // all unknown
+        appendUsage(buffer, RATIO, usage.getCpuLoad());
+        appendUsage(buffer, RATIO, usage.getGcRatio());
+        appendUsage(buffer, RATIO, usage.calcHeapLoad());
+        appendUsage(buffer, NUM, usage.calcRunnableLoad());
+        appendUsage(buffer, RATIO, usage.getNicLoad());
+        buffer.append('\n');
+        writer.write(buffer.toString());
+    }
+
+}
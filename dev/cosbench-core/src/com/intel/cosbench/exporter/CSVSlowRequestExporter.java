@@ -0,0 +1,96 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.exporter;
+
+import static com.intel.cosbench.exporter.Formats.TIME;
+
+import java.io.*;
+import java.util.List;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.StageInfo;
+
+/**
+ * This class is to export the slowest requests of each interval of a stage
+ * into CSV format, slowest first within an interval.
+ * 
+ * @author ywang19, qzheng7
+ *
+ */
+class CSVSlowRequestExporter implements StageExporter {
+
+    private static final String HEADER = "Interval,Time,Timestamp,Driver,"
+            + "Worker,Endpoint,Op-Type,Op-Name,Container,Object,Bytes,Status,"
+            + "Res-Time,Xfer-Time,Wait-Time";
+
+    private StageInfo stage;
+
+    public CSVSlowRequestExporter() {
+        /* empty */
+    }
+
+    public void setStage(StageInfo stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void export(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        int interval = 0;
+        for (Snapshot snapshot : stage.getSnapshotRegistry()) {
+            interval++;
+            List<SlowRequest> requests = snapshot.getSlowRequests();
+            if (requests == null)
+                continue;
+            for (SlowRequest request : requests)
+                writeRequest(writer, interval, snapshot, request);
+        }
+        writer.flush();
+    }
+
+    private static void writeRequest(Writer writer, int interval,
+            Snapshot snapshot, SlowRequest request) throws IOException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(interval).append(',');
+        buffer.append(TIME.format(snapshot.getTimestamp())).append(',');
+        buffer.append(request.getTimestamp()).append(',');
+        appendName(buffer, request.getDriver()).append(',');
+        buffer.append(request.getWorker()).append(',');
+        appendName(buffer, request.getEndpoint()).append(',');
+        buffer.append(request.getOpType()).append(',');
+        appendName(buffer, request.getOpName()).append(',');
+        appendName(buffer, request.getConName()).append(',');
+        appendName(buffer, request.getObjName()).append(',');
+        buffer.append(request.getBytes()).append(',');
+        buffer.append(request.isSucc() ? "ok" : "failed").append(',');
+        buffer.append(request.getTime()).append(',');
+        buffer.append(request.getXferTime()).append(',');
+        buffer.append(request.getTime() - request.getXferTime()).append('\n');
+        writer.write(buffer.toString());
+    }
+
+    private static StringBuilder appendName(StringBuilder buffer, String name) {
+        if (name == null)
+            return buffer.append("N/A");
+        if (name.indexOf(',') < 0 && name.indexOf('"') < 0)
+            return buffer.append(name);
+        return buffer.append('"').append(name.replace("\"", "\"\"")).append('"');
+    }
+
+}
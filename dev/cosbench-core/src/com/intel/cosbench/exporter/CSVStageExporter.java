@@ -20,6 +20,7 @@ package com.intel.cosbench.exporter;
 import static com.intel.cosbench.exporter.Formats.*;
 
 import java.io.*;
+import java.text.NumberFormat;
 import java.util.Arrays;
 
 import org.apache.commons.lang.StringUtils;
@@ -34,6 +35,14 @@ import com.intel.cosbench.bench.*;
  */
 class CSVStageExporter extends AbstractStageExporter {
 
+    /* per-interval response time percentiles, appended after version info */
+    static final double[] PERCENTILES = { 0.5, 0.95, 0.99, 0.999 };
+    static final String[] PERCENTILE_NAMES = { "P50-ResTime",
+            "P95-ResTime", "P99-ResTime", "P99.9-ResTime" };
+    /* resources of the busiest driver, appended after percentiles */
+    static final String[] USAGE_NAMES = { "CPU", "GC", "Heap",
+            "Run-Queue", "NIC" };
+
     public CSVStageExporter() {
         /* empty */
     }
@@ -52,19 +61,24 @@ class CSVStageExporter extends AbstractStageExporter {
         buffer.append("Bandwidth").append(suffix);
         buffer.append("Succ-Ratio").append(suffix);
         buffer.append("Version-Info");
-        buffer.append(',').append(',').append('\n').append(',');
+        buffer.append(',').append(',');
+        for (String name : PERCENTILE_NAMES)
+            buffer.append(',').append(name).append(suffix, 0, numOpTypes - 1);
+        buffer.append(',').append("Driver-Usage").append(",,,,");
+        buffer.append('\n').append(',');
         for (int i = 0; i < 7; i++)
             // 7 metrics
-            for (Metrics metrics : snapshots[0].getReport())
-				buffer.append(
-						StringUtils.join(new Object[] {
-								(metrics.getOpName().equals(
-										metrics.getSampleType()) ? null
-										: metrics.getOpName() + "-"),
-								metrics.getSampleType() })).append(',');
+            for (Metrics metrics : first.getReport())
+                buffer.append(getMetricsName(metrics)).append(',');
         buffer.append("Min-Version").append(','); 
         buffer.append("Version").append(',');
-        buffer.append("Max-Version").append('\n');
+        buffer.append("Max-Version");
+        for (int i = 0; i < PERCENTILES.length; i++)
+            for (Metrics metrics : first.getReport())
+                buffer.append(',').append(getMetricsName(metrics));
+        for (String name : USAGE_NAMES)
+            buffer.append(',').append(name);
+        buffer.append('\n');
         writer.write(buffer.toString());
     }
 
@@ -121,8 +135,45 @@ class CSVStageExporter extends AbstractStageExporter {
         /* Version Info */
         buffer.append(snapshot.getMinVersion()).append(',');
         buffer.append(snapshot.getVersion()).append(',');
-        buffer.append(snapshot.getMaxVersion()).append('\n');
+        buffer.append(snapshot.getMaxVersion());
+        /* Response Time Percentiles */
+        for (double percentile : PERCENTILES)
+            for (Metrics metrics : report) {
+                buffer.append(',');
+                SparseHistogram histogram = metrics.getResHistogram();
+                long t = histogram != null ? histogram
+                        .calcPercentile(percentile) : -1L;
+                if (t >= 0)
+                    buffer.append(t);
+                else
+                    buffer.append("N/A");
+            }
+        /* Driver Usage */
+        ResourceUsage usage = snapshot.getUsage();
+        if (usage == null)
+            usage = new ResourceUsage(); // all unknown
+        appendUsage(buffer, RATIO, usage.getCpuLoad());
+        appendUsage(buffer, RATIO, usage.getGcRatio());
+        appendUsage(buffer, RATIO, usage.calcHeapLoad());
+        appendUsage(buffer, NUM, usage.calcRunnableLoad());
+        appendUsage(buffer, RATIO, usage.getNicLoad());
+        buffer.append('\n');
         writer.write(buffer.toString());
     }
 
+    static void appendUsage(StringBuilder buffer, NumberFormat format,
+            double value) {
+        buffer.append(',');
+        if (value >= 0)
+            buffer.append(format.format(value));
+        else
+            buffer.append("N/A");
+    }
+
+    static String getMetricsName(Metrics metrics) {
+        return StringUtils.join(new Object[] {
+                (metrics.getOpName().equals(metrics.getSampleType()) ? null
+                        : metrics.getOpName() + "-"), metrics.getSampleType() });
+    }
+
 }
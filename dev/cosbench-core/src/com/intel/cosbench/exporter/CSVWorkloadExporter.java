@@ -68,6 +68,8 @@ class CSVWorkloadExporter extends AbstractWorkloadExporter {
             buffer.append(opt);
         else
             buffer.append(opt + '-' + spt);
+        if (metrics.getSizeClass() != null)
+            buffer.append('@').append(metrics.getSizeClass());
         buffer.append(',');
         buffer.append(metrics.getOpType()).append(',');
         buffer.append(metrics.getSampleCount()).append(',');
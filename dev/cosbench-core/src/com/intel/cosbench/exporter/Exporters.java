@@ -17,6 +17,7 @@ limitations under the License.
 
 package com.intel.cosbench.exporter;
 
+import com.intel.cosbench.bench.Comparison;
 import com.intel.cosbench.model.*;
 
 /**
@@ -27,6 +28,15 @@ import com.intel.cosbench.model.*;
  */
 public class Exporters {
 
+    /* one column per operation, every histogram bucket */
+    public static final String WIDE = "wide";
+    /* one row per operation, non-empty histogram buckets only */
+    public static final String LONG = "long";
+
+    public static boolean isLong(String format) {
+        return LONG.equalsIgnoreCase(format);
+    }
+
     public static RunExporter newRunExporter(WorkloadInfo workload) {
         AbstractRunExporter exporter = new CSVRunExporter();
         exporter.setWorkload(workload);
@@ -39,6 +49,35 @@ public class Exporters {
         return exporter;
     }
 
+    public static StageExporter newStageExporter(StageInfo stage,
+            int resolution) {
+        AbstractStageExporter exporter = new CSVStageExporter();
+        exporter.setStage(stage);
+        exporter.setResolution(resolution);
+        return exporter;
+    }
+
+    public static StageExporter newStageExporter(StageInfo stage,
+            int resolution, String format) {
+        AbstractStageExporter exporter = isLong(format)
+                ? new CSVLongStageExporter() : new CSVStageExporter();
+        exporter.setStage(stage);
+        exporter.setResolution(resolution);
+        return exporter;
+    }
+
+    public static StageExporter newSlowRequestExporter(StageInfo stage) {
+        CSVSlowRequestExporter exporter = new CSVSlowRequestExporter();
+        exporter.setStage(stage);
+        return exporter;
+    }
+
+    public static StageExporter newBreakdownExporter(StageInfo stage) {
+        CSVBreakdownExporter exporter = new CSVBreakdownExporter();
+        exporter.setStage(stage);
+        return exporter;
+    }
+
     public static WorkloadExporter newWorkloadExporter(WorkloadInfo workload) {
         AbstractWorkloadExporter exporter = new CSVWorkloadExporter();
         exporter.setWorkload(workload);
@@ -51,6 +90,15 @@ public class Exporters {
         return exporter;
     }
 
+    public static LatencyExporter newLatencyExporter(WorkloadInfo workload,
+            String format) {
+        if (!isLong(format))
+            return newLatencyExporter(workload);
+        CSVLongLatencyExporter exporter = new CSVLongLatencyExporter();
+        exporter.setWorkload(workload);
+        return exporter;
+    }
+
     public static LogExporter newLogExporter(WorkloadInfo workload) {
         SimpleLogExporter exporter = new SimpleLogExporter();
         exporter.setWorkload(workload);
@@ -69,4 +117,11 @@ public class Exporters {
         return exporter;
     }
 
+    public static ComparisonExporter newComparisonExporter(
+            Comparison comparison) {
+        CSVComparisonExporter exporter = new CSVComparisonExporter();
+        exporter.setComparison(comparison);
+        return exporter;
+    }
+
 }
@@ -0,0 +1,248 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.exporter;
+
+import java.io.*;
+import java.lang.management.*;
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+
+/**
+ * This class renders live performance data in the Prometheus text exposition
+ * format, so that monitoring systems can scrape drivers and the controller.
+ * Samples are collected first and written grouped by metric family, as the
+ * format requires.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "cosbench_";
+
+    /* upper bounds of the exported response time buckets, in milliseconds */
+    private static final long[] BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500,
+            1000, 2000, 5000, 10000, 30000, 60000 };
+
+    private static class Family {
+
+        private String type;
+        private String help;
+        private StringBuilder samples = new StringBuilder();
+
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+    }
+
+    private Map<String, Family> families = new LinkedHashMap<String, Family>();
+
+    public PrometheusExporter() {
+        /* empty */
+    }
+
+    public void addCounter(String name, String help, String labels, double value) {
+        addSample(name, "counter", help, name, labels, value);
+    }
+
+    public void addGauge(String name, String help, String labels, double value) {
+        addSample(name, "gauge", help, name, labels, value);
+    }
+
+    private void addSample(String family, String type, String help,
+            String name, String labels, double value) {
+        Family f = families.get(family);
+        if (f == null)
+            families.put(family, f = new Family(type, help));
+        f.samples.append(PREFIX).append(name);
+        if (labels != null && labels.length() > 0)
+            f.samples.append('{').append(labels).append('}');
+        f.samples.append(' ').append(format(value)).append('\n');
+    }
+
+    /**
+     * Adds the counters of a cumulative snapshot, one set of samples per
+     * operation.
+     * 
+     * @param labels
+     *            the labels identifying where the snapshot comes from
+     */
+    public void addSnapshot(String labels, Snapshot snapshot) {
+        for (Metrics metrics : snapshot.getReport()) {
+            String op = labels(labels, "op_id", metrics.getOpId(), "op_type",
+                    metrics.getOpType(), "sample_type",
+                    metrics.getSampleType(), "op_name", metrics.getOpName());
+            int succ = metrics.getSampleCount();
+            addCounter("requests_total", "Requests completed.",
+                    labels(op, "result", "success"), succ);
+            addCounter("requests_total", "Requests completed.",
+                    labels(op, "result", "failure"),
+                    metrics.getTotalSampleCount() - succ);
+            addCounter("transferred_bytes_total", "Bytes transferred.", op,
+                    metrics.getByteCount());
+            addCounter("transfer_time_seconds_total",
+                    "Time spent transferring data of successful requests.",
+                    op, metrics.getAvgXferTime() * succ / 1000);
+            addGauge("workers", "Workers running the operation.", op,
+                    metrics.getWorkerCount());
+            addResHistogram(op, metrics);
+        }
+    }
+
+    /*
+     * sparse buckets are counted whole, a sample lying within one of them is
+     * only counted once the bound passes the end of that bucket
+     */
+    private void addResHistogram(String labels, Metrics metrics) {
+        String name = "response_time_seconds";
+        String help = "Response time of successful requests.";
+        long count = metrics.getSampleCount();
+        SparseHistogram histogram = metrics.getResHistogram();
+        if (histogram != null) {
+            int[] buckets = histogram.getBuckets();
+            long[] counts = histogram.getCounts();
+            long sum = 0;
+            int i = 0;
+            for (long bound : BOUNDS) {
+                while (i < buckets.length
+                        && SparseHistogram.getHighestValue(buckets[i]) <= bound)
+                    sum += counts[i++];
+                addSample(name, "histogram", help, name + "_bucket",
+                        labels(labels, "le", format(bound / 1000D)), sum);
+            }
+        }
+        addSample(name, "histogram", help, name + "_bucket",
+                labels(labels, "le", "+Inf"), count);
+        addSample(name, "histogram", help, name + "_sum", labels,
+                metrics.getAvgResTime() * count / 1000);
+        addSample(name, "histogram", help, name + "_count", labels, count);
+    }
+
+    /**
+     * Adds error counts by operation, status code and exception type.
+     */
+    public void addErrors(String labels, List<ErrorEntry> errors) {
+        if (errors == null)
+            return;
+        for (ErrorEntry entry : errors)
+            addCounter("errors_total", "Failed requests by cause.", labels(
+                    labels, "op_type", entry.getOpType(), "code",
+                    entry.getCode(), "type", entry.getType()),
+                    entry.getCount());
+    }
+
+    /**
+     * Adds memory, garbage collection and thread statistics of this JVM.
+     */
+    public void addJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        addMemory("heap", memory.getHeapMemoryUsage());
+        addMemory("nonheap", memory.getNonHeapMemoryUsage());
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            String labels = labels(null, "gc", gc.getName());
+            addCounter("jvm_gc_collections_total",
+                    "Garbage collections run.", labels,
+                    Math.max(gc.getCollectionCount(), 0));
+            addCounter("jvm_gc_seconds_total",
+                    "Time spent in garbage collection.", labels,
+                    Math.max(gc.getCollectionTime(), 0) / 1000D);
+        }
+        addGauge("jvm_threads", "Live threads.", null, ManagementFactory
+                .getThreadMXBean().getThreadCount());
+        addGauge("jvm_uptime_seconds", "Time since the JVM started.", null,
+                ManagementFactory.getRuntimeMXBean().getUptime() / 1000D);
+        double load = ManagementFactory.getOperatingSystemMXBean()
+                .getSystemLoadAverage();
+        if (load >= 0)
+            addGauge("system_load_average", "System load over one minute.",
+                    null, load);
+    }
+
+    private void addMemory(String area, MemoryUsage usage) {
+        String help = "JVM memory by area.";
+        addGauge("jvm_memory_bytes", help,
+                labels(null, "area", area, "kind", "used"), usage.getUsed());
+        addGauge("jvm_memory_bytes", help,
+                labels(null, "area", area, "kind", "committed"),
+                usage.getCommitted());
+        if (usage.getMax() >= 0)
+            addGauge("jvm_memory_bytes", help,
+                    labels(null, "area", area, "kind", "max"), usage.getMax());
+    }
+
+    public void write(Writer writer) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            String name = PREFIX + entry.getKey();
+            writer.write("# HELP " + name + " " + family.help + "\n");
+            writer.write("# TYPE " + name + " " + family.type + "\n");
+            writer.write(family.samples.toString());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Appends label pairs to an existing label list.
+     * 
+     * @param labels
+     *            the labels so far, may be null
+     * @param pairs
+     *            label names followed by their values, null values are
+     *            exported as empty strings
+     * @return the labels in exposition format, without braces
+     */
+    public static String labels(String labels, String... pairs) {
+        StringBuilder buffer = new StringBuilder(labels != null ? labels : "");
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            if (buffer.length() > 0)
+                buffer.append(',');
+            buffer.append(pairs[i]).append("=\"");
+            escape(buffer, pairs[i + 1]);
+            buffer.append('"');
+        }
+        return buffer.toString();
+    }
+
+    private static void escape(StringBuilder buffer, String value) {
+        if (value == null)
+            return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"')
+                buffer.append('\\').append(c);
+            else if (c == '\n')
+                buffer.append("\\n");
+            else
+                buffer.append(c);
+        }
+    }
+
+    private static String format(double value) {
+        if (value == (long) value)
+            return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+}
@@ -19,6 +19,8 @@ package com.intel.cosbench.exporter;
 
 import java.io.*;
 
+import org.apache.commons.io.IOUtils;
+
 import com.intel.cosbench.model.*;
 
 class SimpleLogExporter implements LogExporter {
@@ -60,7 +62,21 @@ class SimpleLogExporter implements LogExporter {
         writer.write("-----------------");
         writer.write("-----------------");
         writer.write('\n');
-        writer.write(task.getLog());
+        File file = task.getLogFile();
+        if (file != null && file.exists())
+            copyLogFile(writer, file);
+        else if (task.getLog() != null)
+            writer.write(task.getLog());
+    }
+
+    private static void copyLogFile(Writer writer, File file)
+            throws IOException {
+        Reader reader = new BufferedReader(new FileReader(file));
+        try {
+            IOUtils.copy(reader, writer);
+        } finally {
+            IOUtils.closeQuietly(reader);
+        }
     }
 
     private String getTaskLogHeader(TaskInfo task) {
@@ -27,4 +27,16 @@ public interface ControllerInfo {
 
     public DriverInfo[] getDriverInfos();
 
+    /**
+     * @return the connections to drivers held open by the controller, or -1
+     *         if they are not pooled
+     */
+    public int getPooledConnections();
+
+    /**
+     * @return the most connections to drivers the controller may hold, or -1
+     *         if they are not pooled
+     */
+    public int getMaxConnections();
+
 }
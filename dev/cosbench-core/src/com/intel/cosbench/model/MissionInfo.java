@@ -17,10 +17,16 @@ limitations under the License.
 
 package com.intel.cosbench.model;
 
+import java.io.File;
 import java.util.Date;
+import java.util.List;
 
 import com.intel.cosbench.bench.Benchmark;
+import com.intel.cosbench.bench.Breakdown;
 import com.intel.cosbench.bench.ErrorStatistics;
+import com.intel.cosbench.bench.ResourceUsage;
+import com.intel.cosbench.bench.SlowRequest;
+import com.intel.cosbench.bench.Snapshot;
 import com.intel.cosbench.config.Mission;
 import com.intel.cosbench.log.LogManager;
 
@@ -44,4 +50,41 @@ public interface MissionInfo extends LifeCycle, Benchmark {
         
     public ErrorStatistics getErrorStatistics();
 
+    /**
+     * @return the snapshot of the window since the previous call, for
+     *         controllers which expect rates per interval rather than
+     *         cumulative counters
+     */
+    public Snapshot getWindowSnapshot();
+
+    /**
+     * @return the window between the two latest cumulative snapshots, or null
+     *         before the first one, reading it takes no new snapshot
+     */
+    public Snapshot getLastInterval();
+
+    /**
+     * @return the peak driver resources since the workers started, or null
+     *         if they have not
+     */
+    public ResourceUsage getResourceUsage();
+
+    /**
+     * @return the complete per-operation trace, or null if the mission is
+     *         not traced or still running
+     */
+    public File getTraceFile();
+
+    /**
+     * @return the slowest requests of all workers since the previous call,
+     *         slowest first, or null if they are not tracked
+     */
+    public List<SlowRequest> pollSlowRequests();
+
+    /**
+     * @return the final metrics of each worker, or null if they are not asked
+     *         for in the mission config
+     */
+    public List<Breakdown> getWorkerBreakdown();
+
 }
@@ -18,6 +18,7 @@ limitations under the License.
 package com.intel.cosbench.model;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import com.intel.cosbench.bench.*;
@@ -50,7 +51,41 @@ public interface StageInfo extends LifeCycle, Benchmark {
 
     public TaskInfo[] getTaskInfos();
 
+    /**
+     * @return all snapshots read into memory, only meant for short stages,
+     *         long ones are better iterated through the snapshot registry
+     */
     public Snapshot[] getSnapshots();
+
+    /**
+     * @return snapshots merged by the given number of consecutive intervals
+     */
+    public Snapshot[] getSnapshots(int resolution);
+
+    /**
+     * @return the slowest requests of the whole stage so far, slowest first,
+     *         each interval keeps its own in its snapshot
+     */
+    public List<SlowRequest> getSlowRequests();
+
+    /**
+     * @return the steady-state analysis of the snapshots so far
+     */
+    public SteadyState getSteadyState();
+
+    /**
+     * @return the final metrics of each driver, each followed by those of
+     *         its workers if they were asked for, empty until the stage is
+     *         completed
+     */
+    public List<Breakdown> getBreakdown();
+
+    public void setBreakdown(List<Breakdown> breakdown);
+
+    /**
+     * @return how evenly the drivers shared the load of each operation
+     */
+    public List<Skew> getSkews();
     
     public int getSnapshotCount();
 
@@ -17,7 +17,13 @@ limitations under the License.
 
 package com.intel.cosbench.model;
 
+import java.io.File;
+import java.util.List;
+
 import com.intel.cosbench.bench.Benchmark;
+import com.intel.cosbench.bench.ErrorEntry;
+import com.intel.cosbench.bench.ResourceUsage;
+import com.intel.cosbench.bench.Snapshot;
 
 public interface TaskInfo extends LifeCycle, Benchmark {
 
@@ -31,4 +37,33 @@ public interface TaskInfo extends LifeCycle, Benchmark {
 
     public String getLog();
 
+    /**
+     * @return the driver log spooled to disk, or null if it is kept in
+     *         {@link #getLog()}
+     */
+    public File getLogFile();
+
+    /**
+     * @return the per-operation trace of the mission, gzip compressed, or
+     *         null if it was not traced
+     */
+    public File getTraceFile();
+
+    /**
+     * @return the latest snapshot counting from worker startup, or null if
+     *         the driver only reports windows
+     */
+    public Snapshot getCumulativeSnapshot();
+
+    /**
+     * @return errors per kind reported with the latest snapshot
+     */
+    public List<ErrorEntry> getErrors();
+
+    /**
+     * @return the peak resources of the driver while running the task, or
+     *         null if the driver does not report them
+     */
+    public ResourceUsage getResourceUsage();
+
 }
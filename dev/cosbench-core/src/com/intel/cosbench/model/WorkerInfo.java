@@ -23,4 +23,11 @@ public interface WorkerInfo extends LifeCycle, Benchmark {
 
     public int getIndex();
 
+    /**
+     * @return the time the worker started, 0 if it has not yet
+     */
+    public long getStartTime();
+
+    public boolean isFinished();
+
 }
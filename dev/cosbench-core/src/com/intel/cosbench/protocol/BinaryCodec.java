@@ -0,0 +1,731 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.protocol;
+
+import java.io.*;
+import java.util.*;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.TaskState;
+
+/**
+ * This class encodes protocol responses in a compact binary form, as an
+ * alternative to JSON for the messages carrying metrics reports. Integers are
+ * written as (zig-zag) varints, and latency histograms only carry their
+ * non-empty buckets, each as the index delta to the previous one plus the
+ * count.
+ * <p>
+ * The binary form is only used when the driver has announced its supported
+ * version through {@link PingResponse} and the controller has asked for it,
+ * JSON stays the default.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public final class BinaryCodec {
+
+    public static final String CONTENT_TYPE = "application/x-cosbench";
+
+    /*
+     * highest version of the encoding known by this side, version 2 adds
+     * per-interval response time histograms, version 3 adds the cumulative
+     * flag of query responses, version 4 adds driver resource usage, version
+     * 5 adds the slowest requests, version 6 adds object-size classes,
+     * version 7 adds per-worker breakdowns of close responses, version 8
+     * adds response and transfer time sums
+     */
+    public static final int VERSION = 8;
+
+    private static final int MAGIC = 0xCB;
+
+    private static final int TYPE_RESPONSE = 0;
+    private static final int TYPE_QUERY = 1;
+    private static final int TYPE_CLOSE = 2;
+    private static final int TYPE_SNAPSHOT = 3;
+
+    private BinaryCodec() {
+        /* no instance */
+    }
+
+    public static boolean supports(Class<?> clazz) {
+        return clazz == Response.class || clazz == QueryResponse.class
+                || clazz == CloseResponse.class;
+    }
+
+    /**
+     * @return the content type to accept responses encoded in the given
+     *         version
+     */
+    public static String getAcceptType(int version) {
+        return CONTENT_TYPE + ";version=" + version;
+    }
+
+    /**
+     * Parses the version asked for in an Accept header.
+     * 
+     * @return the version to encode with, or 0 if binary is not accepted
+     */
+    public static int getAcceptedVersion(String accept) {
+        if (accept == null || accept.indexOf(CONTENT_TYPE) < 0)
+            return 0;
+        int idx = accept.indexOf("version=", accept.indexOf(CONTENT_TYPE));
+        if (idx < 0)
+            return 1;
+        int version = 0;
+        for (int i = idx + 8; i < accept.length(); i++) {
+            char c = accept.charAt(i);
+            if (c < '0' || c > '9')
+                break;
+            version = version * 10 + (c - '0');
+        }
+        return Math.min(version, VERSION);
+    }
+
+    public static boolean isBinary(String contentType) {
+        return contentType != null && contentType.startsWith(CONTENT_TYPE);
+    }
+
+    public static byte[] encode(Response response, int version) {
+        if (version < 1 || version > VERSION)
+            throw new IllegalArgumentException("unsupported version: " + version);
+        Writer out = new Writer(version);
+        out.writeByte(MAGIC);
+        out.writeByte(version);
+        if (response instanceof QueryResponse) {
+            out.writeByte(TYPE_QUERY);
+            writeResponse(out, response);
+            writeQuery(out, (QueryResponse) response);
+        } else if (response instanceof CloseResponse) {
+            out.writeByte(TYPE_CLOSE);
+            writeResponse(out, response);
+            writeClose(out, (CloseResponse) response);
+        } else {
+            out.writeByte(TYPE_RESPONSE);
+            writeResponse(out, response);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a response into the expected class, a plain {@link Response}
+     * (e.g. an error) only fills in the common fields.
+     */
+    public static <T extends Response> T decode(byte[] data, Class<T> clazz)
+            throws IOException {
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC)
+            throw new IOException("not a binary protocol message");
+        int version = in.readByte();
+        if (version < 1 || version > VERSION)
+            throw new IOException("unsupported version: " + version);
+        in.version = version;
+        int type = in.readByte();
+        T response;
+        try {
+            response = clazz.newInstance();
+        } catch (Exception e) {
+            throw new IOException("cannot instantiate " + clazz.getName());
+        }
+        readResponse(in, response);
+        if (type == TYPE_QUERY && response instanceof QueryResponse)
+            readQuery(in, (QueryResponse) response);
+        else if (type == TYPE_CLOSE && response instanceof CloseResponse)
+            readClose(in, (CloseResponse) response);
+        else if (type != TYPE_RESPONSE)
+            throw new IOException("unexpected message type: " + type);
+        return response;
+    }
+
+    /**
+     * Encodes a snapshot on its own, e.g. to keep it in a file, always with
+     * the highest version.
+     */
+    public static byte[] encode(Snapshot snapshot) {
+        Writer out = new Writer(VERSION);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(TYPE_SNAPSHOT);
+        Date time = snapshot.getTimestamp();
+        out.writeVarlong(time != null ? time.getTime() : -1L);
+        out.writeVarint(snapshot.getVersion());
+        out.writeVarint(snapshot.getMinVersion());
+        out.writeVarint(snapshot.getMaxVersion());
+        writeReport(out, Arrays.asList(snapshot.getReport().getAllMetrics()));
+        writeUsage(out, snapshot.getUsage());
+        writeSlowRequests(out, snapshot.getSlowRequests());
+        return out.toByteArray();
+    }
+
+    public static Snapshot decodeSnapshot(byte[] data) throws IOException {
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC)
+            throw new IOException("not a binary protocol message");
+        int version = in.readByte();
+        if (version < 1 || version > VERSION)
+            throw new IOException("unsupported version: " + version);
+        in.version = version;
+        int type = in.readByte();
+        if (type != TYPE_SNAPSHOT)
+            throw new IOException("unexpected message type: " + type);
+        long time = in.readVarlong();
+        int snapshotVersion = in.readVarint();
+        int minVersion = in.readVarint();
+        int maxVersion = in.readVarint();
+        Report report = new Report();
+        List<Metrics> metrics = readReport(in);
+        if (metrics != null)
+            for (Metrics m : metrics)
+                report.addMetrics(m);
+        Snapshot snapshot = new Snapshot(report, time >= 0 ? new Date(time)
+                : null);
+        snapshot.setVersion(snapshotVersion);
+        snapshot.setMinVersion(minVersion);
+        snapshot.setMaxVersion(maxVersion);
+        if (version >= 4)
+            snapshot.setUsage(readUsage(in));
+        if (version >= 5)
+            snapshot.setSlowRequests(readSlowRequests(in));
+        return snapshot;
+    }
+
+    /* Messages */
+
+    private static void writeResponse(Writer out, Response response) {
+        out.writeVarint(response.getCode());
+        out.writeBoolean(response.isSucc());
+        out.writeString(response.getError());
+    }
+
+    private static void readResponse(Reader in, Response response)
+            throws IOException {
+        response.setCode(in.readVarint());
+        response.setSucc(in.readBoolean());
+        response.setError(in.readString());
+    }
+
+    private static void writeQuery(Writer out, QueryResponse response) {
+        Date time = response.getTime();
+        out.writeVarlong(time != null ? time.getTime() : -1L);
+        out.writeVarint(response.getVersion());
+        out.writeVarint(response.getMinVersion());
+        out.writeVarint(response.getMaxVersion());
+        out.writeBoolean(response.isRunning());
+        out.writeBoolean(response.isDelta());
+        if (out.version >= 3)
+            out.writeBoolean(response.isCumulative());
+        writeReport(out, response.getReport());
+        writeErrors(out, response.getErrors());
+        if (out.version >= 4)
+            writeUsage(out, response.getUsage());
+        if (out.version >= 5)
+            writeSlowRequests(out, response.getSlowRequests());
+    }
+
+    private static void readQuery(Reader in, QueryResponse response)
+            throws IOException {
+        long time = in.readVarlong();
+        response.setTime(time >= 0 ? new Date(time) : null);
+        response.setVersion(in.readVarint());
+        response.setMinVersion(in.readVarint());
+        response.setMaxVersion(in.readVarint());
+        response.setRunning(in.readBoolean());
+        response.setDelta(in.readBoolean());
+        if (in.version >= 3)
+            response.setCumulative(in.readBoolean());
+        response.setReport(readReport(in));
+        response.setErrors(readErrors(in));
+        if (in.version >= 4)
+            response.setUsage(readUsage(in));
+        if (in.version >= 5)
+            response.setSlowRequests(readSlowRequests(in));
+    }
+
+    private static void writeClose(Writer out, CloseResponse response) {
+        writeReport(out, response.getReport());
+        out.writeString(response.getDriverLog());
+        TaskState state = response.getState();
+        out.writeString(state != null ? state.name() : null);
+        HashMap<String, Integer> errors = response.getErrorStatistics();
+        out.writeVarint(errors != null ? errors.size() + 1 : 0);
+        if (errors != null)
+            for (Map.Entry<String, Integer> entry : errors.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeVarint(entry.getValue());
+            }
+        writeErrors(out, response.getErrors());
+        if (out.version >= 4)
+            writeUsage(out, response.getUsage());
+        if (out.version >= 7)
+            writeBreakdown(out, response.getWorkers());
+    }
+
+    private static void readClose(Reader in, CloseResponse response)
+            throws IOException {
+        response.setReport(readReport(in));
+        response.setDriverLog(in.readString());
+        String state = in.readString();
+        response.setState(state != null ? TaskState.valueOf(state) : null);
+        int size = in.readVarint() - 1;
+        if (size >= 0) {
+            HashMap<String, Integer> errors = new HashMap<String, Integer>();
+            for (int i = 0; i < size; i++)
+                errors.put(in.readString(), in.readVarint());
+            response.setErrorStatistics(errors);
+        }
+        response.setErrors(readErrors(in));
+        if (in.version >= 4)
+            response.setUsage(readUsage(in));
+        if (in.version >= 7)
+            response.setWorkers(readBreakdown(in));
+    }
+
+    /* Payload */
+
+    private static void writeReport(Writer out, List<Metrics> report) {
+        out.writeVarint(report != null ? report.size() + 1 : 0);
+        if (report != null)
+            for (Metrics metrics : report)
+                writeMetrics(out, metrics);
+    }
+
+    private static List<Metrics> readReport(Reader in) throws IOException {
+        int size = in.readVarint() - 1;
+        if (size < 0)
+            return null;
+        List<Metrics> report = new ArrayList<Metrics>(size);
+        for (int i = 0; i < size; i++)
+            report.add(readMetrics(in));
+        return report;
+    }
+
+    private static void writeMetrics(Writer out, Metrics metrics) {
+        out.writeString(metrics.getName());
+        out.writeString(metrics.getOpType());
+        out.writeString(metrics.getSampleType());
+        out.writeString(metrics.getOpName());
+        out.writeString(metrics.getOpId());
+        out.writeVarint(metrics.getSampleCount());
+        out.writeVarint(metrics.getTotalSampleCount());
+        out.writeVarlong(metrics.getByteCount());
+        out.writeVarint(metrics.getWorkerCount());
+        out.writeDouble(metrics.getAvgResTime());
+        out.writeDouble(metrics.getAvgXferTime());
+        out.writeDouble(metrics.getThroughput());
+        out.writeDouble(metrics.getBandwidth());
+        out.writeDouble(metrics.getRatio());
+        writeHistogram(out, metrics.getLatency());
+        if (out.version >= 2)
+            writeSparseHistogram(out, metrics.getResHistogram());
+        if (out.version >= 6) {
+            out.writeString(metrics.getSizeClass());
+            writeReport(out, metrics.getSizeClasses());
+        }
+        if (out.version >= 8) {
+            out.writeVarlong(metrics.getRtSum());
+            out.writeVarlong(metrics.getXtSum());
+        }
+    }
+
+    private static Metrics readMetrics(Reader in) throws IOException {
+        Metrics metrics = new Metrics();
+        metrics.setName(in.readString());
+        metrics.setOpType(in.readString());
+        metrics.setSampleType(in.readString());
+        metrics.setOpName(in.readString());
+        metrics.setOpId(in.readString());
+        metrics.setSampleCount(in.readVarint());
+        metrics.setTotalSampleCount(in.readVarint());
+        metrics.setByteCount(in.readVarlong());
+        metrics.setWorkerCount(in.readVarint());
+        metrics.setAvgResTime(in.readDouble());
+        metrics.setAvgXferTime(in.readDouble());
+        metrics.setThroughput(in.readDouble());
+        metrics.setBandwidth(in.readDouble());
+        metrics.setRatio(in.readDouble());
+        metrics.setLatency(readHistogram(in));
+        if (in.version >= 2)
+            metrics.setResHistogram(readSparseHistogram(in));
+        if (in.version >= 6) {
+            metrics.setSizeClass(in.readString());
+            metrics.setSizeClasses(readReport(in));
+        }
+        if (in.version >= 8) {
+            metrics.setRtSum(in.readVarlong());
+            metrics.setXtSum(in.readVarlong());
+        }
+        return metrics;
+    }
+
+    private static void writeHistogram(Writer out, Histogram histogram) {
+        out.writeBoolean(histogram != null);
+        if (histogram == null)
+            return;
+        out.writeLongs(histogram.get_60());
+        out.writeLongs(histogram.get_80());
+        out.writeLongs(histogram.get_90());
+        out.writeLongs(histogram.get_95());
+        out.writeLongs(histogram.get_99());
+        out.writeLongs(histogram.get_100());
+        int[] data = histogram.getHistoData();
+        out.writeVarint(data != null ? data.length + 1 : 0);
+        if (data == null)
+            return;
+        int buckets = 0;
+        for (int count : data)
+            if (count != 0)
+                buckets++;
+        out.writeVarint(buckets);
+        int last = -1;
+        for (int i = 0; i < data.length; i++)
+            if (data[i] != 0) {
+                out.writeVarint(i - last);
+                out.writeVarint(data[i]);
+                last = i;
+            }
+    }
+
+    private static Histogram readHistogram(Reader in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        Histogram histogram = new Histogram();
+        histogram.set_60(in.readLongs());
+        histogram.set_80(in.readLongs());
+        histogram.set_90(in.readLongs());
+        histogram.set_95(in.readLongs());
+        histogram.set_99(in.readLongs());
+        histogram.set_100(in.readLongs());
+        int length = in.readVarint() - 1;
+        if (length < 0)
+            return histogram;
+        int[] data = new int[length];
+        int buckets = in.readVarint();
+        int idx = -1;
+        for (int i = 0; i < buckets; i++) {
+            idx += in.readVarint();
+            data[idx] = in.readVarint();
+        }
+        histogram.setHistoData(data);
+        return histogram;
+    }
+
+    private static void writeSparseHistogram(Writer out,
+            SparseHistogram histogram) {
+        int[] buckets = histogram != null ? histogram.getBuckets() : null;
+        out.writeVarint(buckets != null ? buckets.length + 1 : 0);
+        if (buckets == null)
+            return;
+        long[] counts = histogram.getCounts();
+        int last = -1;
+        for (int i = 0; i < buckets.length; i++) {
+            out.writeVarint(buckets[i] - last);
+            out.writeVarlong(counts[i]);
+            last = buckets[i];
+        }
+    }
+
+    private static SparseHistogram readSparseHistogram(Reader in)
+            throws IOException {
+        int size = in.readVarint() - 1;
+        if (size < 0)
+            return null;
+        int[] buckets = new int[size];
+        long[] counts = new long[size];
+        int idx = -1;
+        for (int i = 0; i < size; i++) {
+            buckets[i] = idx += in.readVarint();
+            counts[i] = in.readVarlong();
+        }
+        SparseHistogram histogram = new SparseHistogram();
+        histogram.setBuckets(buckets);
+        histogram.setCounts(counts);
+        return histogram;
+    }
+
+    private static void writeUsage(Writer out, ResourceUsage usage) {
+        out.writeBoolean(usage != null);
+        if (usage == null)
+            return;
+        out.writeDouble(usage.getCpuLoad());
+        out.writeDouble(usage.getGcRatio());
+        out.writeVarlong(usage.getAllocRate());
+        out.writeVarlong(usage.getHeapUsed());
+        out.writeVarlong(usage.getHeapMax());
+        out.writeVarint(usage.getRunnable());
+        out.writeVarint(usage.getCores());
+        out.writeVarlong(usage.getNetRxRate());
+        out.writeVarlong(usage.getNetTxRate());
+        out.writeDouble(usage.getNicLoad());
+    }
+
+    private static ResourceUsage readUsage(Reader in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        ResourceUsage usage = new ResourceUsage();
+        usage.setCpuLoad(in.readDouble());
+        usage.setGcRatio(in.readDouble());
+        usage.setAllocRate(in.readVarlong());
+        usage.setHeapUsed(in.readVarlong());
+        usage.setHeapMax(in.readVarlong());
+        usage.setRunnable(in.readVarint());
+        usage.setCores(in.readVarint());
+        usage.setNetRxRate(in.readVarlong());
+        usage.setNetTxRate(in.readVarlong());
+        usage.setNicLoad(in.readDouble());
+        return usage;
+    }
+
+    private static void writeErrors(Writer out, List<ErrorEntry> errors) {
+        out.writeVarint(errors != null ? errors.size() + 1 : 0);
+        if (errors == null)
+            return;
+        for (ErrorEntry entry : errors) {
+            out.writeString(entry.getOpType());
+            out.writeString(entry.getCode());
+            out.writeString(entry.getType());
+            out.writeString(entry.getMessage());
+            out.writeVarlong(entry.getCount());
+            List<String> targets = entry.getTargets();
+            out.writeVarint(targets.size());
+            for (String target : targets)
+                out.writeString(target);
+        }
+    }
+
+    private static List<ErrorEntry> readErrors(Reader in) throws IOException {
+        int size = in.readVarint() - 1;
+        if (size < 0)
+            return null;
+        List<ErrorEntry> errors = new ArrayList<ErrorEntry>(size);
+        for (int i = 0; i < size; i++) {
+            ErrorEntry entry = new ErrorEntry(in.readString(),
+                    in.readString(), in.readString(), in.readString());
+            entry.setCount(in.readVarlong());
+            int targets = in.readVarint();
+            List<String> list = new ArrayList<String>(targets);
+            for (int j = 0; j < targets; j++)
+                list.add(in.readString());
+            entry.setTargets(list);
+            errors.add(entry);
+        }
+        return errors;
+    }
+
+    private static void writeSlowRequests(Writer out,
+            List<SlowRequest> requests) {
+        out.writeVarint(requests != null ? requests.size() + 1 : 0);
+        if (requests == null)
+            return;
+        for (SlowRequest request : requests) {
+            out.writeVarlong(request.getTimestamp());
+            out.writeString(request.getDriver());
+            out.writeVarint(request.getWorker());
+            out.writeString(request.getEndpoint());
+            out.writeString(request.getOpType());
+            out.writeString(request.getOpName());
+            out.writeString(request.getConName());
+            out.writeString(request.getObjName());
+            out.writeVarlong(request.getBytes());
+            out.writeBoolean(request.isSucc());
+            out.writeVarlong(request.getTime());
+            out.writeVarlong(request.getXferTime());
+        }
+    }
+
+    private static List<SlowRequest> readSlowRequests(Reader in)
+            throws IOException {
+        int size = in.readVarint() - 1;
+        if (size < 0)
+            return null;
+        List<SlowRequest> requests = new ArrayList<SlowRequest>(size);
+        for (int i = 0; i < size; i++) {
+            SlowRequest request = new SlowRequest();
+            request.setTimestamp(in.readVarlong());
+            request.setDriver(in.readString());
+            request.setWorker(in.readVarint());
+            request.setEndpoint(in.readString());
+            request.setOpType(in.readString());
+            request.setOpName(in.readString());
+            request.setConName(in.readString());
+            request.setObjName(in.readString());
+            request.setBytes(in.readVarlong());
+            request.setSucc(in.readBoolean());
+            request.setTime(in.readVarlong());
+            request.setXferTime(in.readVarlong());
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static void writeBreakdown(Writer out, List<Breakdown> breakdown) {
+        out.writeVarint(breakdown != null ? breakdown.size() + 1 : 0);
+        if (breakdown == null)
+            return;
+        for (Breakdown entry : breakdown) {
+            out.writeString(entry.getDriver());
+            out.writeString(entry.getWork());
+            out.writeVarint(entry.getWorker());
+            writeReport(out, entry.getReport());
+            writeUsage(out, entry.getUsage());
+        }
+    }
+
+    private static List<Breakdown> readBreakdown(Reader in) throws IOException {
+        int size = in.readVarint() - 1;
+        if (size < 0)
+            return null;
+        List<Breakdown> breakdown = new ArrayList<Breakdown>(size);
+        for (int i = 0; i < size; i++) {
+            Breakdown entry = new Breakdown();
+            entry.setDriver(in.readString());
+            entry.setWork(in.readString());
+            entry.setWorker(in.readVarint());
+            entry.setReport(readReport(in));
+            entry.setUsage(readUsage(in));
+            breakdown.add(entry);
+        }
+        return breakdown;
+    }
+
+    /* Primitives */
+
+    private static class Writer extends ByteArrayOutputStream {
+
+        private int version;
+
+        Writer(int version) {
+            super(4096);
+            this.version = version;
+        }
+
+        void writeByte(int b) {
+            write(b);
+        }
+
+        void writeBoolean(boolean b) {
+            write(b ? 1 : 0);
+        }
+
+        void writeVarint(int value) {
+            writeVarlong(value);
+        }
+
+        void writeVarlong(long value) {
+            long v = (value << 1) ^ (value >> 63); // zig-zag
+            while ((v & ~0x7FL) != 0) {
+                write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        void writeDouble(double value) {
+            long v = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8)
+                write((int) (v >>> shift));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes;
+            try {
+                bytes = value.getBytes("UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e); // will not happen
+            }
+            writeVarint(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeLongs(long[] values) {
+            writeVarint(values != null ? values.length + 1 : 0);
+            if (values != null)
+                for (long value : values)
+                    writeVarlong(value);
+        }
+
+    }
+
+    private static class Reader {
+
+        private byte[] data;
+        private int pos;
+        private int version;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= data.length)
+                throw new EOFException();
+            return data[pos++] & 0xFF;
+        }
+
+        boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        int readVarint() throws IOException {
+            return (int) readVarlong();
+        }
+
+        long readVarlong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return (v >>> 1) ^ -(v & 1); // zig-zag
+            }
+            throw new IOException("malformed varint");
+        }
+
+        double readDouble() throws IOException {
+            long v = 0;
+            for (int i = 0; i < 8; i++)
+                v = (v << 8) | readByte();
+            return Double.longBitsToDouble(v);
+        }
+
+        String readString() throws IOException {
+            int length = readVarint() - 1;
+            if (length < 0)
+                return null;
+            if (length > data.length - pos)
+                throw new EOFException();
+            String value = new String(data, pos, length, "UTF-8");
+            pos += length;
+            return value;
+        }
+
+        long[] readLongs() throws IOException {
+            int length = readVarint() - 1;
+            if (length < 0)
+                return null;
+            long[] values = new long[length];
+            for (int i = 0; i < length; i++)
+                values[i] = readVarlong();
+            return values;
+        }
+
+    }
+
+}
@@ -20,7 +20,10 @@ package com.intel.cosbench.protocol;
 import java.util.HashMap;
 import java.util.List;
 
+import com.intel.cosbench.bench.Breakdown;
+import com.intel.cosbench.bench.ErrorEntry;
 import com.intel.cosbench.bench.Metrics;
+import com.intel.cosbench.bench.ResourceUsage;
 import com.intel.cosbench.model.TaskState;
 
 /**
@@ -35,6 +38,9 @@ public class CloseResponse extends Response {
     private String driverLog; /* driver log */
     private TaskState state;
     private HashMap<String, Integer> errorStatistics; /* mission error statistics*/
+    private List<ErrorEntry> errors; /* mission errors per kind */
+    private ResourceUsage usage; /* peak driver resources during the mission */
+    private List<Breakdown> workers; /* per-worker metrics, null unless asked for */
 
     public CloseResponse() {
         /* empty */
@@ -71,5 +77,29 @@ public class CloseResponse extends Response {
 	public void setErrorStatistics(HashMap<String, Integer> errorStatistics) {
 		this.errorStatistics = errorStatistics;
 	}
+
+	public List<ErrorEntry> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<ErrorEntry> errors) {
+		this.errors = errors;
+	}
+
+    public ResourceUsage getUsage() {
+        return usage;
+    }
+
+    public void setUsage(ResourceUsage usage) {
+        this.usage = usage;
+    }
+
+    public List<Breakdown> getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(List<Breakdown> workers) {
+        this.workers = workers;
+    }
     
 }
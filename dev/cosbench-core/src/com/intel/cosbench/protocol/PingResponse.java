@@ -28,6 +28,14 @@ public class PingResponse extends Response {
     private String name; /* driver name */
     private String address; /* driver address */
     private String timeStamp; /* driver current time */
+    private int protocolVersion; /* highest binary encoding version, 0 if none */
+
+    /* Capacity */
+
+    private int cores; /* available processors */
+    private long heapMemory; /* maximum heap size in bytes */
+    private long bandwidth; /* physical NIC speed in Mbit/s, 0 if unknown */
+    private double load = -1; /* system load average, negative if unknown */
 
 	public PingResponse() {
         /* empty */
@@ -57,4 +65,44 @@ public class PingResponse extends Response {
 		this.timeStamp = timeStamp;
 	}
 
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public void setProtocolVersion(int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public void setCores(int cores) {
+        this.cores = cores;
+    }
+
+    public long getHeapMemory() {
+        return heapMemory;
+    }
+
+    public void setHeapMemory(long heapMemory) {
+        this.heapMemory = heapMemory;
+    }
+
+    public long getBandwidth() {
+        return bandwidth;
+    }
+
+    public void setBandwidth(long bandwidth) {
+        this.bandwidth = bandwidth;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public void setLoad(double load) {
+        this.load = load;
+    }
+
 }
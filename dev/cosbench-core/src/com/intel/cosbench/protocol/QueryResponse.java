@@ -19,7 +19,10 @@ package com.intel.cosbench.protocol;
 
 import java.util.*;
 
+import com.intel.cosbench.bench.ErrorEntry;
 import com.intel.cosbench.bench.Metrics;
+import com.intel.cosbench.bench.ResourceUsage;
+import com.intel.cosbench.bench.SlowRequest;
 
 
 /**
@@ -37,7 +40,13 @@ public class QueryResponse extends Response {
     private int maxVersion; /* minimum snapshot version */
 
     private boolean running; /* is mission running */
+    private boolean delta; /* report only carries metrics changed since last one */
+    private boolean cumulative; /* metrics count from worker startup */
     private List<Metrics> report; /* metrics report */
+    private List<ErrorEntry> errors; /* errors merged at snapshot time */
+    private ResourceUsage usage; /* driver resources at snapshot time */
+    /* slowest requests since the previous query, null if not tracked */
+    private List<SlowRequest> slowRequests;
 
     public QueryResponse() {
         /* empty */
@@ -83,6 +92,22 @@ public class QueryResponse extends Response {
         this.running = running;
     }
 
+    public boolean isDelta() {
+        return delta;
+    }
+
+    public void setDelta(boolean delta) {
+        this.delta = delta;
+    }
+
+    public boolean isCumulative() {
+        return cumulative;
+    }
+
+    public void setCumulative(boolean cumulative) {
+        this.cumulative = cumulative;
+    }
+
     public List<Metrics> getReport() {
         return report;
     }
@@ -91,4 +116,28 @@ public class QueryResponse extends Response {
         this.report = report != null? report: new ArrayList<Metrics>();
     }
 
+    public List<ErrorEntry> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ErrorEntry> errors) {
+        this.errors = errors;
+    }
+
+    public ResourceUsage getUsage() {
+        return usage;
+    }
+
+    public void setUsage(ResourceUsage usage) {
+        this.usage = usage;
+    }
+
+    public List<SlowRequest> getSlowRequests() {
+        return slowRequests;
+    }
+
+    public void setSlowRequests(List<SlowRequest> slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
 }
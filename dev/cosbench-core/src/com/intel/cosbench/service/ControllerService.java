@@ -20,6 +20,7 @@ package com.intel.cosbench.service;
 import java.io.File;
 import java.io.IOException;
 
+import com.intel.cosbench.bench.Comparison;
 import com.intel.cosbench.config.XmlConfig;
 import com.intel.cosbench.model.*;
 
@@ -54,6 +55,8 @@ public interface ControllerService {
     public File getWorkloadLog(WorkloadInfo info);
 
     public File getWorkloadConfig(WorkloadInfo info);
+
+    public File[] getTraceFiles(WorkloadInfo info);
     
     public WorkloadLoader getWorkloadLoader();
     
@@ -61,4 +64,12 @@ public interface ControllerService {
     
     public void setloadArch(boolean loadArch);
 
+    /**
+     * Compares workload runs with a base run, loading archived runs if needed.
+     * 
+     * @return the comparison, or null if any of the runs is unknown
+     */
+    public Comparison compareWorkloads(String baseId, String[] ids,
+            double threshold) throws IOException;
+
 }
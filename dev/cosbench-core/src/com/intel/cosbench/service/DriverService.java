@@ -35,10 +35,22 @@ public interface DriverService {
 
     public void launch(String id);
 
+    /**
+     * Launches a mission whose workers start at the given local time, or at
+     * once if that time is not positive or has already passed.
+     */
+    public void launch(String id, long startAt);
+
     public void close(String id);
 
     public void abort(String id);
 
+    /**
+     * Asks a running mission to end its runtime now, its workers still
+     * report what they have done so far.
+     */
+    public void finish(String id);
+
     public DriverInfo getDriverInfo();
 
     public MissionInfo getMissionInfo(String id);
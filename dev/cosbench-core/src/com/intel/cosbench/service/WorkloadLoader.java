@@ -9,6 +9,14 @@ public interface WorkloadLoader {
 
 	public List<WorkloadInfo> loadWorkloadRun() throws IOException;
 
+	/**
+	 * Loads one archived run on its own, the result is not shared with runs
+	 * loaded before.
+	 * 
+	 * @return the run, or null if it is not archived
+	 */
+	public WorkloadInfo loadWorkloadRun(String id) throws IOException;
+
 	public void loadWorkloadPageInfo(WorkloadInfo workloadContext) throws IOException;
 	
 	public void loadStagePageInfo(WorkloadInfo workloadContext, String stageId) throws IOException;
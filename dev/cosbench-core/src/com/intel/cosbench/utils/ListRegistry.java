@@ -28,6 +28,10 @@ public class ListRegistry<T> implements Iterable<T> {
         this.registry = registry;
     }
 
+    protected ListRegistry(List<T> registry) {
+        this.registry = registry;
+    }
+
     public int getSize() {
         return registry.size();
     }
@@ -0,0 +1,82 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.utils;
+
+import java.io.File;
+import java.util.Scanner;
+
+/**
+ * This class reads the link speed of network interfaces from sysfs, so it only
+ * knows them on linux. Only physical NICs are counted, that is, interfaces
+ * backed by a device: bonds, bridges, veth pairs and other virtual links would
+ * count the same wire twice or report a speed the host does not have.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class NicSpeed {
+
+    private static final String SYS_NET = "/sys/class/net";
+
+    private NicSpeed() {
+        /* empty */
+    }
+
+    /**
+     * @return the summed speed of physical NICs in Mbit/s, 0 if unknown
+     */
+    public static long getTotalSpeed() {
+        File[] nics = new File(SYS_NET).listFiles();
+        if (nics == null)
+            return 0L;
+        long speed = 0L;
+        for (File nic : nics)
+            speed += getSpeed(nic.getName());
+        return speed;
+    }
+
+    /**
+     * @return the speed of one physical NIC in Mbit/s, 0 if it is virtual,
+     *         down or unknown
+     */
+    public static long getSpeed(String name) {
+        if (!isPhysical(name))
+            return 0L; // loopback or virtual
+        File nic = new File(SYS_NET, name);
+        try {
+            Scanner scanner = new Scanner(new File(nic, "speed"));
+            try {
+                return scanner.hasNextLong() ? Math.max(scanner.nextLong(), 0L)
+                        : 0L;
+            } finally {
+                scanner.close();
+            }
+        } catch (Exception e) {
+            return 0L; // the link is down
+        }
+    }
+
+    /**
+     * @return true if the interface is backed by a device
+     */
+    public static boolean isPhysical(String name) {
+        return new File(new File(SYS_NET, name), "device").exists();
+    }
+
+}
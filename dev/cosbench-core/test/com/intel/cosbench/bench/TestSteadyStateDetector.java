@@ -0,0 +1,114 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.bench;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+/**
+ * Checks the warm-up truncation and the batch means of the steady-state
+ * detector on synthetic throughput series.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class TestSteadyStateDetector {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public final void testWarmupTruncated() {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (int i = 0; i < 20; i++)
+            snapshots.add(newSnapshot(i, 5D * i)); // ramping up
+        for (int i = 20; i < 100; i++)
+            snapshots.add(newSnapshot(i, i % 2 == 0 ? 101D : 99D));
+        SteadyState steady = SteadyStateDetector.analyze(snapshots,
+                SteadyStateDetector.DEFAULT_TARGET);
+        assertEquals(100, steady.getSnapshotCount());
+        assertEquals(20, steady.getWarmupCount());
+        assertEquals(snapshots.get(20).getTimestamp(), steady.getSteadyFrom());
+        assertEquals(20, steady.getBatchCount());
+        assertEquals(4, steady.getBatchSize());
+        assertEquals(100D, steady.getThroughput(), DELTA);
+        assertEquals(0D, steady.getThroughputCI(), DELTA);
+        assertTrue(steady.isStable());
+    }
+
+    @Test
+    public final void testNothingTruncatedWhenFlat() {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (int i = 0; i < 40; i++)
+            snapshots.add(newSnapshot(i, 100D));
+        SteadyState steady = SteadyStateDetector.analyze(snapshots,
+                SteadyStateDetector.DEFAULT_TARGET);
+        assertEquals(0, steady.getWarmupCount());
+        assertEquals(snapshots.get(0).getTimestamp(), steady.getSteadyFrom());
+        assertTrue(steady.isStable());
+    }
+
+    @Test
+    public final void testDriftNeverSteady() {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (int i = 0; i < 100; i++)
+            snapshots.add(newSnapshot(i, 10D + i));
+        SteadyState steady = SteadyStateDetector.analyze(snapshots,
+                SteadyStateDetector.DEFAULT_TARGET);
+        assertEquals(50, steady.getWarmupCount()); // the first half at most
+        assertFalse(steady.isStable());
+        assertEquals("no steady state reached", steady.getNote());
+    }
+
+    @Test
+    public final void testTooFewIntervals() {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (int i = 0; i < 4; i++)
+            snapshots.add(newSnapshot(i, 100D));
+        SteadyState steady = SteadyStateDetector.analyze(snapshots,
+                SteadyStateDetector.DEFAULT_TARGET);
+        assertEquals(0, steady.getBatchCount());
+        assertFalse(steady.isStable());
+        assertEquals("too few steady intervals", steady.getNote());
+    }
+
+    @Test
+    public final void testBatchMeans() {
+        double[] values = { 1D, 2D, 3D, 4D, 5D, 6D, 7D, 8D, 9D, 10D };
+        assertArrayEquals(new double[] { 3D, 6D, 9D },
+                SteadyStateDetector.batchMeans(values, null, 3), DELTA);
+        double[] weights = { 1D, 1D, 0D, 3D, 0D, 0D, 0D, 0D, 1D, 1D };
+        assertArrayEquals(new double[] { 3.5D, 0D, 9.5D },
+                SteadyStateDetector.batchMeans(values, weights, 3), DELTA);
+        assertEquals(0, SteadyStateDetector.batchMeans(values, null, 0).length);
+    }
+
+    private static Snapshot newSnapshot(int index, double throughput) {
+        Metrics metrics = new Metrics();
+        metrics.setName("op1");
+        metrics.setThroughput(throughput);
+        metrics.setSampleCount((int) throughput);
+        metrics.setAvgResTime(10D);
+        Report report = new Report();
+        report.addMetrics(metrics);
+        return new Snapshot(report, new Date(index * 5000L));
+    }
+
+}
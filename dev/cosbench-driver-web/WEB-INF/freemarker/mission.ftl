@@ -96,10 +96,14 @@
     </#if>
   <#elseif isRunning >
     <h3>Snapshot</h3>
-    <#assign snapshot = info.snapshot >
-    <#assign allMetrics = snapshot.report.allMetrics >
-    <#include "metrics.ftl">
-    <p class="warn">The snapshot was taken at ${snapshot.timestamp?time} with version ${snapshot.version}.</p>
+    <#if info.lastInterval?? >
+      <#assign snapshot = info.lastInterval >
+      <#assign allMetrics = snapshot.report.allMetrics >
+      <#include "metrics.ftl">
+      <p class="warn">The snapshot covers the last interval up to ${snapshot.timestamp?time} with version ${snapshot.version}.</p>
+    <#else>
+      <p class="warn">No snapshot has been taken yet.</p>
+    </#if>
   </#if>
   <h3>Work Info</h3>
   <p>
@@ -224,21 +228,25 @@
     <h3>Error Statistics</h3>
     <table class="info-table">
         <tr>
-          <th>Error Message</th>
+          <th>Operation</th>
           <th>Error Code</th>
+          <th>Exception</th>
+          <th>Error Message</th>
           <th>Occurence Number</th>
-          <th>StatckTrace</th>  
+          <th>Sample Targets</th>
         </tr>
-        <#list info.errorStatistics.stackTraceAndMessage?keys as trace>
-          <#if trace_has_next >
+        <#list info.errorStatistics.entries as entry>
+          <#if entry_has_next >
             <tr>
           <#else>
             <tr class="high-light">
           </#if>
-            <td class="id" style="width:13%">${info.errorStatistics.stackTraceAndMessage[trace]}</td>
-            <td>${info.errorStatistics.stackTraceAndErrorCode[trace]}</td>
-            <td>${info.errorStatistics.stackTraceAndNum[trace]}</td>
-            <td>${info.errorStatistics.stackTraceAndEntireTrace[trace]?substring(0,50)+"......"}</td>
+            <td>${entry.opType}</td>
+            <td>${entry.code}</td>
+            <td>${entry.type}</td>
+            <td class="id" style="width:13%">${entry.message!""}</td>
+            <td>${entry.count}</td>
+            <td><#list entry.targets as target>${target}<#if target_has_next>, </#if></#list></td>
        </tr>
         </#list>
       </table>
@@ -19,6 +19,7 @@ package com.intel.cosbench.driver.handler;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Scanner;
 
 import com.intel.cosbench.bench.Report;
 import com.intel.cosbench.model.MissionInfo;
@@ -26,20 +27,32 @@ import com.intel.cosbench.protocol.*;
 
 public class AbortHandler extends MissionHandler {
 
+    @Override
+    protected Response process(MissionInfo info, Scanner scanner) {
+        /* controllers fetching the log through the log command ask for none */
+        boolean withLog = !(scanner.hasNext() && "nolog".equals(scanner.next()));
+        return abort(info, withLog);
+    }
+
     @Override
     protected Response process(MissionInfo info) {
+        return abort(info, true);
+    }
+
+    private Response abort(MissionInfo info, boolean withLog) {
         String id = info.getId();
         driver.abort(id);
-        return getResponse(info);
+        return getResponse(info, withLog);
     }
 
-    private Response getResponse(MissionInfo info) {
+    private Response getResponse(MissionInfo info, boolean withLog) {
         AbortResponse response = new AbortResponse();
         Report report = info.getReport();
         response.setReport(Arrays.asList(report.getAllMetrics()));
         String log = null;
         try {
-            log = info.getLogManager().getLogAsString();
+            if (withLog)
+                log = info.getLogManager().getLogAsString();
         } catch (IOException e) {
             log = "[N/A]";
         }
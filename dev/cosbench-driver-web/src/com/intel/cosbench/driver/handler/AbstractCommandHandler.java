@@ -28,7 +28,7 @@ import org.springframework.web.servlet.mvc.Controller;
 
 import com.intel.cosbench.config.ConfigException;
 import com.intel.cosbench.log.*;
-import com.intel.cosbench.protocol.Response;
+import com.intel.cosbench.protocol.*;
 import com.intel.cosbench.service.IllegalStateException;
 import com.intel.cosbench.web.*;
 
@@ -59,6 +59,14 @@ abstract class AbstractCommandHandler implements Controller {
                 HttpServletResponse res) throws Exception {
             Response response = (Response) model.get("response");
             res.setStatus(response.getCode());
+            int version = BinaryCodec.getAcceptedVersion(req.getHeader("Accept"));
+            if (version > 0 && BinaryCodec.supports(response.getClass())) {
+                byte[] data = BinaryCodec.encode(response, version);
+                res.setContentType(BinaryCodec.getAcceptType(version));
+                res.setContentLength(data.length);
+                res.getOutputStream().write(data);
+                return;
+            }
             res.setContentType("application/json");
             mapper.writeValue(res.getWriter(), response);
         }
@@ -23,7 +23,9 @@ import static com.intel.cosbench.model.MissionState.FAILED;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Scanner;
 
+import com.intel.cosbench.bench.ErrorStatistics;
 import com.intel.cosbench.bench.Report;
 import com.intel.cosbench.model.MissionInfo;
 import com.intel.cosbench.model.TaskState;
@@ -31,16 +33,27 @@ import com.intel.cosbench.protocol.*;
 
 public class CloseHandler extends MissionHandler {
 
+    @Override
+    protected Response process(MissionInfo info, Scanner scanner) {
+        /* controllers fetching the log through the log command ask for none */
+        boolean withLog = !(scanner.hasNext() && "nolog".equals(scanner.next()));
+        return close(info, withLog);
+    }
+
     @Override
     protected Response process(MissionInfo info) {
+        return close(info, true);
+    }
+
+    private Response close(MissionInfo info, boolean withLog) {
         String id = info.getId();
         driver.close(id);
         if (info.getState().equals(TERMINATED))
             return new Response(false, "close failed");
-        return getResponse(info);
+        return getResponse(info, withLog);
     }
 
-    private Response getResponse(MissionInfo info) {
+    private Response getResponse(MissionInfo info, boolean withLog) {
         CloseResponse response = new CloseResponse();
         Report report = info.getReport();
         response.setReport(Arrays.asList(report.getAllMetrics()));
@@ -50,12 +63,17 @@ public class CloseHandler extends MissionHandler {
 			response.setState(TaskState.ACCOMPLISHED);
         String log = null;
         try {
-            log = info.getLogManager().getLogAsString();
+            if (withLog)
+                log = info.getLogManager().getLogAsString();
         } catch (IOException e) {
             log = "[N/A]";
         }
-        response.setErrorStatistics(info.getErrorStatistics().getErrorCodeAndNum());
+        ErrorStatistics errorStatistics = info.getErrorStatistics();
+        response.setErrorStatistics(errorStatistics.getErrorCodeAndNum());
+        response.setErrors(errorStatistics.getEntries());
         response.setDriverLog(log);
+        response.setUsage(info.getResourceUsage());
+        response.setWorkers(info.getWorkerBreakdown());
         
         return response;
     }
@@ -19,15 +19,28 @@ package com.intel.cosbench.driver.handler;
 
 import static com.intel.cosbench.model.MissionState.TERMINATED;
 
+import java.util.Scanner;
+
 import com.intel.cosbench.model.MissionInfo;
 import com.intel.cosbench.protocol.*;
 
 public class LaunchHandler extends MissionHandler {
 
+    @Override
+    protected Response process(MissionInfo info, Scanner scanner) {
+        /* start time in local clock, absent from older controllers */
+        long startAt = scanner.hasNextLong() ? scanner.nextLong() : 0L;
+        return launch(info, startAt);
+    }
+
     @Override
     protected Response process(MissionInfo info) {
+        return launch(info, 0L);
+    }
+
+    private Response launch(MissionInfo info, long startAt) {
         String id = info.getId();
-        driver.launch(id);
+        driver.launch(id, startAt);
         if (info.getState().equals(TERMINATED))
             return new Response(false, "launch failed");
         return getResponse(info);
@@ -0,0 +1,102 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.driver.handler;
+
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.*;
+
+import org.springframework.web.servlet.ModelAndView;
+
+import com.intel.cosbench.log.LogLevel;
+import com.intel.cosbench.model.MissionInfo;
+import com.intel.cosbench.protocol.Response;
+import com.intel.cosbench.service.DriverService;
+import com.intel.cosbench.web.*;
+
+/**
+ * This class sends the log of one mission gzip compressed, copied from the
+ * log file as the response is written. The mission id may be followed by
+ * <code>tail=&lt;bytes&gt;</code> to get only the end of the log, and
+ * <code>level=&lt;level&gt;</code> to leave out less severe entries.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class LogHandler extends AbstractCommandHandler {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DriverService driver;
+
+    public LogHandler() {
+        /* empty */
+    }
+
+    public void setDriver(DriverService driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public ModelAndView handleRequest(HttpServletRequest req,
+            HttpServletResponse res) {
+        ModelAndView view = super.handleRequest(req, res);
+        return res.isCommitted() ? null : view; // already sent
+    }
+
+    @Override
+    protected Response process(HttpServletRequest req, HttpServletResponse res)
+            throws Exception {
+        Scanner scanner = new Scanner(req.getInputStream());
+        if (!scanner.hasNext())
+            throw new BadRequestException();
+        MissionInfo info = driver.getMissionInfo(scanner.next());
+        if (info == null)
+            throw new NotFoundException();
+        long tail = 0;
+        LogLevel level = null;
+        while (scanner.hasNext()) {
+            String arg = scanner.next();
+            try {
+                if (arg.startsWith("tail="))
+                    tail = Long.parseLong(arg.substring(5));
+                else if (arg.startsWith("level="))
+                    level = LogLevel.parseLevel(arg.substring(6));
+                else
+                    throw new BadRequestException();
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException();
+            }
+        }
+        res.setContentType("application/x-gzip");
+        sendLog(info, tail, level, res);
+        return null;
+    }
+
+    private static void sendLog(MissionInfo info, long tail, LogLevel level,
+            HttpServletResponse res) throws IOException {
+        GZIPOutputStream out = new GZIPOutputStream(res.getOutputStream(),
+                BUFFER_SIZE);
+        info.getLogManager().copyLog(out, tail, level);
+        out.finish();
+        out.flush();
+    }
+
+}
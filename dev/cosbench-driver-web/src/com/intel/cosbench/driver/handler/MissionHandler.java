@@ -39,12 +39,19 @@ abstract class MissionHandler extends AbstractCommandHandler {
 
     protected abstract Response process(MissionInfo info);
 
+    /**
+     * Processes a request carrying more arguments after the mission id.
+     */
+    protected Response process(MissionInfo info, Scanner scanner) {
+        return process(info);
+    }
+
     @Override
     protected Response process(HttpServletRequest req, HttpServletResponse res)
             throws Exception {
         Scanner scanner = new Scanner(req.getInputStream());
         MissionInfo info = getMissionInfo(scanner);
-        return process(info);
+        return process(info, scanner);
     }
 
     private MissionInfo getMissionInfo(Scanner scanner) {
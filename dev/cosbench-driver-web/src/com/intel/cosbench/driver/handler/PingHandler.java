@@ -17,7 +17,8 @@ limitations under the License.
 
 package com.intel.cosbench.driver.handler;
 
-import java.io.IOException;
+import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.sql.Date;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -28,6 +29,7 @@ import javax.servlet.http.*;
 import com.intel.cosbench.model.DriverInfo;
 import com.intel.cosbench.protocol.*;
 import com.intel.cosbench.service.DriverService;
+import com.intel.cosbench.utils.NicSpeed;
 import com.intel.cosbench.web.BadRequestException;
 
 public class PingHandler extends AbstractCommandHandler {
@@ -49,9 +51,16 @@ public class PingHandler extends AbstractCommandHandler {
         response.setName(info.getName());
         response.setAddress(info.getUrl());
         response.setTimeStamp(String.valueOf(System.currentTimeMillis()));
+        response.setProtocolVersion(BinaryCodec.VERSION);
+        Runtime runtime = Runtime.getRuntime();
+        response.setCores(runtime.availableProcessors());
+        response.setHeapMemory(runtime.maxMemory());
+        response.setBandwidth(NicSpeed.getTotalSpeed());
+        response.setLoad(ManagementFactory.getOperatingSystemMXBean()
+                .getSystemLoadAverage());
         return response;
     }
-    
+
     private long getControllerTime(Scanner scanner) throws NumberFormatException {
     	if (!scanner.hasNext())
             throw new BadRequestException();
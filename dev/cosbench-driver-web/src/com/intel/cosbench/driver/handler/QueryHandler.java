@@ -20,6 +20,7 @@ package com.intel.cosbench.driver.handler;
 import static com.intel.cosbench.model.MissionState.*;
 
 import java.util.Arrays;
+import java.util.Scanner;
 
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.model.MissionInfo;
@@ -27,23 +28,42 @@ import com.intel.cosbench.protocol.*;
 
 public class QueryHandler extends MissionHandler {
 
+    @Override
+    protected Response process(MissionInfo info, Scanner scanner) {
+        /* controllers deriving windows themselves ask for cumulative ones */
+        boolean cumulative = scanner.hasNext()
+                && "cumulative".equals(scanner.next());
+        return getResponse(info, cumulative);
+    }
+
     @Override
     protected Response process(MissionInfo info) {
 //        if (isStopped(info.getState()))
 //            return new Response(false, "mission aleady stopped");
-        return getResponse(info);
+        return getResponse(info, false);
+    }
+
+    static QueryResponse getResponse(MissionInfo info, boolean cumulative) {
+        Snapshot snapshot = cumulative ? info.getSnapshot() : info
+                .getWindowSnapshot();
+        return getResponse(info, snapshot, cumulative);
     }
 
-    private Response getResponse(MissionInfo info) {
+    static QueryResponse getResponse(MissionInfo info, Snapshot snapshot,
+            boolean cumulative) {
         QueryResponse response = new QueryResponse();
-        Snapshot snapshot = info.getSnapshot();
         response.setTime(snapshot.getTimestamp());
         response.setVersion(snapshot.getVersion());
         response.setMinVersion(snapshot.getMinVersion());
         response.setMaxVersion(snapshot.getMaxVersion());
         Report report = snapshot.getReport();
         response.setRunning(info.getState().equals(LAUNCHED));
+        response.setCumulative(cumulative);
+        response.setUsage(snapshot.getUsage());
+        if (cumulative) // only the controller polls, each interval
+            response.setSlowRequests(info.pollSlowRequests());
         response.setReport(Arrays.asList(report.getAllMetrics()));
+        response.setErrors(info.getErrorStatistics().getEntries());
         return response;
     }
 
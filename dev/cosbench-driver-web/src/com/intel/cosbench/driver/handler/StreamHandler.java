@@ -0,0 +1,175 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.driver.handler;
+
+import static com.intel.cosbench.model.MissionState.*;
+
+import java.io.*;
+import java.util.*;
+
+import javax.servlet.http.*;
+
+import org.codehaus.jackson.map.*;
+import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.intel.cosbench.bench.*;
+import com.intel.cosbench.model.MissionInfo;
+import com.intel.cosbench.protocol.*;
+import com.intel.cosbench.service.DriverService;
+import com.intel.cosbench.web.*;
+
+/**
+ * This class pushes mission snapshots to the controller over one long-lived
+ * response, one JSON encoded {@link QueryResponse} per line, every snapshot
+ * interval until the mission stops running. After the first line, metrics
+ * which have not changed since the previous line are left out. Controllers
+ * asking for "cumulative" snapshots get counters from worker startup and cut
+ * the windows themselves, others get the window since the previous line.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class StreamHandler extends AbstractCommandHandler {
+
+    private DriverService driver;
+    private ObjectMapper mapper;
+
+    public StreamHandler() {
+        mapper = new ObjectMapper();
+        SerializationConfig config = mapper.copySerializationConfig();
+        config.setSerializationInclusion(Inclusion.NON_NULL);
+        mapper.setSerializationConfig(config);
+    }
+
+    public void setDriver(DriverService driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public ModelAndView handleRequest(HttpServletRequest req,
+            HttpServletResponse res) {
+        ModelAndView view = super.handleRequest(req, res);
+        return res.isCommitted() ? null : view; // already streamed
+    }
+
+    @Override
+    protected Response process(HttpServletRequest req, HttpServletResponse res)
+            throws Exception {
+        Scanner scanner = new Scanner(req.getInputStream());
+        if (!scanner.hasNext())
+            throw new BadRequestException();
+        MissionInfo info = driver.getMissionInfo(scanner.next());
+        if (info == null)
+            throw new NotFoundException();
+        boolean cumulative = scanner.hasNext()
+                && "cumulative".equals(scanner.next());
+        if (!isRunning(info.getState())) // nothing to stream
+            return QueryHandler.getResponse(info, cumulative);
+        res.setContentType("application/json");
+        streamSnapshots(info, cumulative, res.getWriter());
+        return null;
+    }
+
+    private void streamSnapshots(MissionInfo info, boolean cumulative,
+            PrintWriter writer) throws IOException {
+        long interval = info.getMission().getInterval() * 1000L;
+        SnapshotWindow window = new SnapshotWindow(); // windows of this stream
+        Map<String, Metrics> sent = new HashMap<String, Metrics>();
+        long errors = -1;
+        boolean running;
+        do {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException ie) {
+                return; // driver shutting down
+            }
+            Snapshot snapshot = info.getSnapshot();
+            if (!cumulative)
+                snapshot = window.next(snapshot);
+            QueryResponse response = QueryHandler.getResponse(info, snapshot,
+                    cumulative);
+            running = response.isRunning();
+            compactReport(response, sent, cumulative);
+            long count = countErrors(response.getErrors());
+            if (count == errors)
+                response.setErrors(null); // unchanged
+            errors = count;
+            writer.write(mapper.writeValueAsString(response));
+            writer.write('\n');
+            writer.flush();
+            if (writer.checkError()) {
+                LOGGER.debug("controller closed snapshot stream of mission {}",
+                        info.getId());
+                return;
+            }
+        } while (running);
+    }
+
+    private static void compactReport(QueryResponse response,
+            Map<String, Metrics> sent, boolean cumulative) {
+        List<Metrics> report = response.getReport();
+        boolean delta = report.size() == sent.size();
+        for (Metrics metrics : report)
+            delta &= sent.containsKey(metrics.getName());
+        if (!delta)
+            sent.clear();
+        List<Metrics> changed = new ArrayList<Metrics>();
+        for (Metrics metrics : report) {
+            Metrics last = sent.get(metrics.getName());
+            if (!delta || !(cumulative ? isSameCount(metrics, last) : isSame(
+                    metrics, last)))
+                changed.add(metrics);
+            sent.put(metrics.getName(), metrics);
+        }
+        response.setDelta(delta);
+        response.setReport(changed);
+    }
+
+    /*
+     * cumulative metrics with unchanged counters differ only in their rates,
+     * which the controller derives from counter deltas anyway
+     */
+    private static boolean isSameCount(Metrics m1, Metrics m2) {
+        return m1.getSampleCount() == m2.getSampleCount()
+                && m1.getTotalSampleCount() == m2.getTotalSampleCount()
+                && m1.getByteCount() == m2.getByteCount()
+                && m1.getWorkerCount() == m2.getWorkerCount();
+    }
+
+    private static boolean isSame(Metrics m1, Metrics m2) {
+        return m1.getSampleCount() == m2.getSampleCount()
+                && m1.getTotalSampleCount() == m2.getTotalSampleCount()
+                && m1.getByteCount() == m2.getByteCount()
+                && m1.getWorkerCount() == m2.getWorkerCount()
+                && m1.getAvgResTime() == m2.getAvgResTime()
+                && m1.getAvgXferTime() == m2.getAvgXferTime()
+                && m1.getThroughput() == m2.getThroughput()
+                && m1.getBandwidth() == m2.getBandwidth()
+                && m1.getRatio() == m2.getRatio();
+    }
+
+    private static long countErrors(List<ErrorEntry> errors) {
+        long count = 0;
+        if (errors != null)
+            for (ErrorEntry entry : errors)
+                count += entry.getCount();
+        return count;
+    }
+
+}
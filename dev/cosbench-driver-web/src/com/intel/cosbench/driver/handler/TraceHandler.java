@@ -0,0 +1,88 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.driver.handler;
+
+import java.io.*;
+import java.util.Scanner;
+
+import javax.servlet.http.*;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.intel.cosbench.model.MissionInfo;
+import com.intel.cosbench.protocol.Response;
+import com.intel.cosbench.service.DriverService;
+import com.intel.cosbench.web.*;
+
+/**
+ * This class sends the per-operation trace of one mission, gzip compressed
+ * as it is kept on disk. Missions not traced, or not yet stopped, have none.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class TraceHandler extends AbstractCommandHandler {
+
+    private DriverService driver;
+
+    public TraceHandler() {
+        /* empty */
+    }
+
+    public void setDriver(DriverService driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public ModelAndView handleRequest(HttpServletRequest req,
+            HttpServletResponse res) {
+        ModelAndView view = super.handleRequest(req, res);
+        return res.isCommitted() ? null : view; // already sent
+    }
+
+    @Override
+    protected Response process(HttpServletRequest req, HttpServletResponse res)
+            throws Exception {
+        Scanner scanner = new Scanner(req.getInputStream());
+        if (!scanner.hasNext())
+            throw new BadRequestException();
+        MissionInfo info = driver.getMissionInfo(scanner.next());
+        if (info == null)
+            throw new NotFoundException();
+        File file = info.getTraceFile();
+        if (file == null || !file.exists())
+            throw new NotFoundException();
+        res.setContentType("application/x-gzip");
+        sendTrace(file, res);
+        return null;
+    }
+
+    private static void sendTrace(File file, HttpServletResponse res)
+            throws IOException {
+        InputStream in = new FileInputStream(file);
+        OutputStream out = res.getOutputStream();
+        try {
+            IOUtils.copy(in, out);
+        } finally {
+            in.close();
+        }
+        out.flush();
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.intel.cosbench.driver.web;
 
-import java.io.IOException;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -24,23 +23,17 @@ public class DownloadLogController extends MissionPageController{
         @Override
         public void render(Map<String, ?> model, HttpServletRequest req,
                 HttpServletResponse res) throws Exception {
-            String log = (String) model.get("log");
-            res.setHeader("Content-Length", String.valueOf(log.length()));
+            MissionInfo info = (MissionInfo) model.get("info");
+            res.setContentType(getContentType());
             res.setHeader("Content-Disposition",
                     "attachment; filename=\"mission-log.txt\"");
-           res.getOutputStream().write(log.getBytes());
+            info.getLogManager().copyLog(res.getOutputStream(), 0, null);
         }
 
     }
 
     protected ModelAndView process(MissionInfo info) {
-        String log = "";
-		try {
-			log = info.getLogManager().getLogAsString();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-        return new ModelAndView(LOG, "log", log);
+        return new ModelAndView(LOG, "info", info);
     }
 
 }
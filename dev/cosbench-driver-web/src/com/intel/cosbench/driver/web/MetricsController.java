@@ -0,0 +1,97 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.driver.web;
+
+import java.util.Map;
+
+import javax.servlet.http.*;
+
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+
+import com.intel.cosbench.config.Mission;
+import com.intel.cosbench.exporter.PrometheusExporter;
+import com.intel.cosbench.model.*;
+import com.intel.cosbench.service.DriverService;
+import com.intel.cosbench.web.AbstractController;
+
+/**
+ * The scrape endpoint for Prometheus, it publishes the counters of active
+ * missions since their workers started, together with JVM statistics.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class MetricsController extends AbstractController {
+
+    private static final View METRICS = new MetricsView();
+
+    private static class MetricsView implements View {
+
+        @Override
+        public String getContentType() {
+            return PrometheusExporter.CONTENT_TYPE;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest req,
+                HttpServletResponse res) throws Exception {
+            PrometheusExporter exporter = (PrometheusExporter) model
+                    .get("exporter");
+            res.setContentType(getContentType());
+            exporter.write(res.getWriter());
+        }
+
+    }
+
+    private DriverService driver;
+
+    public void setDriver(DriverService driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    protected ModelAndView process(HttpServletRequest req,
+            HttpServletResponse res) throws Exception {
+        String name = driver.getDriverInfo().getName();
+        PrometheusExporter exporter = new PrometheusExporter();
+        for (MissionInfo info : driver.getActiveMissions())
+            addMission(exporter, name, info);
+        exporter.addJvm();
+        return new ModelAndView(METRICS, "exporter", exporter);
+    }
+
+    private static void addMission(PrometheusExporter exporter, String name,
+            MissionInfo info) {
+        Mission mission = info.getMission();
+        String labels = PrometheusExporter.labels(null, "workload",
+                mission.getWorkload(), "stage", mission.getStage(), "work",
+                mission.getName(), "driver", name, "mission", info.getId());
+        exporter.addSnapshot(labels, info.getSnapshot());
+        exporter.addErrors(labels, info.getErrorStatistics().getEntries());
+        /* workers keep at most one request outstanding */
+        int inflight = 0;
+        for (WorkerInfo worker : info.getWorkerInfos())
+            if (worker.getStartTime() > 0 && !worker.isFinished())
+                inflight++;
+        exporter.addGauge("inflight_requests",
+                "Workers busy with a request.", labels, inflight);
+    }
+
+}
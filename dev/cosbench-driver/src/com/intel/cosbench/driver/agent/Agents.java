@@ -33,6 +33,8 @@ public class Agents {
         agent.setWorkerContext(wc);
         agent.setOperationPicker(mc.getOperationPicker());
         agent.setOperatorRegistry(mc.getOperatorRegistry());
+        if (mc.getTraceRecorder() != null)
+            agent.setTraceRing(mc.getTraceRecorder().newRing(wc.getIndex()));
         return agent;
     }
 
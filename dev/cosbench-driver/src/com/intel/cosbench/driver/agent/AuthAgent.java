@@ -103,23 +103,9 @@ class AuthAgent extends AbstractAgent {
         if(caching) { // auth caching is enabled
     		// check if auth context is already cached.
             logger.debug("auth caching is enabled, will query cache pool with id={}", id);
-            synchronized(AuthCachePool.getInstance()) {
-        		if(AuthCachePool.getInstance().containsKey(id)) {// already cached
-        			auth_context = AuthCachePool.getInstance().get(id);
-        			logger.debug("auth context for id={} is found as {}", id, auth_context);
-        		}
-	    		else { // not found
-	    			logger.debug("auth context for id={} is not found, will try to login", id);
-					auth_context = authApi.login();
-					if(auth_context != null) // the authentication mechanism is embedded into storage adapter
-					{
-						logger.debug("login is successful, auth context for id={} will be cacahed as {}", id, auth_context);
-						AuthCachePool.getInstance().put(id,  auth_context);
-					}else { // the authentication mechanism is embedded into storage adapter
-						logger.info("no auth context required.");								
-					}
-				}
-            }
+            long ttl = import_context.getLong(AuthConstants.TTL_KEY, AuthConstants.TTL_DEFAULT);
+            auth_context = AuthCachePool.getInstance().login(id, authApi, ttl);
+            logger.debug("auth context for id={} is {}", id, auth_context);
     	}
         else 
 			auth_context = authApi.login();
@@ -139,4 +125,4 @@ class AuthAgent extends AbstractAgent {
         logger.debug("has waited for {} ms, will make a new attempt", time);
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -26,6 +26,7 @@ import java.util.*;
 import javax.naming.AuthenticationException;
 
 import com.intel.cosbench.api.auth.AuthBadException;
+import com.intel.cosbench.api.auth.AuthConstants;
 import com.intel.cosbench.api.auth.AuthException;
 import com.intel.cosbench.api.context.AuthContext;
 import com.intel.cosbench.api.storage.StorageAPI;
@@ -35,6 +36,7 @@ import com.intel.cosbench.driver.model.*;
 import com.intel.cosbench.driver.operator.*;
 import com.intel.cosbench.driver.util.AuthCachePool;
 import com.intel.cosbench.driver.util.OperationPicker;
+import com.intel.cosbench.driver.util.TraceRecorder;
 import com.intel.cosbench.log.Logger;
 import com.intel.cosbench.service.AbortedException;
 
@@ -47,14 +49,10 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
 
     private long lop; /* last operation performed */
     private long lbegin; /* last sample emitted */
-    private long lsample; /* last sample collected */
     private long lrsample; /* last sample collected during runtime */
     private long frsample; /* first sample emitted during runtime */
 
     private long curr; /* current time */
-    private long lcheck; /* last check point time */
-    private long check; /* next check point time */
-    private long interval; /* interval between check points */
 
     private int totalOps; /* total operations to be performed */
 //    private int op_count;
@@ -63,11 +61,15 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
 
     private OperationPicker operationPicker;
     private OperatorRegistry operatorRegistry;
+    private TraceRecorder.Ring traceRing; /* null unless traced */
+    private SlowRequestTracker slowRequests; /* null unless tracked */
+    private String endpoint; /* storage endpoint, only to label requests */
 
 //    private boolean isFinished = false;
     private WatchDog dog = new WatchDog();
 
-    private Status currMarks = new Status(); /* for snapshots */
+    /* for snapshots, read by queries while the worker runs */
+    private Map<String, CumulativeMark> currMarks = new HashMap<String, CumulativeMark>();
     private Status globalMarks = new Status(); /* for the final report */
 
     public WorkAgent() {
@@ -78,6 +80,7 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     public void setWorkerContext(WorkerContext workerContext) {
         super.setWorkerContext(workerContext);
         this.has_histo = workerContext.getMission().hasHisto();
+        this.slowRequests = workerContext.getSlowRequests();
         
         dog.setWorkerContext(workerContext);
     }
@@ -90,6 +93,10 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
         this.operatorRegistry = operatorRegistry;
     }
 
+    public void setTraceRing(TraceRecorder.Ring traceRing) {
+        this.traceRing = traceRing;
+    }
+
     @Override
     public int getIndex() {
         return workerContext.getIndex();
@@ -129,6 +136,7 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
         initTimes();
         initLimites();
         initMarks();
+        initEndpoint();
         dog.watch(timeout);
         try {
             doWork(); // launch work
@@ -139,13 +147,10 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     }
 
     private void initTimes() {
-        Mission mission = workerContext.getMission();
-        interval = mission.getInterval();
-        lcheck = curr = start = System.currentTimeMillis();
-        check = lcheck + interval * 1000;
+        curr = start = System.currentTimeMillis();
         begin = start;
         timeout = 0L;
-        lop = lrsample = lsample = start;
+        lop = lrsample = start;
         frsample = lbegin = end = Long.MAX_VALUE;
     }
 
@@ -165,13 +170,24 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
         for (OperatorContext op : operatorRegistry)
             types.add(getMarkType(op.getId(), op.getOpType(), op.getSampleType(), op.getName()));
         for (String type : types)
-            currMarks.addMark(newMark(type));
+            currMarks.put(type, new CumulativeMark(type));
         for (String type : types)
             globalMarks.addMark(newMark(type));
+        for (OperatorContext op : operatorRegistry)
+            globalMarks.getMark(getMarkType(op.getId(), op.getOpType(),
+                    op.getSampleType(), op.getName())).setSizeClasses(
+                    op.getSizeClasses());
+        workerContext.start(currMarks.values().toArray(
+                new CumulativeMark[currMarks.size()]), start);
+    }
+
+    private void initEndpoint() {
+        StorageAPI api = workerContext.getStorageApi();
+        if (api != null && api.getParms() != null)
+            endpoint = api.getParms().getStr("endpoint");
     }
 
     private void doWork() {
-        doSnapshot();
         while (!workerContext.isFinished())
             try {
                 performOperation();
@@ -180,7 +196,6 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
                     doSummary();
                 workerContext.setFinished(true);
             }
-        doSnapshot();
     }
         
 
@@ -189,6 +204,8 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     		throw new AbortedException();
     	if(! workerContext.getStorageApi().isAuthValid())
     		reLogin();
+    	else
+    		tryRefreshAuth();
         lbegin = System.currentTimeMillis();
         Random random = workerContext.getRandom();
         String op = operationPicker.pickOperation(random);
@@ -205,7 +222,11 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
         curr = sample.getTimestamp().getTime();
 		String type = getMarkType(sample.getOpId(), sample.getOpType(),
 				sample.getSampleType(), sample.getOpName());
-        currMarks.getMark(type).addSample(sample);
+        currMarks.get(type).addSample(sample);
+        if (traceRing != null)
+            traceRing.record(sample);
+        if (slowRequests != null)
+            slowRequests.offer(sample, workerContext.getIndex(), endpoint);
         if (lbegin >= begin && lbegin < end && curr > begin && curr <= end) {
             globalMarks.getMark(type).addSample(sample);
             operatorRegistry.getOperator(sample.getOpId()).addSample(sample);
@@ -213,27 +234,6 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
                 frsample = lbegin; // first sample emitted during runtime
             lrsample = curr; // last sample collected during runtime
         }
-        lsample = curr; // last sample collected
-        trySnapshot(); // make a snapshot if necessary
-    }
-
-    private void trySnapshot() {
-        if (lsample < check)
-            return;
-        doSnapshot();
-        lcheck = System.currentTimeMillis();
-        check = lcheck + interval * 1000;
-    }
-
-    private void doSnapshot() {
-        long window = lsample - lcheck;
-        Report report = new Report();
-        for (Mark mark : currMarks) {
-            report.addMetrics(Metrics.convert(mark, window));
-            mark.clear();
-        }
-        Snapshot snapshot = new Snapshot(report);
-        workerContext.setSnapshot(snapshot);
     }
 
     @Override
@@ -242,7 +242,7 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
 /* */
 		String type = getMarkType(result.getOpId(), result.getOpType(),
 				result.getSampleType(), result.getOpName());
-        currMarks.getMark(type).addOperation(result);
+        currMarks.get(type).addOperation(result);
         if (lop >= begin && lop < end && curr > begin && curr <= end)
             globalMarks.getMark(type).addOperation(result);
 /* */
@@ -253,7 +253,8 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     private void trySummary() {
         if ((timeout <= 0 || curr < timeout) // timeout
                 && (totalOps <= 0 || getTotalOps() < totalOps) // operations
-                && (totalBytes <= 0 || getTotalBytes() < totalBytes)) // bytes
+                && (totalBytes <= 0 || getTotalBytes() < totalBytes) // bytes
+                && !(workerContext.isEnding() && lrsample > frsample)) // early
             return; // not finished
         doSummary();
         
@@ -287,17 +288,19 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     }
     public void reLogin() {
     	LOGGER.debug("WorkAgent {} auth failed, now relogin",workerContext.getIndex());
-		AuthContext authContext = workerContext.getStorageApi().getAuthContext();
-		synchronized (AuthCachePool.getInstance()) {
-			AuthCachePool.getInstance().remove(authContext.getID());
-		}
+    	StorageAPI storageApi = workerContext.getStorageApi();
+    	AuthContext parms = workerContext.getAuthApi().getParms();
     	try{
-    		workerContext.getAuthApi().init();
-    		authContext = workerContext.getAuthApi().login();
-    		workerContext.getStorageApi().setAuthContext(authContext);
-    		synchronized (AuthCachePool.getInstance()) {
-				AuthCachePool.getInstance().put(authContext.getID(), authContext);
-			}
+    		AuthContext authContext;
+    		if (isAuthCaching(parms)) {
+    			long ttl = parms.getLong(AuthConstants.TTL_KEY, AuthConstants.TTL_DEFAULT);
+    			authContext = AuthCachePool.getInstance().relogin(parms.getID(),
+    					storageApi.getAuthContext(), workerContext.getAuthApi(), ttl);
+    		} else {
+    			workerContext.getAuthApi().init();
+    			authContext = workerContext.getAuthApi().login();
+    		}
+    		storageApi.setAuthContext(authContext);
     		LOGGER.debug("WorkAgent {} relogin successfully",workerContext.getIndex());
     	}catch(AuthException ae) {
     		workerContext.getAuthApi().dispose();
@@ -306,4 +309,22 @@ class WorkAgent extends AbstractAgent implements Session, OperationListener {
     	}	
     }
 
+    /*
+     * Picks up an auth context refreshed in the background by the auth cache.
+     */
+    private void tryRefreshAuth() {
+    	AuthContext parms = workerContext.getAuthApi().getParms();
+    	if (!isAuthCaching(parms))
+    		return;
+    	StorageAPI storageApi = workerContext.getStorageApi();
+    	AuthContext latest = AuthCachePool.getInstance().peek(parms.getID());
+    	if (latest != null && latest != storageApi.getAuthContext())
+    		storageApi.setAuthContext(latest);
+    }
+
+    private static boolean isAuthCaching(AuthContext parms) {
+    	return parms != null
+    			&& parms.getBoolean(AuthConstants.CACHING_KEY, AuthConstants.CACHING_DEFAULT);
+    }
+
 }
@@ -17,13 +17,17 @@ limitations under the License.
 
 package com.intel.cosbench.driver.model;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.intel.cosbench.bench.*;
 import com.intel.cosbench.config.*;
 import com.intel.cosbench.config.common.KVConfigParser;
 import com.intel.cosbench.driver.util.OperationPicker;
+import com.intel.cosbench.driver.util.ResourceSampler;
+import com.intel.cosbench.driver.util.TraceRecorder;
 import com.intel.cosbench.log.LogManager;
 import com.intel.cosbench.model.*;
 
@@ -45,7 +49,6 @@ public class MissionContext implements MissionInfo {
     
     private Mission mission;
     private LogManager logManager;
-    private ErrorStatistics errorStatistics;
     private transient OperationPicker operationPicker;
     private transient OperatorRegistry operatorRegistry;
     
@@ -53,14 +56,26 @@ public class MissionContext implements MissionInfo {
 
     /* Report will be available after the mission is accomplished */
     private volatile Report report = null; // will be merged from worker reports
+    /* Sequence number of cumulative snapshots read */
+    private transient AtomicInteger snapshotVersion = new AtomicInteger();
+    /* Windows handed out to controllers expecting rates per interval */
+    private transient SnapshotWindow snapshotWindow = new SnapshotWindow();
+    /* Intervals between cumulative snapshots, shown on the mission page */
+    private transient SnapshotWindow intervalWindow = new SnapshotWindow();
+    private transient volatile Snapshot lastInterval = null;
+    /* Peak driver resources, set once the workers have stopped */
+    private volatile ResourceUsage resourceUsage = null;
+    /* Per-operation trace, null unless asked for in the mission config */
+    private transient volatile TraceRecorder traceRecorder = null;
 
     private transient List<MissionListener> listeners = new ArrayList<MissionListener>();
     
     private static final String GENERATE_HISTOGRAM_KEY = "histogram";
     private static final boolean DEFAULT_GENERATE_HISTOGRAM = true;
+    private static final String WORKER_BREAKDOWN_KEY = "worker_breakdown";
     
     public MissionContext() {
-        errorStatistics = new ErrorStatistics();
+        /* empty */
     }
 
     @Override
@@ -118,6 +133,13 @@ public class MissionContext implements MissionInfo {
         for (Metrics metrics : report) {
             OperatorContext op = registry.getOperator(metrics.getOpId());
             metrics.setLatency(Histogram.convert(op.getCounter()));
+            if (metrics.getSizeClasses() == null)
+                continue;
+            for (Metrics sizeClass : metrics.getSizeClasses()) {
+                Counter counter = op.getCounter(sizeClass.getSizeClass());
+                if (counter != null)
+                    sizeClass.setLatency(Histogram.convert(counter));
+            }
         }
     }
     @Override
@@ -161,13 +183,17 @@ public class MissionContext implements MissionInfo {
     
     
 
+    /**
+     * Errors are recorded by each worker on its own, and merged when asked.
+     */
     public ErrorStatistics getErrorStatistics() {
-		return errorStatistics;
-	}
-
-	public void setErrorStatistics(ErrorStatistics errorStatistics) {
-		this.errorStatistics = errorStatistics;
-	}
+        ErrorStatistics errorStatistics = new ErrorStatistics();
+        if (workerRegistry != null)
+            for (WorkerContext worker : workerRegistry)
+                if (worker.getErrorStatistics() != null)
+                    errorStatistics.merge(worker.getErrorStatistics());
+        return errorStatistics;
+    }
 
 	public OperationPicker getOperationPicker() {
         return operationPicker;
@@ -203,12 +229,83 @@ public class MissionContext implements MissionInfo {
         this.workerRegistry = workerRegistry;
     }
 
+    /**
+     * @return the cumulative snapshot of all workers, read without locking
+     */
     @Override
     public Snapshot getSnapshot() {
-        SnapshotMerger merger = new SnapshotMerger();
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = WorkerContext.getSnapshot(workerRegistry, now);
+        int version = snapshotVersion.incrementAndGet();
+        snapshot.setVersion(version);
+        snapshot.setMinVersion(version);
+        snapshot.setMaxVersion(version);
+        snapshot.setUsage(ResourceSampler.getInstance().getLatest());
+        lastInterval = intervalWindow.next(snapshot);
+        return snapshot;
+    }
+
+    @Override
+    public Snapshot getLastInterval() {
+        return lastInterval;
+    }
+
+    @Override
+    public ResourceUsage getResourceUsage() {
+        if (resourceUsage != null)
+            return resourceUsage;
+        return ResourceSampler.getInstance().getPeak(id);
+    }
+
+    public void setResourceUsage(ResourceUsage resourceUsage) {
+        this.resourceUsage = resourceUsage;
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    @Override
+    public List<SlowRequest> pollSlowRequests() {
+        SlowRequestTracker merged = null;
+        for (WorkerContext worker : workerRegistry) {
+            SlowRequestTracker tracker = worker.getSlowRequests();
+            if (tracker == null)
+                continue;
+            if (merged == null)
+                merged = new SlowRequestTracker(tracker.getSize());
+            merged.offerAll(tracker.poll());
+        }
+        return merged != null ? merged.poll() : null;
+    }
+
+    @Override
+    public List<Breakdown> getWorkerBreakdown() {
+        Config missionConfig = KVConfigParser.parse(mission.getConfig());
+        if (!missionConfig.getBoolean(WORKER_BREAKDOWN_KEY, false))
+            return null;
+        List<Breakdown> breakdown = new ArrayList<Breakdown>();
         for (WorkerContext worker : workerRegistry)
-            merger.add(worker.getSnapshot());
-        return merger.merge();
+            if (worker.getReport() != null)
+                breakdown.add(new Breakdown(worker.getIndex(), worker.getReport()));
+        return breakdown;
+    }
+
+    @Override
+    public File getTraceFile() {
+        TraceRecorder recorder = traceRecorder;
+        if (recorder == null || !recorder.isDone())
+            return null;
+        return recorder.getFile();
+    }
+
+    @Override
+    public Snapshot getWindowSnapshot() {
+        return snapshotWindow.next(getSnapshot());
     }
 
     @Override
@@ -34,6 +34,8 @@ public class OperatorContext implements Item {
 
     private Operator operator;
     private Counter counter = Counter.getResCounter();
+    private SizeClasses sizeClasses; /* null unless broken down by size */
+    private Counter[] classCounters; /* one counter per object-size class */
 
     public OperatorContext() {
         /* empty */
@@ -64,6 +66,21 @@ public class OperatorContext implements Item {
         this.operator = operator;
     }
 
+    public SizeClasses getSizeClasses() {
+        return sizeClasses;
+    }
+
+    public void setSizeClasses(SizeClasses sizeClasses) {
+        this.sizeClasses = sizeClasses;
+        if (sizeClasses == null) {
+            classCounters = null;
+            return;
+        }
+        classCounters = new Counter[sizeClasses.size()];
+        for (int i = 0; i < classCounters.length; i++)
+            classCounters[i] = Counter.getResCounter();
+    }
+
     public void addSample(Sample sample) {
         if (!sample.isSucc())
             return;
@@ -74,6 +91,8 @@ public class OperatorContext implements Item {
         long time = sample.getTime();
         long start = System.nanoTime();
         counter.doAdd(time); // atomic addition (CPU intensive)
+        if (classCounters != null && sample.getBytes() > 0)
+            classCounters[sizeClasses.indexOf(sample.getBytes())].doAdd(time);
         long end = System.nanoTime();
         double dura = end - start;
         if (dura >= 500000) // if greater than 0.5 milliseconds
@@ -85,4 +104,12 @@ public class OperatorContext implements Item {
         return counter;
     }
 
+    /**
+     * @return the counter of the given object-size class, or null if unknown
+     */
+    public Counter getCounter(String sizeClass) {
+        int idx = sizeClasses != null ? sizeClasses.indexOf(sizeClass) : -1;
+        return idx >= 0 ? classCounters[idx] : null;
+    }
+
 }
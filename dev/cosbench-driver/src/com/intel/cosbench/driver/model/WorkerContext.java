@@ -17,7 +17,7 @@ limitations under the License.
 
 package com.intel.cosbench.driver.model;
 
-import java.util.Random;
+import java.util.*;
 
 import org.apache.commons.lang.math.RandomUtils;
 
@@ -46,17 +46,18 @@ public class WorkerContext implements WorkerInfo {
     private volatile boolean error = false;
     private volatile boolean aborted = false;
     private volatile boolean finished = false;
+    private volatile boolean ending = false; /* asked to finish early */
     
-    /* Each worker starts with an empty snapshot */
-    private transient volatile Snapshot snapshot = new Snapshot();
+    /* Cumulative counters, written by the worker and read by queries */
+    private transient volatile CumulativeMark[] marks = new CumulativeMark[0];
+    /* Slowest requests since the last poll, null if not tracked */
+    private transient SlowRequestTracker slowRequests;
+    /* The time the worker started, 0 if it has not yet */
+    private transient volatile long startTime = 0L;
     /* Each worker starts with an empty report */
     private volatile Report report = new Report();
     /* Each worker has its private random object so as to enhance performance */
     private transient Random random = new Random(RandomUtils.nextLong());
-    /* Each worker has its private required version */
-    private volatile int version = 0;
-    private volatile int runlen = 0;
-
     
     public WorkerContext() {
         /* empty */
@@ -119,50 +120,79 @@ public class WorkerContext implements WorkerInfo {
         this.aborted = aborted;
     }
 
+    public boolean isEnding() {
+        return ending;
+    }
+
+    public void setEnding(boolean ending) {
+        this.ending = ending;
+    }
+
+    public SlowRequestTracker getSlowRequests() {
+        return slowRequests;
+    }
+
+    public void setSlowRequests(SlowRequestTracker slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
+    public CumulativeMark[] getMarks() {
+        return marks;
+    }
+
     @Override
-    public Snapshot getSnapshot() {
-    	if(snapshot.getVersion() < version)
-    	{
-    		logger.debug("Worker[{}] : blank snapshot is generated.", index);
-    		Snapshot blankSnapshot = new Snapshot();
-
-    		blankSnapshot.setVersion(version);
-    		blankSnapshot.setMinVersion(version);
-    		blankSnapshot.setMaxVersion(version);
-    		
-    		version++;
-    		runlen++;
-    		
-    		return blankSnapshot;
-    	}
-    
-    	// align snapshot metrics to compensate the under-counting due to blank snapshots.
-    	if(runlen > 0)
-    	{
-	    	Report report = snapshot.getReport();
-	    	Metrics[] metrics = report.getAllMetrics();
-	
-	    	for(int i=0; i<metrics.length; i++)
-	    	{
-	    		logger.debug("Worker[{}] : ratio={}", index, runlen+1);
-	    		metrics[i].setThroughput(metrics[i].getThroughput()*(runlen+1));
-	    		metrics[i].setBandwidth(metrics[i].getBandwidth()*(runlen+1));
-	    	}
-	    	
-	    	runlen = 0;
-    	}
-    	
-    	version++;
-    	
-    	return snapshot;
+    public long getStartTime() {
+        return startTime;
     }
 
-    public void setSnapshot(Snapshot snapshot) {
-    	this.snapshot = snapshot;
+    /**
+     * Publishes the counters of a worker about to start.
+     */
+    public void start(CumulativeMark[] marks, long startTime) {
+        this.marks = marks;
+        this.startTime = startTime;
+    }
 
-    	this.snapshot.setVersion(version);
-    	this.snapshot.setMinVersion(version);
-    	this.snapshot.setMaxVersion(version);
+    /**
+     * @return the cumulative snapshot of this worker, rates are averaged
+     *         since it started
+     */
+    @Override
+    public Snapshot getSnapshot() {
+        List<WorkerContext> workers = Collections.singletonList(this);
+        return getSnapshot(workers, System.currentTimeMillis());
+    }
+
+    /**
+     * Sums up the counters of some workers, read at the given time.
+     */
+    public static Snapshot getSnapshot(Iterable<WorkerContext> workers,
+            long now) {
+        Map<String, Mark> sums = new LinkedHashMap<String, Mark>();
+        long start = Long.MAX_VALUE;
+        int count = 0;
+        for (WorkerContext worker : workers) {
+            long time = worker.startTime;
+            if (time <= 0)
+                continue; // not started
+            start = Math.min(start, time);
+            count++;
+            for (CumulativeMark mark : worker.marks) {
+                Mark sum = sums.get(mark.getName());
+                if (sum == null)
+                    sums.put(mark.getName(),
+                            sum = Mark.newMark(mark.getName()));
+                mark.addTo(sum);
+            }
+        }
+        Report report = new Report();
+        long elapsed = Math.max(now - start, 1L);
+        for (Mark sum : sums.values()) {
+            Metrics metrics = Metrics.convert(sum, elapsed);
+            metrics.setWorkerCount(count);
+            report.addMetrics(metrics);
+        }
+        return new Snapshot(report, new Date(now));
     }
 
     @Override
@@ -178,6 +208,7 @@ public class WorkerContext implements WorkerInfo {
         return random;
     }
 
+    @Override
     public boolean isFinished() {
     	return finished;
     }
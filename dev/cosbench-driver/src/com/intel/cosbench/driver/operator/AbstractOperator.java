@@ -18,8 +18,8 @@ limitations under the License.
 package com.intel.cosbench.driver.operator;
 
 
-import java.util.HashMap;
-
+import com.intel.cosbench.api.context.ErrorCategory;
+import com.intel.cosbench.api.storage.StorageException;
 import com.intel.cosbench.bench.ErrorStatistics;
 import com.intel.cosbench.config.Config;
 import com.intel.cosbench.log.LogFactory;
@@ -113,31 +113,34 @@ abstract class AbstractOperator implements Operator {
 
     protected abstract void operate(int idx, int all, Session session);
     
-    public static void errorStatisticsHandle(Exception e, Session session, String target){
-    		String trace = e.getStackTrace()[0].toString();
-    		trace = e.getCause() == null ? trace : trace + e.getCause().getStackTrace()[0].toString();
-    		ErrorStatistics errorStatistics = session.getErrorStatistics();
-    		HashMap<String, String> stackTraceAndTargets = errorStatistics.getStackTraceAndTargets();
-    		synchronized (stackTraceAndTargets) {
-    			if(! stackTraceAndTargets.containsKey(trace)){
-    				errorStatistics.getStackTraceAndException().put(trace, e);
-    				stackTraceAndTargets.put(trace, target);
-    				doLogErr(session.getLogger(), "worker "+ session.getIndex() + " fail to perform operation " + target, e);
-    			}
-    			String targets = stackTraceAndTargets.get(trace);
-    			stackTraceAndTargets.put(trace, targets + ", "+target);
-    		}
+    public static void errorStatisticsHandle(Exception e, Session session,
+            String opType, String target) {
+        ErrorStatistics errorStatistics = session.getErrorStatistics();
+        if (errorStatistics.record(opType, getErrorCode(e), e, target))
+            doLogErr(session.getLogger(), "worker " + session.getIndex()
+                    + " fail to perform operation " + target, e);
+    }
+
+    /**
+     * @return the status code reported by the storage adaptor, or "N/A"
+     */
+    public static String getErrorCode(Exception e) {
+    	if (e instanceof StorageException && ((StorageException) e).getStatus() > 0)
+    		return String.valueOf(((StorageException) e).getStatus());
+    	return ErrorStatistics.NO_CODE;
     }
+
     public static void isUnauthorizedException(Exception e, Session session) {
-    	if(e != null && e.getMessage() != null)
-    		try{
-    			if(401 == Integer.valueOf(e.getMessage().substring(9, 12))){
-    				session.getApi().setAuthFlag(false);
-    				LOGGER.debug("catch 401 error from storage backend, set auth flag to false");
-    			}
-    		}catch(NumberFormatException ne) {
-    			ne.printStackTrace();// mask ignore
-    		}
+    	if (getCategory(e) == ErrorCategory.UNAUTHORIZED) {
+    		session.getApi().setAuthFlag(false);
+    		LOGGER.debug("catch 401 error from storage backend, set auth flag to false");
+    	}
+    }
+
+    protected static ErrorCategory getCategory(Exception e) {
+    	if (e instanceof StorageException)
+    		return ((StorageException) e).getCategory();
+    	return ErrorCategory.UNKNOWN;
     }
 
 }
@@ -28,6 +28,7 @@ import java.util.List;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 
+import com.intel.cosbench.api.context.ErrorCategory;
 import com.intel.cosbench.api.storage.StorageException;
 import com.intel.cosbench.api.storage.StorageInterruptedException;
 import com.intel.cosbench.bench.*;
@@ -87,6 +88,7 @@ class Cleaner extends AbstractOperator {
                 continue;
             Sample sample = doDelete(path[0], path[1], config, session, this);
             sample.setOpType(opType);
+            sample.setPath(path[0], path[1]);
             session.getListener().onSampleCreated(sample);
         }
 
@@ -164,16 +166,10 @@ class Cleaner extends AbstractOperator {
     }
     
     private static boolean isConflictException(Session session, Exception e) {
-    	if(e != null && e.getMessage() != null)
-    		try{
-    			if(409 == Integer.valueOf(e.getMessage().substring(9, 12))){
-    				doLogDebug(session.getLogger(),"catch 409 error, will clean up the unempty container and try again");
-    				return true;
-    			}
-    		}catch(NumberFormatException ne) {
-    			ne.printStackTrace(); // mask ignore
-    			return false;
-    		}
+    	if (getCategory(e) == ErrorCategory.CONFLICT) {
+    		doLogDebug(session.getLogger(),"catch 409 error, will clean up the unempty container and try again");
+    		return true;
+    	}
     	return false;
     }
 
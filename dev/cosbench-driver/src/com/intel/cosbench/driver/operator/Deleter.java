@@ -57,6 +57,7 @@ class Deleter extends AbstractOperator {
     protected void operate(int idx, int all, Session session) {
         String[] path = objPicker.pickObjPath(session.getRandom(), idx, all);
         Sample sample = doDelete(path[0], path[1], config, session, this);
+        sample.setPath(path[0], path[1]);
         session.getListener().onSampleCreated(sample);
         Date now = sample.getTimestamp();
         Result result = new Result(now, getId(), getOpType(), getSampleType(),
@@ -81,7 +82,7 @@ class Deleter extends AbstractOperator {
             doLogWarn(session.getLogger(), msg);
         } catch (Exception e) {
         	isUnauthorizedException(e, session);
-        	errorStatisticsHandle(e, session, conName + "/" + objName); 
+        	errorStatisticsHandle(e, session, op.getOpType(), conName + "/" + objName); 
 
             return new Sample(new Date(), op.getId(), op.getOpType(),
 					op.getSampleType(), op.getName(), false);
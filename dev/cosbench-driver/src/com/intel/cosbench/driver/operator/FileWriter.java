@@ -124,6 +124,7 @@ class FileWriter extends AbstractOperator {
 					getSampleType(), getName(), false);
         }
 
+        sample.setPath(containerName, filename);
         session.getListener().onSampleCreated(sample);
         Date now = sample.getTimestamp();
 		Result result = new Result(now, getId(), getOpType(), getSampleType(),
@@ -60,6 +60,7 @@ public class Lister extends AbstractOperator {
         String[] path = objPicker.pickTargetPath(session.getRandom(), idx, all);
         NullOutputStream out = new NullOutputStream();
         Sample sample = doList(out, path[0], path[1], config, session);
+        sample.setPath(path[0], path[1]);
         session.getListener().onSampleCreated(sample);
         Date now = sample.getTimestamp();
 		Result result = new Result(now, getId(), getOpType(), getSampleType(),
@@ -88,7 +89,7 @@ public class Lister extends AbstractOperator {
             throw new AbortedException();
         } catch (Exception e) {
         	isUnauthorizedException(e, session);
-        	errorStatisticsHandle(e, session, conName + "/" + objName);
+        	errorStatisticsHandle(e, session, getOpType(), conName + "/" + objName);
 
             return new Sample(new Date(), getId(), getOpType(), getSampleType(), getName(), false);
         } finally {
@@ -96,6 +96,7 @@ class Preparer extends AbstractOperator {
                     isRandom, hashCheck);
             Sample sample = doWrite(in, len, path[0], path[1], config, session, this);
             sample.setOpType(opTye);
+            sample.setPath(path[0], path[1]);
             session.getListener().onSampleCreated(sample);
         }
 
@@ -116,7 +117,7 @@ class Preparer extends AbstractOperator {
             throw new AbortedException();
         }catch(StorageException se) {
         	isUnauthorizedException(se, session);
-            errorStatisticsHandle(se, session, conName);
+            errorStatisticsHandle(se, session, OP_TYPE, conName);
             if(session.getApi().isAuthValid()){
             	throw new AgentException();
             }
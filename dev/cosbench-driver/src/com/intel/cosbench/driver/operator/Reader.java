@@ -67,6 +67,7 @@ class Reader extends AbstractOperator {
         String[] path = objPicker.pickObjPath(session.getRandom(), idx, all);
         NullOutputStream out = new NullOutputStream();
         Sample sample = doRead(out, path[0], path[1], config, session);
+        sample.setPath(path[0], path[1]);
         session.getListener().onSampleCreated(sample);
         Date now = sample.getTimestamp();
 		Result result = new Result(now, getId(), getOpType(), getSampleType(),
@@ -100,7 +101,7 @@ class Reader extends AbstractOperator {
             throw new AbortedException();
         } catch (Exception e) {
         	isUnauthorizedException(e, session);
-        	errorStatisticsHandle(e, session, conName + "/" + objName);
+        	errorStatisticsHandle(e, session, getOpType(), conName + "/" + objName);
 
             return new Sample(new Date(), getId(), getOpType(), getSampleType(), getName(), false);
         } finally {
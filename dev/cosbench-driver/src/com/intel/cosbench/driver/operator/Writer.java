@@ -78,6 +78,7 @@ class Writer extends AbstractOperator {
                 hashCheck);
 		Sample sample = doWrite(in, len, path[0], path[1], config, session,
 				this);
+        sample.setPath(path[0], path[1]);
         session.getListener().onSampleCreated(sample);
         Date now = sample.getTimestamp();
 		Result result = new Result(now, getId(), getOpType(), getSampleType(),
@@ -101,7 +102,7 @@ class Writer extends AbstractOperator {
             throw new AbortedException();
         } catch (Exception e) {
         	isUnauthorizedException(e, session);
-        	errorStatisticsHandle(e, session, conName + "/" + objName);
+        	errorStatisticsHandle(e, session, op.getOpType(), conName + "/" + objName);
         	
 			return new Sample(new Date(), op.getId(), op.getOpType(),
 					op.getSampleType(), op.getName(), false);
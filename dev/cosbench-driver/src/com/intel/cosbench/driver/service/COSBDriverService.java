@@ -139,6 +139,11 @@ class COSBDriverService implements DriverService, MissionListener {
 
     @Override
     public void launch(String id) {
+        launch(id, 0L);
+    }
+
+    @Override
+    public void launch(String id, final long startAt) {
         final MissionHandler handler = handlers.get(id);
         if (handler == null)
             throw new IllegalStateException("no mission handler");
@@ -149,7 +154,7 @@ class COSBDriverService implements DriverService, MissionListener {
 
             @Override
             public void run() {
-                handler.stress(); // errors are reflected in state
+                handler.stress(startAt); // errors are reflected in state
                 handler.getMissionContext().setFuture(null);
             }
 
@@ -182,6 +187,15 @@ class COSBDriverService implements DriverService, MissionListener {
         LOGGER.debug("mission {} has been requested to abort", id);
     }
 
+    @Override
+    public void finish(String id) {
+        MissionHandler handler = handlers.get(id);
+        if (handler == null)
+            return; // already stopped
+        handler.finish();
+        LOGGER.debug("mission {} has been requested to finish", id);
+    }
+
     private static void yieldExecution(int time) {
         try {
             Thread.sleep(time); // yield execution
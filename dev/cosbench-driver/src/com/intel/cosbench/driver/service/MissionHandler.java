@@ -28,13 +28,19 @@ import org.apache.commons.lang.StringUtils;
 import com.intel.cosbench.api.auth.*;
 import com.intel.cosbench.api.context.AuthContext;
 import com.intel.cosbench.api.storage.*;
+import com.intel.cosbench.bench.ErrorStatistics;
+import com.intel.cosbench.bench.SizeClasses;
+import com.intel.cosbench.bench.SlowRequestTracker;
 import com.intel.cosbench.config.*;
 import com.intel.cosbench.config.castor.CastorConfigTools;
 import com.intel.cosbench.config.common.KVConfigParser;
 import com.intel.cosbench.driver.agent.*;
 import com.intel.cosbench.driver.model.*;
 import com.intel.cosbench.driver.operator.Operators;
+import com.intel.cosbench.driver.util.AuthCachePool;
 import com.intel.cosbench.driver.util.OperationPicker;
+import com.intel.cosbench.driver.util.ResourceSampler;
+import com.intel.cosbench.driver.util.TraceRecorder;
 import com.intel.cosbench.log.*;
 import com.intel.cosbench.service.*;
 import com.intel.cosbench.service.IllegalStateException;
@@ -46,6 +52,16 @@ class MissionHandler {
 
     private static final int DEFAULT_AUTH_RETRY = 0;
 
+    private static final String TRACE_KEY = "trace";
+    private static final String TRACE_RATE_KEY = "trace_rate";
+    private static final String TRACE_BUFFER_KEY = "trace_buffer";
+
+    private static final double DEFAULT_TRACE_RATE = 1.0;
+    private static final int DEFAULT_TRACE_BUFFER = 8192;
+
+    private static final String SLOWEST_KEY = "slowest";
+    private static final String SIZE_CLASSES_KEY = "size_classes";
+
     private static final Logger LOGGER = LogFactory.getSystemLogger();
 
     private static final File LOG_DIR = new File(new File("log"), "mission");
@@ -65,6 +81,9 @@ class MissionHandler {
     private ExecutorService executor;
     private MissionContext missionContext;
 
+    private AuthCachePool.Stats authStats; // of this mission, once logging in
+    private AuthAPI refreshApi; // refreshes cached auth contexts, null if none
+
     public MissionHandler() {
         /* empty */
     }
@@ -89,6 +108,9 @@ class MissionHandler {
         if (executor != null)
             executor.shutdown();
         executor = null;
+        releaseRefreshApi();
+        if (authStats != null)
+            AuthCachePool.getInstance().closeStats(authStats);
     }
 
     public void init() {
@@ -126,15 +148,19 @@ class MissionHandler {
         OperatorRegistry registry = new OperatorRegistry();
         Mission mission = missionContext.getMission();
         initOpDefaultName(mission);
+        SizeClasses classes = SizeClasses.parse(KVConfigParser.parse(
+                mission.getConfig()).get(SIZE_CLASSES_KEY, null));
         for (Operation op : mission)
-            registry.addOperator(createOperatorContext(op));
+            registry.addOperator(createOperatorContext(op, classes));
         missionContext.setOperatorRegistry(registry);
     }
 
-    private static OperatorContext createOperatorContext(Operation op) {
+    private static OperatorContext createOperatorContext(Operation op,
+            SizeClasses classes) {
         OperatorContext context = new OperatorContext();
         Config config = KVConfigParser.parse(op.getConfig());
         context.setOperator(Operators.getOperator(op, config));
+        context.setSizeClasses(classes);
         return context;
     }
     
@@ -181,8 +207,14 @@ class MissionHandler {
         Mission mission = missionContext.getMission();
         int workers = mission.getWorkers();
         int offset = mission.getOffset();
-        for (int idx = 1; idx <= workers; idx++)
-            registry.addWorker(createWorkerContext(idx + offset, mission));
+        int slowest = KVConfigParser.parse(mission.getConfig()).getInt(
+                SLOWEST_KEY, SlowRequestTracker.DEFAULT_SIZE);
+        for (int idx = 1; idx <= workers; idx++) {
+            WorkerContext worker = createWorkerContext(idx + offset, mission);
+            if (slowest > 0) // 0 to turn tracking off
+                worker.setSlowRequests(new SlowRequestTracker(slowest));
+            registry.addWorker(worker);
+        }
         missionContext.setWorkerRegistry(registry);
     }
 
@@ -192,7 +224,7 @@ class MissionHandler {
         context.setIndex(idx);
         context.setMission(mission);
         context.setLogger(manager.getLogger());
-        context.setErrorStatistics(missionContext.getErrorStatistics());
+        context.setErrorStatistics(new ErrorStatistics());
         context.setAuthApi(createAuthApi(mission.getAuth(), manager));
         context.setStorageApi(createStorageApi(mission.getStorage(), manager));
         return context;
@@ -244,6 +276,7 @@ class MissionHandler {
 
     private void performLogin() {
         missionContext.setState(AUTHING);
+        openAuthCache();
 
 //        // Use worker 0 for authentication (and use the same token for other workers)
 //        WorkerContext worker0 = missionContext.getWorkerRegistry().getWorkerByIndex(0);
@@ -257,6 +290,35 @@ class MissionHandler {
         missionContext.setState(AUTHED);
     }
 
+    /*
+     * Cached auth contexts are refreshed with an Auth-API of the mission's own,
+     * as those of workers are in use.
+     */
+    private void openAuthCache() {
+        AuthCachePool pool = AuthCachePool.getInstance();
+        authStats = pool.openStats();
+        AuthAPI api = createAuthApi(missionContext.getMission().getAuth(),
+                missionContext.getLogManager());
+        AuthContext parms = api.getParms();
+        if (parms == null
+                || !parms.getBoolean(AuthConstants.CACHING_KEY,
+                        AuthConstants.CACHING_DEFAULT)) {
+            api.dispose();
+            return;
+        }
+        pool.setRefreshApi(parms.getID(), api);
+        refreshApi = api;
+    }
+
+    private void releaseRefreshApi() {
+        AuthAPI api = refreshApi;
+        if (api == null)
+            return;
+        refreshApi = null;
+        AuthCachePool.getInstance().releaseRefreshApi(api.getParms().getID(), api);
+        api.dispose();
+    }
+
     @SuppressWarnings("unused")
     private void setAllWorkersAuthContext(AuthContext authContext) {
 	for (WorkerContext workerContext : missionContext.getWorkerRegistry())
@@ -281,7 +343,7 @@ class MissionHandler {
         return agents;
     }
 
-    public void stress() {
+    public void stress(long startAt) {
         /* for strong consistency: a lock should be employed here */
         if (!missionContext.getState().equals(AUTHED))
             throw new IllegalStateException(
@@ -289,7 +351,7 @@ class MissionHandler {
         String id = missionContext.getId();
         LOGGER.debug("begin to execute mission {}", id);
         try {
-            stressTarget();
+            stressTarget(startAt);
         } catch (TimeoutException te) {
             /* no need to shutdown agents again */
             boolean shutdownNow = false;
@@ -316,14 +378,82 @@ class MissionHandler {
        
     }
 
-    private void stressTarget() {
+    private void stressTarget(long startAt) {
         missionContext.setState(LAUNCHED);
-        List<Agent> agents = createWorkAgents();
+        awaitStart(startAt);
         Mission m = missionContext.getMission();
         int timeout = m.getRampup() + m.getRuntime() + m.getRampdown();
-        executeAgents(agents, timeout == 0 ? 0 : timeout + 60);
+        ResourceSampler sampler = ResourceSampler.getInstance();
+        sampler.track(missionContext.getId());
+        try {
+            openTrace(); // closed even if the agents cannot be created
+            List<Agent> agents = createWorkAgents();
+            executeAgents(agents, timeout == 0 ? 0 : timeout + 60);
+        } finally {
+            missionContext.setResourceUsage(sampler.untrack(missionContext
+                    .getId()));
+            closeTrace();
+            releaseRefreshApi();
+        }
         missionContext.setState(FINISHED);
         missionContext.getErrorStatistics().summaryToMission(missionContext.getLogManager().getLogger());
+        AuthCachePool.getInstance().closeStats(authStats)
+                .summaryTo(missionContext.getLogManager().getLogger());
+    }
+
+    /*
+     * Traces are opt-in, as every operation ends up in the file unless a
+     * sampling rate is given.
+     */
+    private void openTrace() {
+        Config config = KVConfigParser.parse(missionContext.getMission()
+                .getConfig());
+        if (!config.getBoolean(TRACE_KEY, false))
+            return;
+        double rate = config.getDouble(TRACE_RATE_KEY, DEFAULT_TRACE_RATE);
+        int buffer = config.getInt(TRACE_BUFFER_KEY, DEFAULT_TRACE_BUFFER);
+        File file = new File(LOG_DIR, missionContext.getId() + "-trace.csv.gz");
+        TraceRecorder recorder;
+        try {
+            recorder = new TraceRecorder(file, rate, buffer);
+            recorder.open();
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("mission {} is not traced: {}", missionContext.getId(),
+                    e.getMessage());
+            return;
+        } catch (IOException e) {
+            LOGGER.error("cannot open trace file", e);
+            return;
+        }
+        missionContext.setTraceRecorder(recorder);
+        LOGGER.info("operations of mission {} are traced to {}",
+                missionContext.getId(), file.getPath());
+    }
+
+    private void closeTrace() {
+        TraceRecorder recorder = missionContext.getTraceRecorder();
+        if (recorder != null)
+            recorder.close();
+    }
+
+    /*
+     * Holds workers back until the instant agreed with other drivers, so that
+     * all of them ramp up together.
+     */
+    private void awaitStart(long startAt) {
+        if (startAt <= 0)
+            return;
+        long delay = startAt - System.currentTimeMillis();
+        if (delay < 0) {
+            LOGGER.warn("mission {} is launched {} ms late",
+                    missionContext.getId(), -delay);
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            throw new AbortedException();
+        }
     }
 
     private List<Agent> createWorkAgents() {
@@ -383,6 +513,18 @@ class MissionHandler {
         LOGGER.info("mission {} has been closed successfully", id);
     }
 
+    /*
+     * Ends the runtime early, each worker summarizes once it has seen some of
+     * the runtime, so rampdown is skipped.
+     */
+    public void finish() {
+        if (!missionContext.getState().equals(LAUNCHED))
+            return; // not running
+        for (WorkerContext worker : missionContext.getWorkerRegistry())
+            worker.setEnding(true);
+        LOGGER.info("mission {} is asked to finish early", missionContext.getId());
+    }
+
     public void abort() {
         String id = missionContext.getId();
         Future<?> future = missionContext.getFuture();
@@ -1,18 +1,47 @@
 package com.intel.cosbench.driver.util;
 
+import static com.intel.cosbench.api.auth.AuthConstants.*;
+
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.intel.cosbench.api.auth.*;
 import com.intel.cosbench.api.context.AuthContext;
+import com.intel.cosbench.log.*;
 
 /**
  * This class encapsulates an auth cache pool to help cache authenticated AuthContext for reuse.
+ * <p>
+ * Logins are single-flight per auth id: while one worker logs in, others with the same id wait
+ * for its result instead of logging in themselves, and a re-login only happens if the context a
+ * worker found stale is still the cached one. Contexts with a known lifetime (reported by the
+ * auth mechanism or given by the "ttl" auth config) are refreshed in the background before
+ * they expire, and workers pick up the refreshed context through {@link #peek(String)}. Background
+ * refreshes use an Auth-API of their own, set through {@link #setRefreshApi(String, AuthAPI)},
+ * as the ones of workers are either in use or disposed.
  *  
  * @author ywang19
  * 
  */
-public class AuthCachePool extends ConcurrentHashMap<String, AuthContext>{
-	private static final long serialVersionUID = -8592973423618299263L;
-	private static AuthCachePool INSTANCE = new AuthCachePool();
-	
+public class AuthCachePool {
+
+	private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+	private static final long REFRESH_AHEAD_MIN = 5000L; // in milliseconds
+	private static final long REFRESH_RETRY = 1000L; // in milliseconds
+	private static final long USED_PRECISION = 1000L; // in milliseconds
+	private static final long IDLE_GRACE = 60 * 1000L; // in milliseconds
+
+	private static final AuthCachePool INSTANCE = new AuthCachePool();
+
+	private ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private ScheduledExecutorService refresher;
+
+	/* metrics since startup, and those of each mission still running */
+	private Stats total = new Stats();
+	private List<Stats> opened = new CopyOnWriteArrayList<Stats>();
+
 	private AuthCachePool() {
 		
 	}
@@ -21,4 +50,362 @@ public class AuthCachePool extends ConcurrentHashMap<String, AuthContext>{
 		return INSTANCE;
 	}
 
+	/**
+	 * Returns the cached auth context for the given id, logging in with the given Auth-API
+	 * if there is none yet or the cached one has expired.
+	 */
+	public AuthContext login(String id, AuthAPI authApi, long ttl) {
+		return getEntry(id, ttl).get(authApi, null, false);
+	}
+
+	/**
+	 * Replaces an auth context the caller found invalid. If another caller has already replaced
+	 * it, or is replacing it, the newer context is returned without another login.
+	 */
+	public AuthContext relogin(String id, AuthContext stale, AuthAPI authApi, long ttl) {
+		return getEntry(id, ttl).get(authApi, stale, true);
+	}
+
+	/**
+	 * Returns the latest auth context known for the given id without blocking, or null.
+	 */
+	public AuthContext peek(String id) {
+		Entry entry = entries.get(id);
+		return entry != null ? entry.peek() : null;
+	}
+
+	public void remove(String id) {
+		entries.remove(id);
+	}
+
+	/**
+	 * Sets the Auth-API used to refresh the context of the given id in the background. It is
+	 * only used by the refresher, and the caller disposes it once released.
+	 */
+	public void setRefreshApi(String id, AuthAPI authApi) {
+		getEntry(id).refreshApi = authApi;
+	}
+
+	/**
+	 * Stops refreshing with the given Auth-API, unless another one has been set since.
+	 */
+	public void releaseRefreshApi(String id, AuthAPI authApi) {
+		Entry entry = entries.get(id);
+		if (entry == null)
+			return;
+		synchronized (entry.refreshLock) { // not while a refresh is using it
+			if (entry.refreshApi == authApi)
+				entry.refreshApi = null;
+		}
+	}
+
+	/**
+	 * @return the metrics since startup
+	 */
+	public Stats getStats() {
+		return total;
+	}
+
+	/**
+	 * Starts counting the metrics of one mission, until {@link #closeStats(Stats)}.
+	 */
+	public Stats openStats() {
+		Stats stats = new Stats();
+		opened.add(stats);
+		return stats;
+	}
+
+	public Stats closeStats(Stats stats) {
+		opened.remove(stats);
+		return stats;
+	}
+
+	private Entry getEntry(String id) {
+		Entry entry = entries.get(id);
+		if (entry == null) {
+			entries.putIfAbsent(id, new Entry(id));
+			entry = entries.get(id);
+		}
+		return entry;
+	}
+
+	private Entry getEntry(String id, long ttl) {
+		Entry entry = getEntry(id);
+		entry.ttl = ttl;
+		entry.touch();
+		return entry;
+	}
+
+	private void countLogin(long time) {
+		total.countLogin(time);
+		for (Stats stats : opened)
+			stats.countLogin(time);
+	}
+
+	private void count(int what) {
+		total.count(what);
+		for (Stats stats : opened)
+			stats.count(what);
+	}
+
+	private synchronized ScheduledExecutorService getRefresher() {
+		if (refresher == null)
+			refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "auth-refresher");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		return refresher;
+	}
+
+	private static long getExpires(AuthContext context) {
+		return context != null ? context.getLong(EXPIRES_KEY, 0L) : 0L;
+	}
+
+	/**
+	 * Counters of the auth cache, either since startup or over one mission.
+	 */
+	public static class Stats {
+
+		private static final int HIT = 0;
+		private static final int REFRESH = 1;
+		private static final int FAILURE = 2;
+
+		private AtomicLong logins = new AtomicLong();
+		private AtomicLong hits = new AtomicLong();
+		private AtomicLong refreshes = new AtomicLong();
+		private AtomicLong failures = new AtomicLong();
+		private AtomicLong loginTime = new AtomicLong(); // in milliseconds
+		private AtomicLong maxLoginTime = new AtomicLong(); // in milliseconds
+
+		public long getLogins() {
+			return logins.get();
+		}
+
+		public long getHits() {
+			return hits.get();
+		}
+
+		public long getRefreshes() {
+			return refreshes.get();
+		}
+
+		public long getFailures() {
+			return failures.get();
+		}
+
+		public long getLoginTime() {
+			return loginTime.get();
+		}
+
+		public long getMaxLoginTime() {
+			return maxLoginTime.get();
+		}
+
+		public void summaryTo(Logger logger) {
+			long count = logins.get();
+			if (count == 0)
+				return;
+			logger.info("auth cache: {} login(s), {} hit(s), {} background refresh(es), {} failure(s), "
+					+ "avg login time {} ms, max login time {} ms", new Object[] { count, hits.get(),
+					refreshes.get(), failures.get(), loginTime.get() / count, maxLoginTime.get() });
+		}
+
+		private void countLogin(long time) {
+			logins.incrementAndGet();
+			loginTime.addAndGet(time);
+			for (long max = maxLoginTime.get(); time > max
+					&& !maxLoginTime.compareAndSet(max, time); max = maxLoginTime.get())
+				;
+		}
+
+		private void count(int what) {
+			(what == HIT ? hits : what == REFRESH ? refreshes : failures).incrementAndGet();
+		}
+
+	}
+
+	private class Entry {
+
+		private String id;
+		private volatile AuthAPI refreshApi; // null for no background refresh
+		private volatile long ttl; // in seconds
+		private volatile long used; // last time a worker asked for this entry
+
+		private FutureTask<AuthContext> task; // current or last login, guarded by this
+		private volatile AuthContext context; // of the last login done, read without the lock
+		private final Object refreshLock = new Object();
+
+		public Entry(String id) {
+			this.id = id;
+		}
+
+		public AuthContext get(AuthAPI authApi, AuthContext stale, boolean invalid) {
+			FutureTask<AuthContext> current;
+			boolean owner = false;
+			synchronized (this) {
+				current = task;
+				if (current == null || current.isDone() && isReplaceable(current, stale, invalid)) {
+					current = task = newLogin(authApi, current != null);
+					owner = true;
+				}
+			}
+			if (owner) {
+				current.run();
+				publish(current, current);
+			} else
+				count(Stats.HIT);
+			return await(current);
+		}
+
+		/*
+		 * On the path of every operation, so no lock is taken.
+		 */
+		public AuthContext peek() {
+			touch();
+			return context;
+		}
+
+		/* the shared field is only written about once a second */
+		private void touch() {
+			long now = System.currentTimeMillis();
+			if (now - used >= USED_PRECISION)
+				used = now;
+		}
+
+		/* makes the login done visible to peek(), unless a newer one has replaced it */
+		private void publish(FutureTask<AuthContext> expected, FutureTask<AuthContext> done) {
+			AuthContext result;
+			try {
+				result = done.get();
+			} catch (Exception e) {
+				return; // failed, keep the previous one
+			}
+			synchronized (this) {
+				if (task != expected)
+					return;
+				task = done;
+				context = result;
+			}
+		}
+
+		private boolean isReplaceable(FutureTask<AuthContext> done, AuthContext stale,
+				boolean invalid) {
+			AuthContext context;
+			try {
+				context = done.get();
+			} catch (Exception e) {
+				return true; // last login failed, try again
+			}
+			if (invalid && context == stale)
+				return true;
+			long expires = getExpires(context);
+			return expires > 0 && expires <= System.currentTimeMillis();
+		}
+
+		private FutureTask<AuthContext> newLogin(final AuthAPI api, final boolean renew) {
+			return new FutureTask<AuthContext>(new Callable<AuthContext>() {
+				@Override
+				public AuthContext call() {
+					return doLogin(api, renew);
+				}
+			});
+		}
+
+		/*
+		 * The given Auth-API is only used by the calling thread, either the worker owning it or
+		 * the refresher.
+		 */
+		private AuthContext doLogin(AuthAPI api, boolean renew) {
+			long begin = System.currentTimeMillis();
+			AuthContext result;
+			try {
+				if (renew)
+					api.init(); // a fresh client, the previous one has been disposed
+				result = api.login();
+			} catch (AuthException e) {
+				count(Stats.FAILURE);
+				throw e;
+			} finally {
+				if (renew)
+					api.dispose();
+			}
+			countLogin(System.currentTimeMillis() - begin);
+			if (result != null && getExpires(result) == 0 && ttl > 0)
+				result.put(EXPIRES_KEY, begin + ttl * 1000);
+			scheduleRefresh(result, begin);
+			return result;
+		}
+
+		private AuthContext await(FutureTask<AuthContext> current) {
+			try {
+				return current.get();
+			} catch (InterruptedException ie) {
+				throw new AuthInterruptedException(ie);
+			} catch (ExecutionException ee) {
+				Throwable cause = ee.getCause();
+				if (cause instanceof AuthException)
+					throw (AuthException) cause;
+				throw new AuthException(cause);
+			}
+		}
+
+		/*
+		 * Refreshes ahead of expiry by a tenth of the token lifetime, at least a few seconds.
+		 */
+		private void scheduleRefresh(AuthContext context, long issued) {
+			long expires = getExpires(context);
+			if (expires <= 0)
+				return;
+			long ahead = Math.max(REFRESH_AHEAD_MIN, (expires - issued) / 10);
+			long delay = Math.max(0, expires - ahead - System.currentTimeMillis());
+			schedule(expires, delay);
+		}
+
+		private void schedule(final long expires, long delay) {
+			getRefresher().schedule(new Runnable() {
+				@Override
+				public void run() {
+					refresh(expires);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+
+		private void refresh(long expires) {
+			long now = System.currentTimeMillis();
+			if (refreshApi == null && now - used > Math.max(expires - now, 0) + IDLE_GRACE) {
+				entries.remove(id, this); // nobody is using it any more
+				return;
+			}
+			FutureTask<AuthContext> current;
+			synchronized (this) {
+				current = task;
+			}
+			if (current == null || !current.isDone() || getExpires(peek()) != expires)
+				return; // a worker has logged in meanwhile, which scheduled its own refresh
+			FutureTask<AuthContext> fresh;
+			synchronized (refreshLock) {
+				AuthAPI api = refreshApi;
+				if (api == null)
+					return; // the missions using it are over
+				fresh = newLogin(api, true);
+				fresh.run();
+			}
+			try {
+				fresh.get();
+			} catch (Exception e) {
+				LOGGER.warn("fail to refresh auth context for id=" + id, e);
+				if (expires - System.currentTimeMillis() > REFRESH_RETRY)
+					schedule(expires, REFRESH_RETRY);
+				return;
+			}
+			publish(current, fresh);
+			count(Stats.REFRESH);
+		}
+
+	}
+
 }
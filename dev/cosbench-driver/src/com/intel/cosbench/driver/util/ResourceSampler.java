@@ -0,0 +1,303 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+
+package com.intel.cosbench.driver.util;
+
+import java.io.*;
+import java.lang.management.*;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.commons.io.IOUtils;
+
+import com.intel.cosbench.bench.ResourceUsage;
+import com.intel.cosbench.log.*;
+import com.intel.cosbench.utils.NicSpeed;
+
+/**
+ * This class samples how busy the driver host is once a second, so that
+ * snapshots and reports can tell whether the driver itself was saturated.
+ * Process CPU time, the run queue and network traffic are read from /proc and
+ * are unknown elsewhere; GC time, heap and allocations come from the JVM.
+ * Peaks are tracked per mission between {@link #track(String)} and
+ * {@link #untrack(String)}.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class ResourceSampler {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    private static final long PERIOD = 1000L; // in milliseconds
+    private static final long TICKS_PER_SECOND = 100L; // USER_HZ on Linux
+
+    private static final ResourceSampler INSTANCE = new ResourceSampler();
+
+    private volatile ResourceUsage latest;
+    private ConcurrentMap<String, ResourceUsage> peaks = new ConcurrentHashMap<String, ResourceUsage>();
+    private ScheduledExecutorService timer;
+
+    /* readings of the previous sample */
+    private long lastTime;
+    private long lastCpu = -1;
+    private long lastGc = -1;
+    private long lastAlloc = -1;
+    private Map<String, long[]> lastNet = new HashMap<String, long[]>();
+
+    private Method allocMethod = findAllocMethod();
+    /* files under /proc which failed once, not tried again */
+    private Set<String> unreadable = new HashSet<String>();
+
+    private ResourceSampler() {
+        /* empty */
+    }
+
+    public static ResourceSampler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the latest sample, or null before the first one is taken
+     */
+    public ResourceUsage getLatest() {
+        start();
+        return latest;
+    }
+
+    /**
+     * Starts tracking the peak usage for a mission.
+     */
+    public void track(String id) {
+        start();
+        ResourceUsage usage = latest;
+        peaks.put(id, usage != null ? usage : new ResourceUsage());
+    }
+
+    /**
+     * @return the peak usage of a tracked mission, or null if it is not
+     */
+    public ResourceUsage getPeak(String id) {
+        return peaks.get(id);
+    }
+
+    /**
+     * Stops tracking a mission.
+     * 
+     * @return its peak usage, or null if it was not tracked
+     */
+    public ResourceUsage untrack(String id) {
+        return peaks.remove(id);
+    }
+
+    private synchronized void start() {
+        if (timer != null)
+            return;
+        timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "resource-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        sample(); // a baseline for the rates
+        timer.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    sample();
+                } catch (Exception e) {
+                    LOGGER.warn("failed to sample driver resources", e);
+                }
+            }
+        }, PERIOD, PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        long now = System.currentTimeMillis();
+        long window = now - lastTime;
+        boolean first = lastTime == 0;
+        lastTime = now;
+        ResourceUsage usage = new ResourceUsage();
+        int cores = Runtime.getRuntime().availableProcessors();
+        usage.setCores(cores);
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean()
+                .getHeapMemoryUsage();
+        usage.setHeapUsed(heap.getUsed());
+        usage.setHeapMax(heap.getMax() > 0 ? heap.getMax() : heap
+                .getCommitted());
+        long gc = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory
+                .getGarbageCollectorMXBeans())
+            gc += Math.max(bean.getCollectionTime(), 0);
+        long alloc = readAllocatedBytes();
+        long cpu = readProcessCpu();
+        Map<String, long[]> net = readNetDev();
+        if (!first && window > 0) {
+            if (lastGc >= 0)
+                usage.setGcRatio(Math.min((double) (gc - lastGc) / window, 1D));
+            if (alloc >= 0 && lastAlloc >= 0) // dead threads take their bytes
+                usage.setAllocRate(Math.max(alloc - lastAlloc, 0) * 1000
+                        / window);
+            if (cpu >= 0 && lastCpu >= 0)
+                usage.setCpuLoad((double) (cpu - lastCpu) / window / cores);
+            if (net != null)
+                setNetRates(usage, net, window);
+        }
+        usage.setRunnable(readRunnable());
+        lastGc = gc;
+        lastAlloc = alloc;
+        lastCpu = cpu;
+        lastNet = net != null ? net : new HashMap<String, long[]>();
+        if (first)
+            return; // no rates yet
+        latest = usage;
+        for (Map.Entry<String, ResourceUsage> entry : peaks.entrySet())
+            peaks.replace(entry.getKey(), entry.getValue(), // unless untracked
+                    ResourceUsage.max(entry.getValue(), usage));
+    }
+
+    private void setNetRates(ResourceUsage usage, Map<String, long[]> net,
+            long window) {
+        long rx = 0, tx = 0;
+        double load = -1;
+        for (Map.Entry<String, long[]> entry : net.entrySet()) {
+            long[] prev = lastNet.get(entry.getKey());
+            if (prev == null)
+                continue; // interface just came up
+            long r = Math.max(entry.getValue()[0] - prev[0], 0) * 1000 / window;
+            long t = Math.max(entry.getValue()[1] - prev[1], 0) * 1000 / window;
+            rx += r;
+            tx += t;
+            long speed = entry.getValue()[2]; // bytes per second
+            if (speed > 0)
+                load = Math.max(load, (double) Math.max(r, t) / speed);
+        }
+        usage.setNetRxRate(rx);
+        usage.setNetTxRate(tx);
+        usage.setNicLoad(load);
+    }
+
+    /*
+     * total bytes allocated by live threads, only known on JVMs offering
+     * com.sun.management.ThreadMXBean
+     */
+    private long readAllocatedBytes() {
+        if (allocMethod == null)
+            return -1;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            long[] bytes = (long[]) allocMethod.invoke(threads,
+                    threads.getAllThreadIds());
+            long sum = 0;
+            for (long b : bytes)
+                if (b > 0)
+                    sum += b;
+            return sum;
+        } catch (Exception e) {
+            allocMethod = null;
+            return -1;
+        }
+    }
+
+    private static Method findAllocMethod() {
+        try {
+            Class<?> clazz = Class.forName("com.sun.management.ThreadMXBean");
+            if (!clazz.isInstance(ManagementFactory.getThreadMXBean()))
+                return null;
+            return clazz.getMethod("getThreadAllocatedBytes", long[].class);
+        } catch (Throwable t) {
+            return null; // not offered by this JVM
+        }
+    }
+
+    /* user and system time of this process, in milliseconds */
+    private long readProcessCpu() {
+        String stat = readProc("/proc/self/stat");
+        if (stat == null)
+            return -1;
+        /* fields after the command name, which may hold spaces */
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        if (fields.length < 13)
+            return -1;
+        long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        return ticks * 1000 / TICKS_PER_SECOND;
+    }
+
+    /* threads ready to run on the host, as counted by the kernel */
+    private int readRunnable() {
+        String stat = readProc("/proc/stat");
+        if (stat == null)
+            return -1;
+        for (String line : stat.split("\n"))
+            if (line.startsWith("procs_running "))
+                return Integer.parseInt(line.substring(14).trim());
+        return -1;
+    }
+
+    /*
+     * received and sent bytes, and link speed in bytes per second (0 if
+     * unknown) of each physical interface, as traffic through bonds, bridges
+     * and veth pairs is counted on the NICs beneath them again. Virtual ones
+     * are only taken if there is no physical one to be seen, e.g. inside a
+     * container.
+     */
+    private Map<String, long[]> readNetDev() {
+        String dev = readProc("/proc/net/dev");
+        if (dev == null)
+            return null;
+        Map<String, long[]> result = new HashMap<String, long[]>();
+        Map<String, long[]> virtual = new HashMap<String, long[]>();
+        for (String line : dev.split("\n")) {
+            int idx = line.indexOf(':');
+            if (idx < 0)
+                continue; // headers
+            String name = line.substring(0, idx).trim();
+            if (name.equals("lo"))
+                continue;
+            String[] fields = line.substring(idx + 1).trim().split("\\s+");
+            if (fields.length < 9)
+                continue;
+            long[] bytes = { Long.parseLong(fields[0]), Long.parseLong(fields[8]),
+                    NicSpeed.getSpeed(name) * 1000000 / 8 };
+            (NicSpeed.isPhysical(name) ? result : virtual).put(name, bytes);
+        }
+        return result.isEmpty() ? virtual : result;
+    }
+
+    private String readProc(String path) {
+        if (unreadable.contains(path))
+            return null;
+        try {
+            Reader reader = new FileReader(path);
+            try {
+                return IOUtils.toString(reader);
+            } finally {
+                IOUtils.closeQuietly(reader);
+            }
+        } catch (IOException e) {
+            unreadable.add(path);
+            LOGGER.debug("cannot read {}, driver resources are partly unknown",
+                    path);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.driver.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.intel.cosbench.bench.Sample;
+import com.intel.cosbench.log.*;
+
+/**
+ * This class records every operation of a mission, or a sampled share of
+ * them, to a gzip compressed CSV file. Workers only put samples into rings of
+ * their own, which never block: a sample is dropped if its ring is full. A
+ * background thread drains the rings into the file.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class TraceRecorder {
+
+    private static final Logger LOGGER = LogFactory.getSystemLogger();
+
+    private static final long IDLE_WAIT = 50L; // in milliseconds
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static final String HEADER = "Timestamp,Worker,Op-Type,Op-Name,"
+            + "Container,Object,Bytes,Status,Res-Time,Xfer-Time,Wait-Time";
+
+    private File file;
+    private double rate;
+    private int capacity;
+
+    private List<Ring> rings = new CopyOnWriteArrayList<Ring>();
+    private volatile boolean closed = false;
+    private volatile boolean done = false; /* the file is complete */
+    private Thread drainer;
+    private Writer writer;
+    private long written = 0;
+
+    /**
+     * @param rate
+     *            the share of operations to record, in (0, 1]
+     * @param capacity
+     *            samples each worker may have pending
+     */
+    public TraceRecorder(File file, double rate, int capacity) {
+        if (rate <= 0 || rate > 1)
+            throw new IllegalArgumentException("illegal trace rate: " + rate);
+        this.file = file;
+        this.rate = rate;
+        this.capacity = Math.max(capacity, 16);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return true once the file is closed and may be read
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return a ring to be written by one worker only
+     */
+    public Ring newRing(int worker) {
+        Ring ring = new Ring(worker, capacity, rate);
+        rings.add(ring);
+        return ring;
+    }
+
+    public void open() throws IOException {
+        OutputStream out = new GZIPOutputStream(new FileOutputStream(file),
+                BUFFER_SIZE);
+        writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"),
+                BUFFER_SIZE);
+        writer.write(HEADER);
+        writer.write('\n');
+        drainer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drainLoop();
+            }
+        }, "trace-writer-" + file.getName());
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Stops the background thread once all pending samples are written, and
+     * closes the file.
+     */
+    public void close() {
+        closed = true;
+        if (drainer == null || done)
+            return;
+        try {
+            drainer.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        long dropped = 0;
+        for (Ring ring : rings)
+            dropped += ring.dropped;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.warn("fail to close trace file " + file.getPath(), e);
+        }
+        LOGGER.info("{} operations have been traced to {}", written,
+                file.getPath());
+        if (dropped > 0)
+            LOGGER.warn("{} operations were not traced as buffers were full",
+                    dropped);
+        done = true;
+    }
+
+    private void drainLoop() {
+        StringBuilder buffer = new StringBuilder(256);
+        try {
+            while (true) {
+                boolean last = closed; // drain once more after close
+                int count = 0;
+                for (Ring ring : rings)
+                    count += ring.drainTo(writer, buffer);
+                written += count;
+                if (last)
+                    break;
+                if (count == 0)
+                    Thread.sleep(IDLE_WAIT);
+            }
+        } catch (InterruptedException ie) {
+            /* closing */
+        } catch (IOException e) {
+            LOGGER.error("fail to write trace file " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * A bounded single producer, single consumer queue of samples.
+     */
+    public static class Ring {
+
+        private int worker;
+        private Sample[] slots;
+        private int mask;
+        private double rate;
+        private long seed; /* for sampling, touched by the producer only */
+
+        private AtomicLong head = new AtomicLong(); /* next to read */
+        private AtomicLong tail = new AtomicLong(); /* next to write */
+        private volatile long dropped = 0; /* written by the producer only */
+
+        private Ring(int worker, int capacity, double rate) {
+            int size = Integer.highestOneBit(capacity - 1) << 1;
+            this.worker = worker;
+            this.slots = new Sample[size];
+            this.mask = size - 1;
+            this.rate = rate;
+            this.seed = System.nanoTime() ^ (worker * 0x9E3779B97F4A7C15L);
+            if (seed == 0)
+                seed = 1;
+        }
+
+        /**
+         * Called by the worker for each sample created, never blocks.
+         */
+        public void record(Sample sample) {
+            if (rate < 1 && nextDouble() >= rate)
+                return;
+            long t = tail.get();
+            if (t - head.get() >= slots.length) {
+                dropped++;
+                return;
+            }
+            slots[(int) t & mask] = sample;
+            tail.lazySet(t + 1); // publishes the slot
+        }
+
+        /* xorshift, cheaper than a shared random on the hot path */
+        private double nextDouble() {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            return (seed >>> 11) * 0x1.0p-53;
+        }
+
+        private int drainTo(Writer writer, StringBuilder buffer)
+                throws IOException {
+            long h = head.get();
+            long t = tail.get();
+            for (long i = h; i < t; i++) {
+                int index = (int) i & mask;
+                Sample sample = slots[index];
+                slots[index] = null;
+                buffer.setLength(0);
+                format(buffer, sample);
+                writer.write(buffer.toString());
+                head.lazySet(i + 1); // frees the slot
+            }
+            return (int) (t - h);
+        }
+
+        private void format(StringBuilder buffer, Sample sample) {
+            long time = sample.getTime();
+            long xfer = sample.getXferTime();
+            buffer.append(sample.getTimestamp().getTime()).append(',');
+            buffer.append(worker).append(',');
+            buffer.append(sample.getOpType()).append(',');
+            buffer.append(sample.getOpName()).append(',');
+            appendPath(buffer, sample.getConName()).append(',');
+            appendPath(buffer, sample.getObjName()).append(',');
+            buffer.append(sample.getBytes()).append(',');
+            buffer.append(sample.isSucc() ? "ok" : "failed").append(',');
+            if (sample.isSucc())
+                buffer.append(time).append(',').append(xfer).append(',')
+                        .append(time - xfer);
+            else
+                buffer.append("N/A,N/A,N/A"); // not measured
+            buffer.append('\n');
+        }
+
+        private static StringBuilder appendPath(StringBuilder buffer,
+                String name) {
+            if (name == null)
+                return buffer.append("N/A");
+            if (name.indexOf(',') < 0 && name.indexOf('"') < 0)
+                return buffer.append(name);
+            return buffer.append('"').append(name.replace("\"", "\"\""))
+                    .append('"');
+        }
+
+    }
+
+}
@@ -15,6 +15,7 @@ import com.intel.cosbench.config.Config;
 import com.intel.cosbench.log.Logger;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.InputStreamContent;
 import com.google.api.client.json.JsonFactory;
@@ -85,6 +86,8 @@ public class GcsStorage extends NoneStorage {
 			Storage.Objects.Get getRequest = client.objects().get(container,
 					object);
 			stream = getRequest.executeMediaAsInputStream();
+		} catch (HttpResponseException hre) {
+			throw new StorageException(hre.getStatusCode(), hre.getStatusMessage(), hre);
 		} catch (IOException e) {
 			throw new StorageException(e);
 		}
@@ -100,6 +103,8 @@ public class GcsStorage extends NoneStorage {
 			Storage.Buckets.Insert bucketInsertRequest = client.buckets()
 					.insert(projectId, newBucket);
 			bucketInsertRequest.execute();
+		} catch (HttpResponseException hre) {
+			throw new StorageException(hre.getStatusCode(), hre.getStatusMessage(), hre);
 		} catch (IOException e) {
 			throw new StorageException(e);
 		}
@@ -116,6 +121,8 @@ public class GcsStorage extends NoneStorage {
 			Storage.Objects.Insert insertRequest = client.objects().insert(
 					container, objectMetadata, contentStream);
 			insertRequest.execute();
+		} catch (HttpResponseException hre) {
+			throw new StorageException(hre.getStatusCode(), hre.getStatusMessage(), hre);
 		} catch (IOException e) {
 			throw new StorageException(e);
 		}
@@ -129,6 +136,8 @@ public class GcsStorage extends NoneStorage {
 			Storage.Buckets.Delete bucketDeleteRequest = client.buckets()
 					.delete(container);
 			bucketDeleteRequest.execute();
+		} catch (HttpResponseException hre) {
+			throw new StorageException(hre.getStatusCode(), hre.getStatusMessage(), hre);
 		} catch (IOException e) {
 			throw new StorageException(e);
 		}
@@ -139,6 +148,8 @@ public class GcsStorage extends NoneStorage {
 		super.deleteObject(container, object, config);
 		try {
 			client.objects().delete(container, object).execute();
+		} catch (HttpResponseException hre) {
+			throw new StorageException(hre.getStatusCode(), hre.getStatusMessage(), hre);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
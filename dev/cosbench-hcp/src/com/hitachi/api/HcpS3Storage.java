@@ -16,6 +16,7 @@ limitations under the License.
 */ 
 package com.hitachi.api;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.SDKGlobalConfiguration;
 import com.intel.cosbench.api.storage.NoneStorage;
@@ -126,6 +127,8 @@ public class HcpS3Storage extends NoneStorage {
     	super.deleteObject(container, object, config);
     	try {
     		client.deleteObject(container, object);
+    	} catch (AmazonServiceException ase) {
+    		throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
     	} catch (Exception e) {
     		throw new StorageException(e);
     	}
@@ -137,6 +140,8 @@ public class HcpS3Storage extends NoneStorage {
     	super.deleteContainer(container, config);
     	try {
     		client.deleteBucket(container);
+    	} catch (AmazonServiceException ase) {
+    		throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
     	} catch (Exception e) {
     		throw new  StorageException(e);
     	}
@@ -148,6 +153,8 @@ public class HcpS3Storage extends NoneStorage {
     	super.createObject(container, object, data, length, config);
     	try {    		
     		client.putObject(container, object, data, length);
+    	} catch (AmazonServiceException ase) {
+    		throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
     	} catch (Exception e) {
     		throw new StorageException(e);
     	}
@@ -158,6 +165,8 @@ public class HcpS3Storage extends NoneStorage {
     	super.createContainer(container, config);
         try {
         	client.createBucket(container);
+        } catch (AmazonServiceException ase) {
+        	throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
         	throw new StorageException(e);
         }
@@ -170,6 +179,8 @@ public class HcpS3Storage extends NoneStorage {
     	super.getObject(container, object, config);
         try {
         	return client.getObject(container, object);        	
+        } catch (AmazonServiceException ase) {
+        	throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
         	throw new StorageException(e); 
         }
@@ -247,7 +247,7 @@ public class HCPCSStorageApi extends NoneStorage {
             if (e.getStatusCode() == HttpURLConnection.HTTP_CONFLICT) {
                 return;
             }
-            throw new StorageException(e);
+            throw new StorageException(e.getStatusCode(), e.getMessage(), e);
         } catch (SdkClientException e) {
             throw new StorageException(e);
         }
@@ -263,7 +263,7 @@ public class HCPCSStorageApi extends NoneStorage {
             if (e.getStatusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
                 return;
             }
-            throw new StorageException(e);
+            throw new StorageException(e.getStatusCode(), e.getMessage(), e);
         } catch (SdkClientException e) {
             throw new StorageException(e);
         }
@@ -279,6 +279,8 @@ public class HCPCSStorageApi extends NoneStorage {
             metadata.setContentType("application/octet-stream");
             PutObjectRequest request = new PutObjectRequest(container, object, data, metadata);
             s3Client.putObject(request);
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -291,6 +293,8 @@ public class HCPCSStorageApi extends NoneStorage {
             GetObjectRequest request = new GetObjectRequest(container, object);
             S3Object response = s3Client.getObject(request);
             return (response != null) ? response.getObjectContent() : null;
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -302,6 +306,8 @@ public class HCPCSStorageApi extends NoneStorage {
         try {
             DeleteObjectRequest request = new DeleteObjectRequest(container, object);
             s3Client.deleteObject(request);
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -43,6 +43,7 @@ import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.conn.SingleClientConnManager;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
 import org.apache.http.params.BasicHttpParams;
 import org.apache.http.params.HttpConnectionParams;
 import org.apache.http.params.HttpParams;
@@ -76,6 +77,52 @@ public class HttpClientUtil {
 	      return new DefaultHttpClient(cm, params);    	    	
     }
 
+    /**
+     * Creates an HTTP client backed by a pool of connections, which can be
+     * shared by multiple threads.
+     * 
+     * @param timeout
+     *            the timeout in seconds that will be honored by this client
+     * @param maxPerRoute
+     *            the maximum number of connections to a single host
+     * @param maxTotal
+     *            the maximum number of connections in total
+     * @return a new thread-safe HTTP client
+     */
+    public static HttpClient createPooledHttpClient(int timeout,
+            int maxPerRoute, int maxTotal) {
+        HttpParams params = createDefaultHttpParams(timeout);
+        ThreadSafeClientConnManager cm = new ThreadSafeClientConnManager(
+                createSchemeRegistry());
+        cm.setDefaultMaxPerRoute(maxPerRoute);
+        cm.setMaxTotal(maxTotal);
+        return new DefaultHttpClient(cm, params);
+    }
+
+    /**
+     * @return the connections held open by a pooled HTTP client, or -1 if the
+     *         client is not pooled
+     */
+    public static int getPooledConnections(HttpClient client) {
+        ClientConnectionManager manager = client != null ? client
+                .getConnectionManager() : null;
+        if (!(manager instanceof ThreadSafeClientConnManager))
+            return -1;
+        return ((ThreadSafeClientConnManager) manager).getConnectionsInPool();
+    }
+
+    /**
+     * @return the most connections a pooled HTTP client may hold, or -1 if the
+     *         client is not pooled
+     */
+    public static int getMaxConnections(HttpClient client) {
+        ClientConnectionManager manager = client != null ? client
+                .getConnectionManager() : null;
+        if (!(manager instanceof ThreadSafeClientConnManager))
+            return -1;
+        return ((ThreadSafeClientConnManager) manager).getMaxTotal();
+    }
+
     private static  HttpParams createDefaultHttpParams(int timeout) {
         HttpParams params = new BasicHttpParams();
         /* default HTTP parameters */
@@ -122,13 +169,18 @@ public class HttpClientUtil {
     }
 
     private static ClientConnectionManager createClientConnManager()
+    {
+        return new SingleClientConnManager(createSchemeRegistry());
+    }
+
+    private static SchemeRegistry createSchemeRegistry()
     {
         SchemeRegistry sr = new SchemeRegistry();            
         
         sr.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
         sr.register(new Scheme("https", 443, createSSLSocketFactory()));
 
-        return new SingleClientConnManager(sr);
+        return sr;
     }
     
     /**
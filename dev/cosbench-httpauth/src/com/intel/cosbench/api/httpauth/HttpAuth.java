@@ -140,7 +140,8 @@ class HttpAuth extends NoneAuth {
     			return createContext();
     		}
     		if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-    			throw new AuthException(response.getStatusLine().getReasonPhrase());
+    			throw new AuthException(HttpStatus.SC_UNAUTHORIZED, response
+    					.getStatusLine().getReasonPhrase(), null);
     		}
     	}catch (SocketTimeoutException ste) {
             throw new AuthTimeoutException(ste);
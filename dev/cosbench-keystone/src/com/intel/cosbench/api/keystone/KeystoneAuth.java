@@ -19,6 +19,9 @@ package com.intel.cosbench.api.keystone;
 
 import static com.intel.cosbench.client.keystone.KeystoneConstants.*;
 
+import java.text.*;
+import java.util.TimeZone;
+
 import org.apache.http.client.HttpClient;
 
 import com.intel.cosbench.api.auth.*;
@@ -118,8 +121,27 @@ class KeystoneAuth extends NoneAuth {
 //        context.put(STORAGE_URL_KEY, client.getServiceUrl(service));
 //        return context;
         KeystoneAuthContext context = new KeystoneAuthContext(url, username, password, service, client.getKeystoneTokenId(), client.getServiceUrl(service));
+        long expires = parseExpires(client.getToken().getExpires());
+        if (expires > 0)
+            context.put(AuthConstants.EXPIRES_KEY, expires);
         
         return context;
     }
 
+    /*
+     * Keystone reports token expiry in UTC, e.g. 2013-02-27T18:30:59Z, possibly
+     * with fractional seconds; only the part up to seconds is used.
+     */
+    private static long parseExpires(String expires) {
+        if (expires == null || expires.length() < 19)
+            return 0;
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            return format.parse(expires.substring(0, 19)).getTime();
+        } catch (ParseException pe) {
+            return 0;
+        }
+    }
+
 }
@@ -30,6 +30,7 @@ import com.ceph.rados.IoCTX;
 import com.ceph.rados.Rados;
 import com.ceph.rados.RadosException;
 import com.intel.cosbench.api.context.AuthContext;
+import com.intel.cosbench.api.context.ErrorCategory;
 import com.intel.cosbench.api.storage.NoneStorage;
 import com.intel.cosbench.api.storage.StorageException;
 import com.intel.cosbench.config.Config;
@@ -72,7 +73,7 @@ public class LibradosStorage extends NoneStorage {
                 client.connect();
                 logger.debug("Librados client has been initialized");
             } catch (RadosException e) {
-                throw new StorageException(e);
+                throw toStorageException(e);
             }
         }
     }
@@ -102,7 +103,7 @@ public class LibradosStorage extends NoneStorage {
             ioctx.read(object, (int) length, 0, buf);
             stream = new ByteArrayInputStream(buf);
         } catch (RadosException e) {
-            throw new StorageException(e);
+            throw toStorageException(e);
         }
         client.ioCtxDestroy(ioctx);
         return stream;
@@ -121,7 +122,7 @@ public class LibradosStorage extends NoneStorage {
                 client.poolCreate(container);    
             }
         } catch (RadosException e) {
-            throw new StorageException(e);
+            throw toStorageException(e);
         }
     }
 
@@ -130,7 +131,7 @@ public class LibradosStorage extends NoneStorage {
         try {
             client.poolDelete(container);
         } catch (RadosException e) {
-            throw new StorageException(e);
+            throw toStorageException(e);
         }
     }
 
@@ -142,7 +143,7 @@ public class LibradosStorage extends NoneStorage {
             IoCTX ioctx = client.ioCtxCreate(container);
             ioctx.write(object, buf);
         } catch (RadosException e) {
-            throw new StorageException(e);
+            throw toStorageException(e);
         } catch (IOException e) {
             throw new StorageException(e);
         }
@@ -155,7 +156,36 @@ public class LibradosStorage extends NoneStorage {
             ioctx = client.ioCtxCreate(container);
             ioctx.remove(object);
         } catch (RadosException e) {
-            throw new StorageException(e);
+            throw toStorageException(e);
+        }
+    }
+
+    /**
+     * Classify the librados error by its (negated) errno.
+     */
+    private static StorageException toStorageException(RadosException e) {
+        ErrorCategory category;
+        switch (-e.getReturnValue()) {
+        case 2: // ENOENT
+            category = ErrorCategory.NOT_FOUND;
+            break;
+        case 17: // EEXIST
+        case 39: // ENOTEMPTY
+            category = ErrorCategory.CONFLICT;
+            break;
+        case 1: // EPERM
+        case 13: // EACCES
+            category = ErrorCategory.FORBIDDEN;
+            break;
+        case 4: // EINTR
+            category = ErrorCategory.INTERRUPTED;
+            break;
+        case 110: // ETIMEDOUT
+            category = ErrorCategory.TIMEOUT;
+            break;
+        default:
+            category = ErrorCategory.UNKNOWN;
         }
+        return new StorageException(category, e.getMessage(), e);
     }
 }
@@ -42,4 +42,16 @@ public interface LogManager {
 
     public String getLogAsString() throws IOException;
 
+    /**
+     * Copies the log file to the given stream without loading it in memory.
+     * 
+     * @param tail
+     *            if positive, only about the last so many bytes are copied,
+     *            starting from the first complete line
+     * @param level
+     *            if not null, entries below this level are left out
+     */
+    public void copyLog(OutputStream out, long tail, LogLevel level)
+            throws IOException;
+
 }
@@ -18,8 +18,10 @@ limitations under the License.
 package com.intel.cosbench.log.log4j;
 
 import java.io.*;
+import java.util.regex.*;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.log4j.*;
 import org.apache.log4j.spi.RootLogger;
 import org.apache.log4j.varia.NullAppender;
@@ -44,6 +46,10 @@ public class Log4jLogManager implements LogManager {
 
     private static final int BUFFER_SIZE = 10 * 1024;
 
+    /* the start of an entry written by the file appender's layout */
+    private static final Pattern ENTRY_START = Pattern
+            .compile("^\\d{4}-\\d{2}-\\d{2} [\\d:,]+ \\[(\\w+)\\]");
+
     private File file; /* log file */
     private Logger logger; /* root logger */
     private Hierarchy repository; /* logger repository */
@@ -135,4 +141,64 @@ public class Log4jLogManager implements LogManager {
         return FileUtils.readFileToString(file);
     }
 
+    @Override
+    public void copyLog(OutputStream out, long tail, LogLevel level)
+            throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            long skip = tail > 0 ? file.length() - tail : 0;
+            if (skip > 0)
+                skipToNextLine(in, skip);
+            if (level == null || level == LogLevel.TRACE)
+                IOUtils.copy(in, out);
+            else
+                copyEntries(in, out, level);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private static void skipToNextLine(InputStream in, long skip)
+            throws IOException {
+        while (skip > 0) {
+            long skipped = in.skip(skip);
+            if (skipped <= 0)
+                return; // end of file
+            skip -= skipped;
+        }
+        int c;
+        while ((c = in.read()) != -1 && c != '\n')
+            ; // drop the partial line
+    }
+
+    /*
+     * Lines not starting an entry, such as stack traces, follow the entry
+     * they belong to.
+     */
+    private static void copyEntries(InputStream in, OutputStream out,
+            LogLevel level) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        Writer writer = new OutputStreamWriter(out);
+        boolean keep = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Matcher matcher = ENTRY_START.matcher(line);
+            if (matcher.find())
+                keep = isAtLeast(matcher.group(1), level);
+            if (!keep)
+                continue;
+            writer.write(line);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static boolean isAtLeast(String name, LogLevel level) {
+        try {
+            return LogLevel.parseLevel(name).compareTo(level) >= 0;
+        } catch (IllegalArgumentException e) {
+            return true; // FATAL
+        }
+    }
+
 }
@@ -0,0 +1,103 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.api.mock;
+
+import java.util.*;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.config.ConfigException;
+
+/**
+ * This class represents one scripted fault window of the mocked backend. Windows
+ * are given as a comma separated list of <code>begin-end:rate[:code]</code>,
+ * where begin and end are seconds since the storage was initialized, rate is the
+ * error rate within the window and code is the status code to report, e.g.:
+ * 
+ * <pre>
+ * faults=30-60:0.5,120-130:1:503
+ * </pre>
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class FaultWindow {
+
+    private static final int CODE_DEFAULT = 500;
+
+    private long begin; // in milliseconds
+    private long end; // in milliseconds
+    private double rate;
+    private int code;
+
+    public FaultWindow(long begin, long end, double rate, int code) {
+        this.begin = begin;
+        this.end = end;
+        this.rate = rate;
+        this.code = code;
+    }
+
+    public boolean isActive(long elapsed) {
+        return elapsed >= begin && elapsed < end;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        return begin / 1000 + "-" + end / 1000 + ":" + rate + ":" + code;
+    }
+
+    public static List<FaultWindow> parse(String pattern) {
+        List<FaultWindow> windows = new ArrayList<FaultWindow>();
+        for (String entry : StringUtils.split(
+                StringUtils.deleteWhitespace(pattern), ','))
+            windows.add(parseWindow(entry));
+        return windows;
+    }
+
+    private static FaultWindow parseWindow(String entry) {
+        try {
+            return tryParseWindow(entry);
+        } catch (Exception e) {
+        }
+        String msg = "illegal fault window: " + entry;
+        throw new ConfigException(msg);
+    }
+
+    private static FaultWindow tryParseWindow(String entry) {
+        String[] parts = StringUtils.split(entry, ':');
+        String[] range = StringUtils.split(parts[0], '-');
+        if (parts.length < 2 || parts.length > 3 || range.length != 2)
+            throw new IllegalArgumentException();
+        long begin = Long.parseLong(range[0]) * 1000;
+        long end = Long.parseLong(range[1]) * 1000;
+        double rate = Double.parseDouble(parts[1]);
+        int code = parts.length > 2 ? Integer.parseInt(parts[2]) : CODE_DEFAULT;
+        if (begin < 0 || end <= begin || rate < 0 || rate > 1)
+            throw new IllegalArgumentException();
+        return new FaultWindow(begin, end, rate, code);
+    }
+
+}
@@ -0,0 +1,179 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.api.mock;
+
+import java.util.Random;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.intel.cosbench.config.ConfigException;
+
+/**
+ * This class models the service time of the mocked backend. A model is made of
+ * a base distribution and an optional tail spike, joined by a '+', e.g.:
+ * 
+ * <pre>
+ * c(10)                 constant 10 ms
+ * ln(10,0.5)            lognormal, median 10 ms, sigma 0.5
+ * bi(0.9,5,50)          bimodal, 90% around 5 ms, 10% around 50 ms
+ * ln(10,0.5)+sp(0.001,2000)   plus a 2000 ms spike for 0.1% of requests
+ * </pre>
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+abstract class LatencyModel {
+
+    public abstract long next(Random random);
+
+    public static LatencyModel parse(String pattern) {
+        pattern = StringUtils.deleteWhitespace(pattern);
+        try {
+            return tryParse(pattern);
+        } catch (ConfigException ce) {
+            throw ce;
+        } catch (Exception e) {
+        }
+        String msg = "illegal latency pattern: " + pattern;
+        throw new ConfigException(msg);
+    }
+
+    private static LatencyModel tryParse(String pattern) {
+        String base = StringUtils.substringBefore(pattern, "+");
+        String spike = StringUtils.substringAfter(pattern, "+");
+        LatencyModel model = parseBase(base);
+        if (StringUtils.isEmpty(spike))
+            return model;
+        if (!StringUtils.startsWith(spike, "sp("))
+            throw new ConfigException("unrecognized latency spike: " + spike);
+        double[] args = parseArgs(spike, 2);
+        return new Spike(model, args[0], (long) args[1]);
+    }
+
+    private static LatencyModel parseBase(String pattern) {
+        if (StringUtils.startsWith(pattern, "c(")) {
+            double[] args = parseArgs(pattern, 1);
+            return new Constant((long) args[0]);
+        }
+        if (StringUtils.startsWith(pattern, "ln(")) {
+            double[] args = parseArgs(pattern, 2);
+            return new LogNormal(args[0], args[1]);
+        }
+        if (StringUtils.startsWith(pattern, "bi(")) {
+            double[] args = parseArgs(pattern, 3);
+            return new Bimodal(args[0], args[1], args[2]);
+        }
+        throw new ConfigException("unrecognized latency distribution: "
+                + pattern);
+    }
+
+    private static double[] parseArgs(String pattern, int count) {
+        String[] values = StringUtils.split(
+                StringUtils.substringBetween(pattern, "(", ")"), ',');
+        if (values.length != count)
+            throw new IllegalArgumentException();
+        double[] args = new double[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = Double.parseDouble(values[i]);
+            if (args[i] < 0)
+                throw new IllegalArgumentException();
+        }
+        return args;
+    }
+
+    static class Constant extends LatencyModel {
+
+        private long delay;
+
+        public Constant(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public long next(Random random) {
+            return delay;
+        }
+
+    }
+
+    static class LogNormal extends LatencyModel {
+
+        private double mu;
+        private double sigma;
+
+        public LogNormal(double median, double sigma) {
+            this.mu = Math.log(Math.max(median, 1));
+            this.sigma = sigma;
+        }
+
+        @Override
+        public long next(Random random) {
+            return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+
+    }
+
+    static class Bimodal extends LatencyModel {
+
+        private double ratio;
+        private LatencyModel fast;
+        private LatencyModel slow;
+
+        public Bimodal(double ratio, double fast, double slow) {
+            if (ratio > 1)
+                throw new IllegalArgumentException();
+            this.ratio = ratio;
+            /* each mode is a narrow lognormal around its median */
+            this.fast = new LogNormal(fast, 0.1);
+            this.slow = new LogNormal(slow, 0.1);
+        }
+
+        @Override
+        public long next(Random random) {
+            if (random.nextDouble() < ratio)
+                return fast.next(random);
+            return slow.next(random);
+        }
+
+    }
+
+    static class Spike extends LatencyModel {
+
+        private LatencyModel base;
+        private double ratio;
+        private long delay;
+
+        public Spike(LatencyModel base, double ratio, long delay) {
+            if (ratio > 1)
+                throw new IllegalArgumentException();
+            this.base = base;
+            this.ratio = ratio;
+            this.delay = delay;
+        }
+
+        @Override
+        public long next(Random random) {
+            long value = base.next(random);
+            if (random.nextDouble() < ratio)
+                value += delay;
+            return value;
+        }
+
+    }
+
+}
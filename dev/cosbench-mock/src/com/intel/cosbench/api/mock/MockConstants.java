@@ -43,4 +43,36 @@ public interface MockConstants {
 
     Boolean PROFILING_DEFAULT = Boolean.FALSE;
 
+    // --------------------------------------------------------------------------
+    // STAND-IN BACKEND
+    // --------------------------------------------------------------------------
+
+    String STORE_KEY = "store";
+
+    String STORE_DEFAULT = "default";
+
+    String KEEP_STORE_KEY = "keep_store"; // defaults to the indexing setting
+
+    String INDEXING_KEY = "indexing";
+
+    Boolean INDEXING_DEFAULT = Boolean.FALSE;
+
+    String LATENCY_KEY = "latency";
+
+    String BANDWIDTH_KEY = "bandwidth";
+
+    Long BANDWIDTH_DEFAULT = 0L;
+
+    String TOTAL_BANDWIDTH_KEY = "totalBandwidth";
+
+    Long TOTAL_BANDWIDTH_DEFAULT = 0L;
+
+    String CONCURRENCY_KEY = "concurrency";
+
+    Integer CONCURRENCY_DEFAULT = 0;
+
+    String FAULTS_KEY = "faults";
+
+    String FAULTS_DEFAULT = "";
+
 }
@@ -19,18 +19,23 @@ package com.intel.cosbench.api.mock;
 
 import static com.intel.cosbench.api.mock.MockConstants.*;
 
-import java.io.InputStream;
-import java.util.Random;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.Semaphore;
 
 import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.lang.StringUtils;
 
 import com.intel.cosbench.api.storage.*;
 import com.intel.cosbench.config.Config;
 import com.intel.cosbench.log.Logger;
 
 /**
- * This is an mocked storage, which just inserts a short delay before return for
- * each request.
+ * This is an mocked storage, which inserts a delay before return for each
+ * request. Beyond the fixed delay, it can act as a stand-in backend: it may keep
+ * an in-memory index of objects, draw service times from a latency model, cap
+ * bandwidth per connection and in aggregate, queue requests on a limited number
+ * of service slots, and inject faults within scripted time windows.
  * 
  * @author ywang19, qzheng7
  * 
@@ -46,6 +51,15 @@ class MockStorage extends NoneStorage {
     private double errors; // error rate for error injection [0,1]
     private boolean printing; // enable printing object content (for debugging)
     private boolean profiling; // enable operation profiling (for debugging)
+    private boolean indexing; // keep track of created containers and objects
+    private long bandwidth; // per connection bandwidth (in bytes per second)
+    private LatencyModel latency; // service time model
+    private List<FaultWindow> faults; // scripted fault windows
+
+    private MockStore store;
+    private boolean keepStore; // keep the store for later missions
+    private boolean closed; // the store has been handed back
+    private long begin; // when this storage was initialized
 
     /* current working thread */
     private volatile Thread thread;
@@ -68,12 +82,35 @@ class MockStorage extends NoneStorage {
         errors = config.getDouble(OP_ERRORS_KEY, OP_ERRORS_DEFAULT);
         printing = config.getBoolean(PRINTING_KEY, PRINTING_DEFAULT);
         profiling = config.getBoolean(PROFILING_KEY, PROFILING_DEFAULT);
+        indexing = config.getBoolean(INDEXING_KEY, INDEXING_DEFAULT);
+        bandwidth = config.getLong(BANDWIDTH_KEY, BANDWIDTH_DEFAULT);
+        String pattern = config.get(LATENCY_KEY, "c(" + delay + ")");
+        latency = LatencyModel.parse(pattern);
+        String windows = config.get(FAULTS_KEY, FAULTS_DEFAULT);
+        faults = FaultWindow.parse(windows);
+        String name = config.get(STORE_KEY, STORE_DEFAULT);
+        int concurrency = config.getInt(CONCURRENCY_KEY, CONCURRENCY_DEFAULT);
+        long totalBandwidth = config.getLong(TOTAL_BANDWIDTH_KEY,
+                TOTAL_BANDWIDTH_DEFAULT);
+        /* each stage is a new mission, an index is only of use if kept */
+        keepStore = config.getBoolean(KEEP_STORE_KEY, indexing);
+        store = MockStore.open(name);
+        store.configure(concurrency, totalBandwidth);
+        begin = System.currentTimeMillis();
 
         parms.put(OBJECT_SIZE_KEY, size);
         parms.put(OP_DELAY_KEY, delay);
         parms.put(OP_ERRORS_KEY, errors);
         parms.put(PRINTING_KEY, printing);
         parms.put(PROFILING_KEY, profiling);
+        parms.put(INDEXING_KEY, indexing);
+        parms.put(LATENCY_KEY, pattern);
+        parms.put(BANDWIDTH_KEY, bandwidth);
+        parms.put(TOTAL_BANDWIDTH_KEY, totalBandwidth);
+        parms.put(CONCURRENCY_KEY, concurrency);
+        parms.put(FAULTS_KEY, faults);
+        parms.put(STORE_KEY, name);
+        parms.put(KEEP_STORE_KEY, keepStore);
 
         logger.debug("using storage config: {}", parms);
         
@@ -86,6 +123,9 @@ class MockStorage extends NoneStorage {
         if (profiling && logger.isDebugEnabled())
             stats.printStats(logger);
         thread = null;
+        if (store != null && !closed)
+            store.close(keepStore);
+        closed = true;
     }
 
     @Override
@@ -101,11 +141,10 @@ class MockStorage extends NoneStorage {
         super.getObject(container, object, config);
         if (profiling && logger.isDebugEnabled())
             stats.addEvent("GET", container + "/" + object);
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
-        return new NullInputStream(size);
+        injectErrors();
+        long length = indexing ? store.getObject(container, object) : size;
+        serve(length);
+        return new NullInputStream(length);
     }
     
     @Override
@@ -113,20 +152,23 @@ class MockStorage extends NoneStorage {
         super.getList(container, object, config);
         if (profiling && logger.isDebugEnabled())
             stats.addEvent("LIST", container + "/" + object); //###
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
-        return new NullInputStream(0); //###
+        injectErrors();
+        if (!indexing) {
+            serve(0);
+            return new NullInputStream(0); //###
+        }
+        byte[] listing = toListing(store.listObjects(container, object));
+        serve(listing.length);
+        return new ByteArrayInputStream(listing);
     }
 
     @Override
     public void createContainer(String container, Config config) {
         super.createContainer(container, config);
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
+        injectErrors();
+        serve(0);
+        if (indexing)
+            store.createContainer(container);
     }
 
     @Deprecated
@@ -135,12 +177,12 @@ class MockStorage extends NoneStorage {
         super.createObject(container, object, data, config);
         if (profiling && logger.isDebugEnabled())
             stats.addEvent("PUT", container + "/" + object);
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
+        injectErrors();
         if (printing)
             logger.debug("content to upload: " + MockUtils.toString(data));
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
+        serve(data.length);
+        if (indexing)
+            store.putObject(container, object, data.length);
     }
 
     @Override
@@ -149,23 +191,23 @@ class MockStorage extends NoneStorage {
         super.createObject(container, object, data, length, config);
         if (profiling && logger.isDebugEnabled())
             stats.addEvent("PUT", container + "/" + object);
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
+        injectErrors();
         if (printing)
             logger.debug("content to upload: " + MockUtils.toString(data));
         else
             MockUtils.consume(data);
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
+        serve(length);
+        if (indexing)
+            store.putObject(container, object, length);
     }
 
     @Override
     public void deleteContainer(String container, Config config) {
         super.deleteContainer(container, config);
-        if (random.nextDouble() < errors)
-            throw new StorageException("error injection");
-        thread = Thread.currentThread();
-        MockUtils.sleep(delay);
+        injectErrors();
+        serve(0);
+        if (indexing)
+            store.deleteContainer(container);
     }
 
     @Override
@@ -173,10 +215,48 @@ class MockStorage extends NoneStorage {
         super.deleteObject(container, object, config);
         if (profiling && logger.isDebugEnabled())
             stats.addEvent("DEL", container + "/" + object);
+        injectErrors();
+        serve(0);
+        if (indexing)
+            store.deleteObject(container, object);
+    }
+
+    private void injectErrors() {
         if (random.nextDouble() < errors)
             throw new StorageException("error injection");
+        if (faults.isEmpty())
+            return;
+        long elapsed = System.currentTimeMillis() - begin;
+        for (FaultWindow fault : faults)
+            if (fault.isActive(elapsed) && random.nextDouble() < fault.getRate())
+                throw new StorageException(fault.getCode(), "fault injection",
+                        null);
+    }
+
+    /**
+     * Holds a service slot for the drawn service time plus the time needed to
+     * move the given amount of bytes, which is bounded both by the bandwidth of
+     * this connection and by the bandwidth left on the shared link.
+     */
+    private void serve(long bytes) {
         thread = Thread.currentThread();
-        MockUtils.sleep(delay);
+        Semaphore acquired = store.acquire();
+        try {
+            long transfer = bandwidth > 0 ? bytes * 1000 / bandwidth : 0;
+            transfer = Math.max(transfer, store.reserve(bytes));
+            MockUtils.sleep(latency.next(random) + transfer);
+        } finally {
+            store.release(acquired);
+        }
+    }
+
+    private static byte[] toListing(List<String> objects) {
+        String listing = StringUtils.join(objects, '\n');
+        try {
+            return listing.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            return listing.getBytes(); // will not happen
+        }
     }
 
 }
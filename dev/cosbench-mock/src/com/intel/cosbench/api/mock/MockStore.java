@@ -0,0 +1,186 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.api.mock;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.intel.cosbench.api.storage.*;
+
+/**
+ * This class is the shared state behind all mocked storage instances using the
+ * same store name. It keeps an in-memory index of containers and object sizes
+ * (no data is kept), and models the server side resources: a bounded number of
+ * service slots, which makes requests queue under concurrency, and an aggregate
+ * bandwidth shared by all connections.
+ * <p>
+ * A store lives as long as some storage instance uses it, so that objects do
+ * not stay in driver memory once the missions using them are over, unless the
+ * last one to leave asks to keep it for later missions.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class MockStore {
+
+    private static final Map<String, MockStore> STORES = new HashMap<String, MockStore>();
+
+    private String name;
+    private int users; // guarded by STORES
+    private ConcurrentMap<String, ConcurrentSkipListMap<String, Long>> containers;
+
+    /* server side resources */
+    private int concurrency; // 0 means unlimited
+    private volatile Semaphore slots;
+    private volatile long totalBandwidth; // in bytes per second, 0 means unlimited
+    private long nextFree; // in nanoseconds, when the shared link is free again
+
+    private MockStore(String name) {
+        this.name = name;
+        containers = new ConcurrentHashMap<String, ConcurrentSkipListMap<String, Long>>();
+    }
+
+    /**
+     * Returns the store with the given name, each call must be paired with
+     * one to {@link #close(boolean)}.
+     */
+    public static MockStore open(String name) {
+        synchronized (STORES) {
+            MockStore store = STORES.get(name);
+            if (store == null)
+                STORES.put(name, store = new MockStore(name));
+            store.users++;
+            return store;
+        }
+    }
+
+    /**
+     * Drops the store and all it holds once nobody uses it, unless asked to
+     * keep it.
+     */
+    public void close(boolean keep) {
+        synchronized (STORES) {
+            if (--users > 0 || keep)
+                return;
+            if (STORES.get(name) == this)
+                STORES.remove(name);
+        }
+        containers.clear();
+    }
+
+    /**
+     * Server side resources are replaced only when they change, so that workers
+     * sharing one store with the same configuration share one queue.
+     */
+    public synchronized void configure(int concurrency, long totalBandwidth) {
+        if (concurrency != this.concurrency)
+            slots = concurrency > 0 ? new Semaphore(concurrency, true) : null;
+        this.concurrency = concurrency;
+        this.totalBandwidth = totalBandwidth;
+    }
+
+    /* ---------------------------------------------------------------------- */
+
+    /**
+     * Waits for a free service slot; the returned slots must be handed back to
+     * {@link #release(Semaphore)} once the request has been served.
+     */
+    public Semaphore acquire() {
+        Semaphore current = slots;
+        if (current == null)
+            return null;
+        try {
+            current.acquire();
+        } catch (InterruptedException ie) {
+            throw new StorageInterruptedException(ie);
+        }
+        return current;
+    }
+
+    public void release(Semaphore acquired) {
+        if (acquired != null)
+            acquired.release();
+    }
+
+    /**
+     * Reserves the shared link for the given amount of bytes and returns how
+     * long (in milliseconds) the caller has to wait until its transfer is done.
+     */
+    public long reserve(long bytes) {
+        long bandwidth = totalBandwidth;
+        if (bandwidth <= 0 || bytes <= 0)
+            return 0;
+        long duration = bytes * 1000000000L / bandwidth;
+        long now = System.nanoTime();
+        long done;
+        synchronized (this) {
+            long start = Math.max(now, nextFree);
+            done = start + duration;
+            nextFree = done;
+        }
+        return (done - now) / 1000000L;
+    }
+
+    /* ---------------------------------------------------------------------- */
+
+    public void createContainer(String container) {
+        containers.putIfAbsent(container,
+                new ConcurrentSkipListMap<String, Long>());
+    }
+
+    public void deleteContainer(String container) {
+        ConcurrentSkipListMap<String, Long> objects = containers.get(container);
+        if (objects == null)
+            throw new StorageException(404, "Not Found", null);
+        if (!objects.isEmpty())
+            throw new StorageException(409, "Conflict", null);
+        containers.remove(container, objects);
+    }
+
+    public void putObject(String container, String object, long length) {
+        getContainer(container).put(object, length);
+    }
+
+    public long getObject(String container, String object) {
+        Long length = getContainer(container).get(object);
+        if (length == null)
+            throw new StorageException(404, "Not Found", null);
+        return length;
+    }
+
+    public void deleteObject(String container, String object) {
+        if (getContainer(container).remove(object) == null)
+            throw new StorageException(404, "Not Found", null);
+    }
+
+    public List<String> listObjects(String container, String prefix) {
+        NavigableMap<String, Long> objects = getContainer(container);
+        if (prefix != null && prefix.length() > 0)
+            objects = objects.subMap(prefix, true, prefix + Character.MAX_VALUE,
+                    false);
+        return new ArrayList<String>(objects.keySet());
+    }
+
+    private ConcurrentSkipListMap<String, Long> getContainer(String container) {
+        ConcurrentSkipListMap<String, Long> objects = containers.get(container);
+        if (objects == null)
+            throw new StorageException(404, "Not Found", null);
+        return objects;
+    }
+
+}
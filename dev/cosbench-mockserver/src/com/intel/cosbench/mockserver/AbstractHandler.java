@@ -0,0 +1,144 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * The base class for object API front ends, providing content delivery with
+ * single range support and the helpers shared by both protocols.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+abstract class AbstractHandler {
+
+    protected ObjectStore store;
+
+    public AbstractHandler(ObjectStore store) {
+        this.store = store;
+    }
+
+    public abstract HttpResponse handle(HttpRequest request);
+
+    protected HttpResponse sendObject(HttpRequest request, StoredObject object,
+            String etag) {
+        long length = object.getLength();
+        long first = 0;
+        long last = length - 1;
+        int status = 200;
+        String range = request.getHeader("range");
+        if (range != null && range.startsWith("bytes=")
+                && range.indexOf(',') < 0 && range.indexOf('-') > 0) {
+            String spec = range.substring(6).trim();
+            int pos = spec.indexOf('-');
+            String from = spec.substring(0, pos).trim();
+            String to = spec.substring(pos + 1).trim();
+            try {
+                if (from.length() == 0) {
+                    first = Math.max(0, length - Long.parseLong(to));
+                } else {
+                    first = Long.parseLong(from);
+                    if (to.length() > 0)
+                        last = Math.min(Long.parseLong(to), length - 1);
+                }
+            } catch (NumberFormatException nfe) {
+                return new HttpResponse(400);
+            }
+            if (first >= length || first > last)
+                return new HttpResponse(416).setHeader("Content-Range",
+                        "bytes */" + length);
+            status = 206;
+        }
+        long count = length > 0 ? last - first + 1 : 0;
+        HttpResponse response = new HttpResponse(status);
+        if (status == 206)
+            response.setHeader("Content-Range", "bytes " + first + "-" + last
+                    + "/" + length);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Content-Type", "application/octet-stream");
+        response.setHeader("ETag", etag);
+        response.setHeader("Last-Modified",
+                HttpResponse.formatDate(object.getModified()));
+        if (object.getData() != null)
+            response.setBody(object.getData(), (int) first, count);
+        else
+            response.setZeros(count);
+        if (request.getMethod().equals("HEAD"))
+            response.omitBody();
+        return response;
+    }
+
+    protected static StoredObject receiveObject(HttpRequest request) {
+        return new StoredObject(request.getBody(), request.getBodyLength(),
+                request.getBodyDigest());
+    }
+
+    protected static List<Map.Entry<String, StoredObject>> listObjects(
+            NavigableMap<String, StoredObject> objects, String prefix,
+            String marker, int limit) {
+        if (prefix != null && prefix.length() > 0)
+            objects = objects.subMap(prefix, true, prefix + Character.MAX_VALUE,
+                    false);
+        if (marker != null && marker.length() > 0)
+            objects = objects.tailMap(marker, false);
+        List<Map.Entry<String, StoredObject>> entries = new ArrayList<Map.Entry<String, StoredObject>>();
+        for (Map.Entry<String, StoredObject> entry : objects.entrySet()) {
+            if (entries.size() >= limit)
+                break;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    protected static int getLimit(HttpRequest request, String name, int value) {
+        String limit = request.getParam(name);
+        try {
+            return limit != null ? Integer.parseInt(limit) : value;
+        } catch (NumberFormatException nfe) {
+            return value;
+        }
+    }
+
+    protected static String escape(String text) {
+        StringBuilder buffer = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '&')
+                buffer.append("&amp;");
+            else if (c == '<')
+                buffer.append("&lt;");
+            else if (c == '>')
+                buffer.append("&gt;");
+            else if (c == '"')
+                buffer.append("&quot;");
+            else
+                buffer.append(c);
+        }
+        return buffer.toString();
+    }
+
+    protected static String formatISO(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat(
+                "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(date);
+    }
+
+}
@@ -0,0 +1,89 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.*;
+
+/**
+ * This class receives a request body. It always keeps an MD5 digest and a byte
+ * count of the content, which is all the null data plane needs, and keeps the
+ * content itself only when asked to. An aws-chunked body is decoded on the fly.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class BodyReceiver implements ChunkDecoder.Target {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private MessageDigest digest;
+    private ByteArrayOutputStream buffer;
+    private ChunkDecoder decoder;
+    private long length;
+
+    public BodyReceiver(boolean keep, boolean awsChunked, long expected) {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException(nsae); // will not happen
+        }
+        if (keep)
+            buffer = new ByteArrayOutputStream((int) Math.min(
+                    Math.max(expected, 32), Integer.MAX_VALUE));
+        if (awsChunked)
+            decoder = new ChunkDecoder(this);
+    }
+
+    public void write(ByteBuffer data) {
+        if (decoder != null)
+            decoder.feed(data);
+        else
+            onData(data);
+    }
+
+    @Override
+    public void onData(ByteBuffer data) {
+        int count = data.remaining();
+        if (buffer != null)
+            buffer.write(data.array(), data.arrayOffset() + data.position(),
+                    count);
+        digest.update(data);
+        length += count;
+    }
+
+    public byte[] getData() {
+        return buffer != null ? buffer.toByteArray() : null;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getDigest() {
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,109 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class decodes a chunked stream, either the HTTP transfer coding or the
+ * aws-chunked content coding, which share the same framing:
+ * 
+ * <pre>
+ * size[;extensions] CRLF data CRLF ... 0[;extensions] CRLF [trailers] CRLF
+ * </pre>
+ * 
+ * It never consumes bytes past the end of the stream, so that the next request
+ * on a persistent connection is left untouched.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class ChunkDecoder {
+
+    interface Target {
+        void onData(ByteBuffer data);
+    }
+
+    private static final int LINE_LIMIT = 8192;
+
+    private static final int SIZE = 0;
+    private static final int DATA = 1;
+    private static final int DATA_END = 2;
+    private static final int TRAILER = 3;
+    private static final int DONE = 4;
+
+    private Target target;
+    private int state = SIZE;
+    private long remaining;
+    private StringBuilder line = new StringBuilder();
+
+    public ChunkDecoder(Target target) {
+        this.target = target;
+    }
+
+    public boolean isDone() {
+        return state == DONE;
+    }
+
+    public void feed(ByteBuffer in) {
+        while (state != DONE && in.hasRemaining()) {
+            if (state == DATA) {
+                int count = (int) Math.min(remaining, in.remaining());
+                ByteBuffer part = in.duplicate();
+                part.limit(part.position() + count);
+                target.onData(part);
+                in.position(in.position() + count);
+                if ((remaining -= count) == 0)
+                    state = DATA_END;
+            } else if (readLine(in)) {
+                onLine(line.toString());
+                line.setLength(0);
+            }
+        }
+    }
+
+    private boolean readLine(ByteBuffer in) {
+        while (in.hasRemaining()) {
+            char c = (char) (in.get() & 0xff);
+            if (c == '\n')
+                return true;
+            if (c != '\r')
+                line.append(c);
+            if (line.length() > LINE_LIMIT)
+                throw new IllegalArgumentException("chunk line too long");
+        }
+        return false;
+    }
+
+    private void onLine(String text) {
+        if (state == DATA_END) {
+            if (text.length() > 0)
+                throw new IllegalArgumentException("bad chunk end");
+            state = SIZE;
+        } else if (state == SIZE) {
+            int pos = text.indexOf(';');
+            String size = (pos < 0 ? text : text.substring(0, pos)).trim();
+            remaining = Long.parseLong(size, 16);
+            state = remaining > 0 ? DATA : TRAILER;
+        } else if (state == TRAILER) {
+            if (text.length() == 0)
+                state = DONE;
+        }
+    }
+
+}
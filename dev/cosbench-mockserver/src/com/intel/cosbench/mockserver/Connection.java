@@ -0,0 +1,260 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.LinkedList;
+
+/**
+ * This class drives one persistent HTTP/1.1 connection: it parses requests
+ * incrementally as bytes arrive, receives bodies (content-length or chunked),
+ * answers <code>Expect: 100-continue</code>, and writes responses without
+ * blocking. Requests on one connection are served strictly in order.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class Connection implements ChunkDecoder.Target {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LINE_LIMIT = 8192;
+    private static final int HEADER_LIMIT = 128;
+
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(
+            BUFFER_SIZE).asReadOnlyBuffer();
+
+    private static final int REQUEST_LINE = 0;
+    private static final int HEADERS = 1;
+    private static final int BODY = 2;
+    private static final int CHUNKED = 3;
+    private static final int RESPONSE = 4;
+
+    private MockServer server;
+    private SocketChannel channel;
+    private SelectionKey key;
+
+    private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    private int state = REQUEST_LINE;
+    private StringBuilder line = new StringBuilder();
+    private int headers;
+
+    private HttpRequest request;
+    private BodyReceiver receiver;
+    private ChunkDecoder decoder;
+    private long remaining;
+
+    private LinkedList<ByteBuffer> output = new LinkedList<ByteBuffer>();
+    private long zeros;
+    private boolean closing;
+
+    public Connection(MockServer server, SocketChannel channel, SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+    }
+
+    public void onReadable() throws IOException {
+        if (channel.read(input) < 0) {
+            close();
+            return;
+        }
+        advance();
+    }
+
+    public void onWritable() throws IOException {
+        advance();
+    }
+
+    private void advance() throws IOException {
+        while (true) {
+            boolean flushed = flush();
+            if (state == RESPONSE) {
+                if (!flushed)
+                    break;
+                if (closing) {
+                    close();
+                    return;
+                }
+                state = REQUEST_LINE;
+            }
+            if (!parse())
+                break;
+        }
+        int ops = state == RESPONSE ? 0 : SelectionKey.OP_READ;
+        if (!output.isEmpty() || zeros > 0)
+            ops |= SelectionKey.OP_WRITE;
+        key.interestOps(ops);
+    }
+
+    /**
+     * @return true if a complete request has been parsed and answered
+     */
+    private boolean parse() {
+        input.flip();
+        try {
+            while (state != RESPONSE && input.hasRemaining())
+                step();
+        } catch (IllegalArgumentException iae) {
+            input.position(input.limit());
+            line.setLength(0);
+            closing = true;
+            respond(new HttpResponse(400).setHeader("Connection", "close"));
+        } finally {
+            input.compact();
+        }
+        return state == RESPONSE;
+    }
+
+    private void step() {
+        if (state == REQUEST_LINE) {
+            String text = readLine();
+            if (text != null && text.length() > 0) {
+                request = new HttpRequest(text);
+                headers = 0;
+                state = HEADERS;
+            }
+        } else if (state == HEADERS) {
+            String text = readLine();
+            if (text == null)
+                return;
+            if (text.length() == 0)
+                onHeaders();
+            else if (++headers > HEADER_LIMIT)
+                throw new IllegalArgumentException("too many headers");
+            else
+                request.addHeader(text);
+        } else if (state == BODY) {
+            int count = (int) Math.min(remaining, input.remaining());
+            ByteBuffer part = input.duplicate();
+            part.limit(part.position() + count);
+            receiver.write(part);
+            input.position(input.position() + count);
+            if ((remaining -= count) == 0)
+                dispatch();
+        } else if (state == CHUNKED) {
+            decoder.feed(input);
+            if (decoder.isDone())
+                dispatch();
+        }
+    }
+
+    /**
+     * @return the next complete line, or null if more input is needed
+     */
+    private String readLine() {
+        while (input.hasRemaining()) {
+            char c = (char) (input.get() & 0xff);
+            if (c == '\n') {
+                String text = line.toString();
+                line.setLength(0);
+                return text;
+            }
+            if (c != '\r')
+                line.append(c);
+            if (line.length() > LINE_LIMIT)
+                throw new IllegalArgumentException("line too long");
+        }
+        return null;
+    }
+
+    private void onHeaders() {
+        if (request.isExpectContinue())
+            output.add(new HttpResponse(100).getHead());
+        boolean keep = !server.getStore().isSink()
+                || request.getMethod().equals("POST");
+        long length = request.getContentLength();
+        receiver = new BodyReceiver(keep, request.isAwsChunked(), length);
+        if (request.isChunked()) {
+            decoder = new ChunkDecoder(this);
+            state = CHUNKED;
+        } else if (length > 0) {
+            remaining = length;
+            state = BODY;
+        } else {
+            dispatch();
+        }
+    }
+
+    @Override
+    public void onData(ByteBuffer data) {
+        receiver.write(data);
+    }
+
+    private void dispatch() {
+        request.setBody(receiver.getData(), receiver.getLength(),
+                receiver.getDigest());
+        HttpResponse response;
+        try {
+            response = server.handle(request);
+        } catch (RuntimeException re) {
+            response = new HttpResponse(500);
+        }
+        if (request.getMethod().equals("HEAD"))
+            response.omitBody();
+        closing = !request.isKeepAlive();
+        if (closing)
+            response.setHeader("Connection", "close");
+        respond(response);
+    }
+
+    private void respond(HttpResponse response) {
+        output.add(response.getHead());
+        ByteBuffer body = response.getBody();
+        if (body != null)
+            output.add(body);
+        zeros = response.getZeros();
+        request = null;
+        receiver = null;
+        decoder = null;
+        state = RESPONSE;
+    }
+
+    /**
+     * @return true if all pending output has been written
+     */
+    private boolean flush() throws IOException {
+        while (!output.isEmpty()) {
+            ByteBuffer buffer = output.getFirst();
+            channel.write(buffer);
+            if (buffer.hasRemaining())
+                return false;
+            output.removeFirst();
+        }
+        while (zeros > 0) {
+            ByteBuffer buffer = ZEROS.duplicate();
+            if (zeros < buffer.remaining())
+                buffer.limit((int) zeros);
+            zeros -= channel.write(buffer);
+            if (buffer.hasRemaining())
+                return false;
+        }
+        return true;
+    }
+
+    public void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ioe) {
+            // ignore
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.*;
+import java.net.URLDecoder;
+import java.util.*;
+
+/**
+ * This class represents one parsed HTTP request. Header names are kept in lower
+ * case, the body is only kept when the data plane retains object content.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class HttpRequest {
+
+    private String method;
+    private String path;
+    private String version;
+    private Map<String, String> params = new HashMap<String, String>();
+    private Map<String, String> headers = new HashMap<String, String>();
+
+    private byte[] body; // null when the body is discarded
+    private long bodyLength;
+    private String bodyDigest;
+
+    public HttpRequest(String line) {
+        String[] parts = line.split(" ");
+        if (parts.length != 3)
+            throw new IllegalArgumentException("bad request line: " + line);
+        method = parts[0];
+        version = parts[2];
+        String uri = parts[1];
+        int pos = uri.indexOf('?');
+        path = decode(pos < 0 ? uri : uri.substring(0, pos), false);
+        if (pos >= 0)
+            parseQuery(uri.substring(pos + 1));
+    }
+
+    private void parseQuery(String query) {
+        for (String param : query.split("&")) {
+            if (param.length() == 0)
+                continue;
+            int pos = param.indexOf('=');
+            if (pos < 0)
+                params.put(decode(param, true), "");
+            else
+                params.put(decode(param.substring(0, pos), true),
+                        decode(param.substring(pos + 1), true));
+        }
+    }
+
+    private static String decode(String value, boolean query) {
+        try {
+            if (!query)
+                value = value.replace("+", "%2B");
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            return value; // will not happen
+        }
+    }
+
+    public void addHeader(String line) {
+        int pos = line.indexOf(':');
+        if (pos <= 0)
+            throw new IllegalArgumentException("bad header: " + line);
+        headers.put(line.substring(0, pos).trim().toLowerCase(),
+                line.substring(pos + 1).trim());
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public boolean hasParam(String name) {
+        return params.containsKey(name);
+    }
+
+    public String getParam(String name) {
+        return params.get(name);
+    }
+
+    public long getContentLength() {
+        String length = headers.get("content-length");
+        return length == null ? 0 : Long.parseLong(length);
+    }
+
+    public boolean isChunked() {
+        String encoding = headers.get("transfer-encoding");
+        return encoding != null && encoding.equalsIgnoreCase("chunked");
+    }
+
+    public boolean isAwsChunked() {
+        String encoding = headers.get("content-encoding");
+        String sha256 = headers.get("x-amz-content-sha256");
+        return (encoding != null && encoding.contains("aws-chunked"))
+                || (sha256 != null && sha256.startsWith("STREAMING-"));
+    }
+
+    public boolean isExpectContinue() {
+        String expect = headers.get("expect");
+        return expect != null && expect.equalsIgnoreCase("100-continue");
+    }
+
+    public boolean isKeepAlive() {
+        String connection = headers.get("connection");
+        if (connection != null)
+            return !connection.equalsIgnoreCase("close");
+        return !version.equals("HTTP/1.0");
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public long getBodyLength() {
+        return bodyLength;
+    }
+
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    public void setBody(byte[] body, long length, String digest) {
+        this.body = body;
+        this.bodyLength = length;
+        this.bodyDigest = digest;
+    }
+
+}
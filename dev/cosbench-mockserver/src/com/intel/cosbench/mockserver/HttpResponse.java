@@ -0,0 +1,150 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * This class represents one HTTP response. Its body is either a slice of a byte
+ * array, or a run of zeros standing for content the server did not keep.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class HttpResponse {
+
+    private static final Map<Integer, String> REASONS = new HashMap<Integer, String>();
+
+    static {
+        REASONS.put(100, "Continue");
+        REASONS.put(200, "OK");
+        REASONS.put(201, "Created");
+        REASONS.put(202, "Accepted");
+        REASONS.put(204, "No Content");
+        REASONS.put(206, "Partial Content");
+        REASONS.put(400, "Bad Request");
+        REASONS.put(401, "Unauthorized");
+        REASONS.put(404, "Not Found");
+        REASONS.put(405, "Method Not Allowed");
+        REASONS.put(409, "Conflict");
+        REASONS.put(416, "Requested Range Not Satisfiable");
+        REASONS.put(500, "Internal Server Error");
+    }
+
+    private int status;
+    private Map<String, String> headers = new LinkedHashMap<String, String>();
+
+    private byte[] data;
+    private int offset;
+    private long length;
+    private boolean omitted; // HEAD: announce the length but send no body
+
+    public HttpResponse(int status) {
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpResponse setHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public HttpResponse setBody(byte[] data) {
+        return setBody(data, 0, data.length);
+    }
+
+    public HttpResponse setBody(byte[] data, int offset, long length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    public HttpResponse setBody(String text, String type) {
+        setHeader("Content-Type", type);
+        try {
+            return setBody(text.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException uee) {
+            return setBody(text.getBytes()); // will not happen
+        }
+    }
+
+    public HttpResponse setZeros(long length) {
+        this.data = null;
+        this.offset = 0;
+        this.length = length;
+        return this;
+    }
+
+    public HttpResponse omitBody() {
+        this.omitted = true;
+        return this;
+    }
+
+    public ByteBuffer getHead() {
+        StringBuilder buffer = new StringBuilder(256);
+        String reason = REASONS.get(status);
+        buffer.append("HTTP/1.1 ").append(status).append(' ')
+                .append(reason != null ? reason : "Unknown").append("\r\n");
+        if (status != 100) {
+            buffer.append("Date: ").append(formatDate(new Date()))
+                    .append("\r\n");
+            buffer.append("Content-Length: ").append(length).append("\r\n");
+        }
+        for (Map.Entry<String, String> header : headers.entrySet())
+            buffer.append(header.getKey()).append(": ")
+                    .append(header.getValue()).append("\r\n");
+        buffer.append("\r\n");
+        try {
+            return ByteBuffer.wrap(buffer.toString().getBytes("ISO-8859-1"));
+        } catch (UnsupportedEncodingException uee) {
+            return ByteBuffer.wrap(buffer.toString().getBytes()); // will not happen
+        }
+    }
+
+    /**
+     * @return the body to send, or null when the body is omitted or made of
+     *         zeros
+     */
+    public ByteBuffer getBody() {
+        if (omitted || data == null || length == 0)
+            return null;
+        return ByteBuffer.wrap(data, offset, (int) length);
+    }
+
+    /**
+     * @return how many zeros to send after the head
+     */
+    public long getZeros() {
+        return omitted || data != null ? 0 : length;
+    }
+
+    static String formatDate(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat(
+                "EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(date);
+    }
+
+}
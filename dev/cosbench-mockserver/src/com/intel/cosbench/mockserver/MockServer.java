@@ -0,0 +1,188 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.channels.*;
+
+/**
+ * This class is an embeddable, NIO based stand-in for S3 and Swift object
+ * services, meant to run next to a driver so that the client side ceiling of
+ * each storage adaptor and its HTTP stack can be measured without a cluster.
+ * Swift requests are recognized by their <code>/auth/</code> or
+ * <code>/v1/</code> path, everything else is served as path-style S3.
+ * <p>
+ * With the memory data plane, object content is kept and returned as stored.
+ * With the null data plane, only sizes and digests are kept, and reads return
+ * zeros of the stored length.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+public class MockServer {
+
+    public static final int PORT_DEFAULT = 18080;
+
+    private String host;
+    private int port = PORT_DEFAULT;
+    private int threads = Math.max(1,
+            Runtime.getRuntime().availableProcessors() / 2);
+    private boolean sink;
+
+    private ObjectStore store;
+    private S3Handler s3;
+    private SwiftHandler swift;
+
+    private ServerSocketChannel acceptor;
+    private Reactor[] reactors;
+    private Thread thread;
+
+    public MockServer() {
+        /* empty */
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setSink(boolean sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * @return the port actually bound, useful when started on port 0
+     */
+    public int getPort() {
+        return acceptor != null ? acceptor.socket().getLocalPort() : port;
+    }
+
+    /**
+     * @return the host:port bound, with the name of this host if bound to
+     *         all interfaces
+     */
+    String getAddress() {
+        InetAddress bound = acceptor.socket().getInetAddress();
+        String name = bound.getHostAddress();
+        if (bound.isAnyLocalAddress())
+            try {
+                name = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                name = "localhost";
+            }
+        return name + ":" + getPort();
+    }
+
+    ObjectStore getStore() {
+        return store;
+    }
+
+    HttpResponse handle(HttpRequest request) {
+        if (SwiftHandler.accepts(request.getPath()))
+            return swift.handle(request);
+        return s3.handle(request);
+    }
+
+    public synchronized void start() throws IOException {
+        if (acceptor != null)
+            throw new IllegalStateException("server already started");
+        acceptor = ServerSocketChannel.open();
+        acceptor.socket().setReuseAddress(true);
+        acceptor.socket().bind(
+                host != null ? new InetSocketAddress(host, port)
+                        : new InetSocketAddress(port), 1024);
+        store = new ObjectStore(sink);
+        s3 = new S3Handler(store);
+        swift = new SwiftHandler(store, getAddress());
+        reactors = new Reactor[threads];
+        for (int i = 0; i < threads; i++) {
+            reactors[i] = new Reactor(this);
+            Thread reactor = new Thread(reactors[i], "mockserver-reactor-" + i);
+            reactor.setDaemon(true);
+            reactor.start();
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "mockserver-acceptor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void accept() {
+        int next = 0;
+        try {
+            while (true) {
+                SocketChannel channel = acceptor.accept();
+                reactors[next++ % reactors.length].register(channel);
+            }
+        } catch (IOException ioe) {
+            // acceptor closed
+        }
+    }
+
+    public synchronized void stop() {
+        if (acceptor == null)
+            return;
+        try {
+            acceptor.close();
+        } catch (IOException ioe) {
+            // ignore
+        }
+        for (Reactor reactor : reactors)
+            reactor.stop();
+        acceptor = null;
+        reactors = null;
+        thread = null;
+    }
+
+    /**
+     * Usage: MockServer [-h host] [-p port] [-t threads] [-d memory|null]
+     */
+    public static void main(String[] args) throws Exception {
+        MockServer server = new MockServer();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-h"))
+                server.setHost(args[i + 1]);
+            else if (args[i].equals("-p"))
+                server.setPort(Integer.parseInt(args[i + 1]));
+            else if (args[i].equals("-t"))
+                server.setThreads(Integer.parseInt(args[i + 1]));
+            else if (args[i].equals("-d"))
+                server.setSink(args[i + 1].equals("null"));
+            else
+                throw new IllegalArgumentException("unknown option: " + args[i]);
+        }
+        server.start();
+        System.out.println("mock object server listening on port "
+                + server.getPort() + " (" + server.threads + " threads, "
+                + (server.sink ? "null" : "memory") + " data plane)");
+        Thread.currentThread().join();
+    }
+
+}
@@ -0,0 +1,112 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is the in-memory namespace shared by the S3 and Swift front ends.
+ * Containers map to buckets, and pending multipart uploads are kept aside until
+ * they are completed or aborted.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class ObjectStore {
+
+    private boolean sink; // the null data plane keeps no content
+
+    private ConcurrentMap<String, ConcurrentSkipListMap<String, StoredObject>> containers;
+    private ConcurrentMap<String, ConcurrentSkipListMap<Integer, StoredObject>> uploads;
+    private AtomicLong nextUpload = new AtomicLong(1);
+
+    public ObjectStore(boolean sink) {
+        this.sink = sink;
+        containers = new ConcurrentHashMap<String, ConcurrentSkipListMap<String, StoredObject>>();
+        uploads = new ConcurrentHashMap<String, ConcurrentSkipListMap<Integer, StoredObject>>();
+    }
+
+    public boolean isSink() {
+        return sink;
+    }
+
+    public boolean createContainer(String container) {
+        return containers.putIfAbsent(container,
+                new ConcurrentSkipListMap<String, StoredObject>()) == null;
+    }
+
+    public ConcurrentSkipListMap<String, StoredObject> getContainer(
+            String container) {
+        return containers.get(container);
+    }
+
+    public void removeContainer(String container) {
+        containers.remove(container);
+    }
+
+    public Set<String> getContainerNames() {
+        return new TreeSet<String>(containers.keySet());
+    }
+
+    public StoredObject getObject(String container, String object) {
+        Map<String, StoredObject> objects = containers.get(container);
+        return objects != null ? objects.get(object) : null;
+    }
+
+    public String createUpload() {
+        String id = Long.toHexString(System.nanoTime())
+                + Long.toHexString(nextUpload.getAndIncrement());
+        uploads.put(id, new ConcurrentSkipListMap<Integer, StoredObject>());
+        return id;
+    }
+
+    public ConcurrentSkipListMap<Integer, StoredObject> getUpload(String id) {
+        return uploads.get(id);
+    }
+
+    public void removeUpload(String id) {
+        uploads.remove(id);
+    }
+
+    /**
+     * Concatenates the given parts into one object. Its content is kept only
+     * when every part has kept its content.
+     */
+    public static StoredObject concat(Collection<StoredObject> parts,
+            String etag) {
+        long length = 0;
+        boolean complete = true;
+        for (StoredObject part : parts) {
+            length += part.getLength();
+            complete &= part.getData() != null;
+        }
+        if (!complete || length > Integer.MAX_VALUE)
+            return new StoredObject(null, length, etag);
+        byte[] data = new byte[(int) length];
+        int offset = 0;
+        for (StoredObject part : parts) {
+            System.arraycopy(part.getData(), 0, data, offset,
+                    part.getData().length);
+            offset += part.getData().length;
+        }
+        return new StoredObject(data, length, etag);
+    }
+
+}
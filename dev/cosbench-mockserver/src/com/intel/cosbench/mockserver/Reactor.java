@@ -0,0 +1,113 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.io.IOException;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class runs one selector loop serving the connections handed over by the
+ * acceptor.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class Reactor implements Runnable {
+
+    private MockServer server;
+    private Selector selector;
+    private ConcurrentLinkedQueue<SocketChannel> pending = new ConcurrentLinkedQueue<SocketChannel>();
+    private volatile boolean running = true;
+
+    public Reactor(MockServer server) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    public void register(SocketChannel channel) {
+        pending.add(channel);
+        selector.wakeup();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                registerPending();
+                Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                while (iter.hasNext()) {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+                    serve(key);
+                }
+            }
+        } catch (IOException ioe) {
+            // selector failure, nothing left to serve
+        } finally {
+            for (SelectionKey key : selector.keys())
+                ((Connection) key.attachment()).close();
+            try {
+                selector.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
+        }
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+        while ((channel = pending.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                SelectionKey key = channel.register(selector,
+                        SelectionKey.OP_READ);
+                key.attach(new Connection(server, channel, key));
+            } catch (IOException ioe) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private void serve(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable())
+                connection.onReadable();
+            if (key.isValid() && key.isWritable())
+                connection.onWritable();
+        } catch (IOException ioe) {
+            connection.close();
+        } catch (CancelledKeyException cke) {
+            connection.close();
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class implements the subset of the S3 REST API used by object storage
+ * benchmarks, with path-style addressing: bucket create/head/list/delete,
+ * object put/get/head/delete (including range reads) and multipart uploads.
+ * Request signatures are not verified.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class S3Handler extends AbstractHandler {
+
+    private static final String XML_HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    private static final String XMLNS = " xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"";
+
+    public S3Handler(ObjectStore store) {
+        super(store);
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        String path = request.getPath().substring(1);
+        if (path.length() == 0)
+            return handleService(request);
+        int pos = path.indexOf('/');
+        String bucket = pos < 0 ? path : path.substring(0, pos);
+        String key = pos < 0 ? "" : path.substring(pos + 1);
+        if (key.length() == 0)
+            return handleBucket(request, bucket);
+        return handleObject(request, bucket, key);
+    }
+
+    private HttpResponse handleService(HttpRequest request) {
+        if (!request.getMethod().equals("GET"))
+            return error(405, "MethodNotAllowed", "/");
+        StringBuilder xml = new StringBuilder(XML_HEAD);
+        xml.append("<ListAllMyBucketsResult").append(XMLNS).append(">");
+        xml.append("<Owner><ID>cosbench</ID><DisplayName>cosbench</DisplayName></Owner><Buckets>");
+        for (String name : store.getContainerNames())
+            xml.append("<Bucket><Name>").append(escape(name))
+                    .append("</Name></Bucket>");
+        xml.append("</Buckets></ListAllMyBucketsResult>");
+        return new HttpResponse(200).setBody(xml.toString(), "application/xml");
+    }
+
+    private HttpResponse handleBucket(HttpRequest request, String bucket) {
+        String method = request.getMethod();
+        if (method.equals("PUT")) {
+            store.createContainer(bucket);
+            return new HttpResponse(200).setHeader("Location", "/" + bucket);
+        }
+        ConcurrentSkipListMap<String, StoredObject> objects = store
+                .getContainer(bucket);
+        if (objects == null)
+            return error(404, "NoSuchBucket", bucket);
+        if (method.equals("HEAD"))
+            return new HttpResponse(200);
+        if (method.equals("GET"))
+            return listBucket(request, bucket, objects);
+        if (method.equals("DELETE")) {
+            if (!objects.isEmpty())
+                return error(409, "BucketNotEmpty", bucket);
+            store.removeContainer(bucket);
+            return new HttpResponse(204);
+        }
+        return error(405, "MethodNotAllowed", bucket);
+    }
+
+    private HttpResponse listBucket(HttpRequest request, String bucket,
+            ConcurrentSkipListMap<String, StoredObject> objects) {
+        String prefix = request.getParam("prefix");
+        String marker = request.getParam("marker");
+        int limit = getLimit(request, "max-keys", 1000);
+        List<Map.Entry<String, StoredObject>> entries = listObjects(objects,
+                prefix, marker, limit + 1);
+        boolean truncated = entries.size() > limit;
+        if (truncated)
+            entries = entries.subList(0, limit);
+        StringBuilder xml = new StringBuilder(XML_HEAD);
+        xml.append("<ListBucketResult").append(XMLNS).append(">");
+        xml.append("<Name>").append(escape(bucket)).append("</Name>");
+        xml.append("<Prefix>").append(escape(prefix != null ? prefix : ""))
+                .append("</Prefix>");
+        xml.append("<Marker>").append(escape(marker != null ? marker : ""))
+                .append("</Marker>");
+        xml.append("<MaxKeys>").append(limit).append("</MaxKeys>");
+        xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        for (Map.Entry<String, StoredObject> entry : entries) {
+            StoredObject object = entry.getValue();
+            xml.append("<Contents><Key>").append(escape(entry.getKey()))
+                    .append("</Key>");
+            xml.append("<LastModified>")
+                    .append(formatISO(object.getModified()))
+                    .append("</LastModified>");
+            xml.append("<ETag>&quot;").append(object.getEtag())
+                    .append("&quot;</ETag>");
+            xml.append("<Size>").append(object.getLength()).append("</Size>");
+            xml.append("<StorageClass>STANDARD</StorageClass></Contents>");
+        }
+        xml.append("</ListBucketResult>");
+        return new HttpResponse(200).setBody(xml.toString(), "application/xml");
+    }
+
+    private HttpResponse handleObject(HttpRequest request, String bucket,
+            String key) {
+        String method = request.getMethod();
+        String resource = bucket + "/" + key;
+        ConcurrentSkipListMap<String, StoredObject> objects = store
+                .getContainer(bucket);
+        if (objects == null)
+            return error(404, "NoSuchBucket", resource);
+        if (request.hasParam("uploads") && method.equals("POST"))
+            return initiateUpload(bucket, key);
+        if (request.hasParam("uploadId"))
+            return handleUpload(request, objects, bucket, key);
+        if (method.equals("PUT")) {
+            StoredObject object = receiveObject(request);
+            objects.put(key, object);
+            return new HttpResponse(200).setHeader("ETag",
+                    quote(object.getEtag()));
+        }
+        if (method.equals("GET") || method.equals("HEAD")) {
+            StoredObject object = objects.get(key);
+            if (object == null)
+                return error(404, "NoSuchKey", resource);
+            return sendObject(request, object, quote(object.getEtag()));
+        }
+        if (method.equals("DELETE")) {
+            objects.remove(key);
+            return new HttpResponse(204);
+        }
+        return error(405, "MethodNotAllowed", resource);
+    }
+
+    private HttpResponse initiateUpload(String bucket, String key) {
+        StringBuilder xml = new StringBuilder(XML_HEAD);
+        xml.append("<InitiateMultipartUploadResult").append(XMLNS).append(">");
+        xml.append("<Bucket>").append(escape(bucket)).append("</Bucket>");
+        xml.append("<Key>").append(escape(key)).append("</Key>");
+        xml.append("<UploadId>").append(store.createUpload())
+                .append("</UploadId>");
+        xml.append("</InitiateMultipartUploadResult>");
+        return new HttpResponse(200).setBody(xml.toString(), "application/xml");
+    }
+
+    private HttpResponse handleUpload(HttpRequest request,
+            ConcurrentSkipListMap<String, StoredObject> objects, String bucket,
+            String key) {
+        String method = request.getMethod();
+        String id = request.getParam("uploadId");
+        ConcurrentSkipListMap<Integer, StoredObject> parts = store.getUpload(id);
+        if (parts == null)
+            return error(404, "NoSuchUpload", id);
+        if (method.equals("PUT")) {
+            int number = getLimit(request, "partNumber", 0);
+            if (number < 1 || number > 10000)
+                return error(400, "InvalidArgument", "partNumber");
+            StoredObject part = receiveObject(request);
+            parts.put(number, part);
+            return new HttpResponse(200).setHeader("ETag",
+                    quote(part.getEtag()));
+        }
+        if (method.equals("POST")) {
+            String etag = getMultipartEtag(parts.values());
+            objects.put(key, ObjectStore.concat(parts.values(), etag));
+            store.removeUpload(id);
+            StringBuilder xml = new StringBuilder(XML_HEAD);
+            xml.append("<CompleteMultipartUploadResult").append(XMLNS)
+                    .append(">");
+            xml.append("<Location>/").append(escape(bucket + "/" + key))
+                    .append("</Location>");
+            xml.append("<Bucket>").append(escape(bucket)).append("</Bucket>");
+            xml.append("<Key>").append(escape(key)).append("</Key>");
+            xml.append("<ETag>&quot;").append(etag).append("&quot;</ETag>");
+            xml.append("</CompleteMultipartUploadResult>");
+            return new HttpResponse(200).setBody(xml.toString(),
+                    "application/xml");
+        }
+        if (method.equals("DELETE")) {
+            store.removeUpload(id);
+            return new HttpResponse(204);
+        }
+        return error(405, "MethodNotAllowed", id);
+    }
+
+    /**
+     * S3 tags a multipart object with the MD5 of its part digests followed by
+     * the number of parts.
+     */
+    private static String getMultipartEtag(Collection<StoredObject> parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException(nsae); // will not happen
+        }
+        for (StoredObject part : parts) {
+            String hex = part.getEtag();
+            for (int i = 0; i + 1 < hex.length(); i += 2)
+                digest.update((byte) Integer.parseInt(hex.substring(i, i + 2),
+                        16));
+        }
+        StringBuilder etag = new StringBuilder();
+        for (byte b : digest.digest())
+            etag.append(String.format("%02x", b));
+        return etag.append('-').append(parts.size()).toString();
+    }
+
+    private static String quote(String etag) {
+        return "\"" + etag + "\"";
+    }
+
+    private static HttpResponse error(int status, String code, String resource) {
+        StringBuilder xml = new StringBuilder(XML_HEAD);
+        xml.append("<Error><Code>").append(code).append("</Code>");
+        xml.append("<Message>").append(code).append("</Message>");
+        xml.append("<Resource>").append(escape(resource))
+                .append("</Resource>");
+        xml.append("<RequestId>0</RequestId></Error>");
+        return new HttpResponse(status).setBody(xml.toString(),
+                "application/xml");
+    }
+
+}
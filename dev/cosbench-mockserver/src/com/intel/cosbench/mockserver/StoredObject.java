@@ -0,0 +1,67 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.util.Date;
+
+/**
+ * This class represents one stored object. Its content is null when the server
+ * runs with the null data plane, in which case reads return zeros.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class StoredObject {
+
+    private byte[] data;
+    private long length;
+    private String etag;
+    private Date modified = new Date();
+    private String manifest; // swift dynamic large object prefix
+
+    public StoredObject(byte[] data, long length, String etag) {
+        this.data = data;
+        this.length = length;
+        this.etag = etag;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Date getModified() {
+        return modified;
+    }
+
+    public String getManifest() {
+        return manifest;
+    }
+
+    public void setManifest(String manifest) {
+        this.manifest = manifest;
+    }
+
+}
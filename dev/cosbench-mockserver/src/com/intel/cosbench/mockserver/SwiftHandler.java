@@ -0,0 +1,228 @@
+/** 
+ 
+Copyright 2013 Intel Corporation, All Rights Reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License. 
+*/ 
+
+package com.intel.cosbench.mockserver;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class implements the subset of the Swift API used by object storage
+ * benchmarks: v1.0 style authentication, account and container listings,
+ * container create/head/delete, object put/get/head/delete (including range
+ * reads) and dynamic large objects through <code>X-Object-Manifest</code>.
+ * Tokens are not verified and all accounts share one namespace.
+ * 
+ * @author ywang19, qzheng7
+ * 
+ */
+class SwiftHandler extends AbstractHandler {
+
+    private String address; /* host:port bound, for requests without Host */
+
+    public SwiftHandler(ObjectStore store, String address) {
+        super(store);
+        this.address = address;
+    }
+
+    public static boolean accepts(String path) {
+        return path.startsWith("/auth/") || path.startsWith("/v1/")
+                || path.startsWith("/v1.0/");
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        String path = request.getPath();
+        if (path.startsWith("/auth/"))
+            return authenticate(request);
+        String[] parts = path.substring(1).split("/", 4);
+        if (parts.length < 2 || parts[1].length() == 0)
+            return new HttpResponse(400);
+        if (parts.length == 2)
+            return handleAccount(request);
+        if (parts.length == 3 || parts[3].length() == 0)
+            return handleContainer(request, parts[2]);
+        return handleObject(request, parts[2], parts[3]);
+    }
+
+    private HttpResponse authenticate(HttpRequest request) {
+        String user = request.getHeader("x-auth-user");
+        if (user == null)
+            user = request.getHeader("x-storage-user");
+        if (user == null)
+            return new HttpResponse(401);
+        String account = "AUTH_" + user.replace(':', '_');
+        String token = "AUTH_tk" + Integer.toHexString(user.hashCode());
+        String host = request.getHeader("host");
+        if (host == null || host.length() == 0)
+            host = address;
+        HttpResponse response = new HttpResponse(200);
+        response.setHeader("X-Auth-Token", token);
+        response.setHeader("X-Storage-Token", token);
+        response.setHeader("X-Storage-Url", "http://" + host + "/v1/" + account);
+        return response;
+    }
+
+    private HttpResponse handleAccount(HttpRequest request) {
+        String method = request.getMethod();
+        Set<String> names = store.getContainerNames();
+        if (method.equals("HEAD")) {
+            long bytes = 0;
+            for (String name : names)
+                bytes += getBytesUsed(store.getContainer(name));
+            HttpResponse response = new HttpResponse(204);
+            response.setHeader("X-Account-Container-Count",
+                    String.valueOf(names.size()));
+            response.setHeader("X-Account-Bytes-Used", String.valueOf(bytes));
+            return response;
+        }
+        if (method.equals("GET")) {
+            StringBuilder text = new StringBuilder();
+            for (String name : names)
+                text.append(name).append('\n');
+            if (text.length() == 0)
+                return new HttpResponse(204);
+            return new HttpResponse(200).setBody(text.toString(),
+                    "text/plain; charset=utf-8");
+        }
+        return new HttpResponse(405);
+    }
+
+    private HttpResponse handleContainer(HttpRequest request, String container) {
+        String method = request.getMethod();
+        if (method.equals("PUT"))
+            return new HttpResponse(store.createContainer(container) ? 201 : 202);
+        ConcurrentSkipListMap<String, StoredObject> objects = store
+                .getContainer(container);
+        if (objects == null)
+            return new HttpResponse(404);
+        if (method.equals("HEAD")) {
+            HttpResponse response = new HttpResponse(204);
+            response.setHeader("X-Container-Object-Count",
+                    String.valueOf(objects.size()));
+            response.setHeader("X-Container-Bytes-Used",
+                    String.valueOf(getBytesUsed(objects)));
+            return response;
+        }
+        if (method.equals("GET"))
+            return listContainer(request, objects);
+        if (method.equals("DELETE")) {
+            if (!objects.isEmpty())
+                return new HttpResponse(409);
+            store.removeContainer(container);
+            return new HttpResponse(204);
+        }
+        if (method.equals("POST"))
+            return new HttpResponse(204);
+        return new HttpResponse(405);
+    }
+
+    private HttpResponse listContainer(HttpRequest request,
+            ConcurrentSkipListMap<String, StoredObject> objects) {
+        List<Map.Entry<String, StoredObject>> entries = listObjects(objects,
+                request.getParam("prefix"), request.getParam("marker"),
+                getLimit(request, "limit", 10000));
+        if (entries.isEmpty())
+            return new HttpResponse(204);
+        if ("json".equals(request.getParam("format"))) {
+            StringBuilder json = new StringBuilder("[");
+            for (Map.Entry<String, StoredObject> entry : entries) {
+                StoredObject object = entry.getValue();
+                if (json.length() > 1)
+                    json.append(',');
+                json.append("{\"name\":\"")
+                        .append(entry.getKey().replace("\\", "\\\\")
+                                .replace("\"", "\\\"")).append("\"");
+                json.append(",\"hash\":\"").append(object.getEtag())
+                        .append("\"");
+                json.append(",\"bytes\":").append(object.getLength());
+                json.append(",\"content_type\":\"application/octet-stream\"");
+                json.append(",\"last_modified\":\"")
+                        .append(formatISO(object.getModified())).append("\"}");
+            }
+            json.append(']');
+            return new HttpResponse(200).setBody(json.toString(),
+                    "application/json; charset=utf-8");
+        }
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, StoredObject> entry : entries)
+            text.append(entry.getKey()).append('\n');
+        return new HttpResponse(200).setBody(text.toString(),
+                "text/plain; charset=utf-8");
+    }
+
+    private HttpResponse handleObject(HttpRequest request, String container,
+            String name) {
+        String method = request.getMethod();
+        ConcurrentSkipListMap<String, StoredObject> objects = store
+                .getContainer(container);
+        if (objects == null)
+            return new HttpResponse(404);
+        if (method.equals("PUT")) {
+            StoredObject object = receiveObject(request);
+            object.setManifest(request.getHeader("x-object-manifest"));
+            objects.put(name, object);
+            return new HttpResponse(201).setHeader("ETag", object.getEtag());
+        }
+        StoredObject object = objects.get(name);
+        if (object == null)
+            return new HttpResponse(404);
+        if (method.equals("GET") || method.equals("HEAD")) {
+            if (object.getManifest() != null)
+                object = resolveManifest(object);
+            if (object == null)
+                return new HttpResponse(404);
+            return sendObject(request, object, object.getEtag());
+        }
+        if (method.equals("DELETE")) {
+            objects.remove(name);
+            return new HttpResponse(204);
+        }
+        if (method.equals("POST"))
+            return new HttpResponse(202);
+        return new HttpResponse(405);
+    }
+
+    /**
+     * A dynamic large object is the concatenation of all objects under the
+     * <code>container/prefix</code> named by its manifest, in name order.
+     */
+    private StoredObject resolveManifest(StoredObject manifest) {
+        String value = manifest.getManifest();
+        int pos = value.indexOf('/');
+        if (pos <= 0)
+            return null;
+        ConcurrentSkipListMap<String, StoredObject> segments = store
+                .getContainer(value.substring(0, pos));
+        if (segments == null)
+            return null;
+        List<StoredObject> parts = new ArrayList<StoredObject>();
+        for (Map.Entry<String, StoredObject> entry : listObjects(segments,
+                value.substring(pos + 1), null, Integer.MAX_VALUE))
+            parts.add(entry.getValue());
+        return ObjectStore.concat(parts, "\"" + manifest.getEtag() + "\"");
+    }
+
+    private static long getBytesUsed(Map<String, StoredObject> objects) {
+        long bytes = 0;
+        if (objects != null)
+            for (StoredObject object : objects.values())
+                bytes += object.getLength();
+        return bytes;
+    }
+
+}
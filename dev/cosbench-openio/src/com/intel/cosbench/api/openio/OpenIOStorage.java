@@ -50,8 +50,8 @@ public class OpenIOStorage extends NoneStorage {
     }
 
     /**
-     * Hack the exception message to put the error code where COSBench expects
-     * it.
+     * Wrap the exception with the HTTP-like status code COSBench classifies
+     * errors by.
      *
      * @param wrapped
      *            The exception to wrap
@@ -61,14 +61,14 @@ public class OpenIOStorage extends NoneStorage {
         String origMsg = wrapped.getMessage();
         if (wrapped instanceof ContainerNotEmptyException
                 || wrapped instanceof ContainerExistException)
-            return new StorageException("HTTP/1.1 409 " + origMsg, wrapped);
+            return new StorageException(409, origMsg, wrapped);
 
         Matcher codeMatcher = errCodePattern.matcher(origMsg);
         if (codeMatcher.find()) {
-            return new StorageException("HTTP/1.1 " + codeMatcher.group(1)
-                    + " " + origMsg, wrapped);
+            return new StorageException(
+                    Integer.parseInt(codeMatcher.group(1)), origMsg, wrapped);
         }
-        return new StorageException("HTTP/1.1 500 " + origMsg, wrapped);
+        return new StorageException(500, origMsg, wrapped);
     }
 
     @Override
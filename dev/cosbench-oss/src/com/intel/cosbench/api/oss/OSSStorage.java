@@ -107,7 +107,7 @@ public class OSSStorage extends NoneStorage {
 			OSSObject ossObject = ossClient.getObject(container, object);
 			stream = ossObject.getObjectContent();
 		} catch (OSSException ossExce) {
-			throw new StorageException("error message:" + ossExce.getErrorMessage(), ossExce);
+			throw new StorageException(toStatus(ossExce), "error message:" + ossExce.getErrorMessage(), ossExce);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -122,7 +122,7 @@ public class OSSStorage extends NoneStorage {
 				ossClient.createBucket(container);
 			}
 		} catch (OSSException ossExce) {
-			throw new StorageException(ossExce.getErrorMessage(), ossExce);
+			throw new StorageException(toStatus(ossExce), ossExce.getErrorMessage(), ossExce);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -137,7 +137,7 @@ public class OSSStorage extends NoneStorage {
 			metadata.setContentType("application/octet-stream");
 			ossClient.putObject(container, object, data, metadata);
 		} catch (OSSException ossExce) {
-			throw new StorageException(ossExce.getErrorMessage(), ossExce);
+			throw new StorageException(toStatus(ossExce), ossExce.getErrorMessage(), ossExce);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -151,7 +151,7 @@ public class OSSStorage extends NoneStorage {
 				ossClient.deleteBucket(container);
 			}
 		} catch (OSSException ossExce) {
-			throw new StorageException(ossExce.getErrorMessage(), ossExce);
+			throw new StorageException(toStatus(ossExce), ossExce.getErrorMessage(), ossExce);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -163,9 +163,23 @@ public class OSSStorage extends NoneStorage {
 		try {
 			ossClient.deleteObject(container, object);
 		} catch (OSSException ossExce) {
-			throw new StorageException(ossExce.getErrorMessage(), ossExce);
+			throw new StorageException(toStatus(ossExce), ossExce.getErrorMessage(), ossExce);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
 	}
+
+	/**
+	 * Map the OSS error code to the HTTP status it is returned with.
+	 */
+	private static int toStatus(OSSException ossExce) {
+		String code = ossExce.getErrorCode();
+		if ("NoSuchKey".equals(code) || "NoSuchBucket".equals(code))
+			return 404;
+		if ("AccessDenied".equals(code))
+			return 403;
+		if ("BucketNotEmpty".equals(code) || "BucketAlreadyExists".equals(code))
+			return 409;
+		return 0;
+	}
 }
@@ -106,6 +106,8 @@ public class S3Storage extends NoneStorage {
             S3Object s3Obj = client.getObject(container, object);
             stream = s3Obj.getObjectContent();
             
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -120,6 +122,8 @@ public class S3Storage extends NoneStorage {
 	        	
 	            client.createBucket(container);
         	}
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -135,6 +139,8 @@ public class S3Storage extends NoneStorage {
     		metadata.setContentType("application/octet-stream");
     		
         	client.putObject(container, object, data, metadata);
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -149,8 +155,10 @@ public class S3Storage extends NoneStorage {
         	}
         } catch(AmazonS3Exception awse) {
         	if(awse.getStatusCode() != HttpStatus.SC_NOT_FOUND) {
-        		throw new StorageException(awse);
+        		throw new StorageException(awse.getStatusCode(), awse.getMessage(), awse);
         	}
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -163,8 +171,10 @@ public class S3Storage extends NoneStorage {
             client.deleteObject(container, object);
         } catch(AmazonS3Exception awse) {
         	if(awse.getStatusCode() != HttpStatus.SC_NOT_FOUND) {
-        		throw new StorageException(awse);
+        		throw new StorageException(awse.getStatusCode(), awse.getMessage(), awse);
         	}
+        } catch (AmazonServiceException ase) {
+            throw new StorageException(ase.getStatusCode(), ase.getMessage(), ase);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -151,7 +151,7 @@ public class SproxydStorage extends NoneStorage {
 			throw new StorageInterruptedException(ie);
 		} catch (SproxydClientException se) {
 			String msg = se.getMessage();//se.getHttpStatusLine().toString();
-			throw new StorageException(msg, se);
+			throw new StorageException(se.getStatusCode(), msg, se);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -169,7 +169,7 @@ public class SproxydStorage extends NoneStorage {
 			throw new StorageInterruptedException(ie);
 		} catch (SproxydClientException se) {
 			String msg = se.getMessage();//se.getHttpStatusLine().toString();
-			throw new StorageException(msg, se);
+			throw new StorageException(se.getStatusCode(), msg, se);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -187,7 +187,7 @@ public class SproxydStorage extends NoneStorage {
 			throw new StorageInterruptedException(ie);
 		} catch (SproxydClientException se) {
 			String msg = se.getMessage();//se.getHttpStatusLine().toString();
-			throw new StorageException(msg, se);
+			throw new StorageException(se.getStatusCode(), msg, se);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -204,7 +204,7 @@ public class SproxydStorage extends NoneStorage {
 			throw new StorageInterruptedException(ie);
 		} catch (SproxydClientException se) {
 			String msg = se.getMessage();//se.getHttpStatusLine().toString();
-			throw new StorageException(msg, se);
+			throw new StorageException(se.getStatusCode(), msg, se);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -221,7 +221,7 @@ public class SproxydStorage extends NoneStorage {
 			throw new StorageInterruptedException(ie);
 		} catch (SproxydClientException se) {
 			String msg = se.getHttpStatusLine().toString();
-			throw new StorageException(msg, se);
+			throw new StorageException(se.getStatusCode(), msg, se);
 		} catch (Exception e) {
 			throw new StorageException(e);
 		}
@@ -102,7 +102,7 @@ class SwiftAuth extends NoneAuth {
         try {
             client.login();
         } catch (SwiftAuthClientException se) {
-            throw new AuthTimeoutException(se);
+            throw new AuthException(se.getStatusCode(), se.getMessage(), se);
         } catch (Exception e) {
             throw new AuthException(e);
         }
@@ -32,7 +32,7 @@ public class SwiftTokenCacheImpl {
 		} catch (InterruptedIOException ie) {
 		    throw new AuthInterruptedException(ie);
 		} catch (SwiftAuthClientException se) {
-		    throw new AuthException(se.getMessage(), se);
+		    throw new AuthException(se.getStatusCode(), se.getMessage(), se);
 		} catch (Exception e) {
 		    throw new AuthException(e);
 		}
@@ -138,7 +138,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -159,7 +159,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -180,7 +180,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -200,7 +200,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -220,7 +220,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -240,7 +240,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -259,7 +259,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -279,7 +279,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
@@ -299,7 +299,7 @@ class SwiftStorage extends NoneStorage {
             throw new StorageInterruptedException(ie);
         } catch (SwiftException se) {
             String msg = se.getHttpStatusLine().toString();
-            throw new StorageException(msg, se);
+            throw new StorageException(se.getHttpStatusLine().getStatusCode(), msg, se);
         } catch (Exception e) {
             throw new StorageException(e);
         }
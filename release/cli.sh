@@ -21,11 +21,13 @@ password=""
 usage()
 {
         echo
-        echo "Usage: $0 <action: submit|cancel|info> <parameter> <web username:password@ip:port>"
+        echo "Usage: $0 <action: submit|cancel|info|compare> <parameter> <web username:password@ip:port>"
         echo "  - action:"
         echo "          - <submit> <configuration file>: submit configuration and start workload"
         echo "          - <cancel> <workload id>: cancel workload"
         echo "          - <info>: check status"
+        echo "          - <compare> <base id> <workload ids> [threshold]: compare workloads, comma separated, with the base"
+        echo "                    and exit with 2 if any metric regresses beyond the threshold, 0.05 by default"
         echo "  - <web username:password@ip:port> anonymous:cosbench@127.0.0.1:19088 by default"
         echo
 }
@@ -83,6 +85,25 @@ case $action in
                 fi
                 curl -d id=$2 "http://${address}/controller/cli/cancel.action?username=${username}&password=${password}"
                 ;;
+        "compare")
+                threshold=""
+                info=$4
+                if [[ "$4" =~ ^[0-9]*\.?[0-9]+$ ]]; then
+                        threshold=$4
+                        info=$5
+                fi
+                if [ -n "${info}" ]; then
+			check
+                fi
+                result=`curl -s "http://${address}/controller/cli/compare.action?base=$2&ids=$3&threshold=${threshold}&username=${username}&password=${password}"`
+                echo "${result}"
+                if [[ "${result}" != Base,* ]]; then
+                        exit 1
+                fi
+                if echo "${result}" | grep -q ",regression$"; then
+                        exit 2
+                fi
+                ;;
         *)
                 echo "!!!Unknown action: $action"
                 usage
@@ -0,0 +1,37 @@
+#!/bin/bash
+#
+#Copyright 2013 Intel Corporation, All Rights Reserved.
+#
+#Licensed under the Apache License, Version 2.0 (the "License");
+#you may not use this file except in compliance with the License.
+#You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+#Unless required by applicable law or agreed to in writing, software
+#distributed under the License is distributed on an "AS IS" BASIS,
+#WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+#See the License for the specific language governing permissions and
+#limitations under the License.
+#
+
+#-------------------------------
+# COSBENCH MOCK OBJECT SERVER STARTER
+#-------------------------------
+#
+# Usage: start-mockserver.sh [-h host] [-p port] [-t threads] [-d memory|null]
+#
+# Serves path-style S3 (e.g. endpoint=http://127.0.0.1:18080;path_style_access=true)
+# and Swift (auth_url=http://127.0.0.1:18080/auth/v1.0) on the same port.
+
+VERSION=`cat VERSION`
+
+BOOT_LOG=log/mockserver-boot.log
+
+mkdir -p log
+
+/usr/bin/nohup java -server -cp osgi/plugins/cosbench-mockserver_${VERSION}.jar com.intel.cosbench.mockserver.MockServer "$@" 1> $BOOT_LOG 2>&1 &
+
+sleep 1
+
+cat $BOOT_LOG